@@ -0,0 +1,67 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.benchmark;
+
+import org.junithelper.benchmark.SourceCorpus.Size;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.extractor.ClassMetaExtractor;
+import org.junithelper.core.generator.LineBreakProvider;
+import org.junithelper.core.generator.TestCaseGenerator;
+import org.junithelper.core.generator.TestCaseGeneratorFactory;
+import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.meta.CurrentLineBreak;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Prepared inputs for a generated class of each size.
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+
+    @Param({ "small", "medium", "large" })
+    public Size size;
+
+    public Configuration config;
+
+    public String sourceCodeString;
+
+    public ClassMeta classMeta;
+
+    /**
+     * The test case which lacks the latter half of the test methods
+     */
+    public String currentTestCaseSourceCode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = new Configuration();
+        sourceCodeString = SourceCorpus.generate(size);
+        classMeta = new ClassMetaExtractor(config).extract(sourceCodeString);
+        String halfSourceCodeString = SourceCorpus.generate(SourceCorpus.getClassName(size), size.methodCount / 2);
+        currentTestCaseSourceCode = createTestCaseGenerator().initialize(halfSourceCodeString)
+                .getNewTestCaseSourceCode();
+    }
+
+    public TestCaseGenerator createTestCaseGenerator() {
+        LineBreakProvider lineBreakProvider = new LineBreakProvider(config, CurrentLineBreak.CRLF);
+        return TestCaseGeneratorFactory.create(config, lineBreakProvider);
+    }
+
+}
@@ -0,0 +1,51 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junithelper.core.extractor.ClassMetaExtractor;
+import org.junithelper.core.extractor.MethodMetaExtractor;
+import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.meta.MethodMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractorBenchmark {
+
+    @Benchmark
+    public ClassMeta classMetaExtractor_extract(CorpusState state) {
+        return new ClassMetaExtractor(state.config).extract(state.sourceCodeString);
+    }
+
+    @Benchmark
+    public List<MethodMeta> methodMetaExtractor_extract(CorpusState state) {
+        return new MethodMetaExtractor(state.config).initialize(state.classMeta, state.sourceCodeString).extract(
+                state.sourceCodeString);
+    }
+
+}
@@ -0,0 +1,129 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.benchmark;
+
+/**
+ * Generates Java source code used as benchmark inputs.
+ */
+public class SourceCorpus {
+
+    public static final String PACKAGE_NAME = "org.junithelper.benchmark.corpus";
+
+    /**
+     * The number of methods of each class size
+     */
+    public enum Size {
+
+        small(5), medium(50), large(1000);
+
+        public final int methodCount;
+
+        private Size(int methodCount) {
+            this.methodCount = methodCount;
+        }
+
+    }
+
+    private SourceCorpus() {
+    }
+
+    public static String getClassName(Size size) {
+        return "Generated" + size.name().substring(0, 1).toUpperCase() + size.name().substring(1);
+    }
+
+    public static String generate(Size size) {
+        return generate(getClassName(size), size.methodCount);
+    }
+
+    /**
+     * Generates a class which has the specified number of methods.<br>
+     * The methods are generated in the same order, so a smaller class is
+     * always a subset of a larger one with the same name.
+     */
+    public static String generate(String className, int methodCount) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(PACKAGE_NAME).append(";\r\n\r\n");
+        sb.append("import java.io.File;\r\n");
+        sb.append("import java.io.IOException;\r\n");
+        sb.append("import java.io.InputStream;\r\n");
+        sb.append("import java.util.List;\r\n");
+        sb.append("import java.util.Map;\r\n");
+        sb.append("import java.util.concurrent.Callable;\r\n\r\n");
+        sb.append("/**\r\n * Generated class for benchmarks {@link ").append(className).append("}\r\n */\r\n");
+        sb.append("public class ").append(className).append(" {\r\n\r\n");
+        int fieldCount = Math.max(1, methodCount / 10);
+        for (int i = 0; i < fieldCount; i++) {
+            sb.append("    private String name").append(i).append(" = \"{name").append(i).append("}\";\r\n\r\n");
+        }
+        sb.append("    public ").append(className).append("(String name0) {\r\n");
+        sb.append("        this.name0 = name0;\r\n");
+        sb.append("    }\r\n\r\n");
+        for (int i = 0; i < methodCount; i++) {
+            appendMethod(sb, i);
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            sb.append("    public String getName").append(i).append("() {\r\n");
+            sb.append("        return name").append(i).append(";\r\n");
+            sb.append("    }\r\n\r\n");
+            sb.append("    public void setName").append(i).append("(String name").append(i).append(") {\r\n");
+            sb.append("        this.name").append(i).append(" = name").append(i).append(";\r\n");
+            sb.append("    }\r\n\r\n");
+        }
+        sb.append("}\r\n");
+        return sb.toString();
+    }
+
+    static void appendMethod(StringBuilder sb, int index) {
+        sb.append("    // method ").append(index).append(" { with braces in a comment }\r\n");
+        switch (index % 5) {
+        case 0:
+            sb.append("    public String doSomething").append(index).append("(String str, int count) {\r\n");
+            sb.append("        if (count > 0) {\r\n");
+            sb.append("            return str + \"}{\";\r\n");
+            sb.append("        }\r\n");
+            sb.append("        return null;\r\n");
+            break;
+        case 1:
+            sb.append("    protected List<Map<String, Object>> find").append(index)
+                    .append("(Map<String, List<String>> condition, Object... args) throws IOException {\r\n");
+            sb.append("        /* block comment { */\r\n");
+            sb.append("        return null;\r\n");
+            break;
+        case 2:
+            sb.append("    static long[] calculate").append(index).append("(long[] values, double rate) {\r\n");
+            sb.append("        for (int i = 0; i < values.length; i++) {\r\n");
+            sb.append("            values[i] = (long) (values[i] * rate);\r\n");
+            sb.append("        }\r\n");
+            sb.append("        return values;\r\n");
+            break;
+        case 3:
+            sb.append("    public Callable<String> newTask").append(index).append("(final File file) {\r\n");
+            sb.append("        return new Callable<String>() {\r\n");
+            sb.append("            public String call() throws Exception {\r\n");
+            sb.append("                return file.getName();\r\n");
+            sb.append("            }\r\n");
+            sb.append("        };\r\n");
+            break;
+        default:
+            sb.append("    public void read").append(index)
+                    .append("(InputStream is, java.util.Set<java.math.BigDecimal> decimals) throws IOException, InterruptedException {\r\n");
+            sb.append("        char c = '{';\r\n");
+            break;
+        }
+        sb.append("    }\r\n\r\n");
+    }
+
+}
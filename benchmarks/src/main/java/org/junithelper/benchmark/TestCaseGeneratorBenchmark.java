@@ -0,0 +1,68 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junithelper.core.extractor.ClassMetaCache;
+import org.junithelper.core.meta.ClassMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestCaseGeneratorBenchmark {
+
+    /**
+     * The generator appends required imports to the ClassMeta, so each
+     * invocation gets a copy of the one extracted once for the trial.
+     */
+    @State(Scope.Thread)
+    public static class Target {
+
+        public ClassMeta classMeta;
+
+        @Setup(Level.Invocation)
+        public void setUp(CorpusState state) {
+            classMeta = ClassMetaCache.copy(state.classMeta);
+        }
+
+    }
+
+    @Benchmark
+    public String getNewTestCaseSourceCode(CorpusState state, Target target) {
+        return state.createTestCaseGenerator().initialize(target.classMeta).getNewTestCaseSourceCode();
+    }
+
+    @Benchmark
+    public String getTestCaseSourceCodeWithLackingTestMethod(CorpusState state, Target target) {
+        return state.createTestCaseGenerator().initialize(target.classMeta)
+                .getTestCaseSourceCodeWithLackingTestMethod(state.currentTestCaseSourceCode);
+    }
+
+}
@@ -0,0 +1,53 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junithelper.core.extractor.TypeNameConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeNameConverterBenchmark {
+
+    /**
+     * Type names which appear in the generated classes
+     */
+    static final String[] TYPE_NAMES = new String[] { "String", "int", "Object", "List", "Map", "File",
+            "InputStream", "IOException", "Callable", "long[]", "java.util.Set", "java.math.BigDecimal",
+            SourceCorpus.getClassName(SourceCorpus.Size.small), "NotExistingType" };
+
+    @Benchmark
+    public void toCompilableType(CorpusState state, Blackhole blackhole) {
+        TypeNameConverter converter = new TypeNameConverter(state.config);
+        for (String typeName : TYPE_NAMES) {
+            blackhole.consume(converter.toCompilableType(typeName, state.classMeta.importedList,
+                    state.classMeta.packageName));
+        }
+    }
+
+}
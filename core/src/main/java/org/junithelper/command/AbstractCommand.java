@@ -17,38 +17,35 @@ package org.junithelper.command;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FileFilter;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.io.IOUtils;
 import org.junithelper.core.config.Configuration;
-import org.junithelper.core.config.ConfigurationLoader;
 import org.junithelper.core.config.LineBreakPolicy;
-import org.junithelper.core.config.extension.ExtConfigurationLoader;
 import org.junithelper.core.constant.RegExp;
 import org.junithelper.core.constant.StringValue;
-import org.junithelper.core.extractor.ClassMetaExtractor;
-import org.junithelper.core.file.FileSearcher;
 import org.junithelper.core.file.FileSearcherFactory;
+import org.junithelper.core.file.FilteringFileSearcher;
 import org.junithelper.core.meta.ClassMeta;
-import org.junithelper.core.util.IOUtil;
+import org.junithelper.core.util.Stderr;
 import org.junithelper.core.util.Stdout;
-import org.junithelper.core.util.UniversalDetectorUtil;
 
 public abstract class AbstractCommand {
 
     protected static Configuration getUpdatedConfig(Configuration config) throws Exception {
         String configFile = System.getProperty("junithelper.configProperties");
         if (configFile != null) {
-            config = new ConfigurationLoader().load(configFile);
+            config = ConfigurationCache.getInstance().getConfiguration(configFile);
         }
         String extensionConfig = System.getProperty("junithelper.extensionConfigXML");
         if (extensionConfig != null) {
-            config.extConfiguration = new ExtConfigurationLoader().load(extensionConfig);
+            config.extConfiguration = ConfigurationCache.getInstance().getExtConfiguration(extensionConfig);
         } else if (new File(config.extensionConfigXML).exists()) {
-            config.extConfiguration = new ExtConfigurationLoader().load(config.extensionConfigXML);
+            config.extConfiguration = ConfigurationCache.getInstance().getExtConfiguration(config.extensionConfigXML);
         }
         return config;
     }
@@ -62,6 +59,70 @@ public abstract class AbstractCommand {
         }
     }
 
+    protected static boolean isIncremental() {
+        return Boolean.valueOf(System.getProperty("junithelper.incremental"));
+    }
+
+    protected static File getManifestFile() {
+        String value = System.getProperty("junithelper.manifest");
+        return new File(value != null ? value : MakeManifest.DEFAULT_FILE_PATH);
+    }
+
+    protected static int getThreads() {
+        String value = System.getProperty("junithelper.threads");
+        if (value == null || value.trim().length() == 0) {
+            return 1;
+        }
+        try {
+            int threads = Integer.valueOf(value.trim());
+            return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        } catch (NumberFormatException e) {
+            Stderr.p("Invalid junithelper.threads value : " + value);
+            return 1;
+        }
+    }
+
+    /**
+     * @return the budget to make a test for a file, 0 if not limited
+     */
+    protected static long getTimeoutPerFile() {
+        String value = System.getProperty("junithelper.timeoutPerFile");
+        if (value == null || value.trim().length() == 0) {
+            return MakeTestCommand.DEFAULT_TIMEOUT_MILLIS_PER_FILE;
+        }
+        try {
+            long timeout = Long.valueOf(value.trim());
+            return timeout > 0 ? timeout : 0L;
+        } catch (NumberFormatException e) {
+            Stderr.p("Invalid junithelper.timeoutPerFile value : " + value);
+            return MakeTestCommand.DEFAULT_TIMEOUT_MILLIS_PER_FILE;
+        }
+    }
+
+    protected static int getDaemonPort() {
+        return getDaemonPort(System.getProperty("junithelper.daemonPort"), "junithelper.daemonPort");
+    }
+
+    /**
+     * @param name the name of the option which is shown if the value is
+     *            invalid
+     * @return the default port if the value is not specified or invalid
+     */
+    protected static int getDaemonPort(String value, String name) {
+        if (value == null || value.trim().length() == 0) {
+            return DaemonCommand.DEFAULT_PORT;
+        }
+        try {
+            int port = Integer.valueOf(value.trim());
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+        }
+        Stderr.p("Invalid " + name + " value : " + value);
+        return DaemonCommand.DEFAULT_PORT;
+    }
+
     protected static int confirmToExecute() {
         if (skipConfirming()) {
             return 0;
@@ -87,32 +148,105 @@ public abstract class AbstractCommand {
         return 0;
     }
 
-    protected static List<File> findTargets(Configuration config, String dirOrFile) throws Exception {
+    protected static List<TargetFile> findTargets(Configuration config, String dirOrFile) throws Exception {
+        return findTargets(config, dirOrFile, null);
+    }
+
+    /**
+     * @param manifest files which are not changed since the last run are
+     *            excluded if not null
+     */
+    protected static List<TargetFile> findTargets(Configuration config, String dirOrFile, MakeManifest manifest)
+            throws Exception {
+        return findTargets(ConfigurationSnapshot.of(config), dirOrFile, manifest);
+    }
+
+    /**
+     * @param manifest files which are not changed since the last run are
+     *            excluded if not null
+     */
+    protected static List<TargetFile> findTargets(ConfigurationSnapshot snapshot, String dirOrFile,
+            MakeManifest manifest) throws Exception {
+        return findTargets(snapshot, dirOrFile, manifest, false);
+    }
+
+    /**
+     * @param manifest files which are not changed since the last run are
+     *            excluded if not null
+     * @param isExclusionRequired if true, the files which match the regexp
+     *            list for exclusion are excluded without being read, and the
+     *            directories whose classes are all excluded are not searched
+     */
+    protected static List<TargetFile> findTargets(ConfigurationSnapshot snapshot, String dirOrFile,
+            MakeManifest manifest, boolean isExclusionRequired) throws Exception {
+        Configuration config = snapshot.getConfiguration();
         dirOrFile = dirOrFile.replaceAll("\\\\", "/");
-        List<File> dest = new ArrayList<File>();
-        ClassMetaExtractor extractor = new ClassMetaExtractor(config);
-        if (dirOrFile.matches(".+\\.java$")) {
+        List<TargetFile> dest = new ArrayList<TargetFile>();
+        if (isJavaFile(dirOrFile)) {
             File file = new File(dirOrFile);
-            String encoding = UniversalDetectorUtil.getDetectedEncoding(file);
-            ClassMeta classMeta = extractor.extract(IOUtil.readAsString(new FileInputStream(file), encoding));
-            if (!classMeta.isAbstract) {
-                dest.add(file);
+            if (isExclusionRequired && snapshot.isExcluded(file)) {
+                return dest;
+            }
+            TargetFile target = readTarget(snapshot, config, file, manifest, false);
+            if (target != null) {
+                dest.add(target);
             }
         } else {
-            List<File> javaFiles = new ArrayList<File>();
-            FileSearcher fileSearcher = FileSearcherFactory.create();
-            javaFiles = fileSearcher.searchFilesRecursivelyByName(dirOrFile, RegExp.FileExtension.JavaFile);
+            FileFilter directoryFilter = isExclusionRequired ? getDirectoryFilter(snapshot) : null;
+            FilteringFileSearcher fileSearcher = FileSearcherFactory.create(config);
+            List<File> javaFiles = fileSearcher.searchFilesRecursivelyByName(dirOrFile, RegExp.FileExtension.JavaFile,
+                    directoryFilter);
             for (File file : javaFiles) {
-                String encoding = UniversalDetectorUtil.getDetectedEncoding(file);
-                ClassMeta classMeta = extractor.extract(IOUtil.readAsString(new FileInputStream(file), encoding));
-                if (!classMeta.name.matches(".*Test$") && !classMeta.isAbstract) {
-                    dest.add(file);
+                if (isExclusionRequired && snapshot.isExcluded(file)) {
+                    continue;
+                }
+                TargetFile target = readTarget(snapshot, config, file, manifest, true);
+                if (target != null) {
+                    dest.add(target);
                 }
             }
         }
         return dest;
     }
 
+    protected static boolean isJavaFile(String dirOrFile) {
+        return dirOrFile.matches(".+\\.java$");
+    }
+
+    /**
+     * @return the filter which rejects the directories whose classes are all
+     *         excluded
+     */
+    protected static FileFilter getDirectoryFilter(final ConfigurationSnapshot snapshot) {
+        return new FileFilter() {
+            public boolean accept(File dir) {
+                return !snapshot.isExcludedDirectory(dir);
+            }
+        };
+    }
+
+    /**
+     * @param isTestClassExcluded if true, the classes whose names end with
+     *            "Test" are not targets
+     * @return null if the file is not a target
+     */
+    protected static TargetFile readTarget(ConfigurationSnapshot snapshot, Configuration config, File file,
+            MakeManifest manifest, boolean isTestClassExcluded) throws IOException {
+        TargetFile target = TargetFile.read(file);
+        if (manifest != null && manifest.isUpToDate(target, snapshot.getTestFile(file))) {
+            return null;
+        }
+        // abstract classes and interfaces are detected without extracting methods
+        ClassMeta classMeta = target.getHeaderClassMeta(config);
+        if ((!isTestClassExcluded || !classMeta.name.matches(".*Test$")) && !classMeta.isAbstract) {
+            return target;
+        }
+        if (manifest != null) {
+            manifest.putNotTarget(target);
+        }
+        return null;
+    }
+
     protected static String getDirectoryPathOfProductSourceCode(Configuration config) {
         return "/" + config.directoryPathOfProductSourceCode.replaceFirst("^/", "").replaceFirst("/$", "") + "/";
     }
@@ -55,6 +55,18 @@ public class CommandLine {
                     String baseDir = args[1];
                     ForceJUnitVersion4Command.main(new String[] { baseDir });
                 }
+            } else if (command.equals("watch")) {
+                WatchCommand.main(args.length < 2 ? new String[] {} : new String[] { args[1] });
+            } else if (command.equals("daemon")) {
+                DaemonCommand.main(args.length < 2 ? new String[] {} : new String[] { args[1] });
+            } else if (command.equals("client")) {
+                if (args.length < 2) {
+                    Stdout.p("  junithelper client [make/force3/force4/status/shutdown] [baseDir/targetJavaFile]");
+                } else {
+                    String[] clientArgs = new String[args.length - 1];
+                    System.arraycopy(args, 1, clientArgs, 0, clientArgs.length);
+                    DaemonClient.main(clientArgs);
+                }
             } else {
                 Stdout.p("-- Invalid command or parameter.");
             }
@@ -69,9 +81,18 @@ public class CommandLine {
             Stdout.p("  junithelper make [baseDir/targetJavaFile]");
             Stdout.p("  junithelper force3 [baseDir/targetJavaFile]");
             Stdout.p("  junithelper force4 [baseDir/targetJavaFile]");
+            Stdout.p("  junithelper watch [baseDir]");
+            Stdout.p("  junithelper daemon [port]");
+            Stdout.p("  junithelper client [make/force3/force4/status/shutdown] [baseDir/targetJavaFile]");
             Stdout.p("");
             Stdout.p("JVM Options:");
             Stdout.p("  -Djunithelper.configProperties=[filepath]");
+            Stdout.p("  -Djunithelper.threads=[number]");
+            Stdout.p("  -Djunithelper.incremental=[true/false]");
+            Stdout.p("  -Djunithelper.manifest=[filepath]");
+            Stdout.p("  -Djunithelper.daemonPort=[port]");
+            Stdout.p("  -Djunithelper.watchInterval=[milliseconds]");
+            Stdout.p("  -Djunithelper.timeoutPerFile=[milliseconds]");
             Stdout.p("");
 
         }
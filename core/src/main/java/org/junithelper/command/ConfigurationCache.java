@@ -0,0 +1,107 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.command;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.config.ConfigurationLoader;
+import org.junithelper.core.config.extension.ExtConfiguration;
+import org.junithelper.core.config.extension.ExtConfigurationLoader;
+import org.junithelper.core.util.Assertion;
+
+/**
+ * Loaded configuration files which are reused until the files are modified.<br>
+ * A long-running process such as the daemon command loads each
+ * configuration file only once.
+ */
+class ConfigurationCache {
+
+    private static final ConfigurationCache INSTANCE = new ConfigurationCache();
+
+    static ConfigurationCache getInstance() {
+        return INSTANCE;
+    }
+
+    // -----------------
+
+    private final Map<String, Entry<Configuration>> configurations = new HashMap<String, Entry<Configuration>>();
+
+    private final Map<String, Entry<ExtConfiguration>> extensions = new HashMap<String, Entry<ExtConfiguration>>();
+
+    private static class Entry<T> {
+
+        final long lastModified;
+
+        final long length;
+
+        final T loaded;
+
+        Entry(File file, T loaded) {
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.loaded = loaded;
+        }
+
+        boolean isUpToDate(File file) {
+            return lastModified == file.lastModified() && length == file.length();
+        }
+
+    }
+
+    /**
+     * @return a copy of the loaded configuration, callers can modify it
+     */
+    synchronized Configuration getConfiguration(String filepath) throws Exception {
+        Assertion.on("filepath").mustNotBeNull(filepath);
+        File file = new File(filepath);
+        String key = file.getAbsolutePath();
+        Entry<Configuration> entry = configurations.get(key);
+        if (entry == null || !entry.isUpToDate(file)) {
+            entry = new Entry<Configuration>(file, new ConfigurationLoader().load(filepath));
+            configurations.put(key, entry);
+        }
+        return entry.loaded.copy();
+    }
+
+    /**
+     * @return the loaded extension configuration, which is shared and should
+     *         not be modified
+     */
+    synchronized ExtConfiguration getExtConfiguration(String filepath) throws Exception {
+        Assertion.on("filepath").mustNotBeNull(filepath);
+        File file = new File(filepath);
+        String key = file.getAbsolutePath();
+        Entry<ExtConfiguration> entry = extensions.get(key);
+        if (entry == null || !entry.isUpToDate(file)) {
+            entry = new Entry<ExtConfiguration>(file, new ExtConfigurationLoader().load(filepath));
+            extensions.put(key, entry);
+        }
+        return entry.loaded;
+    }
+
+    synchronized int size() {
+        return configurations.size() + extensions.size();
+    }
+
+    synchronized void clear() {
+        configurations.clear();
+        extensions.clear();
+    }
+
+}
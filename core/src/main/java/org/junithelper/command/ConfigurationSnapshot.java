@@ -0,0 +1,119 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.command;
+
+import java.io.File;
+import java.util.regex.Pattern;
+
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.util.Assertion;
+
+/**
+ * Immutable view of a configuration, built once per run and shared by the
+ * worker threads.<br>
+ * The derived values such as the normalized source directories and the
+ * exclusion patterns are computed only once. Workers which need a
+ * {@link Configuration} get the copy for their thread by
+ * {@link #getConfiguration()}, so it is not copied for each file.
+ */
+public final class ConfigurationSnapshot {
+
+    private static final Pattern JAVA_FILE_EXTENSION = Pattern.compile("\\.java");
+
+    private static final Pattern BACKSLASH = Pattern.compile("\\\\");
+
+    public static ConfigurationSnapshot of(Configuration config) {
+        return new ConfigurationSnapshot(config);
+    }
+
+    // -----------------
+
+    private final Configuration config;
+
+    private final ThreadLocal<Configuration> configForThread = new ThreadLocal<Configuration>() {
+        protected Configuration initialValue() {
+            return config.copy();
+        }
+    };
+
+    private final String directoryPathOfTestSourceCode;
+
+    private final Pattern productSourceCodeDirectory;
+
+    private final Pattern exclusionPattern;
+
+    private final Pattern exclusionPatternForPackage;
+
+    private ConfigurationSnapshot(Configuration config) {
+        Assertion.on("config").mustNotBeNull(config);
+        // never handed out, so nobody can modify it
+        this.config = config.copy();
+        this.directoryPathOfTestSourceCode = AbstractCommand.getDirectoryPathOfTestSourceCode(this.config);
+        this.productSourceCodeDirectory = Pattern.compile(AbstractCommand
+                .getDirectoryPathOfProductSourceCode(this.config));
+        this.exclusionPattern = this.config.target.getExclusionPattern();
+        this.exclusionPatternForPackage = this.config.target.getExclusionPatternForPackage();
+    }
+
+    /**
+     * @return the copy for the current thread, which is returned again by the
+     *         following calls on the same thread and must not be modified
+     */
+    public Configuration getConfiguration() {
+        return configForThread.get();
+    }
+
+    /**
+     * @return a new copy which the caller can modify
+     */
+    public Configuration toConfiguration() {
+        return config.copy();
+    }
+
+    public File getTestFile(File javaFile) {
+        String javaFilePath = BACKSLASH.matcher(javaFile.getAbsolutePath()).replaceAll("/");
+        String testFilePath = productSourceCodeDirectory.matcher(javaFilePath).replaceFirst(
+                directoryPathOfTestSourceCode);
+        return new File(JAVA_FILE_EXTENSION.matcher(testFilePath).replaceFirst("Test.java"));
+    }
+
+    /**
+     * @return true if the canonical class name matches the regexp list for
+     *         exclusion
+     */
+    public boolean isExcluded(File javaFile) {
+        if (exclusionPattern == null) {
+            return false;
+        }
+        return exclusionPattern.matcher(toDottedPath(javaFile)).matches();
+    }
+
+    /**
+     * @return true if all the classes under the directory are excluded, so
+     *         that the directory doesn't need to be read
+     */
+    public boolean isExcludedDirectory(File dir) {
+        if (exclusionPatternForPackage == null) {
+            return false;
+        }
+        return exclusionPatternForPackage.matcher(toDottedPath(dir) + ".").lookingAt();
+    }
+
+    private static String toDottedPath(File file) {
+        return BACKSLASH.matcher(file.getAbsolutePath()).replaceAll("/").replace("/", ".").trim();
+    }
+
+}
@@ -0,0 +1,115 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.command;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.util.Stdout;
+
+/**
+ * Thin client which forwards make/force3/force4 requests to
+ * {@link DaemonCommand}.<br>
+ * The token is read from the file written by the daemon, so only the owner of
+ * the daemon can send requests. Only {@link DaemonCommand#FORWARDED_PROPERTIES}
+ * are forwarded with the request.
+ */
+public class DaemonClient extends AbstractCommand {
+
+    private DaemonClient() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args == null || args.length == 0 || args[0] == null) {
+            throw new JUnitHelperCoreException("Command is required.");
+        }
+        String command = args[0];
+        // same as the commands which are executed without the daemon
+        if ((command.equals("make") || command.equals("force3") || command.equals("force4"))
+                && confirmToExecute() > 0) {
+            return;
+        }
+        int port = getDaemonPort();
+        File tokenFile = DaemonCommand.getDefaultTokenFile(port);
+        if (!tokenFile.exists()) {
+            throw new JUnitHelperCoreException("The daemon is not running on " + port + ", token file not found : "
+                    + tokenFile.getAbsolutePath());
+        }
+        String token = FileUtils.readFileToString(tokenFile, DaemonCommand.ENCODING).trim();
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(DaemonCommand.PROPERTY_PREFIX) && !key.equals("junithelper.daemonPort")
+                    && !key.equals("junithelper.skipConfirming") && !DaemonCommand.isForwardedProperty(key)) {
+                Stdout.p("  Not forwarded: " + key + " (specify it when starting the daemon)");
+            }
+        }
+        int exitCode = execute(port, token, args, System.out);
+        if (exitCode != 0) {
+            throw new JUnitHelperCoreException("Failed to execute \"" + command + "\" on the daemon.");
+        }
+    }
+
+    static int execute(int port, String token, String[] args, PrintStream out) throws IOException {
+        String command = args[0];
+        String arg = args.length > 1 && args[1] != null ? args[1] : "";
+        Socket socket = new Socket(InetAddress.getByName("127.0.0.1"), port);
+        try {
+            PrintStream request = new PrintStream(socket.getOutputStream(), false, DaemonCommand.ENCODING);
+            request.print(DaemonCommand.PROTOCOL + "\n");
+            request.print(DaemonCommand.KEY_TOKEN + DaemonCommand.DELIMITER + token + "\n");
+            request.print(DaemonCommand.KEY_CWD + DaemonCommand.DELIMITER + new File(".").getCanonicalPath() + "\n");
+            Properties properties = System.getProperties();
+            for (String key : properties.stringPropertyNames()) {
+                String value = properties.getProperty(key);
+                if (DaemonCommand.isForwardedProperty(key) && !hasLineBreakOrDelimiter(value)) {
+                    request.print(DaemonCommand.KEY_PROPERTY + DaemonCommand.DELIMITER + key
+                            + DaemonCommand.DELIMITER + value + "\n");
+                }
+            }
+            request.print(DaemonCommand.KEY_COMMAND + DaemonCommand.DELIMITER + command + DaemonCommand.DELIMITER
+                    + arg + "\n");
+            request.print("\n");
+            request.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    DaemonCommand.ENCODING));
+            String exitPrefix = DaemonCommand.KEY_EXIT + DaemonCommand.DELIMITER;
+            String line = null;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(exitPrefix)) {
+                    return Integer.valueOf(line.substring(exitPrefix.length()));
+                }
+                out.println(line);
+            }
+            // the daemon has been stopped while processing
+            return 1;
+        } finally {
+            socket.close();
+        }
+    }
+
+    static boolean hasLineBreakOrDelimiter(String value) {
+        return value.indexOf('\r') >= 0 || value.indexOf('\n') >= 0 || value.contains(DaemonCommand.DELIMITER);
+    }
+
+}
@@ -0,0 +1,416 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.command;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.extractor.ClassMetaCache;
+import org.junithelper.core.util.DigestUtil;
+import org.junithelper.core.util.Stderr;
+import org.junithelper.core.util.Stdout;
+
+/**
+ * Long-running process which executes make/force3/force4 requests sent by
+ * {@link DaemonClient}.<br>
+ * Loaded configurations, the symbol index and the class resolution cache
+ * stay warm across requests. The daemon listens only on the loopback
+ * address and handles one request at a time.<br>
+ * Every request must present the random token which is written to a file
+ * readable only by the owner of the daemon. Only the properties in
+ * {@link #FORWARDED_PROPERTIES} are taken from the request, the other
+ * options such as the configuration file are the daemon's own.<br>
+ * A client which doesn't send the request headers within
+ * {@link #READ_TIMEOUT_MILLIS} or sends too long or too many header lines is
+ * disconnected, so that it can't block the following requests.
+ */
+public class DaemonCommand extends AbstractCommand {
+
+    public static final int DEFAULT_PORT = 47300;
+
+    static final String PROTOCOL = "JUNITHELPER-DAEMON/1";
+
+    static final String ENCODING = "UTF-8";
+
+    static final String DELIMITER = "\t";
+
+    static final String KEY_TOKEN = "token";
+
+    static final String KEY_CWD = "cwd";
+
+    static final String KEY_PROPERTY = "property";
+
+    static final String KEY_COMMAND = "command";
+
+    static final String KEY_EXIT = "exit";
+
+    static final String PROPERTY_PREFIX = "junithelper.";
+
+    /**
+     * Properties which a client can set for each request. The properties
+     * which point at files are never forwarded.
+     */
+    static final Set<String> FORWARDED_PROPERTIES = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+            "junithelper.threads", "junithelper.incremental", "junithelper.timeoutPerFile")));
+
+    static final int READ_TIMEOUT_MILLIS = 10000;
+
+    static final int MAX_LINE_LENGTH = 8192;
+
+    static final int MAX_HEADER_LINES = 64;
+
+    private static final int TOKEN_BYTES = 32;
+
+    public static void main(String[] args) throws Exception {
+        boolean hasFirstArg = (args != null && args.length > 0 && args[0] != null);
+        int port = hasFirstArg ? getDaemonPort(args[0], "port") : getDaemonPort();
+        DaemonCommand daemon = new DaemonCommand(port);
+        Stdout.p("  Listening: " + daemon.getPort() + " (" + daemon.getBaseDir() + ")");
+        Stdout.p("  Token file: " + daemon.getTokenFile().getAbsolutePath());
+        daemon.serve();
+        Stdout.p("  Stopped.");
+    }
+
+    // -----------------
+
+    private final ServerSocket serverSocket;
+
+    private final String baseDir;
+
+    private final String token;
+
+    private final File tokenFile;
+
+    private volatile boolean running = true;
+
+    private volatile int readTimeoutMillis = READ_TIMEOUT_MILLIS;
+
+    private int handledRequestCount = 0;
+
+    /**
+     * @param port 0 to use any free port
+     */
+    DaemonCommand(int port) throws IOException {
+        this(port, null);
+    }
+
+    /**
+     * @param port 0 to use any free port
+     * @param tokenFile {@link #getDefaultTokenFile(int)} if null
+     */
+    DaemonCommand(int port, File tokenFile) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getByName("127.0.0.1"));
+        this.baseDir = new File(".").getCanonicalPath();
+        this.token = generateToken();
+        this.tokenFile = tokenFile != null ? tokenFile : getDefaultTokenFile(serverSocket.getLocalPort());
+        try {
+            writeTokenFile(this.tokenFile, token);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return e.g. "~/.junithelper/daemon-47300.token"
+     */
+    static File getDefaultTokenFile(int port) {
+        return new File(System.getProperty("user.home"), ".junithelper/daemon-" + port + ".token");
+    }
+
+    static String generateToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        return DigestUtil.toHex(bytes);
+    }
+
+    /**
+     * Creates the file readable and writable only by the owner before the
+     * token is written.
+     */
+    static void writeTokenFile(File tokenFile, String token) throws IOException {
+        File dir = tokenFile.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Failed to create the directory : " + dir.getAbsolutePath());
+        }
+        if (tokenFile.exists() && !tokenFile.delete()) {
+            throw new IOException("Failed to delete the old token file : " + tokenFile.getAbsolutePath());
+        }
+        if (!tokenFile.createNewFile()) {
+            throw new IOException("Failed to create the token file : " + tokenFile.getAbsolutePath());
+        }
+        tokenFile.setReadable(false, false);
+        tokenFile.setWritable(false, false);
+        tokenFile.setExecutable(false, false);
+        if (!tokenFile.setReadable(true, true) || !tokenFile.setWritable(true, true)) {
+            throw new IOException("Failed to restrict the token file : " + tokenFile.getAbsolutePath());
+        }
+        OutputStream out = new FileOutputStream(tokenFile);
+        try {
+            out.write(token.getBytes(ENCODING));
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    String getBaseDir() {
+        return baseDir;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    File getTokenFile() {
+        return tokenFile;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    void serve() throws IOException {
+        while (running) {
+            Socket socket = null;
+            try {
+                socket = serverSocket.accept();
+                handle(socket);
+            } catch (IOException e) {
+                if (running) {
+                    Stderr.p("  Failed to handle request : " + e.getMessage());
+                }
+            } finally {
+                close(socket);
+            }
+        }
+    }
+
+    void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ignore) {
+        }
+        tokenFile.delete();
+    }
+
+    /**
+     * Compares in constant time, so that the token can't be guessed by the
+     * response time.
+     */
+    boolean isValidToken(String requestToken) {
+        if (requestToken == null) {
+            return false;
+        }
+        try {
+            return MessageDigest.isEqual(token.getBytes(ENCODING), requestToken.getBytes(ENCODING));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static boolean isForwardedProperty(String key) {
+        return FORWARDED_PROPERTIES.contains(key);
+    }
+
+    void handle(Socket socket) throws IOException {
+        // the request headers are read before the token is checked
+        socket.setSoTimeout(readTimeoutMillis);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), ENCODING));
+        PrintStream out = new PrintStream(socket.getOutputStream(), true, ENCODING);
+        int exitCode = 1;
+        String protocol = readLine(reader);
+        if (!PROTOCOL.equals(protocol)) {
+            out.println("-- Invalid request.");
+        } else {
+            String requestToken = null;
+            String cwd = null;
+            String command = null;
+            String arg = null;
+            Map<String, String> properties = new HashMap<String, String>();
+            String line = null;
+            int lineCount = 0;
+            while ((line = readLine(reader)) != null && line.length() > 0) {
+                if (++lineCount > MAX_HEADER_LINES) {
+                    throw new IOException("Too many header lines");
+                }
+                String[] values = line.split(DELIMITER, -1);
+                if (values[0].equals(KEY_TOKEN) && values.length > 1) {
+                    requestToken = values[1];
+                } else if (values[0].equals(KEY_CWD) && values.length > 1) {
+                    cwd = values[1];
+                } else if (values[0].equals(KEY_PROPERTY) && values.length > 2) {
+                    properties.put(values[1], values[2]);
+                } else if (values[0].equals(KEY_COMMAND) && values.length > 1) {
+                    command = values[1];
+                    arg = values.length > 2 && values[2].length() > 0 ? values[2] : null;
+                }
+            }
+            if (isValidToken(requestToken)) {
+                exitCode = execute(cwd, command, arg, properties, out);
+            } else {
+                out.println("-- Unauthorized request.");
+            }
+        }
+        out.println(KEY_EXIT + DELIMITER + exitCode);
+        out.flush();
+    }
+
+    /**
+     * Same as {@link BufferedReader#readLine()} except that a line longer than
+     * {@link #MAX_LINE_LENGTH} is rejected before it is buffered.
+     */
+    static String readLine(BufferedReader reader) throws IOException {
+        StringBuilder buf = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\r') {
+                if (buf.length() >= MAX_LINE_LENGTH) {
+                    throw new IOException("Too long line");
+                }
+                buf.append((char) c);
+            }
+        }
+        if (c == -1 && buf.length() == 0) {
+            return null;
+        }
+        return buf.toString();
+    }
+
+    int execute(String cwd, String command, String arg, Map<String, String> properties, PrintStream out) {
+        if ("shutdown".equals(command)) {
+            out.println("  Shutting down.");
+            stop();
+            return 0;
+        }
+        if ("status".equals(command)) {
+            out.println("  Base directory: " + baseDir);
+            out.println("  Handled requests: " + handledRequestCount);
+            ClassMetaCache classMetaCache = ClassMetaCache.getInstance();
+            out.println("  ClassMeta cache: " + classMetaCache.size() + " entries, " + classMetaCache.getHitCount()
+                    + " hits, " + classMetaCache.getMissCount() + " misses");
+            return 0;
+        }
+        if (cwd == null || !isSameDirectory(cwd)) {
+            out.println("-- The daemon is running on " + baseDir + ", start another daemon for " + cwd);
+            return 1;
+        }
+        if (!"make".equals(command) && !"force3".equals(command) && !"force4".equals(command)) {
+            out.println("-- Invalid command or parameter.");
+            return 1;
+        }
+        handledRequestCount++;
+        Properties systemProperties = System.getProperties();
+        Properties saved = new Properties();
+        saved.putAll(systemProperties);
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        try {
+            for (String key : FORWARDED_PROPERTIES) {
+                if (!properties.containsKey(key)) {
+                    System.clearProperty(key);
+                }
+            }
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                if (isForwardedProperty(property.getKey())) {
+                    System.setProperty(property.getKey(), property.getValue());
+                } else {
+                    out.println("-- Ignored property : " + property.getKey());
+                }
+            }
+            // the client confirms before sending the request
+            System.setProperty("junithelper.skipConfirming", "true");
+            System.setOut(out);
+            System.setErr(out);
+            String[] args = new String[] { arg };
+            if ("make".equals(command)) {
+                MakeTestCommand.config = new Configuration();
+                MakeTestCommand.main(args);
+            } else if ("force3".equals(command)) {
+                ForceJUnitVersion3Command.config = new Configuration();
+                ForceJUnitVersion3Command.main(args);
+            } else {
+                ForceJUnitVersion4Command.config = new Configuration();
+                ForceJUnitVersion4Command.main(args);
+            }
+            return 0;
+        } catch (Throwable t) {
+            out.println("-- " + t.getClass().getName() + " : " + t.getMessage());
+            return 1;
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+            for (String key : systemProperties.stringPropertyNames()) {
+                if (key.startsWith(PROPERTY_PREFIX)) {
+                    System.clearProperty(key);
+                }
+            }
+            for (String key : saved.stringPropertyNames()) {
+                if (key.startsWith(PROPERTY_PREFIX)) {
+                    System.setProperty(key, saved.getProperty(key));
+                }
+            }
+        }
+    }
+
+    boolean isSameDirectory(String cwd) {
+        try {
+            return new File(cwd).getCanonicalPath().equals(baseDir);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void close(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+}
@@ -20,7 +20,9 @@ import java.util.List;
 
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.config.JUnitVersion;
+import org.junithelper.core.extractor.ClassMetaStore;
 import org.junithelper.core.extractor.CurrentLineBreakDetector;
+import org.junithelper.core.extractor.SymbolIndex;
 import org.junithelper.core.file.FileReader;
 import org.junithelper.core.file.FileReaderFactory;
 import org.junithelper.core.file.FileWriterFactory;
@@ -40,15 +42,17 @@ public class ForceJUnitVersion3Command extends AbstractCommand {
     public static void main(String[] args) throws Exception {
 
         config = getUpdatedConfig(config);
+        SymbolIndex.revalidateInstances();
 
         config.junitVersion = JUnitVersion.version3;
         boolean hasFirstArg = (args != null && args.length > 0 && args[0] != null);
         String dirOrFile = hasFirstArg ? args[0] : config.directoryPathOfProductSourceCode;
 
         // Confirm input from stdin
-        List<File> javaFiles = findTargets(config, dirOrFile);
-        for (File javaFile : javaFiles) {
-            Stdout.p("  Target: " + javaFile.getAbsolutePath());
+        ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(config);
+        List<TargetFile> targets = findTargets(snapshot, dirOrFile, null);
+        for (TargetFile target : targets) {
+            Stdout.p("  Target: " + target.getFile().getAbsolutePath());
         }
         if (confirmToExecute() > 0) {
             return;
@@ -56,14 +60,12 @@ public class ForceJUnitVersion3Command extends AbstractCommand {
 
         // Execute re-writing tests
         FileReader fileReader = FileReaderFactory.create();
-        for (File javaFile : javaFiles) {
+        for (TargetFile target : targets) {
+            File javaFile = target.getFile();
             File testFile = null;
             String currentTestCaseSourceCode = null;
             try {
-                String testFilePath = javaFile.getAbsolutePath().replaceAll("\\\\", "/").replaceFirst(
-                        getDirectoryPathOfProductSourceCode(config), getDirectoryPathOfTestSourceCode(config))
-                        .replaceFirst("\\.java", "Test.java");
-                testFile = new File(testFilePath);
+                testFile = snapshot.getTestFile(javaFile);
                 currentTestCaseSourceCode = fileReader.readAsString(testFile);
             } catch (Exception e) {
             }
@@ -71,8 +73,7 @@ public class ForceJUnitVersion3Command extends AbstractCommand {
             LineBreakProvider lineBreakProvider = new LineBreakProvider(config, currentLineBreak);
             TestCaseGenerator testCaseGenerator = TestCaseGeneratorFactory.create(config, lineBreakProvider);
 
-            String targetSourceCodeString = fileReader.readAsString(javaFile);
-            testCaseGenerator.initialize(targetSourceCodeString);
+            testCaseGenerator.initialize(target.getClassMeta(config));
             String testCodeString = null;
             if (currentTestCaseSourceCode != null) {
                 testCodeString = testCaseGenerator.getUnifiedVersionTestCaseSourceCode(testCaseGenerator
@@ -84,6 +85,8 @@ public class ForceJUnitVersion3Command extends AbstractCommand {
             FileWriterFactory.create(testFile).writeText(testCodeString);
             Stdout.p("  Forced JUnit 3.x: " + testFile.getAbsolutePath());
         }
+        ClassMetaStore.saveInstances();
+        SymbolIndex.saveInstances();
 
     }
 }
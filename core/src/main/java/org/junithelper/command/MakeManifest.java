@@ -0,0 +1,299 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junithelper.core.Version;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.extractor.SymbolIndex;
+import org.junithelper.core.meta.ArgTypeMeta;
+import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.meta.ConstructorMeta;
+import org.junithelper.core.meta.ExceptionMeta;
+import org.junithelper.core.meta.MethodMeta;
+import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.DigestUtil;
+import org.junithelper.core.util.Stderr;
+
+/**
+ * Manifest for the incremental make.<br>
+ * Records the hashes of each product source, its ClassMeta and its test case
+ * source with the configuration hash, so that unchanged pairs are skipped.
+ * The configuration hash also covers the digest of {@link SymbolIndex}
+ * because type names are resolved differently after classes are added or
+ * removed.
+ */
+public class MakeManifest {
+
+    public static final String DEFAULT_FILE_PATH = ".junithelper/make-manifest.txt";
+
+    private static final String ENCODING = "UTF-8";
+
+    private static final String FILE_HEADER = "# junithelper make manifest v1";
+
+    /**
+     * Not a target of making tests (abstract class, interface and so on)
+     */
+    static final String NOT_TARGET = "-";
+
+    static class Entry {
+
+        String sourceHash;
+
+        String classMetaDigest = NOT_TARGET;
+
+        String testHash = NOT_TARGET;
+
+    }
+
+    private final File file;
+
+    private final String configurationDigest;
+
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    private int upToDateCount = 0;
+
+    public MakeManifest(File file, Configuration config) {
+        Assertion.on("file").mustNotBeNull(file);
+        Assertion.on("config").mustNotBeNull(config);
+        this.file = file;
+        this.configurationDigest = getConfigurationDigest(config);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized int getUpToDateCount() {
+        return upToDateCount;
+    }
+
+    // -----------------
+
+    /**
+     * @return true if the product source has not been changed since the last
+     *         run and it is not a target or its test case has not been changed
+     */
+    public synchronized boolean isUpToDate(TargetFile target, File testFile) {
+        Entry entry = entries.get(getKey(target.getFile()));
+        if (entry == null || !entry.sourceHash.equals(target.getSourceCodeHash())) {
+            return false;
+        }
+        if (NOT_TARGET.equals(entry.classMetaDigest) || entry.testHash.equals(getTestHash(testFile))) {
+            upToDateCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the product source has been changed but its ClassMeta
+     *         and its test case have not been changed
+     */
+    public synchronized boolean isSignatureUpToDate(TargetFile target, ClassMeta classMeta, String testHash) {
+        Entry entry = entries.get(getKey(target.getFile()));
+        if (entry != null && !NOT_TARGET.equals(entry.classMetaDigest)
+                && entry.classMetaDigest.equals(getClassMetaDigest(classMeta)) && entry.testHash.equals(testHash)) {
+            upToDateCount++;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void putNotTarget(TargetFile target) {
+        Entry entry = new Entry();
+        entry.sourceHash = target.getSourceCodeHash();
+        entries.put(getKey(target.getFile()), entry);
+    }
+
+    public synchronized void put(TargetFile target, ClassMeta classMeta, File testFile) {
+        Entry entry = new Entry();
+        entry.sourceHash = target.getSourceCodeHash();
+        entry.classMetaDigest = getClassMetaDigest(classMeta);
+        entry.testHash = getTestHash(testFile);
+        entries.put(getKey(target.getFile()), entry);
+    }
+
+    public synchronized void remove(File javaFile) {
+        entries.remove(getKey(javaFile));
+    }
+
+    // -----------------
+
+    /**
+     * Loads the manifest file. Entries are discarded if the configuration has
+     * been changed.
+     */
+    public synchronized MakeManifest load() {
+        entries.clear();
+        upToDateCount = 0;
+        if (!file.isFile()) {
+            return this;
+        }
+        try {
+            List<String> lines = FileUtils.readLines(file, ENCODING);
+            if (lines.size() < 2 || !lines.get(0).equals(FILE_HEADER) || !lines.get(1).equals(configurationDigest)) {
+                return this;
+            }
+            for (int i = 2; i < lines.size(); i++) {
+                String[] columns = lines.get(i).split("\t");
+                if (columns.length != 4) {
+                    entries.clear();
+                    return this;
+                }
+                Entry entry = new Entry();
+                entry.sourceHash = columns[1];
+                entry.classMetaDigest = columns[2];
+                entry.testHash = columns[3];
+                entries.put(columns[0], entry);
+            }
+        } catch (IOException e) {
+            Stderr.p(e.getLocalizedMessage() + " - " + file.getPath());
+            entries.clear();
+        }
+        return this;
+    }
+
+    public synchronized void save() throws IOException {
+        List<String> lines = new ArrayList<String>();
+        lines.add(FILE_HEADER);
+        lines.add(configurationDigest);
+        for (Map.Entry<String, Entry> each : new TreeMap<String, Entry>(entries).entrySet()) {
+            // deleted files are not recorded anymore
+            if (!new File(each.getKey()).isFile()) {
+                entries.remove(each.getKey());
+                continue;
+            }
+            Entry entry = each.getValue();
+            lines.add(each.getKey() + "\t" + entry.sourceHash + "\t" + entry.classMetaDigest + "\t" + entry.testHash);
+        }
+        FileUtils.writeLines(file, ENCODING, lines, "\n");
+    }
+
+    // -----------------
+
+    static String getKey(File javaFile) {
+        return javaFile.getAbsolutePath().replaceAll("\\\\", "/");
+    }
+
+    static String getTestHash(File testFile) {
+        if (testFile == null || !testFile.isFile()) {
+            return NOT_TARGET;
+        }
+        try {
+            return DigestUtil.md5Hex(FileUtils.readFileToByteArray(testFile));
+        } catch (IOException e) {
+            return NOT_TARGET;
+        }
+    }
+
+    static String getConfigurationDigest(Configuration config) {
+        StringBuilder buf = new StringBuilder();
+        buf.append(Version.get());
+        appendFields(buf, "", config);
+        if (config.isExtensionEnabled) {
+            String extensionConfigXML = System.getProperty("junithelper.extensionConfigXML");
+            File extensionFile = new File(extensionConfigXML != null ? extensionConfigXML : config.extensionConfigXML);
+            if (extensionFile.isFile()) {
+                try {
+                    buf.append(DigestUtil.md5Hex(FileUtils.readFileToByteArray(extensionFile)));
+                } catch (IOException e) {
+                    buf.append(System.currentTimeMillis());
+                }
+            }
+        }
+        buf.append(SymbolIndex.getInstance(config).getDigest());
+        return DigestUtil.md5Hex(buf.toString());
+    }
+
+    private static void appendFields(StringBuilder buf, String prefix, Object obj) {
+        if (obj == null) {
+            return;
+        }
+        Map<String, Field> sortedFields = new TreeMap<String, Field>();
+        for (Field field : obj.getClass().getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                sortedFields.put(field.getName(), field);
+            }
+        }
+        for (Field field : sortedFields.values()) {
+            Class<?> type = field.getType();
+            try {
+                Object value = field.get(obj);
+                if (type.isPrimitive() || type.isEnum() || type == String.class) {
+                    buf.append(prefix).append(field.getName()).append("=").append(value).append("\n");
+                } else if (type.getPackage() != null && type.getPackage().equals(Configuration.class.getPackage())) {
+                    // TestingTarget, TestMethodName
+                    appendFields(buf, prefix + field.getName() + ".", value);
+                }
+            } catch (IllegalAccessException e) {
+                buf.append(prefix).append(field.getName()).append("=?\n");
+            }
+        }
+    }
+
+    static String getClassMetaDigest(ClassMeta classMeta) {
+        StringBuilder buf = new StringBuilder();
+        buf.append(classMeta.packageName).append(" ").append(classMeta.name);
+        buf.append(" abstract:").append(classMeta.isAbstract).append(" enum:").append(classMeta.isEnum).append("\n");
+        for (String imported : classMeta.importedList) {
+            buf.append("import ").append(imported).append("\n");
+        }
+        for (ConstructorMeta constructor : classMeta.constructors) {
+            buf.append("constructor ").append(constructor.accessModifier);
+            appendArgs(buf, constructor.argTypes, constructor.argNames, constructor.throwsExceptions);
+        }
+        for (MethodMeta method : classMeta.methods) {
+            buf.append("method ").append(method.accessModifier).append(" ").append(method.isStatic).append(" ")
+                    .append(method.isAccessor).append(" ").append(method.name).append(" ")
+                    .append(method.returnType.name).append(method.returnType.getGenericsAsString());
+            appendArgs(buf, method.argTypes, method.argNames, method.throwsExceptions);
+        }
+        return DigestUtil.md5Hex(buf.toString());
+    }
+
+    private static void appendArgs(StringBuilder buf, List<ArgTypeMeta> argTypes, List<String> argNames,
+            List<ExceptionMeta> throwsExceptions) {
+        buf.append("(");
+        for (ArgTypeMeta argType : argTypes) {
+            buf.append(argType.name).append(argType.getGenericsAsString()).append(",");
+        }
+        for (String argName : argNames) {
+            buf.append(argName).append(",");
+        }
+        buf.append(")");
+        for (ExceptionMeta exception : throwsExceptions) {
+            buf.append(exception.name).append(",");
+        }
+        buf.append("\n");
+    }
+
+}
@@ -16,97 +16,335 @@
 package org.junithelper.command;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.extractor.ClassMetaStore;
 import org.junithelper.core.extractor.CurrentLineBreakDetector;
+import org.junithelper.core.extractor.SymbolIndex;
 import org.junithelper.core.file.FileReader;
 import org.junithelper.core.file.FileReaderFactory;
 import org.junithelper.core.file.FileWriterFactory;
 import org.junithelper.core.generator.LineBreakProvider;
 import org.junithelper.core.generator.TestCaseGenerator;
 import org.junithelper.core.generator.TestCaseGeneratorFactory;
+import org.junithelper.core.meta.ClassMeta;
 import org.junithelper.core.meta.CurrentLineBreak;
+import org.junithelper.core.util.Stderr;
 import org.junithelper.core.util.Stdout;
 
 public class MakeTestCommand extends AbstractCommand {
 
+    public static final long DEFAULT_TIMEOUT_MILLIS_PER_FILE = 60000L;
+
+    /**
+     * Runs the generation with the budget. A thread which exceeded the budget
+     * may keep running, so the threads never prevent the JVM from exiting.
+     */
+    private static final ExecutorService WATCHDOG_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "junithelper-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
     private MakeTestCommand() {
     }
 
-    public static Configuration config = new Configuration();
+    public static volatile Configuration config = new Configuration();
 
     public static void main(String[] args) throws Exception {
 
-        config = getUpdatedConfig(config);
+        // added or removed classes are detected once per run
+        SymbolIndex.revalidateInstances();
+
+        // the same snapshot is shared by all the threads
+        Configuration config = getUpdatedConfig(MakeTestCommand.config);
+        MakeTestCommand.config = config;
+        final ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(config);
 
         boolean hasFirstArg = (args != null && args.length > 0 && args[0] != null);
         String dirOrFile = hasFirstArg ? args[0] : config.directoryPathOfProductSourceCode;
 
-        // Confirm input from stdin
-        List<File> javaFiles = findTargets(config, dirOrFile);
-        for (File javaFile : javaFiles) {
-            if (isNeedToExclude(javaFile)) {
-                continue;
+        // incremental mode skips unchanged files
+        final MakeManifest manifest = isIncremental() ? new MakeManifest(getManifestFile(), snapshot.toConfiguration())
+                .load() : null;
+
+        List<MakeTestResult> failedResults = new ArrayList<MakeTestResult>();
+        if (skipConfirming()) {
+            // nothing to confirm, tests are made while the targets are still being found
+            makeTestsInPipeline(snapshot, dirOrFile, manifest, failedResults);
+        } else if (makeTestsAfterConfirming(snapshot, dirOrFile, manifest, failedResults) > 0) {
+            return;
+        }
+        if (manifest != null) {
+            saveManifest(manifest);
+        }
+        ClassMetaStore.saveInstances();
+        SymbolIndex.saveInstances();
+        if (failedResults.size() > 0) {
+            Stderr.p("");
+            Stderr.p("  Failed: " + failedResults.size() + " file(s)");
+            for (MakeTestResult failed : failedResults) {
+                Stderr.p("    " + failed.javaFile.getAbsolutePath() + " - " + failed.error);
+            }
+            MakeTestResult first = failedResults.get(0);
+            throw new JUnitHelperCoreException("Failed to make tests for " + failedResults.size() + " file(s), first: "
+                    + first.javaFile.getAbsolutePath(), first.error);
+        }
+
+    }
+
+    private static void makeTestsInPipeline(ConfigurationSnapshot snapshot, String dirOrFile,
+            final MakeManifest manifest, final List<MakeTestResult> failedResults) throws Exception {
+        MakeTestPipeline pipeline = new MakeTestPipeline(snapshot, manifest, getThreads());
+        pipeline.run(dirOrFile, new MakeTestPipeline.Listener() {
+            public void onTarget(TargetFile target) {
+                Stdout.p("  Target: " + target.getFile().getAbsolutePath());
+            }
+
+            public void onResult(MakeTestResult result) {
+                printResult(result, failedResults, manifest);
             }
-            Stdout.p("  Target: " + javaFile.getAbsolutePath());
+        });
+        if (manifest != null) {
+            Stdout.p("  Up-to-date: " + manifest.getUpToDateCount() + " file(s)");
+        }
+    }
+
+    /**
+     * @return 1 if canceled
+     */
+    private static int makeTestsAfterConfirming(final ConfigurationSnapshot snapshot, String dirOrFile,
+            final MakeManifest manifest, List<MakeTestResult> failedResults) throws Exception {
+        // Confirm input from stdin
+        List<TargetFile> targets = new ArrayList<TargetFile>();
+        for (TargetFile target : findTargets(snapshot, dirOrFile, manifest, true)) {
+            targets.add(target);
+            Stdout.p("  Target: " + target.getFile().getAbsolutePath());
+        }
+        if (manifest != null) {
+            Stdout.p("  Up-to-date: " + manifest.getUpToDateCount() + " file(s)");
         }
         if (confirmToExecute() > 0) {
-            return;
+            return 1;
         }
 
         // Execute making tests
-        FileReader fileReader = FileReaderFactory.create();
-        for (File javaFile : javaFiles) {
-            if (isNeedToExclude(javaFile)) {
-                continue;
+        int threads = getThreads();
+        if (threads <= 1 || targets.size() <= 1) {
+            for (TargetFile target : targets) {
+                MakeTestResult result = makeTest(snapshot, target, manifest);
+                printResult(result, failedResults, manifest);
             }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, targets.size()));
+            try {
+                List<Future<MakeTestResult>> futures = new ArrayList<Future<MakeTestResult>>();
+                for (final TargetFile target : targets) {
+                    futures.add(executor.submit(new Callable<MakeTestResult>() {
+                        public MakeTestResult call() {
+                            return makeTest(snapshot, target, manifest);
+                        }
+                    }));
+                }
+                // print the results in the same order as the targets
+                for (Future<MakeTestResult> future : futures) {
+                    try {
+                        printResult(future.get(), failedResults, manifest);
+                    } catch (ExecutionException e) {
+                        throw new JUnitHelperCoreException(e.getCause().getLocalizedMessage(), e.getCause());
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return 0;
+    }
+
+    static class MakeTestResult {
+
+        TargetFile target;
+
+        File javaFile;
+
+        File testFile;
+
+        ClassMeta classMeta;
+
+        List<String> messages = new ArrayList<String>();
+
+        Exception error;
+
+        /**
+         * null if the test file doesn't need to be written
+         */
+        String testCodeString;
+
+        boolean isNewTestFile;
+
+        MakeTestResult(TargetFile target) {
+            this.target = target;
+            this.javaFile = target.getFile();
+        }
+
+    }
+
+    static MakeTestResult makeTest(ConfigurationSnapshot snapshot, TargetFile target, MakeManifest manifest) {
+        return writeTest(generateTest(snapshot, target, manifest, getTimeoutPerFile()));
+    }
+
+    /**
+     * Generates the test source code within the budget. The file is reported
+     * as failed if the budget is exceeded, so that a pathological file
+     * doesn't stall the whole run.
+     * 
+     * @param timeoutMillis not limited if 0
+     */
+    static MakeTestResult generateTest(final ConfigurationSnapshot snapshot, final TargetFile target,
+            final MakeManifest manifest, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return generateTest(snapshot, target, manifest);
+        }
+        try {
+            return callWithinBudget(new Callable<MakeTestResult>() {
+                public MakeTestResult call() {
+                    return generateTest(snapshot, target, manifest);
+                }
+            }, timeoutMillis);
+        } catch (Throwable t) {
+            return failedResult(target, t);
+        }
+    }
+
+    /**
+     * @param t errors such as StackOverflowError are also reported as a
+     *            failed file
+     */
+    static MakeTestResult failedResult(TargetFile target, Throwable t) {
+        MakeTestResult result = new MakeTestResult(target);
+        result.error = (t instanceof Exception) ? (Exception) t : new JUnitHelperCoreException(t.toString(), t);
+        return result;
+    }
+
+    /**
+     * @throws JUnitHelperCoreException if the budget is exceeded
+     */
+    static <T> T callWithinBudget(Callable<T> task, long timeoutMillis) throws Exception {
+        Future<T> future = WATCHDOG_EXECUTOR.submit(task);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new JUnitHelperCoreException("Timed out after " + timeoutMillis + " ms, skipped");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            throw new JUnitHelperCoreException(e.getCause().getLocalizedMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Generates the test source code without writing it.
+     */
+    static MakeTestResult generateTest(ConfigurationSnapshot snapshot, TargetFile target, MakeManifest manifest) {
+        File javaFile = target.getFile();
+        MakeTestResult result = new MakeTestResult(target);
+        try {
+            Configuration config = snapshot.getConfiguration();
+            FileReader fileReader = FileReaderFactory.create();
             File testFile = null;
             String currentTestCaseSourceCode = null;
             try {
-                String testFilePath = javaFile.getAbsolutePath().replaceAll("\\\\", "/").replaceFirst(
-                        getDirectoryPathOfProductSourceCode(config), getDirectoryPathOfTestSourceCode(config))
-                        .replaceFirst("\\.java", "Test.java");
-                testFile = new File(testFilePath);
+                testFile = snapshot.getTestFile(javaFile);
                 currentTestCaseSourceCode = fileReader.readAsString(testFile);
             } catch (Exception e) {
             }
+            result.testFile = testFile;
+            result.classMeta = target.getClassMeta(config);
+            if (manifest != null
+                    && manifest.isSignatureUpToDate(target, result.classMeta, MakeManifest.getTestHash(testFile))) {
+                // only method bodies or comments have been changed
+                return result;
+            }
             CurrentLineBreak currentLineBreak = CurrentLineBreakDetector.detect(currentTestCaseSourceCode);
             LineBreakProvider lineBreakProvider = new LineBreakProvider(config, currentLineBreak);
             TestCaseGenerator testCaseGenerator = TestCaseGeneratorFactory.create(config, lineBreakProvider);
 
-            String targetSourceCodeString = fileReader.readAsString(javaFile);
-            testCaseGenerator.initialize(targetSourceCodeString);
+            testCaseGenerator.initialize(result.classMeta);
             String testCodeString = null;
             if (currentTestCaseSourceCode != null) {
                 testCodeString = testCaseGenerator
                         .getTestCaseSourceCodeWithLackingTestMethod(currentTestCaseSourceCode);
                 if (!testCodeString.equals(currentTestCaseSourceCode)) {
-                    testCodeString = standardizeLineBreak(config, testCodeString);
-                    FileWriterFactory.create(testFile).writeText(testCodeString);
-                    Stdout.p("  Modified: " + testFile.getAbsolutePath());
+                    result.testCodeString = standardizeLineBreak(config, testCodeString);
                 }
             } else {
-                testCodeString = testCaseGenerator.getNewTestCaseSourceCode();
-                FileWriterFactory.create(testFile).writeText(testCodeString);
-                Stdout.p("  Created: " + testFile.getAbsolutePath());
+                result.testCodeString = testCaseGenerator.getNewTestCaseSourceCode();
+                result.isNewTestFile = true;
             }
+        } catch (Throwable t) {
+            return failedResult(target, t);
         }
+        return result;
+    }
 
+    /**
+     * Writes the test source code generated by
+     * {@link #generateTest(ConfigurationSnapshot, TargetFile, MakeManifest)}.
+     */
+    static MakeTestResult writeTest(MakeTestResult result) {
+        if (result.error != null || result.testCodeString == null) {
+            return result;
+        }
+        try {
+            FileWriterFactory.create(result.testFile).writeText(result.testCodeString);
+            result.messages.add((result.isNewTestFile ? "  Created: " : "  Modified: ")
+                    + result.testFile.getAbsolutePath());
+        } catch (Exception e) {
+            result.error = e;
+        }
+        // no longer needed
+        result.testCodeString = null;
+        return result;
     }
 
-    private static boolean isNeedToExclude(File javaFile) {
-        // If canonical class name matches regexp list in configuration,
-        // it will be excluded
-        String canonicalClassName = javaFile.getAbsolutePath().replaceAll("\\\\", "/").replace("/", ".").trim();
-        String[] regexpListForExclusion = config.target.getRegexpArrayForExclusion();
-        for (String regexp : regexpListForExclusion) {
-            if (regexp != null && regexp.trim().length() > 0
-                    && canonicalClassName.matches(".+" + regexp.trim() + ".java$")) {
-                return true;
+    static void printResult(MakeTestResult result, List<MakeTestResult> failedResults, MakeManifest manifest) {
+        for (String message : result.messages) {
+            Stdout.p(message);
+        }
+        if (result.error != null) {
+            Stderr.p("  Error: " + result.javaFile.getAbsolutePath() + " - " + result.error);
+            failedResults.add(result);
+            if (manifest != null) {
+                manifest.remove(result.javaFile);
             }
+        } else if (manifest != null) {
+            manifest.put(result.target, result.classMeta, result.testFile);
+        }
+    }
+
+    static void saveManifest(MakeManifest manifest) {
+        try {
+            manifest.save();
+        } catch (IOException e) {
+            Stderr.p("  Failed to save the manifest: " + manifest.getFile().getAbsolutePath() + " - " + e);
         }
-        return false;
     }
 
 }
@@ -0,0 +1,245 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.command;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junithelper.command.MakeTestCommand.MakeTestResult;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.constant.RegExp;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.file.FileSearcherFactory;
+import org.junithelper.core.file.FilteringFileSearcher;
+
+/**
+ * Makes tests while the targets are still being discovered.<br>
+ * The stages (discover, read, generate and write) run on their own threads
+ * and are connected by bounded queues, so the memory usage doesn't depend on
+ * the number of the files. The generate stage runs on several threads and
+ * each of them extracts the ClassMeta of its targets. Discovery is lazy if
+ * the pruning file searcher is enabled.<br>
+ * Every stage puts its end marker even if it has failed, so that the write
+ * stage never waits forever.
+ */
+class MakeTestPipeline {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    /**
+     * {@link #onResult(MakeTestResult)} is always called on the thread which
+     * runs the pipeline.
+     */
+    interface Listener {
+
+        /**
+         * Called on the read stage thread.
+         */
+        void onTarget(TargetFile target);
+
+        void onResult(MakeTestResult result);
+
+    }
+
+    private static final File END_OF_FILES = new File("");
+
+    private static final TargetFile END_OF_TARGETS = new TargetFile(END_OF_FILES, null, "");
+
+    private static final MakeTestResult END_OF_RESULTS = new MakeTestResult(END_OF_TARGETS);
+
+    // -----------------
+
+    private final ConfigurationSnapshot snapshot;
+
+    private final MakeManifest manifest;
+
+    private final int generators;
+
+    private final int queueCapacity;
+
+    private volatile Throwable discoveryError;
+
+    MakeTestPipeline(ConfigurationSnapshot snapshot, MakeManifest manifest, int generators) {
+        this(snapshot, manifest, generators, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    MakeTestPipeline(ConfigurationSnapshot snapshot, MakeManifest manifest, int generators, int queueCapacity) {
+        if (generators <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("generators and queueCapacity must be positive");
+        }
+        this.snapshot = snapshot;
+        this.manifest = manifest;
+        this.generators = generators;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Blocks until all the test files are written.
+     * 
+     * @return the number of the targets
+     */
+    int run(final String dirOrFile, final Listener listener) throws Exception {
+        final BlockingQueue<File> files = new ArrayBlockingQueue<File>(queueCapacity);
+        final BlockingQueue<TargetFile> targets = new ArrayBlockingQueue<TargetFile>(queueCapacity);
+        final BlockingQueue<MakeTestResult> results = new ArrayBlockingQueue<MakeTestResult>(queueCapacity);
+        final AtomicInteger targetCount = new AtomicInteger();
+        final boolean isSingleFile = AbstractCommand.isJavaFile(dirOrFile);
+        final long timeoutMillis = AbstractCommand.getTimeoutPerFile();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2 + generators);
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        discover(dirOrFile, isSingleFile, files);
+                    } finally {
+                        putEndMarker(files, END_OF_FILES);
+                    }
+                }
+            });
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        read(files, !isSingleFile, targets, results, targetCount, listener);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        for (int i = 0; i < generators; i++) {
+                            putEndMarker(targets, END_OF_TARGETS);
+                        }
+                    }
+                }
+            });
+            for (int i = 0; i < generators; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            generate(targets, results, timeoutMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            putEndMarker(results, END_OF_RESULTS);
+                        }
+                    }
+                });
+            }
+            write(results, listener);
+        } finally {
+            // stops the stages blocked on the queues if the write stage failed
+            executor.shutdownNow();
+        }
+        if (discoveryError != null) {
+            throw new JUnitHelperCoreException(discoveryError.getLocalizedMessage(), discoveryError);
+        }
+        return targetCount.get();
+    }
+
+    // -----------------
+
+    /**
+     * An interrupted stage doesn't wait for the space because the write stage
+     * has already failed and nobody takes the marker.
+     */
+    private static <T> void putEndMarker(BlockingQueue<T> queue, T marker) {
+        try {
+            queue.put(marker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void discover(String dirOrFile, boolean isSingleFile, BlockingQueue<File> files) {
+        try {
+            if (isSingleFile) {
+                File file = new File(dirOrFile);
+                if (!snapshot.isExcluded(file)) {
+                    files.put(file);
+                }
+            } else {
+                FilteringFileSearcher fileSearcher = FileSearcherFactory.create(snapshot.getConfiguration());
+                Iterator<File> javaFiles = fileSearcher.iterateFilesRecursivelyByName(dirOrFile,
+                        RegExp.FileExtension.JavaFile, AbstractCommand.getDirectoryFilter(snapshot));
+                while (javaFiles.hasNext()) {
+                    File file = javaFiles.next();
+                    if (!snapshot.isExcluded(file)) {
+                        files.put(file);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            discoveryError = t;
+        }
+    }
+
+    private void read(BlockingQueue<File> files, boolean isTestClassExcluded, BlockingQueue<TargetFile> targets,
+            BlockingQueue<MakeTestResult> results, AtomicInteger targetCount, Listener listener)
+            throws InterruptedException {
+        Configuration config = snapshot.getConfiguration();
+        File file;
+        while ((file = files.take()) != END_OF_FILES) {
+            TargetFile target = null;
+            try {
+                target = AbstractCommand.readTarget(snapshot, config, file, manifest, isTestClassExcluded);
+                if (target != null) {
+                    targetCount.incrementAndGet();
+                    listener.onTarget(target);
+                }
+            } catch (Throwable t) {
+                // reported as a failed file, the rest are still made
+                results.put(MakeTestCommand.failedResult(new TargetFile(file, null, ""), t));
+                continue;
+            }
+            if (target != null) {
+                targets.put(target);
+            }
+        }
+    }
+
+    private void generate(BlockingQueue<TargetFile> targets, BlockingQueue<MakeTestResult> results,
+            long timeoutMillis) throws InterruptedException {
+        TargetFile target;
+        while ((target = targets.take()) != END_OF_TARGETS) {
+            MakeTestResult result = null;
+            try {
+                // the ClassMeta is extracted within the same budget
+                result = MakeTestCommand.generateTest(snapshot, target, manifest, timeoutMillis);
+            } catch (Throwable t) {
+                result = MakeTestCommand.failedResult(target, t);
+            }
+            results.put(result);
+        }
+    }
+
+    private void write(BlockingQueue<MakeTestResult> results, Listener listener) throws InterruptedException {
+        int finishedGenerators = 0;
+        while (finishedGenerators < generators) {
+            MakeTestResult result = results.take();
+            if (result == END_OF_RESULTS) {
+                finishedGenerators++;
+            } else {
+                listener.onResult(MakeTestCommand.writeTest(result));
+            }
+        }
+    }
+
+}
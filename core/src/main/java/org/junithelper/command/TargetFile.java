@@ -0,0 +1,129 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.extractor.ClassMetaCache;
+import org.junithelper.core.extractor.ClassMetaExtractor;
+import org.junithelper.core.extractor.SourceUnit;
+import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.DigestUtil;
+import org.junithelper.core.util.IOUtil;
+import org.junithelper.core.util.UniversalDetectorUtil;
+
+/**
+ * A product source file found by commands.<br>
+ * The file is read only once and the result is shared by the target discovery
+ * and the test generation.
+ */
+public class TargetFile {
+
+    private final File file;
+
+    private final String encoding;
+
+    private final String sourceCodeString;
+
+    private String sourceCodeHash;
+
+    private SourceUnit sourceUnit;
+
+    private ClassMeta headerClassMeta;
+
+    private ClassMeta classMeta;
+
+    public TargetFile(File file, String encoding, String sourceCodeString) {
+        Assertion.on("file").mustNotBeNull(file);
+        Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
+        this.file = file;
+        this.encoding = encoding;
+        this.sourceCodeString = sourceCodeString;
+    }
+
+    public static TargetFile read(File file) throws IOException {
+        Assertion.on("file").mustNotBeNull(file);
+        // read only once, detecting and decoding share the bytes
+        byte[] bytes = IOUtil.readAsByteArray(file);
+        String encoding = UniversalDetectorUtil.getDetectedEncoding(bytes);
+        if (encoding == null) {
+            encoding = Charset.defaultCharset().name();
+        }
+        return new TargetFile(file, encoding, new String(bytes, encoding));
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public String getSourceCodeString() {
+        return sourceCodeString;
+    }
+
+    public String getSourceCodeHash() {
+        if (sourceCodeHash == null) {
+            sourceCodeHash = DigestUtil.md5Hex(sourceCodeString);
+        }
+        return sourceCodeHash;
+    }
+
+    /**
+     * @return the source code which is shared by the header and the whole
+     *         extraction, so that it is trimmed at most once
+     */
+    public SourceUnit getSourceUnit() {
+        if (sourceUnit == null) {
+            sourceUnit = new SourceUnit(sourceCodeString);
+        }
+        return sourceUnit;
+    }
+
+    /**
+     * @return package name, class name and modifiers only
+     */
+    public ClassMeta getHeaderClassMeta(Configuration config) {
+        if (headerClassMeta == null) {
+            headerClassMeta = (classMeta != null) ? classMeta : new ClassMetaExtractor(config)
+                    .extractHeader(getSourceUnit());
+        }
+        return headerClassMeta;
+    }
+
+    public ClassMeta getClassMeta(Configuration config) {
+        if (classMeta == null) {
+            classMeta = ClassMetaCache.getInstance().get(getCanonicalPath(), getSourceCodeHash(), getSourceUnit(),
+                    config);
+        }
+        return classMeta;
+    }
+
+    private String getCanonicalPath() {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.command;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.constant.RegExp;
+import org.junithelper.core.extractor.ClassMetaStore;
+import org.junithelper.core.extractor.SymbolIndex;
+import org.junithelper.core.file.FileSearcherFactory;
+import org.junithelper.core.util.Stderr;
+import org.junithelper.core.util.Stdout;
+
+/**
+ * Keeps watching the product source directory and makes tests only for the
+ * changed classes.<br>
+ * Changes are detected by polling the last modified time and the length of
+ * each file. Changes are coalesced until a polling cycle finds no more
+ * changes, so that saving several files at once makes a single batch.<br>
+ * The files are searched in the same way as make command does, and the test
+ * classes in the watched directory are never targets.
+ */
+public class WatchCommand extends AbstractCommand {
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000L;
+
+    public static volatile Configuration config = new Configuration();
+
+    public static void main(String[] args) throws Exception {
+
+        config = getUpdatedConfig(config);
+
+        boolean hasFirstArg = (args != null && args.length > 0 && args[0] != null);
+        String baseDir = hasFirstArg ? args[0] : config.directoryPathOfProductSourceCode;
+
+        WatchCommand watcher = new WatchCommand(config, new File(baseDir), getWatchInterval());
+        Stdout.p("  Watching: " + watcher.getBaseDir().getAbsolutePath() + " (" + watcher.size() + " file(s))");
+        watcher.watch();
+        Stdout.p("  Stopped.");
+    }
+
+    protected static long getWatchInterval() {
+        String value = System.getProperty("junithelper.watchInterval");
+        if (value == null || value.trim().length() == 0) {
+            return DEFAULT_INTERVAL_MILLIS;
+        }
+        try {
+            long interval = Long.valueOf(value.trim());
+            return interval > 0 ? interval : DEFAULT_INTERVAL_MILLIS;
+        } catch (NumberFormatException e) {
+            Stderr.p("Invalid junithelper.watchInterval value : " + value);
+            return DEFAULT_INTERVAL_MILLIS;
+        }
+    }
+
+    // -----------------
+
+    private final ConfigurationSnapshot snapshot;
+
+    private final Configuration watchConfig;
+
+    private final File baseDir;
+
+    private final long intervalMillis;
+
+    private final MakeManifest manifest;
+
+    private Map<String, FileState> fileStates;
+
+    private final Set<File> pending = new LinkedHashSet<File>();
+
+    private volatile boolean running = true;
+
+    private static class FileState {
+
+        final long lastModified;
+
+        final long length;
+
+        FileState(File file) {
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        boolean isSame(FileState other) {
+            return other != null && lastModified == other.lastModified && length == other.length;
+        }
+
+    }
+
+    WatchCommand(Configuration config, File baseDir, long intervalMillis) throws Exception {
+        this.snapshot = ConfigurationSnapshot.of(config);
+        this.watchConfig = snapshot.toConfiguration();
+        this.baseDir = baseDir;
+        this.intervalMillis = intervalMillis;
+        this.manifest = isIncremental() ? new MakeManifest(getManifestFile(), config).load() : null;
+        this.fileStates = scan();
+    }
+
+    File getBaseDir() {
+        return baseDir;
+    }
+
+    int size() {
+        return fileStates.size();
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void watch() throws InterruptedException {
+        while (running) {
+            Thread.sleep(intervalMillis);
+            List<File> batch = poll();
+            if (batch.size() > 0) {
+                makeTests(batch);
+            }
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    /**
+     * @return changed files to make tests for, empty while files are still
+     *         being changed
+     */
+    List<File> poll() {
+        Map<String, FileState> current = scan();
+        boolean changed = false;
+        for (Map.Entry<String, FileState> entry : current.entrySet()) {
+            if (!entry.getValue().isSame(fileStates.get(entry.getKey()))) {
+                pending.add(new File(entry.getKey()));
+                changed = true;
+            }
+        }
+        for (String path : fileStates.keySet()) {
+            if (!current.containsKey(path)) {
+                // deleted files are not targets anymore
+                pending.remove(new File(path));
+                if (manifest != null) {
+                    manifest.remove(new File(path));
+                }
+            }
+        }
+        fileStates = current;
+        if (changed || pending.isEmpty()) {
+            return new ArrayList<File>();
+        }
+        List<File> batch = new ArrayList<File>(pending);
+        pending.clear();
+        return batch;
+    }
+
+    /**
+     * @return the number of files which failed
+     */
+    int makeTests(List<File> files) {
+        SymbolIndex.revalidateInstances();
+        List<MakeTestCommand.MakeTestResult> failedResults = new ArrayList<MakeTestCommand.MakeTestResult>();
+        int failedToRead = 0;
+        for (File file : files) {
+            try {
+                if (snapshot.isExcluded(file)) {
+                    continue;
+                }
+                // the watched directory can contain the test source directory
+                TargetFile target = readTarget(snapshot, watchConfig, file, manifest, true);
+                if (target != null) {
+                    MakeTestCommand.MakeTestResult result = MakeTestCommand.makeTest(snapshot, target, manifest);
+                    MakeTestCommand.printResult(result, failedResults, manifest);
+                }
+            } catch (Exception e) {
+                Stderr.p("  Error: " + file.getAbsolutePath() + " - " + e);
+                failedToRead++;
+            }
+        }
+        if (manifest != null) {
+            MakeTestCommand.saveManifest(manifest);
+        }
+        ClassMetaStore.saveInstances();
+        SymbolIndex.saveInstances();
+        return failedResults.size() + failedToRead;
+    }
+
+    /**
+     * Searches the files in the same way as make command does, so that the
+     * excluded packages and the build output directories are not read.
+     */
+    private Map<String, FileState> scan() {
+        Map<String, FileState> dest = new HashMap<String, FileState>();
+        if (!baseDir.isDirectory()) {
+            return dest;
+        }
+        List<File> javaFiles = FileSearcherFactory.create(watchConfig).searchFilesRecursivelyByName(baseDir.getPath(),
+                RegExp.FileExtension.JavaFile, getDirectoryFilter(snapshot));
+        for (File file : javaFiles) {
+            if (!snapshot.isExcluded(file)) {
+                dest.put(file.getPath(), new FileState(file));
+            }
+        }
+        return dest;
+    }
+
+}
@@ -39,6 +39,14 @@ public class Configuration {
 
     public String directoryPathOfTestSourceCode = "src/test/java";
 
+    public String symbolIndexFilePath = null;
+
+    public String classMetaCacheFilePath = null;
+
+    public boolean isPruningFileSearcherEnabled = false;
+
+    public int fileSearcherThreads = 1;
+
     public JUnitVersion junitVersion = JUnitVersion.version4;
 
     public String testCaseClassNameToExtend = "junit.framework.TestCase";
@@ -53,4 +61,57 @@ public class Configuration {
 
     public TestingPatternExplicitComment testingPatternExplicitComment = TestingPatternExplicitComment.None;
 
+    /**
+     * @return a deep copy, modifying it does not affect this configuration
+     */
+    public Configuration copy() {
+        Configuration dest = copyFields();
+        dest.target = target.copy();
+        dest.testMethodName = testMethodName.copy();
+        dest.extConfiguration = (extConfiguration != null) ? extConfiguration.copy(dest) : null;
+        return dest;
+    }
+
+    /**
+     * Derives a configuration for another JUnit version.<br>
+     * The nested objects are shared with this configuration, so the derived
+     * one should be used only for reading.
+     *
+     * @return this configuration if the version is the same
+     */
+    public Configuration withJUnitVersion(JUnitVersion junitVersion) {
+        if (this.junitVersion == junitVersion) {
+            return this;
+        }
+        Configuration dest = copyFields();
+        dest.junitVersion = junitVersion;
+        return dest;
+    }
+
+    private Configuration copyFields() {
+        Configuration dest = new Configuration();
+        dest.isExtensionEnabled = isExtensionEnabled;
+        dest.extensionConfigXML = extensionConfigXML;
+        dest.extConfiguration = extConfiguration;
+        dest.lineBreakPolicy = lineBreakPolicy;
+        dest.useSoftTabs = useSoftTabs;
+        dest.softTabSize = softTabSize;
+        dest.language = language;
+        dest.outputFileEncoding = outputFileEncoding;
+        dest.directoryPathOfProductSourceCode = directoryPathOfProductSourceCode;
+        dest.directoryPathOfTestSourceCode = directoryPathOfTestSourceCode;
+        dest.symbolIndexFilePath = symbolIndexFilePath;
+        dest.classMetaCacheFilePath = classMetaCacheFilePath;
+        dest.isPruningFileSearcherEnabled = isPruningFileSearcherEnabled;
+        dest.fileSearcherThreads = fileSearcherThreads;
+        dest.junitVersion = junitVersion;
+        dest.testCaseClassNameToExtend = testCaseClassNameToExtend;
+        dest.isTemplateImplementationRequired = isTemplateImplementationRequired;
+        dest.target = target;
+        dest.testMethodName = testMethodName;
+        dest.mockObjectFramework = mockObjectFramework;
+        dest.testingPatternExplicitComment = testingPatternExplicitComment;
+        return dest;
+    }
+
 }
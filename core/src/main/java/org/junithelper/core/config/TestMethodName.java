@@ -35,4 +35,18 @@ public class TestMethodName {
 
     public String exceptionAreaDelimiter = "$";
 
+    public TestMethodName copy() {
+        TestMethodName dest = new TestMethodName();
+        dest.isArgsRequired = isArgsRequired;
+        dest.isReturnRequired = isReturnRequired;
+        dest.basicDelimiter = basicDelimiter;
+        dest.argsAreaPrefix = argsAreaPrefix;
+        dest.argsAreaDelimiter = argsAreaDelimiter;
+        dest.returnAreaPrefix = returnAreaPrefix;
+        dest.returnAreaDelimiter = returnAreaDelimiter;
+        dest.exceptionAreaPrefix = exceptionAreaPrefix;
+        dest.exceptionAreaDelimiter = exceptionAreaDelimiter;
+        return dest;
+    }
+
 }
@@ -15,6 +15,8 @@
  */
 package org.junithelper.core.config;
 
+import java.util.regex.Pattern;
+
 public class TestingTarget {
 
     public boolean isPublicMethodRequired = true;
@@ -33,4 +35,77 @@ public class TestingTarget {
         return regexpCsvForExclusion.replaceAll("\r", "").replaceAll("\n", "").trim().split(",");
     }
 
+    /**
+     * Compiles all the regexps for exclusion into a single pattern.<br>
+     * The pattern should be matched with the canonical class names such as
+     * "foo.var.Sample.java".
+     * 
+     * @return null if nothing is excluded
+     */
+    public Pattern getExclusionPattern() {
+        StringBuilder sb = new StringBuilder();
+        for (String regexp : getRegexpArrayForExclusion()) {
+            if (regexp != null && regexp.trim().length() > 0) {
+                appendAlternative(sb, regexp.trim());
+            }
+        }
+        if (sb.length() == 0) {
+            return null;
+        }
+        return Pattern.compile(".+(?:" + sb.toString() + ").java$");
+    }
+
+    /**
+     * Compiles the regexps for exclusion which end with ".*" or ".+" into a
+     * single pattern to detect the packages whose classes are all excluded.
+     * <br>
+     * The pattern should be tested by {@link java.util.regex.Matcher#lookingAt()}
+     * with the package name followed by "." such as "foo.var.generated.".
+     * 
+     * @return null if no package is excluded as a whole
+     */
+    public Pattern getExclusionPatternForPackage() {
+        StringBuilder sb = new StringBuilder();
+        for (String regexp : getRegexpArrayForExclusion()) {
+            if (regexp != null && isEndWithWildcard(regexp.trim())) {
+                String trimmed = regexp.trim();
+                appendAlternative(sb, trimmed.substring(0, trimmed.length() - 2));
+            }
+        }
+        if (sb.length() == 0) {
+            return null;
+        }
+        return Pattern.compile(".+(?:" + sb.toString() + ")");
+    }
+
+    private static void appendAlternative(StringBuilder sb, String regexp) {
+        if (sb.length() > 0) {
+            sb.append("|");
+        }
+        sb.append("(?:").append(regexp).append(")");
+    }
+
+    private static boolean isEndWithWildcard(String regexp) {
+        if (!regexp.endsWith(".*") && !regexp.endsWith(".+")) {
+            return false;
+        }
+        // "\\.*" means dots, not anything
+        int backslashes = 0;
+        for (int i = regexp.length() - 3; i >= 0 && regexp.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 0;
+    }
+
+    public TestingTarget copy() {
+        TestingTarget dest = new TestingTarget();
+        dest.isPublicMethodRequired = isPublicMethodRequired;
+        dest.isProtectedMethodRequired = isProtectedMethodRequired;
+        dest.isPackageLocalMethodRequired = isPackageLocalMethodRequired;
+        dest.isExceptionPatternRequired = isExceptionPatternRequired;
+        dest.isAccessorExcluded = isAccessorExcluded;
+        dest.regexpCsvForExclusion = regexpCsvForExclusion;
+        return dest;
+    }
+
 }
@@ -39,4 +39,18 @@ public class ExtConfiguration {
 
     public List<ExtReturn> extReturns = new ArrayList<ExtReturn>();
 
+    /**
+     * The lists are copied but the loaded elements are shared.
+     *
+     * @param config the configuration which owns the copy
+     */
+    public ExtConfiguration copy(Configuration config) {
+        ExtConfiguration dest = new ExtConfiguration();
+        dest.config = config;
+        dest.extInstantiations = new ArrayList<ExtInstantiation>(extInstantiations);
+        dest.extArgs = new ArrayList<ExtArg>(extArgs);
+        dest.extReturns = new ArrayList<ExtReturn>(extReturns);
+        return dest;
+    }
+
 }
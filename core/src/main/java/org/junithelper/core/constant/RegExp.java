@@ -60,6 +60,10 @@ public final class RegExp {
 
     public static final String Generics_Group = "<([a-zA-Z0-9,\\$_\\?]+?)>";
 
+    /**
+     * The extractors use MethodSignatureParser which finds the same areas in
+     * linear time.
+     */
     public static String MethodSignatureArea = "[\\{;\\}][^\\{=;\\}]+\\([^\\{;\\}]*\\)[^\\{;\\}]*\\{\\s*";
 
     /**
@@ -80,6 +84,8 @@ public final class RegExp {
      * $1 : return value <br>
      * $2 : method name <br>
      * $3 : args<br>
+     * The extractors use MethodSignatureParser which groups in the same way in
+     * linear time.
      */
     public static String MethodSignatureWithoutAccessModifier_Group = "";
 
@@ -127,6 +133,19 @@ public final class RegExp {
         public static Pattern MethodArg_Group = Pattern.compile(RegExp.MethodArg_Group);
         public static Pattern PackageDefArea_Group = Pattern.compile(RegExp.PackageDefArea_Group);
         public static Pattern Pacakge_Group = Pattern.compile(RegExp.Package_Group);
+        public static Pattern Generics = Pattern.compile(RegExp.Generics);
+        public static Pattern Generics_Group = Pattern.compile(RegExp.Generics_Group);
+        public static Pattern GenericsBrackets = Pattern.compile("[<>]");
+        public static Pattern ArrayBrackets = Pattern.compile("\\[\\s*\\]");
+        public static Pattern ArrayBrackets_Suffix = Pattern.compile(".+\\[\\s*\\]");
+        public static Pattern CR = Pattern.compile(RegExp.CR);
+        public static Pattern LF = Pattern.compile(RegExp.LF);
+        public static Pattern CRLF = Pattern.compile(RegExp.CRLF);
+        public static Pattern WhiteSpace_Consecutive_OneOrMore_Max = Pattern
+                .compile(RegExp.WhiteSpace.Consecutive_OneOrMore_Max);
+        public static Pattern Final_WithSpace = Pattern.compile("final ");
+        public static Pattern Throws_WithWhiteSpace = Pattern.compile("throws"
+                + RegExp.WhiteSpace.Consecutive_OneOrMore_Max);
 
     }
 
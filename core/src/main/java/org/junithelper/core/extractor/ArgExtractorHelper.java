@@ -14,10 +14,17 @@ public class ArgExtractorHelper {
 
     static final String NESTED_GENERICS_MARK = "@NESTED_GENERICS@";
 
+    private static final String Final_WithSpace = "final ";
+
     static List<String> getArgListFromArgsDefAreaString(String argsDefAreaString) {
 
         Assertion.on("argsDefAreaString").mustNotBeNull(argsDefAreaString);
 
+        List<String> parsedArgs = getArgListIfParsable(argsDefAreaString);
+        if (parsedArgs != null) {
+            return parsedArgs;
+        }
+
         // nested generics
         StringBuilder tmp = new StringBuilder();
         boolean isInsideOfGeneric = false;
@@ -99,6 +106,152 @@ public class ArgExtractorHelper {
         return args;
     }
 
+    /**
+     * Splits the args by {@link TypeParser} instead of regular expressions.
+     * The results are the same as the string based way above.
+     * 
+     * @return null if any arg is not parsable
+     */
+    static List<String> getArgListIfParsable(String argsDefAreaString) {
+        List<String> args = new ArrayList<String>();
+        int depth = 0;
+        int start = 0;
+        int len = argsDefAreaString.length();
+        for (int i = 0; i <= len; i++) {
+            char c = i == len ? ',' : argsDefAreaString.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                if (--depth < 0) {
+                    return null;
+                }
+            } else if (c == ',' && depth == 0) {
+                String arg = argsDefAreaString.substring(start, i).trim();
+                TypeRef argType = getArgType(arg);
+                if (argType == null) {
+                    return null;
+                }
+                if (argType.hasNestedTypeArguments()) {
+                    // ex. Map<String, List<String>> map -> Map map
+                    arg = arg.substring(0, arg.indexOf('<')) + arg.substring(arg.lastIndexOf('>') + 1);
+                } else if (argType.getTypeArguments().size() > 1) {
+                    // ex. Map<String, Object> map -> Map<String,Object> map
+                    StringBuilder buf = new StringBuilder();
+                    for (String each : arg.split(StringValue.Comma)) {
+                        if (buf.length() > 0) {
+                            buf.append(StringValue.Comma);
+                        }
+                        buf.append(each.trim());
+                    }
+                    arg = buf.toString();
+                }
+                args.add(arg);
+                start = i + 1;
+            }
+        }
+        return depth == 0 ? args : null;
+    }
+
+    /**
+     * @param arg the arg definition such as "final List&lt;String&gt; list"
+     * @return the declared type, null if the arg is not "[final ]Type name"
+     */
+    static TypeRef getArgType(String arg) {
+        int typeStart = 0;
+        while (arg.startsWith(Final_WithSpace, typeStart) && arg.length() > typeStart + Final_WithSpace.length()
+                && !TypeParser.isWhiteSpace(arg.charAt(typeStart + Final_WithSpace.length()))) {
+            typeStart += Final_WithSpace.length();
+        }
+        if (arg.indexOf(Final_WithSpace, typeStart) != -1) {
+            return null;
+        }
+        // arg name
+        int nameStart = arg.length();
+        while (nameStart > typeStart && isArgNamePart(arg.charAt(nameStart - 1))) {
+            nameStart--;
+        }
+        if (!isArgName(arg, nameStart)) {
+            return null;
+        }
+        int typeEnd = nameStart;
+        while (typeEnd > typeStart && TypeParser.isWhiteSpace(arg.charAt(typeEnd - 1))) {
+            typeEnd--;
+        }
+        if (typeEnd == nameStart) {
+            return null;
+        }
+        TypeRef argType = TypeParser.parse(arg.substring(typeStart, typeEnd));
+        if (argType != null && argType.hasTypeArguments() && argType.getName().endsWith("final")) {
+            // "final " appears after removing generics, ex. "final<T> t" -> "final t"
+            return null;
+        }
+        return argType;
+    }
+
+    /**
+     * @return the generics of the arg which are simple names or "?", the
+     *         same as {@link RegExp#Generics_Group}
+     */
+    static List<String> getSimpleGenerics(String arg, TypeRef argType) {
+        List<String> generics = new ArrayList<String>();
+        if (argType.hasNestedTypeArguments()) {
+            return generics;
+        }
+        for (TypeRef typeArgument : argType.getTypeArguments()) {
+            if (!isSimpleGeneric(typeArgument)) {
+                return new ArrayList<String>();
+            }
+            generics.add(typeArgument.getName());
+        }
+        if (generics.size() > 0) {
+            String genericsArea = arg.substring(arg.indexOf('<'), arg.indexOf('>'));
+            if (genericsArea.indexOf(' ') != -1 || genericsArea.indexOf('\t') != -1) {
+                return new ArrayList<String>();
+            }
+        }
+        return generics;
+    }
+
+    private static boolean isSimpleGeneric(TypeRef typeArgument) {
+        if (typeArgument.isWildcard()) {
+            return typeArgument.getWildcardBound() == null;
+        }
+        if (typeArgument.hasTypeArguments() || typeArgument.getArrayDimensions() > 0) {
+            return false;
+        }
+        String name = typeArgument.getName();
+        int len = name.length();
+        for (int i = 0; i < len; i++) {
+            char c = name.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '$' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isArgNamePart(char c) {
+        return TypeParser.isIdentifierPart(c) || c == '[' || c == ']';
+    }
+
+    /**
+     * @return true if identifier followed by array brackets, ex. "strArr[]"
+     */
+    private static boolean isArgName(String arg, int nameStart) {
+        int len = arg.length();
+        if (nameStart == len || !TypeParser.isIdentifierStart(arg.charAt(nameStart))) {
+            return false;
+        }
+        int i = nameStart + 1;
+        while (i < len && TypeParser.isIdentifierPart(arg.charAt(i))) {
+            i++;
+        }
+        while (arg.startsWith("[]", i)) {
+            i += 2;
+        }
+        return i == len;
+    }
+
     static String trimGenericsAreaIfNestedGenericsExists(String target) {
         Assertion.on("target").mustNotBeNull(target);
         if (target.matches(RegExp.Anything_OneOrMore_Min + NESTED_GENERICS_MARK + RegExp.Anything_OneOrMore_Min)) {
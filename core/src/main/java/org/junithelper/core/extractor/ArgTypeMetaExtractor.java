@@ -18,7 +18,6 @@ package org.junithelper.core.extractor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.constant.RegExp;
@@ -75,24 +74,43 @@ public class ArgTypeMetaExtractor {
         int argArrLen = argArr.length;
         for (int i = 0; i < argArrLen; i++) {
             ArgTypeMeta argTypeMeta = new ArgTypeMeta();
-            String argTypeFull = argArr[i];
+            // ex. "String[ ] strArr" -> "String[] strArr"
+            String argTypeFull = RegExp.PatternObject.ArrayBrackets.matcher(argArr[i]).replaceAll("[]");
+            TypeRef argType = ArgExtractorHelper.getArgType(argTypeFull);
+            if (argType != null && argType.hasNestedTypeArguments()) {
+                argType = null;
+            }
             // -----------------
             // generics of arg
-            Matcher toGenericsMatcherForArg = Pattern.compile(RegExp.Generics_Group).matcher(argTypeFull);
-            while (toGenericsMatcherForArg.find()) {
-                String[] generics = toGenericsMatcherForArg.group().replaceAll("<", StringValue.Empty).replaceAll(">",
-                        StringValue.Empty).split(StringValue.Comma);
-                // convert to java.lang.Object if self class is included
-                for (String generic : generics) {
-                    generic = typeNameConverter
-                            .toCompilableType(generic, classMeta.importedList, classMeta.packageName);
-                    argTypeMeta.generics.add(generic);
+            String[] generics;
+            if (argType != null) {
+                generics = ArgExtractorHelper.getSimpleGenerics(argTypeFull, argType).toArray(new String[0]);
+            } else {
+                List<String> found = new ArrayList<String>();
+                Matcher toGenericsMatcherForArg = RegExp.PatternObject.Generics_Group.matcher(argTypeFull);
+                while (toGenericsMatcherForArg.find()) {
+                    for (String generic : RegExp.PatternObject.GenericsBrackets.matcher(
+                            toGenericsMatcherForArg.group()).replaceAll(StringValue.Empty).split(StringValue.Comma)) {
+                        found.add(generic);
+                    }
                 }
+                generics = found.toArray(new String[0]);
+            }
+            // convert to java.lang.Object if self class is included
+            for (String generic : generics) {
+                generic = typeNameConverter.toCompilableType(generic, classMeta.importedList, classMeta.packageName);
+                argTypeMeta.generics.add(generic);
             }
             // -----------------
             // arg type
-            String argTypeName = argTypeFull.replaceAll("final ", StringValue.Empty).replaceAll(RegExp.Generics,
-                    StringValue.Empty).split("\\s+")[0].trim();
+            String argTypeName;
+            if (argType != null) {
+                argTypeName = argType.getErasedName();
+            } else {
+                argTypeName = RegExp.PatternObject.Final_WithSpace.matcher(argTypeFull).replaceAll(StringValue.Empty);
+                argTypeName = RegExp.PatternObject.WhiteSpace_Consecutive_OneOrMore_Max.split(
+                        RegExp.PatternObject.Generics.matcher(argTypeName).replaceAll(StringValue.Empty))[0].trim();
+            }
             if (argTypeName != null && !"".equals(argTypeName)) {
                 argTypeMeta.name = typeNameConverter.toCompilableType(argTypeName, argTypeMeta.generics,
                         classMeta.importedList, classMeta.packageName);
@@ -104,14 +122,14 @@ public class ArgTypeMetaExtractor {
             Matcher argNameMatcher = RegExp.PatternObject.MethodArg_Group.matcher(argTypeFull);
             if (argNameMatcher.find()) {
                 String argName = argNameMatcher.group(1);
-                if (argName.matches(".+\\[\\s*\\]")) {
+                if (RegExp.PatternObject.ArrayBrackets_Suffix.matcher(argName).matches()) {
                     // ex. String strArr[] = null;
                     String arrayPart = "";
-                    Matcher mat = Pattern.compile("\\[\\s*\\]").matcher(argName);
+                    Matcher mat = RegExp.PatternObject.ArrayBrackets.matcher(argName);
                     while (mat.find()) {
                         arrayPart += "[]";
                     }
-                    argName = argName.replaceAll("\\[\\s*\\]", StringValue.Empty);
+                    argName = mat.replaceAll(StringValue.Empty);
                     argTypeMeta.name = argTypeMeta.name + arrayPart;
                     argTypeMeta.nameInMethodName = typeNameConverter.toAvailableInMethodName(argTypeMeta.name);
                 }
@@ -15,14 +15,10 @@
  */
 package org.junithelper.core.extractor;
 
-import java.io.File;
 import java.lang.reflect.Modifier;
-import java.util.List;
 
 import org.junithelper.core.config.Configuration;
-import org.junithelper.core.constant.RegExp;
 import org.junithelper.core.constant.StringValue;
-import org.junithelper.core.file.FileSearcherFactory;
 import org.junithelper.core.meta.ClassMeta;
 import org.junithelper.core.util.PrimitiveTypeUtil;
 import org.junithelper.core.util.Stderr;
@@ -50,12 +46,7 @@ public class AvailableTypeDetector {
         if (typeName.matches("java\\.lang\\.[^\\.]+$")) {
             return true;
         }
-        try {
-            Class.forName("java.lang." + typeName);
-            return true;
-        } catch (Exception e) {
-        }
-        return false;
+        return ClassResolutionCache.getInstance().isFound("java.lang." + typeName);
     }
 
     public boolean isAvailableType(String typeName, Configuration config) {
@@ -75,21 +66,18 @@ public class AvailableTypeDetector {
                 return true;
             }
         }
-        try {
-            Class.forName("java.lang." + typeName);
+        if (ClassResolutionCache.getInstance().isFound("java.lang." + typeName)) {
             isTypeAvailable = true;
-        } catch (Exception ignore) {
+        } else {
             if (config != null && packageName != null) {
-                // check same package class
-                String searchPath = config.directoryPathOfProductSourceCode + "/" + packageName.replaceAll("\\.", "/");
+                // check product source code class
+                String simpleName = packageArr[packageArr.length - 1];
                 try {
-                    List<File> files = FileSearcherFactory.create().searchFilesRecursivelyByName(searchPath,
-                            typeName + RegExp.FileExtension.JavaFile);
-                    if (files != null && files.size() > 0) {
+                    if (SymbolIndex.getInstance(config).contains(packageName, simpleName)) {
                         isTypeAvailable = true;
                     }
                 } catch (Exception e) {
-                    Stderr.p(e.getLocalizedMessage() + " - " + searchPath);
+                    Stderr.p(e.getLocalizedMessage() + " - " + typeName);
                 }
             }
         }
@@ -103,28 +91,24 @@ public class AvailableTypeDetector {
         if (PrimitiveTypeUtil.isPrimitive(typeName) || typeName.matches(".+?\\[\\]$")) {
             return false;
         }
-        try {
-            // java.lang class name
-            Class<?> clazz = Class.forName("java.lang." + typeName);
-            return (Modifier.isFinal(clazz.getModifiers())) ? false : true;
-        } catch (Exception ignore) {
-            // imported class name
-            for (String importedPackage : classMeta.importedList) {
-                importedPackage = importedPackage.replaceAll("//", StringValue.Empty);
-                if (importedPackage.matches(".+?\\." + typeName + "$")) {
-                    return true;
-                }
-            }
-            // full package class name
-            if (typeName.matches(".+?\\..+")) {
-                try {
-                    Class<?> clazz = Class.forName(typeName);
-                    return !(Modifier.isFinal(clazz.getModifiers()));
-                } catch (Exception e) {
-                    return false;
-                }
+        ClassResolutionCache classResolutionCache = ClassResolutionCache.getInstance();
+        // java.lang class name
+        Class<?> javaLangClazz = classResolutionCache.forName("java.lang." + typeName);
+        if (javaLangClazz != null) {
+            return (Modifier.isFinal(javaLangClazz.getModifiers())) ? false : true;
+        }
+        // imported class name
+        for (String importedPackage : classMeta.importedList) {
+            importedPackage = importedPackage.replaceAll("//", StringValue.Empty);
+            if (importedPackage.matches(".+?\\." + typeName + "$")) {
+                return true;
             }
         }
+        // full package class name
+        if (typeName.matches(".+?\\..+")) {
+            Class<?> clazz = classResolutionCache.forName(typeName);
+            return clazz != null && !(Modifier.isFinal(clazz.getModifiers()));
+        }
         return false;
     }
 
@@ -0,0 +1,334 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.meta.ArgTypeMeta;
+import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.meta.ConstructorMeta;
+import org.junithelper.core.meta.ExceptionMeta;
+import org.junithelper.core.meta.MethodMeta;
+import org.junithelper.core.meta.ReturnTypeMeta;
+import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.DigestUtil;
+
+/**
+ * Shared cache of extracted ClassMeta objects.<br>
+ * Entries are keyed by the canonical path of the source file and validated
+ * by the hash of its content and the digest of {@link SymbolIndex}, so an
+ * edited file is extracted again and so is a file whose type names may be
+ * resolved differently after classes are added or removed.
+ * Entries are evicted in LRU order when either the number of entries or the
+ * estimated memory usage exceeds its limit.<br>
+ * Callers always get a copy because test case generators modify the
+ * imported list of the given ClassMeta.<br>
+ * If "classMetaCacheFilePath" is specified, missed entries are looked up in
+ * {@link ClassMetaStore} before extracting.
+ */
+public class ClassMetaCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private static final ClassMetaCache INSTANCE = new ClassMetaCache(DEFAULT_MAX_SIZE, DEFAULT_MAX_BYTES);
+
+    public static ClassMetaCache getInstance() {
+        return INSTANCE;
+    }
+
+    // -----------------
+
+    private final int maxSize;
+
+    private final long maxBytes;
+
+    private final Map<String, Entry> cache = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private long totalBytes = 0L;
+
+    private long hitCount = 0L;
+
+    private long missCount = 0L;
+
+    private static class Entry {
+
+        final String contentHash;
+
+        final String symbolIndexDigest;
+
+        final ClassMeta classMeta;
+
+        final long bytes;
+
+        Entry(String contentHash, String symbolIndexDigest, ClassMeta classMeta) {
+            this.contentHash = contentHash;
+            this.symbolIndexDigest = symbolIndexDigest;
+            this.classMeta = classMeta;
+            this.bytes = estimateBytes(classMeta);
+        }
+
+    }
+
+    public ClassMetaCache(int maxSize, long maxBytes) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0 : " + maxSize);
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be greater than 0 : " + maxBytes);
+        }
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param canonicalPath the key of the entry, the ClassMeta is extracted
+     *            without caching if null
+     * @return a copy of the cached ClassMeta or newly extracted one
+     */
+    public ClassMeta get(String canonicalPath, SourceUnit sourceUnit, Configuration config) {
+        Assertion.on("sourceUnit").mustNotBeNull(sourceUnit);
+        String contentHash = canonicalPath == null ? null : DigestUtil.md5Hex(sourceUnit.getSourceCodeString());
+        return get(canonicalPath, contentHash, sourceUnit, config);
+    }
+
+    public ClassMeta get(String canonicalPath, String sourceCodeString, Configuration config) {
+        Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
+        return get(canonicalPath, new SourceUnit(sourceCodeString), config);
+    }
+
+    /**
+     * @param contentHash the MD5 hex of the source code string which has been
+     *            already calculated by the caller
+     */
+    public ClassMeta get(String canonicalPath, String contentHash, SourceUnit sourceUnit, Configuration config) {
+        Assertion.on("sourceUnit").mustNotBeNull(sourceUnit);
+        Assertion.on("config").mustNotBeNull(config);
+        if (canonicalPath == null || contentHash == null) {
+            return new ClassMetaExtractor(config).extract(sourceUnit);
+        }
+        // type names are resolved with the symbol index of the product source
+        // directory
+        String key = canonicalPath + "\n" + config.directoryPathOfProductSourceCode;
+        // taken before extracting, a class added meanwhile only causes another
+        // extraction next time
+        String symbolIndexDigest = SymbolIndex.getInstance(config).getDigest();
+        synchronized (cache) {
+            Entry cached = cache.get(key);
+            if (cached != null && cached.contentHash.equals(contentHash)
+                    && cached.symbolIndexDigest.equals(symbolIndexDigest)) {
+                hitCount++;
+                return copy(cached.classMeta);
+            }
+            missCount++;
+        }
+        // extraction results of the previous run
+        ClassMetaStore store = ClassMetaStore.getInstance(config);
+        ClassMeta extracted = (store != null) ? store.get(canonicalPath, contentHash) : null;
+        if (extracted == null) {
+            extracted = new ClassMetaExtractor(config).extract(sourceUnit);
+            if (store != null) {
+                store.put(canonicalPath, contentHash, extracted);
+            }
+        }
+        Entry entry = new Entry(contentHash, symbolIndexDigest, copy(extracted));
+        synchronized (cache) {
+            Entry replaced = cache.put(key, entry);
+            if (replaced != null) {
+                totalBytes -= replaced.bytes;
+            }
+            totalBytes += entry.bytes;
+            evict();
+        }
+        return extracted;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getEstimatedBytes() {
+        synchronized (cache) {
+            return totalBytes;
+        }
+    }
+
+    public long getHitCount() {
+        synchronized (cache) {
+            return hitCount;
+        }
+    }
+
+    public long getMissCount() {
+        synchronized (cache) {
+            return missCount;
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            totalBytes = 0L;
+            hitCount = 0L;
+            missCount = 0L;
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = cache.values().iterator();
+        // the latest entry is kept even if it is larger than the limit
+        while (cache.size() > 1 && (cache.size() > maxSize || totalBytes > maxBytes)) {
+            totalBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    // -----------------
+
+    /**
+     * Rough estimation of the retained size, 2 bytes for each char and a few
+     * dozen bytes for each object.
+     */
+    static long estimateBytes(ClassMeta meta) {
+        long bytes = 64L + estimateBytes(meta.packageName) + estimateBytes(meta.name)
+                + estimateBytes(meta.importedList);
+        for (ConstructorMeta constructor : meta.constructors) {
+            bytes += 64L + estimateBytes(constructor.argNames) + estimateArgTypesBytes(constructor.argTypes)
+                    + estimateExceptionsBytes(constructor.throwsExceptions);
+        }
+        for (MethodMeta method : meta.methods) {
+            bytes += 64L + estimateBytes(method.name) + estimateBytes(method.argNames)
+                    + estimateArgTypesBytes(method.argTypes) + estimateExceptionsBytes(method.throwsExceptions);
+            if (method.returnType != null) {
+                bytes += 32L + estimateBytes(method.returnType.name) + estimateBytes(method.returnType.nameInMethodName)
+                        + estimateBytes(method.returnType.generics);
+            }
+        }
+        return bytes;
+    }
+
+    private static long estimateBytes(String str) {
+        return str == null ? 0L : 32L + str.length() * 2L;
+    }
+
+    private static long estimateBytes(List<String> list) {
+        long bytes = 32L;
+        for (String str : list) {
+            bytes += 8L + estimateBytes(str);
+        }
+        return bytes;
+    }
+
+    private static long estimateArgTypesBytes(List<ArgTypeMeta> argTypes) {
+        long bytes = 32L;
+        for (ArgTypeMeta argType : argTypes) {
+            bytes += 32L + estimateBytes(argType.name) + estimateBytes(argType.nameInMethodName)
+                    + estimateBytes(argType.generics);
+        }
+        return bytes;
+    }
+
+    private static long estimateExceptionsBytes(List<ExceptionMeta> exceptions) {
+        long bytes = 32L;
+        for (ExceptionMeta exception : exceptions) {
+            bytes += 32L + estimateBytes(exception.name) + estimateBytes(exception.nameInMethodName);
+        }
+        return bytes;
+    }
+
+    /**
+     * @return a deep copy which can be given to a test case generator without
+     *         modifying the original
+     */
+    public static ClassMeta copy(ClassMeta meta) {
+        ClassMeta dest = new ClassMeta();
+        dest.isAbstract = meta.isAbstract;
+        dest.isEnum = meta.isEnum;
+        dest.packageName = meta.packageName;
+        dest.name = meta.name;
+        dest.importedList = new ArrayList<String>(meta.importedList);
+        dest.constructors = new ArrayList<ConstructorMeta>();
+        for (ConstructorMeta constructor : meta.constructors) {
+            ConstructorMeta copied = new ConstructorMeta();
+            copied.accessModifier = constructor.accessModifier;
+            copied.argTypes = copyArgTypes(constructor.argTypes);
+            copied.argNames = new ArrayList<String>(constructor.argNames);
+            copied.throwsExceptions = copyExceptions(constructor.throwsExceptions);
+            copied.testingTargetException = copy(constructor.testingTargetException);
+            dest.constructors.add(copied);
+        }
+        dest.methods = new ArrayList<MethodMeta>();
+        for (MethodMeta method : meta.methods) {
+            MethodMeta copied = new MethodMeta();
+            copied.name = method.name;
+            copied.isStatic = method.isStatic;
+            copied.isAccessor = method.isAccessor;
+            copied.accessModifier = method.accessModifier;
+            if (method.returnType != null) {
+                copied.returnType = new ReturnTypeMeta();
+                copied.returnType.name = method.returnType.name;
+                copied.returnType.nameInMethodName = method.returnType.nameInMethodName;
+                copied.returnType.generics = new ArrayList<String>(method.returnType.generics);
+            } else {
+                copied.returnType = null;
+            }
+            copied.argTypes = copyArgTypes(method.argTypes);
+            copied.argNames = new ArrayList<String>(method.argNames);
+            copied.throwsExceptions = copyExceptions(method.throwsExceptions);
+            dest.methods.add(copied);
+        }
+        return dest;
+    }
+
+    private static List<ArgTypeMeta> copyArgTypes(List<ArgTypeMeta> argTypes) {
+        List<ArgTypeMeta> dest = new ArrayList<ArgTypeMeta>();
+        for (ArgTypeMeta argType : argTypes) {
+            ArgTypeMeta copied = new ArgTypeMeta();
+            copied.name = argType.name;
+            copied.nameInMethodName = argType.nameInMethodName;
+            copied.generics = new ArrayList<String>(argType.generics);
+            dest.add(copied);
+        }
+        return dest;
+    }
+
+    private static List<ExceptionMeta> copyExceptions(List<ExceptionMeta> exceptions) {
+        List<ExceptionMeta> dest = new ArrayList<ExceptionMeta>();
+        for (ExceptionMeta exception : exceptions) {
+            dest.add(copy(exception));
+        }
+        return dest;
+    }
+
+    private static ExceptionMeta copy(ExceptionMeta exception) {
+        if (exception == null) {
+            return null;
+        }
+        ExceptionMeta dest = new ExceptionMeta();
+        dest.name = exception.name;
+        dest.nameInMethodName = exception.nameInMethodName;
+        return dest;
+    }
+
+}
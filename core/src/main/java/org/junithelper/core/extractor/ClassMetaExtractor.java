@@ -15,14 +15,16 @@
  */
 package org.junithelper.core.extractor;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.constant.RegExp;
 import org.junithelper.core.constant.StringValue;
-import org.junithelper.core.filter.TrimFilterUtil;
 import org.junithelper.core.meta.ClassMeta;
 import org.junithelper.core.meta.ConstructorMeta;
 import org.junithelper.core.meta.MethodMeta;
@@ -47,16 +49,86 @@ public class ClassMetaExtractor {
 
         Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
 
+        return extract(new SourceUnit(sourceCodeString));
+    }
+
+    public ClassMeta extract(SourceUnit sourceUnit) {
+
+        Assertion.on("sourceUnit").mustNotBeNull(sourceUnit);
+
+        ClassMeta meta = extractHeader(sourceUnit);
+        String modifiedSourceCodeString = sourceUnit.getTrimmedSourceCodeString();
+
+        // -----------------
+        // imported list
+        meta.importedList = importedListExtractor.extract(sourceUnit);
+        // -----------------
+        // constructors and methods are classified in a single scan
+        List<MemberScanner.Member> members = MemberScanner.scan(modifiedSourceCodeString, meta.name);
+        // -----------------
+        // constructors
+        constructorMetaExtractor.initialize(meta, modifiedSourceCodeString);
+        meta.constructors = constructorMetaExtractor.extract(members);
+        // -----------------
+        // methods
+        methodMetaExtractor.initialize(meta, modifiedSourceCodeString);
+        meta.methods = methodMetaExtractor.extract(sourceUnit, members);
+
+        // check duplicated variable name
+        if (meta.constructors.size() > 0) {
+            // constructor arg name is "target"
+            for (ConstructorMeta cons : meta.constructors) {
+                int len = cons.argNames.size();
+                for (int i = 0; i < len; i++) {
+                    if (isDuplicatedVariableName(cons.argNames.get(i))) {
+                        cons.argNames.set(i, cons.argNames.get(i) + "_");
+                    }
+                }
+            }
+            // duplicated to constructor arg names
+            ConstructorMeta constructor = meta.constructors.get(0);
+            Set<String> constructorArgNames = new HashSet<String>(constructor.argNames);
+            for (MethodMeta method : meta.methods) {
+                Map<String, Integer> methodArgNameCounts = new HashMap<String, Integer>();
+                for (String methodArgName : method.argNames) {
+                    incrementCount(methodArgNameCounts, methodArgName);
+                }
+                int len = method.argNames.size();
+                for (int i = 0; i < len; i++) {
+                    String targetArgName = method.argNames.get(i);
+                    String renamed = renameIfDuplicatedToConstructorArgNames(targetArgName, constructorArgNames,
+                            methodArgNameCounts);
+                    if (renamed != null && !renamed.equals(targetArgName)) {
+                        decrementCount(methodArgNameCounts, targetArgName);
+                        incrementCount(methodArgNameCounts, renamed);
+                        method.argNames.set(i, renamed);
+                    }
+                }
+            }
+        }
+
+        return meta;
+
+    }
+
+    /**
+     * Extracts only the package name, the class name and the modifiers.<br>
+     * Imported list, constructors and methods are not extracted.
+     */
+    public ClassMeta extractHeader(SourceUnit sourceUnit) {
+
+        Assertion.on("sourceUnit").mustNotBeNull(sourceUnit);
+
         ClassMeta meta = new ClassMeta();
-        String modifiedSourceCodeString = TrimFilterUtil.doAllFilters(sourceCodeString);
+        // only the out of brace area is trimmed
+        String outOfBrace = sourceUnit.getOutOfBrace();
 
         // -----------------
         // package name
-        Matcher matcherGroupingPackageName = RegExp.PatternObject.Pacakge_Group.matcher(modifiedSourceCodeString);
+        Matcher matcherGroupingPackageName = RegExp.PatternObject.Pacakge_Group.matcher(outOfBrace);
         if (matcherGroupingPackageName.find()) {
             meta.packageName = matcherGroupingPackageName.group(1);
         }
-        String outOfBrace = modifiedSourceCodeString.split("\\{")[0];
         int lenForOutOfBrace = outOfBrace.length();
         StringBuilder bufForOutOfBrace = new StringBuilder();
         boolean isInsideOfGenerics = false;
@@ -101,46 +173,6 @@ public class ClassMetaExtractor {
                 break;
             }
         }
-        // -----------------
-        // imported list
-        meta.importedList = importedListExtractor.extract(modifiedSourceCodeString);
-        // -----------------
-        // constructors
-        constructorMetaExtractor.initialize(meta, modifiedSourceCodeString);
-        meta.constructors = constructorMetaExtractor.extract(modifiedSourceCodeString);
-        // -----------------
-        // methods
-        methodMetaExtractor.initialize(meta, modifiedSourceCodeString);
-        meta.methods = methodMetaExtractor.extract(modifiedSourceCodeString);
-
-        // check duplicated variable name
-        if (meta.constructors.size() > 0) {
-            // constructor arg name is "target"
-            for (ConstructorMeta cons : meta.constructors) {
-                int len = cons.argNames.size();
-                for (int i = 0; i < len; i++) {
-                    if (isDuplicatedVariableName(cons.argNames.get(i))) {
-                        cons.argNames.set(i, cons.argNames.get(i) + "_");
-                    }
-                }
-            }
-            // duplicated to constructor arg names
-            ConstructorMeta constructor = meta.constructors.get(0);
-            for (MethodMeta method : meta.methods) {
-                int len = method.argNames.size();
-                for (int i = 0; i < len; i++) {
-                    String targetArgName = method.argNames.get(i);
-                    List<String> methodArgNames = new ArrayList<String>();
-                    for (String methodArgName : method.argNames) {
-                        if (!targetArgName.equals(methodArgName)) {
-                            methodArgNames.add(methodArgName);
-                        }
-                    }
-                    method.argNames.set(i, renameIfDuplicatedToConstructorArgNames(targetArgName, constructor.argNames,
-                            methodArgNames));
-                }
-            }
-        }
 
         return meta;
 
@@ -150,20 +182,44 @@ public class ClassMetaExtractor {
         if (argName == null) {
             return null;
         }
-        if (isDuplicatedVariableName(argName)) {
-            return renameIfDuplicatedToConstructorArgNames(argName + "_", constructorArgs, methodArgs);
+        String dest = argName;
+        while (isDuplicatedVariableName(dest) || constructorArgs.contains(dest) || methodArgs.contains(dest)) {
+            dest += "_";
         }
-        for (String consArg : constructorArgs) {
-            if (argName.equals(consArg)) {
-                return renameIfDuplicatedToConstructorArgNames(argName + "_", constructorArgs, methodArgs);
-            }
+        return dest;
+    }
+
+    /**
+     * Same as {@link #renameIfDuplicatedToConstructorArgNames(String, List, List)}
+     * with hash lookups.<br>
+     * The method arg names are the counts of the current arg names, and the
+     * arg names which are equal to the given name itself are ignored.
+     */
+    String renameIfDuplicatedToConstructorArgNames(String argName, Set<String> constructorArgs,
+            Map<String, Integer> methodArgNameCounts) {
+        if (argName == null) {
+            return null;
         }
-        for (String methodArg : methodArgs) {
-            if (argName.equals(methodArg)) {
-                return renameIfDuplicatedToConstructorArgNames(argName + "_", constructorArgs, methodArgs);
-            }
+        String dest = argName;
+        while (isDuplicatedVariableName(dest) || constructorArgs.contains(dest)
+                || (!dest.equals(argName) && methodArgNameCounts.containsKey(dest))) {
+            dest += "_";
+        }
+        return dest;
+    }
+
+    static void incrementCount(Map<String, Integer> counts, String name) {
+        Integer count = counts.get(name);
+        counts.put(name, count == null ? 1 : count + 1);
+    }
+
+    static void decrementCount(Map<String, Integer> counts, String name) {
+        Integer count = counts.get(name);
+        if (count == null || count <= 1) {
+            counts.remove(name);
+        } else {
+            counts.put(name, count - 1);
         }
-        return argName;
     }
 
     boolean isDuplicatedVariableName(String name) {
@@ -0,0 +1,532 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.junithelper.core.Version;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.meta.AccessModifier;
+import org.junithelper.core.meta.ArgTypeMeta;
+import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.meta.ConstructorMeta;
+import org.junithelper.core.meta.ExceptionMeta;
+import org.junithelper.core.meta.MethodMeta;
+import org.junithelper.core.meta.ReturnTypeMeta;
+import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.DigestUtil;
+import org.junithelper.core.util.Stderr;
+
+/**
+ * On-disk store of extracted ClassMeta objects for a product source
+ * directory.<br>
+ * Entries are keyed by the path relative to the source directory, so the
+ * file can be restored on another machine (e.g. a cached directory of CI
+ * agents), and are invalidated by the content hash of the source file.<br>
+ * Extracted type names also depend on the classes under the source directory
+ * and on the classpath, so the whole store is discarded when the digest of
+ * them differs from the one in the header.<br>
+ * The file is a versioned binary format. All the strings such as type names
+ * and imports are written once in a string table and referred by index.
+ */
+public class ClassMetaStore {
+
+    static final int MAGIC = 0x4a484d43;
+
+    static final int FORMAT_VERSION = 2;
+
+    private static final int NULL_REF = -1;
+
+    private static final Map<String, ClassMetaStore> INSTANCES = new HashMap<String, ClassMetaStore>();
+
+    /**
+     * @return the shared store for "directoryPathOfProductSourceCode" or null
+     *         if "classMetaCacheFilePath" is not specified
+     */
+    public static ClassMetaStore getInstance(Configuration config) {
+        Assertion.on("config").mustNotBeNull(config);
+        if (config.classMetaCacheFilePath == null || config.classMetaCacheFilePath.trim().length() == 0
+                || config.directoryPathOfProductSourceCode == null) {
+            return null;
+        }
+        File rootDir = new File(config.directoryPathOfProductSourceCode).getAbsoluteFile();
+        File storeFile = new File(config.classMetaCacheFilePath.trim()).getAbsoluteFile();
+        String key = rootDir.getPath() + File.pathSeparator + storeFile.getPath();
+        synchronized (INSTANCES) {
+            ClassMetaStore store = INSTANCES.get(key);
+            if (store == null) {
+                store = new ClassMetaStore(rootDir, storeFile, SymbolIndex.getInstance(config));
+                INSTANCES.put(key, store);
+            }
+            return store;
+        }
+    }
+
+    /**
+     * Saves all the stores which have been modified.
+     */
+    public static void saveInstances() {
+        List<ClassMetaStore> stores = null;
+        synchronized (INSTANCES) {
+            stores = new ArrayList<ClassMetaStore>(INSTANCES.values());
+        }
+        for (ClassMetaStore store : stores) {
+            store.saveIfModified();
+        }
+    }
+
+    public static void clearInstances() {
+        synchronized (INSTANCES) {
+            INSTANCES.clear();
+        }
+    }
+
+    // -----------------
+
+    private static class Entry {
+
+        final String contentHash;
+
+        final ClassMeta classMeta;
+
+        Entry(String contentHash, ClassMeta classMeta) {
+            this.contentHash = contentHash;
+            this.classMeta = classMeta;
+        }
+
+    }
+
+    private final File rootDir;
+
+    private final String rootPath;
+
+    private final File storeFile;
+
+    private final SymbolIndex symbolIndex;
+
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    private String environmentDigest;
+
+    private boolean isAlreadyLoaded = false;
+
+    private boolean isModified = false;
+
+    public ClassMetaStore(File rootDir, File storeFile) {
+        this(rootDir, storeFile, rootDir == null ? null : new SymbolIndex(rootDir, null));
+    }
+
+    public ClassMetaStore(File rootDir, File storeFile, SymbolIndex symbolIndex) {
+        Assertion.on("rootDir").mustNotBeNull(rootDir);
+        Assertion.on("storeFile").mustNotBeNull(storeFile);
+        Assertion.on("symbolIndex").mustNotBeNull(symbolIndex);
+        this.rootDir = rootDir;
+        this.rootPath = getCanonicalPath(rootDir) + File.separator;
+        this.storeFile = storeFile;
+        this.symbolIndex = symbolIndex;
+    }
+
+    /**
+     * @return a copy of the stored ClassMeta or null if not stored or the
+     *         content has been changed
+     */
+    public synchronized ClassMeta get(String canonicalPath, String contentHash) {
+        String relativePath = getRelativePath(canonicalPath);
+        if (relativePath == null || contentHash == null) {
+            return null;
+        }
+        loadIfNotYet();
+        Entry entry = entries.get(relativePath);
+        if (entry == null || !entry.contentHash.equals(contentHash)) {
+            return null;
+        }
+        return ClassMetaCache.copy(entry.classMeta);
+    }
+
+    public synchronized void put(String canonicalPath, String contentHash, ClassMeta classMeta) {
+        Assertion.on("classMeta").mustNotBeNull(classMeta);
+        String relativePath = getRelativePath(canonicalPath);
+        if (relativePath == null || contentHash == null) {
+            return;
+        }
+        loadIfNotYet();
+        entries.put(relativePath, new Entry(contentHash, ClassMetaCache.copy(classMeta)));
+        isModified = true;
+    }
+
+    public synchronized int size() {
+        loadIfNotYet();
+        return entries.size();
+    }
+
+    public synchronized void saveIfModified() {
+        if (isModified) {
+            save();
+        }
+    }
+
+    // -----------------
+
+    void loadIfNotYet() {
+        if (isAlreadyLoaded) {
+            return;
+        }
+        isAlreadyLoaded = true;
+        if (storeFile.isFile() && !load()) {
+            entries.clear();
+        }
+    }
+
+    String getRelativePath(String canonicalPath) {
+        if (canonicalPath == null || !canonicalPath.startsWith(rootPath)) {
+            return null;
+        }
+        return canonicalPath.substring(rootPath.length()).replace(File.separatorChar, '/');
+    }
+
+    /**
+     * @return the digest of the class names under the source directory and
+     *         the classpath used to resolve type names
+     */
+    String getEnvironmentDigest() {
+        return DigestUtil.md5Hex(symbolIndex.getDigest() + "\n" + System.getProperty("java.version") + "\n"
+                + getClassPath());
+    }
+
+    /**
+     * Only the file names and sizes of the classpath entries are used, so the
+     * store is still valid on another machine with the same dependencies.
+     */
+    static String getClassPath() {
+        List<String> paths = new ArrayList<String>();
+        ClassLoader loader = ClassResolutionCache.class.getClassLoader();
+        while (loader != null) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    paths.add(url.getFile());
+                }
+            }
+            loader = loader.getParent();
+        }
+        if (paths.isEmpty()) {
+            for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                paths.add(path);
+            }
+        }
+        StringBuilder buf = new StringBuilder();
+        for (String path : paths) {
+            File file = new File(path);
+            buf.append(file.getName());
+            if (file.isFile()) {
+                buf.append(":").append(file.length());
+            }
+            buf.append(File.pathSeparator);
+        }
+        return buf.toString();
+    }
+
+    private static String getCanonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    // -----------------
+    // persistence
+    // format: MAGIC, FORMAT_VERSION, junithelper version, environment digest,
+    // string table, entries(relative path, content hash, ClassMeta)
+
+    boolean load() {
+        if (environmentDigest == null) {
+            environmentDigest = getEnvironmentDigest();
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(storeFile), 65536));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(Version.get())) {
+                // written by other versions
+                return false;
+            }
+            if (!in.readUTF().equals(environmentDigest)) {
+                // classes or dependencies have been changed since saved
+                return false;
+            }
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String relativePath = strings[in.readInt()];
+                String contentHash = strings[in.readInt()];
+                entries.put(relativePath, new Entry(contentHash, readClassMeta(in, strings)));
+            }
+            return true;
+        } catch (Exception e) {
+            Stderr.p(e.getLocalizedMessage() + " - " + storeFile.getPath());
+            return false;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    void save() {
+        Map<String, Integer> stringTable = new LinkedHashMap<String, Integer>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = null;
+        try {
+            DataOutputStream bodyOut = new DataOutputStream(body);
+            int entryCount = 0;
+            for (Map.Entry<String, Entry> each : entries.entrySet()) {
+                // deleted files are not stored anymore
+                if (!new File(rootDir, each.getKey()).isFile()) {
+                    continue;
+                }
+                writeRef(bodyOut, stringTable, each.getKey());
+                writeRef(bodyOut, stringTable, each.getValue().contentHash);
+                writeClassMeta(bodyOut, stringTable, each.getValue().classMeta);
+                entryCount++;
+            }
+            bodyOut.flush();
+            File parent = storeFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            // written to a temporary file first not to leave a broken file
+            File tmpFile = new File(storeFile.getPath() + ".tmp");
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), 65536));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(Version.get());
+            if (environmentDigest == null) {
+                environmentDigest = getEnvironmentDigest();
+            }
+            out.writeUTF(environmentDigest);
+            out.writeInt(stringTable.size());
+            for (String str : stringTable.keySet()) {
+                out.writeUTF(str);
+            }
+            out.writeInt(entryCount);
+            body.writeTo(out);
+            out.close();
+            out = null;
+            if (storeFile.exists() && !storeFile.delete() || !tmpFile.renameTo(storeFile)) {
+                throw new IOException("Failed to rename " + tmpFile.getPath());
+            }
+            isModified = false;
+        } catch (IOException e) {
+            Stderr.p(e.getLocalizedMessage() + " - " + storeFile.getPath());
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private static void writeRef(DataOutputStream out, Map<String, Integer> stringTable, String str)
+            throws IOException {
+        if (str == null) {
+            out.writeInt(NULL_REF);
+            return;
+        }
+        Integer index = stringTable.get(str);
+        if (index == null) {
+            index = stringTable.size();
+            stringTable.put(str, index);
+        }
+        out.writeInt(index);
+    }
+
+    private static void writeRefs(DataOutputStream out, Map<String, Integer> stringTable, List<String> list)
+            throws IOException {
+        out.writeInt(list.size());
+        for (String str : list) {
+            writeRef(out, stringTable, str);
+        }
+    }
+
+    private static void writeAccessModifier(DataOutputStream out, AccessModifier accessModifier)
+            throws IOException {
+        out.writeByte(accessModifier == null ? NULL_REF : accessModifier.ordinal());
+    }
+
+    private static void writeClassMeta(DataOutputStream out, Map<String, Integer> stringTable, ClassMeta meta)
+            throws IOException {
+        out.writeBoolean(meta.isAbstract);
+        out.writeBoolean(meta.isEnum);
+        writeRef(out, stringTable, meta.packageName);
+        writeRef(out, stringTable, meta.name);
+        writeRefs(out, stringTable, meta.importedList);
+        out.writeInt(meta.constructors.size());
+        for (ConstructorMeta constructor : meta.constructors) {
+            writeAccessModifier(out, constructor.accessModifier);
+            writeArgTypes(out, stringTable, constructor.argTypes);
+            writeRefs(out, stringTable, constructor.argNames);
+            writeExceptions(out, stringTable, constructor.throwsExceptions);
+            out.writeBoolean(constructor.testingTargetException != null);
+            if (constructor.testingTargetException != null) {
+                writeException(out, stringTable, constructor.testingTargetException);
+            }
+        }
+        out.writeInt(meta.methods.size());
+        for (MethodMeta method : meta.methods) {
+            writeRef(out, stringTable, method.name);
+            out.writeBoolean(method.isStatic);
+            out.writeBoolean(method.isAccessor);
+            writeAccessModifier(out, method.accessModifier);
+            out.writeBoolean(method.returnType != null);
+            if (method.returnType != null) {
+                writeRef(out, stringTable, method.returnType.name);
+                writeRef(out, stringTable, method.returnType.nameInMethodName);
+                writeRefs(out, stringTable, method.returnType.generics);
+            }
+            writeArgTypes(out, stringTable, method.argTypes);
+            writeRefs(out, stringTable, method.argNames);
+            writeExceptions(out, stringTable, method.throwsExceptions);
+        }
+    }
+
+    private static void writeArgTypes(DataOutputStream out, Map<String, Integer> stringTable,
+            List<ArgTypeMeta> argTypes) throws IOException {
+        out.writeInt(argTypes.size());
+        for (ArgTypeMeta argType : argTypes) {
+            writeRef(out, stringTable, argType.name);
+            writeRef(out, stringTable, argType.nameInMethodName);
+            writeRefs(out, stringTable, argType.generics);
+        }
+    }
+
+    private static void writeExceptions(DataOutputStream out, Map<String, Integer> stringTable,
+            List<ExceptionMeta> exceptions) throws IOException {
+        out.writeInt(exceptions.size());
+        for (ExceptionMeta exception : exceptions) {
+            writeException(out, stringTable, exception);
+        }
+    }
+
+    private static void writeException(DataOutputStream out, Map<String, Integer> stringTable,
+            ExceptionMeta exception) throws IOException {
+        writeRef(out, stringTable, exception.name);
+        writeRef(out, stringTable, exception.nameInMethodName);
+    }
+
+    private static String readRef(DataInputStream in, String[] strings) throws IOException {
+        int index = in.readInt();
+        return index == NULL_REF ? null : strings[index];
+    }
+
+    private static List<String> readRefs(DataInputStream in, String[] strings) throws IOException {
+        int size = in.readInt();
+        List<String> dest = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            dest.add(readRef(in, strings));
+        }
+        return dest;
+    }
+
+    private static AccessModifier readAccessModifier(DataInputStream in) throws IOException {
+        int ordinal = in.readByte();
+        return ordinal == NULL_REF ? null : AccessModifier.values()[ordinal];
+    }
+
+    private static ClassMeta readClassMeta(DataInputStream in, String[] strings) throws IOException {
+        ClassMeta meta = new ClassMeta();
+        meta.isAbstract = in.readBoolean();
+        meta.isEnum = in.readBoolean();
+        meta.packageName = readRef(in, strings);
+        meta.name = readRef(in, strings);
+        meta.importedList = readRefs(in, strings);
+        int constructorCount = in.readInt();
+        for (int i = 0; i < constructorCount; i++) {
+            ConstructorMeta constructor = new ConstructorMeta();
+            constructor.accessModifier = readAccessModifier(in);
+            constructor.argTypes = readArgTypes(in, strings);
+            constructor.argNames = readRefs(in, strings);
+            constructor.throwsExceptions = readExceptions(in, strings);
+            if (in.readBoolean()) {
+                constructor.testingTargetException = readException(in, strings);
+            }
+            meta.constructors.add(constructor);
+        }
+        int methodCount = in.readInt();
+        for (int i = 0; i < methodCount; i++) {
+            MethodMeta method = new MethodMeta();
+            method.name = readRef(in, strings);
+            method.isStatic = in.readBoolean();
+            method.isAccessor = in.readBoolean();
+            method.accessModifier = readAccessModifier(in);
+            if (in.readBoolean()) {
+                method.returnType = new ReturnTypeMeta();
+                method.returnType.name = readRef(in, strings);
+                method.returnType.nameInMethodName = readRef(in, strings);
+                method.returnType.generics = readRefs(in, strings);
+            } else {
+                method.returnType = null;
+            }
+            method.argTypes = readArgTypes(in, strings);
+            method.argNames = readRefs(in, strings);
+            method.throwsExceptions = readExceptions(in, strings);
+            meta.methods.add(method);
+        }
+        return meta;
+    }
+
+    private static List<ArgTypeMeta> readArgTypes(DataInputStream in, String[] strings) throws IOException {
+        int size = in.readInt();
+        List<ArgTypeMeta> dest = new ArrayList<ArgTypeMeta>(size);
+        for (int i = 0; i < size; i++) {
+            ArgTypeMeta argType = new ArgTypeMeta();
+            argType.name = readRef(in, strings);
+            argType.nameInMethodName = readRef(in, strings);
+            argType.generics = readRefs(in, strings);
+            dest.add(argType);
+        }
+        return dest;
+    }
+
+    private static List<ExceptionMeta> readExceptions(DataInputStream in, String[] strings) throws IOException {
+        int size = in.readInt();
+        List<ExceptionMeta> dest = new ArrayList<ExceptionMeta>(size);
+        for (int i = 0; i < size; i++) {
+            dest.add(readException(in, strings));
+        }
+        return dest;
+    }
+
+    private static ExceptionMeta readException(DataInputStream in, String[] strings) throws IOException {
+        ExceptionMeta exception = new ExceptionMeta();
+        exception.name = readRef(in, strings);
+        exception.nameInMethodName = readRef(in, strings);
+        return exception;
+    }
+
+}
@@ -0,0 +1,136 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared cache of Class.forName results.<br>
+ * Both found classes and not found class names are recorded, so the
+ * ClassNotFoundException is thrown at most once for each class name.
+ */
+public class ClassResolutionCache {
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private static final Class<?> NOT_FOUND = Void.TYPE;
+
+    private static final Class<?>[] PRELOADED_JAVA_LANG_CLASSES = new Class<?>[] { Appendable.class,
+            ArithmeticException.class, ArrayIndexOutOfBoundsException.class, ArrayStoreException.class,
+            AssertionError.class, Boolean.class, Byte.class, CharSequence.class, Character.class, Class.class,
+            ClassCastException.class, ClassLoader.class, ClassNotFoundException.class, Cloneable.class,
+            CloneNotSupportedException.class, Comparable.class, Deprecated.class, Double.class, Enum.class,
+            Error.class, Exception.class, Float.class, IllegalAccessException.class,
+            IllegalArgumentException.class, IllegalStateException.class, IndexOutOfBoundsException.class,
+            InstantiationException.class, Integer.class, InterruptedException.class, Iterable.class,
+            Long.class, Math.class, NoSuchFieldException.class, NoSuchMethodException.class,
+            NullPointerException.class, Number.class, NumberFormatException.class, Object.class,
+            OutOfMemoryError.class, Override.class, Process.class, Readable.class, Runnable.class, Runtime.class,
+            RuntimeException.class, SecurityException.class, Short.class, StackOverflowError.class,
+            StrictMath.class, String.class, StringBuffer.class, StringBuilder.class,
+            StringIndexOutOfBoundsException.class, SuppressWarnings.class, System.class, Thread.class,
+            ThreadGroup.class, ThreadLocal.class, Throwable.class, UnsupportedOperationException.class,
+            Void.class };
+
+    private static final String[] PRIMITIVE_TYPE_NAMES = new String[] { "byte", "short", "int", "long", "char",
+            "float", "double", "boolean", "void" };
+
+    private static final ClassResolutionCache INSTANCE = new ClassResolutionCache(DEFAULT_MAX_SIZE);
+
+    public static ClassResolutionCache getInstance() {
+        return INSTANCE;
+    }
+
+    // -----------------
+
+    private final int maxSize;
+
+    private final Map<String, Class<?>> cache;
+
+    public ClassResolutionCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0 : " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<String, Class<?>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Class<?>> eldest) {
+                return size() > ClassResolutionCache.this.maxSize;
+            }
+        };
+        preload();
+    }
+
+    /**
+     * @return the class or null if not found
+     */
+    public Class<?> forName(String className) {
+        if (className == null) {
+            return null;
+        }
+        synchronized (cache) {
+            Class<?> cached = cache.get(className);
+            if (cached != null) {
+                return cached == NOT_FOUND ? null : cached;
+            }
+        }
+        Class<?> resolved = NOT_FOUND;
+        try {
+            resolved = Class.forName(className);
+        } catch (Exception ignore) {
+        } catch (LinkageError ignore) {
+            // e.g. NoClassDefFoundError for wrong case names
+        }
+        synchronized (cache) {
+            cache.put(className, resolved);
+        }
+        return resolved == NOT_FOUND ? null : resolved;
+    }
+
+    public boolean isFound(String className) {
+        return forName(className) != null;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+        preload();
+    }
+
+    void preload() {
+        synchronized (cache) {
+            for (Class<?> clazz : PRELOADED_JAVA_LANG_CLASSES) {
+                cache.put(clazz.getName(), clazz);
+            }
+            for (String primitive : PRIMITIVE_TYPE_NAMES) {
+                // never found, primitive types are not classes in java.lang package
+                cache.put("java.lang." + primitive, NOT_FOUND);
+                cache.put(primitive, NOT_FOUND);
+            }
+        }
+    }
+
+}
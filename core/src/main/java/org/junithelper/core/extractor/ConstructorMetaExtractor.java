@@ -18,7 +18,6 @@ package org.junithelper.core.extractor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.constant.RegExp;
@@ -28,6 +27,7 @@ import org.junithelper.core.meta.ArgTypeMeta;
 import org.junithelper.core.meta.ClassMeta;
 import org.junithelper.core.meta.ConstructorMeta;
 import org.junithelper.core.util.AccessModifierDetector;
+import org.junithelper.core.util.ThreadUtil;
 
 public class ConstructorMetaExtractor {
 
@@ -55,67 +55,73 @@ public class ConstructorMetaExtractor {
         return this;
     }
 
+    public List<ConstructorMeta> extract(SourceUnit sourceUnit) {
+        return extract(sourceUnit.getTrimmedSourceCodeString());
+    }
+
     public List<ConstructorMeta> extract(String sourceCodeString) {
+        return extract(MemberScanner.scan(sourceCodeString, getClassName()));
+    }
+
+    /**
+     * @param members the members scanned by {@link MemberScanner}
+     */
+    public List<ConstructorMeta> extract(List<MemberScanner.Member> members) {
 
         List<ConstructorMeta> dest = new ArrayList<ConstructorMeta>();
 
         TypeNameConverter typeNameConverter = new TypeNameConverter(config);
 
-        sourceCodeString = sourceCodeString.replaceAll("\\s+?" + StringValue.Comma, StringValue.Comma).replaceAll(
-                StringValue.Comma + "\\s+?", StringValue.Comma).replaceAll("<\\s+?", "<").replaceAll("\\s+?>", ">");
-
-        Matcher matcherGrouping = RegExp.PatternObject.MethodSignatureArea.matcher(sourceCodeString);
-        while (matcherGrouping.find()) {
+        for (MemberScanner.Member member : members) {
+            ThreadUtil.checkInterrupted();
 
-            ConstructorMeta meta = new ConstructorMeta();
-            String methodSignatureArea = matcherGrouping.group(0).replaceAll(StringValue.CarriageReturn,
-                    StringValue.Empty).replaceAll(StringValue.LineFeed, StringValue.Space);
-
-            // -----------------
-            // access modifier
-            meta.accessModifier = getAccessModifier(methodSignatureArea);
-
-            // -----------------
-            // method signature area without access modifier
-            String methodSignatureAreaWithoutAccessModifier = trimAccessModifierFromMethodSignatureArea(methodSignatureArea);
-            String matchesConstructors = RegExp.Anything_ZeroOrMore_Min + RegExp.WhiteSpace.Consecutive_OneOrMore_Max
-                    + classMeta.name + "\\(" + RegExp.Anything_ZeroOrMore_Min + "\\)" + RegExp.Anything_ZeroOrMore_Min;
-            if (!methodSignatureAreaWithoutAccessModifier.matches(matchesConstructors)) {
+            if (!member.isConstructor()) {
                 continue;
             }
+            ConstructorMeta meta = new ConstructorMeta();
 
             // -----------------
-            // is constructor
-            String constructorString = StringValue.Space + methodSignatureAreaWithoutAccessModifier;
-            String groupConstructor = RegExp.WhiteSpace.Consecutive_ZeroOrMore_Max + classMeta.name
-                    + "\\(([^\\)]*?)\\)" + RegExp.WhiteSpace.Consecutive_ZeroOrMore_Max + "(throws .+)*.*?"
-                    + RegExp.WhiteSpace.Consecutive_ZeroOrMore_Max + "\\{.*";
-            Matcher constructorMatcher = Pattern.compile(groupConstructor).matcher(constructorString);
-            if (!constructorMatcher.find()) {
-                continue;
-            }
+            // access modifier
+            meta.accessModifier = member.accessModifier;
 
             // -----------------
             // args
-            String argsDefAreaString = constructorMatcher.group(1);
+            String argsDefAreaString = member.args;
             List<String> argArr = ArgExtractorHelper.getArgListFromArgsDefAreaString(argsDefAreaString);
             int argArrLen = argArr.size();
             for (int i = 0; i < argArrLen; i++) {
                 ArgTypeMeta argTypeMeta = new ArgTypeMeta();
                 String argTypeFull = argArr.get(i);
-                Matcher toGenericsMatcher = Pattern.compile(RegExp.Generics_Group).matcher(argTypeFull);
-                while (toGenericsMatcher.find()) {
-                    String[] generics = toGenericsMatcher.group().replaceAll("<", StringValue.Empty).replaceAll(">",
-                            StringValue.Empty).split(StringValue.Comma);
-                    // convert to java.lang.Object if self class is included
-                    for (String generic : generics) {
+                TypeRef argType = ArgExtractorHelper.getArgType(argTypeFull);
+                if (argType != null && argType.hasNestedTypeArguments()) {
+                    argType = null;
+                }
+                String argTypeName;
+                if (argType != null) {
+                    for (String generic : ArgExtractorHelper.getSimpleGenerics(argTypeFull, argType)) {
+                        // convert to java.lang.Object if self class is included
                         generic = typeNameConverter.toCompilableType(generic, classMeta.importedList,
                                 classMeta.packageName);
                         argTypeMeta.generics.add(generic);
                     }
+                    argTypeName = argType.getErasedName();
+                } else {
+                    Matcher toGenericsMatcher = RegExp.PatternObject.Generics_Group.matcher(argTypeFull);
+                    while (toGenericsMatcher.find()) {
+                        String[] generics = RegExp.PatternObject.GenericsBrackets.matcher(toGenericsMatcher.group())
+                                .replaceAll(StringValue.Empty).split(StringValue.Comma);
+                        // convert to java.lang.Object if self class is included
+                        for (String generic : generics) {
+                            generic = typeNameConverter.toCompilableType(generic, classMeta.importedList,
+                                    classMeta.packageName);
+                            argTypeMeta.generics.add(generic);
+                        }
+                    }
+                    argTypeName = RegExp.PatternObject.Generics.matcher(argTypeFull).replaceAll(StringValue.Empty);
+                    argTypeName = RegExp.PatternObject.WhiteSpace_Consecutive_OneOrMore_Max.split(
+                            RegExp.PatternObject.Final_WithSpace.matcher(argTypeName).replaceAll(StringValue.Empty))[0]
+                            .trim();
                 }
-                String argTypeName = argTypeFull.replaceAll(RegExp.Generics, StringValue.Empty).replaceAll("final ",
-                        StringValue.Empty).split("\\s+")[0].trim();
                 if (argTypeName != null && !argTypeName.equals("")) {
                     argTypeMeta.name = typeNameConverter.toCompilableType(argTypeName, argTypeMeta.generics,
                             classMeta.importedList, classMeta.packageName);
@@ -124,14 +130,14 @@ public class ConstructorMetaExtractor {
                     Matcher nameMatcher = RegExp.PatternObject.MethodArg_Group.matcher(argTypeFull);
                     if (nameMatcher.find()) {
                         String argName = nameMatcher.group(1);
-                        if (argName.matches(".+\\[\\s*\\]")) {
+                        if (RegExp.PatternObject.ArrayBrackets_Suffix.matcher(argName).matches()) {
                             // ex. String strArr[] = null;
                             String arrayPart = "";
-                            Matcher mat = Pattern.compile("\\[\\s*\\]").matcher(argName);
+                            Matcher mat = RegExp.PatternObject.ArrayBrackets.matcher(argName);
                             while (mat.find()) {
                                 arrayPart += "[]";
                             }
-                            argName = argName.replaceAll("\\[\\s*\\]", StringValue.Empty);
+                            argName = mat.replaceAll(StringValue.Empty);
                             argTypeMeta.name = argTypeMeta.name + arrayPart;
                             argTypeMeta.nameInMethodName = typeNameConverter.toAvailableInMethodName(argTypeMeta.name);
                         }
@@ -150,27 +156,16 @@ public class ConstructorMetaExtractor {
         return dest;
     }
 
+    private String getClassName() {
+        return classMeta == null ? null : classMeta.name;
+    }
+
     AccessModifier getAccessModifier(String methodSignatureArea) {
-        if (AccessModifierDetector.isPublic(methodSignatureArea)) {
-            return AccessModifier.Public;
-        } else if (AccessModifierDetector.isProtected(methodSignatureArea)) {
-            return AccessModifier.Protected;
-        } else if (AccessModifierDetector.isPackageLocal(methodSignatureArea)) {
-            return AccessModifier.PackageLocal;
-        } else if (AccessModifierDetector.isPrivate(methodSignatureArea)) {
-            return AccessModifier.Private;
-        } else {
-            return AccessModifier.Public;
-        }
+        return MemberScanner.getAccessModifier(methodSignatureArea);
     }
 
     String trimAccessModifierFromMethodSignatureArea(String methodSignatureArea) {
-        String regExpForAccessModifier_public = AccessModifierDetector.RegExp.Prefix + "public" + "\\s+";
-        String regExpForAccessModifier_protected = AccessModifierDetector.RegExp.Prefix + "protected" + "\\s+";
-        String methodSignatureAreaWithoutAccessModifier = methodSignatureArea.replaceAll(StringValue.Tab,
-                StringValue.Space).replaceAll(regExpForAccessModifier_public, StringValue.Space).replaceAll(
-                regExpForAccessModifier_protected, StringValue.Space).replaceAll("\\sfinal\\s", StringValue.Space);
-        return methodSignatureAreaWithoutAccessModifier;
+        return AccessModifierDetector.trimAccessModifier(methodSignatureArea);
     }
 
 }
@@ -0,0 +1,302 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junithelper.core.constant.RegExp;
+import org.junithelper.core.constant.StringValue;
+import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.PatternCache;
+
+/**
+ * Private fields declared in the source code, built once per class.<br>
+ * {@link #isPrivateFieldExists(String, String)} returns the same result as
+ * matching the following regular expression against the source code without
+ * CR and LF, but by hash lookups instead of scanning the whole source code
+ * for each accessor.
+ * 
+ * <pre>
+ * .*?private\s+{field type}(&lt;.+&gt;)*\s+{field name}.+
+ * </pre>
+ * 
+ * As the regular expression does, the field name matches the beginning of
+ * the declared name and the generics of the declared type can end anywhere
+ * before the field name.
+ */
+public class FieldTable {
+
+    private static final String Private = "private";
+
+    private final String sourceCodeString;
+
+    /**
+     * false if the source code has any line terminator which '.' does not
+     * match
+     */
+    private final boolean isSingleLine;
+
+    /**
+     * declared type -> declared names (the last character is removed if the
+     * name is at the end of the source code)
+     */
+    private final Map<String, TreeSet<String>> namesByType = new HashMap<String, TreeSet<String>>();
+
+    /**
+     * declared type -> the first index of "&lt;" just after the type
+     */
+    private final Map<String, Integer> genericsStartByType = new HashMap<String, Integer>();
+
+    /**
+     * name after "&gt;" and whitespace -> the last index of the "&gt;"
+     */
+    private final TreeMap<String, Integer> genericsEndByName = new TreeMap<String, Integer>();
+
+    /**
+     * indexes of the declared types, used when the field type contains '.'
+     */
+    private final List<Integer> typeStarts = new ArrayList<Integer>();
+
+    public FieldTable(String sourceCodeString) {
+        Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
+        this.sourceCodeString = RegExp.PatternObject.CRLF.matcher(sourceCodeString).replaceAll(StringValue.Empty);
+        this.isSingleLine = !hasLineTerminator(this.sourceCodeString);
+        if (isSingleLine) {
+            indexPrivateFields();
+            indexGenericsEnds();
+        }
+    }
+
+    /**
+     * @param fieldType the type name which is compilable
+     * @param fieldName the field name without "get", "set" or "is" prefix
+     */
+    public boolean isPrivateFieldExists(String fieldType, String fieldName) {
+
+        Assertion.on("fieldType").mustNotBeEmpty(fieldType);
+        Assertion.on("fieldName").mustNotBeEmpty(fieldName);
+
+        String name = fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
+        if (!isSimpleName(name) || !isSimpleType(fieldType)) {
+            return matchesRegExp(fieldType, name);
+        }
+        if (!isSingleLine) {
+            return false;
+        }
+        if (fieldType.indexOf('.') == -1) {
+            TreeSet<String> names = namesByType.get(fieldType);
+            if (names != null && startsWithAny(names, name)) {
+                return true;
+            }
+            Integer genericsStart = genericsStartByType.get(fieldType);
+            return genericsStart != null && genericsStart + 2 <= getLastGenericsEnd(name);
+        }
+        // '.' matches any character
+        int len = sourceCodeString.length();
+        int lastGenericsEnd = getLastGenericsEnd(name);
+        for (int typeStart : typeStarts) {
+            int typeEnd = typeStart + fieldType.length();
+            if (typeEnd >= len || !matchesType(fieldType, typeStart)) {
+                continue;
+            }
+            char c = sourceCodeString.charAt(typeEnd);
+            if (c == '<') {
+                if (typeEnd + 2 <= lastGenericsEnd) {
+                    return true;
+                }
+            } else if (isWhiteSpace(c)) {
+                int nameStart = skipWhiteSpace(typeEnd);
+                if (sourceCodeString.startsWith(name, nameStart) && nameStart + name.length() < len) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // -----------------
+
+    private void indexPrivateFields() {
+        int len = sourceCodeString.length();
+        int index = sourceCodeString.indexOf(Private);
+        while (index != -1) {
+            int typeStart = skipWhiteSpace(index + Private.length());
+            if (typeStart > index + Private.length() && typeStart < len) {
+                typeStarts.add(typeStart);
+                int typeEnd = typeStart;
+                while (typeEnd < len && isTypeChar(sourceCodeString.charAt(typeEnd))) {
+                    typeEnd++;
+                }
+                if (typeEnd > typeStart && typeEnd < len) {
+                    String type = sourceCodeString.substring(typeStart, typeEnd);
+                    char c = sourceCodeString.charAt(typeEnd);
+                    if (c == '<') {
+                        if (!genericsStartByType.containsKey(type)) {
+                            genericsStartByType.put(type, typeEnd);
+                        }
+                    } else if (isWhiteSpace(c)) {
+                        String name = getNameAt(skipWhiteSpace(typeEnd));
+                        if (name.length() > 0) {
+                            TreeSet<String> names = namesByType.get(type);
+                            if (names == null) {
+                                names = new TreeSet<String>();
+                                namesByType.put(type, names);
+                            }
+                            names.add(name);
+                        }
+                    }
+                }
+            }
+            index = sourceCodeString.indexOf(Private, index + 1);
+        }
+    }
+
+    private void indexGenericsEnds() {
+        int index = sourceCodeString.indexOf('>');
+        while (index != -1) {
+            int nameStart = skipWhiteSpace(index + 1);
+            if (nameStart > index + 1) {
+                String name = getNameAt(nameStart);
+                if (name.length() > 0) {
+                    genericsEndByName.put(name, index);
+                }
+            }
+            index = sourceCodeString.indexOf('>', index + 1);
+        }
+    }
+
+    /**
+     * @return the name at the index, the last character is removed if the
+     *         name is at the end of the source code because ".+" requires one
+     *         more character
+     */
+    private String getNameAt(int index) {
+        int len = sourceCodeString.length();
+        int end = index;
+        while (end < len && isNameChar(sourceCodeString.charAt(end))) {
+            end++;
+        }
+        if (end == len && end > index) {
+            end--;
+        }
+        return sourceCodeString.substring(index, end);
+    }
+
+    private int getLastGenericsEnd(String name) {
+        int last = -1;
+        for (Map.Entry<String, Integer> entry : genericsEndByName.tailMap(name).entrySet()) {
+            if (!entry.getKey().startsWith(name)) {
+                break;
+            }
+            last = Math.max(last, entry.getValue());
+        }
+        return last;
+    }
+
+    private boolean matchesType(String fieldType, int typeStart) {
+        int len = fieldType.length();
+        for (int i = 0; i < len; i++) {
+            char c = fieldType.charAt(i);
+            if (c != '.' && c != sourceCodeString.charAt(typeStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipWhiteSpace(int index) {
+        int len = sourceCodeString.length();
+        while (index < len && isWhiteSpace(sourceCodeString.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private boolean matchesRegExp(String fieldType, String name) {
+        // considering array, generics comma
+        String regExpForFieldTypeArea = fieldType.replaceAll("\\[", "\\\\[").replaceAll("\\]", "\\\\]").replaceAll(",",
+                "\\\\s*,\\\\s*");
+        String regExpForPrivateFieldThatHasAccessors = ".*?private\\s+" + regExpForFieldTypeArea + "("
+                + RegExp.Generics + ")*" + RegExp.WhiteSpace.Consecutive_OneOrMore_Max + name + ".+";
+        return PatternCache.getInstance().matches(sourceCodeString, regExpForPrivateFieldThatHasAccessors);
+    }
+
+    private static boolean startsWithAny(TreeSet<String> names, String prefix) {
+        String ceiling = names.ceiling(prefix);
+        return ceiling != null && ceiling.startsWith(prefix);
+    }
+
+    private static boolean hasLineTerminator(String s) {
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the name has no special character in regular
+     *         expressions
+     */
+    static boolean isSimpleName(String name) {
+        int len = name.length();
+        for (int i = 0; i < len; i++) {
+            if (!isNameChar(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the type has no special character in regular
+     *         expressions except '[', ']' and '.' which is not at the first
+     */
+    static boolean isSimpleType(String type) {
+        int len = type.length();
+        for (int i = 0; i < len; i++) {
+            char c = type.charAt(i);
+            if (!isTypeChar(c) && (c != '.' || i == 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isTypeChar(char c) {
+        return isNameChar(c) || c == '[' || c == ']';
+    }
+
+    /**
+     * same as "\s" except CR and LF which are already removed
+     */
+    private static boolean isWhiteSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\u000B' || c == '\f';
+    }
+
+}
@@ -19,9 +19,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.junithelper.core.config.Configuration;
-import org.junithelper.core.constant.RegExp;
-import org.junithelper.core.constant.StringValue;
-import org.junithelper.core.filter.TrimFilterUtil;
 import org.junithelper.core.util.Assertion;
 
 public class ImportedListExtractor {
@@ -35,8 +32,14 @@ public class ImportedListExtractor {
 
     public List<String> extract(String sourceCodeString) {
         Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
+        return extract(new SourceUnit(sourceCodeString));
+    }
+
+    public List<String> extract(SourceUnit sourceUnit) {
+        Assertion.on("sourceUnit").mustNotBeNull(sourceUnit);
         List<String> dest = new ArrayList<String>();
-        sourceCodeString = TrimFilterUtil.doAllFilters(sourceCodeString).replaceAll(RegExp.CRLF, StringValue.Space);
+        // trimmed source code has no line breaks
+        String sourceCodeString = sourceUnit.getTrimmedSourceCodeString();
         String[] splittedArray = sourceCodeString.split("import\\s+");
         int len = splittedArray.length;
         for (int i = 1; i < len; i++) {
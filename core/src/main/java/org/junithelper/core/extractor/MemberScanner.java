@@ -0,0 +1,206 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junithelper.core.constant.RegExp;
+import org.junithelper.core.constant.StringValue;
+import org.junithelper.core.meta.AccessModifier;
+import org.junithelper.core.util.AccessModifierDetector;
+import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.PatternCache;
+import org.junithelper.core.util.ThreadUtil;
+
+/**
+ * Scans the member declarations of a class in a single pass.<br>
+ * Each method signature area is classified once as a constructor or a
+ * method, and both {@link ConstructorMetaExtractor} and
+ * {@link MethodMetaExtractor} build their metas from the same result.
+ */
+public class MemberScanner {
+
+    public static enum Kind {
+        Constructor, Method
+    }
+
+    /**
+     * Member declaration classified by {@link MemberScanner#scan}
+     */
+    public static class Member {
+
+        public final Kind kind;
+
+        /**
+         * Signature area without line breaks
+         */
+        public final String signatureArea;
+
+        public final AccessModifier accessModifier;
+
+        public final boolean isStatic;
+
+        /**
+         * Method signature, null if constructor
+         */
+        public final MethodSignatureParser.Signature signature;
+
+        /**
+         * Args area between the parentheses
+         */
+        public final String args;
+
+        /**
+         * Throws area, null if not declared
+         */
+        public final String throwsArea;
+
+        Member(Kind kind, String signatureArea, AccessModifier accessModifier, boolean isStatic,
+                MethodSignatureParser.Signature signature, String args, String throwsArea) {
+            this.kind = kind;
+            this.signatureArea = signatureArea;
+            this.accessModifier = accessModifier;
+            this.isStatic = isStatic;
+            this.signature = signature;
+            this.args = args;
+            this.throwsArea = throwsArea;
+        }
+
+        public boolean isConstructor() {
+            return kind == Kind.Constructor;
+        }
+
+        public boolean isMethod() {
+            return kind == Kind.Method;
+        }
+
+    }
+
+    private static final Pattern WhiteSpace_Comma = Pattern.compile("\\s+?" + StringValue.Comma);
+    private static final Pattern Comma_WhiteSpace = Pattern.compile(StringValue.Comma + "\\s+?");
+    private static final Pattern GenericsStart_WhiteSpace = Pattern.compile("<\\s+?");
+    private static final Pattern WhiteSpace_GenericsEnd = Pattern.compile("\\s+?>");
+    private static final Pattern Comma_WithWhiteSpace = Pattern.compile("\\s*,\\s*");
+    private static final Pattern GenericsStart_WithWhiteSpace = Pattern.compile("\\s*<\\s*");
+    private static final Pattern GenericsEnd_WithWhiteSpace = Pattern.compile("\\s*>");
+    private static final Pattern StaticModifier = Pattern.compile(RegExp.Anything_ZeroOrMore_Min
+            + RegExp.WhiteSpace.Consecutive_OneOrMore_Max + "static" + RegExp.WhiteSpace.Consecutive_OneOrMore_Max
+            + RegExp.Anything_ZeroOrMore_Min);
+
+    private MemberScanner() {
+    }
+
+    /**
+     * @param sourceCodeString the trimmed source code
+     * @param className the simple name of the class which declares the
+     *            constructors, required only if any signature area is found
+     * @return constructors and methods in declared order
+     */
+    public static List<Member> scan(String sourceCodeString, String className) {
+
+        Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
+
+        List<Member> dest = new ArrayList<Member>();
+        Pattern constructorSignature = null;
+        Pattern groupConstructor = null;
+
+        for (String signatureArea : MethodSignatureParser.findSignatureAreas(sourceCodeString)) {
+            ThreadUtil.checkInterrupted();
+            String methodSignatureArea = removeLineBreaks(signatureArea);
+            if (constructorSignature == null) {
+                Assertion.on("className").mustNotBeNull(className);
+                constructorSignature = PatternCache.getInstance().get(
+                        RegExp.Anything_ZeroOrMore_Min + RegExp.WhiteSpace.Consecutive_OneOrMore_Max + className
+                                + "\\(" + RegExp.Anything_ZeroOrMore_Min + "\\)" + RegExp.Anything_ZeroOrMore_Min);
+            }
+            if (constructorSignature.matcher(methodSignatureArea).matches()) {
+                // -----------------
+                // constructor
+                // whitespace is normalized before the line breaks are removed
+                String constructorSignatureArea = removeLineBreaks(trimWhiteSpaceAroundCommaAndGenerics(signatureArea));
+                String withoutAccessModifier = AccessModifierDetector.trimAccessModifier(constructorSignatureArea);
+                if (!constructorSignature.matcher(withoutAccessModifier).matches()) {
+                    continue;
+                }
+                if (groupConstructor == null) {
+                    groupConstructor = PatternCache.getInstance().get(
+                            RegExp.WhiteSpace.Consecutive_ZeroOrMore_Max + className + "\\(([^\\)]*?)\\)"
+                                    + RegExp.WhiteSpace.Consecutive_ZeroOrMore_Max + "(throws .+)*.*?"
+                                    + RegExp.WhiteSpace.Consecutive_ZeroOrMore_Max + "\\{.*");
+                }
+                Matcher constructorMatcher = groupConstructor.matcher(StringValue.Space + withoutAccessModifier);
+                if (!constructorMatcher.find()) {
+                    continue;
+                }
+                dest.add(new Member(Kind.Constructor, constructorSignatureArea,
+                        getAccessModifier(constructorSignatureArea), false, null, constructorMatcher.group(1),
+                        constructorMatcher.group(2)));
+            } else {
+                // -----------------
+                // method
+                String trimmedMethodSignatureArea = Comma_WithWhiteSpace.matcher(methodSignatureArea).replaceAll(",");
+                trimmedMethodSignatureArea = GenericsStart_WithWhiteSpace.matcher(trimmedMethodSignatureArea)
+                        .replaceAll("<");
+                trimmedMethodSignatureArea = GenericsEnd_WithWhiteSpace.matcher(trimmedMethodSignatureArea)
+                        .replaceAll(">");
+                MethodSignatureParser.Signature signature = MethodSignatureParser.parse(StringValue.Space
+                        + AccessModifierDetector.trimAccessModifier(trimmedMethodSignatureArea));
+                if (signature == null) {
+                    continue;
+                }
+                dest.add(new Member(Kind.Method, methodSignatureArea, getAccessModifier(methodSignatureArea),
+                        StaticModifier.matcher(methodSignatureArea).matches(), signature, signature.args,
+                        signature.throwsArea));
+            }
+        }
+        return dest;
+    }
+
+    static AccessModifier getAccessModifier(String methodSignatureArea) {
+        if (AccessModifierDetector.isPublic(methodSignatureArea)) {
+            return AccessModifier.Public;
+        } else if (AccessModifierDetector.isProtected(methodSignatureArea)) {
+            return AccessModifier.Protected;
+        } else if (AccessModifierDetector.isPackageLocal(methodSignatureArea)) {
+            return AccessModifier.PackageLocal;
+        } else if (AccessModifierDetector.isPrivate(methodSignatureArea)) {
+            return AccessModifier.Private;
+        } else {
+            return AccessModifier.Public;
+        }
+    }
+
+    private static String removeLineBreaks(String signatureArea) {
+        return RegExp.PatternObject.LF.matcher(
+                RegExp.PatternObject.CR.matcher(signatureArea).replaceAll(StringValue.Empty)).replaceAll(
+                StringValue.Space);
+    }
+
+    /**
+     * Same as normalizing the whole source code because the area starts with
+     * '{', ';' or '}'. Only the trailing whitespace after the '{' can differ.
+     */
+    private static String trimWhiteSpaceAroundCommaAndGenerics(String signatureArea) {
+        String dest = WhiteSpace_Comma.matcher(signatureArea).replaceAll(StringValue.Comma);
+        dest = Comma_WhiteSpace.matcher(dest).replaceAll(StringValue.Comma);
+        dest = GenericsStart_WhiteSpace.matcher(dest).replaceAll("<");
+        return WhiteSpace_GenericsEnd.matcher(dest).replaceAll(">");
+    }
+
+}
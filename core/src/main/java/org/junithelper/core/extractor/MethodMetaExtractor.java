@@ -18,18 +18,17 @@ package org.junithelper.core.extractor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.constant.RegExp;
 import org.junithelper.core.constant.StringValue;
-import org.junithelper.core.filter.TrimFilterUtil;
 import org.junithelper.core.meta.AccessModifier;
 import org.junithelper.core.meta.ClassMeta;
 import org.junithelper.core.meta.ExceptionMeta;
 import org.junithelper.core.meta.MethodMeta;
 import org.junithelper.core.util.AccessModifierDetector;
 import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.ThreadUtil;
 
 public class MethodMetaExtractor {
 
@@ -62,62 +61,61 @@ public class MethodMetaExtractor {
 
         Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
 
+        return extract(new SourceUnit(sourceCodeString));
+    }
+
+    public List<MethodMeta> extract(SourceUnit sourceUnit) {
+
+        Assertion.on("sourceUnit").mustNotBeNull(sourceUnit);
+
+        return extract(sourceUnit, MemberScanner.scan(sourceUnit.getTrimmedSourceCodeString(), getClassName()));
+    }
+
+    /**
+     * @param members the members scanned by {@link MemberScanner}
+     */
+    public List<MethodMeta> extract(SourceUnit sourceUnit, List<MemberScanner.Member> members) {
+
+        Assertion.on("sourceUnit").mustNotBeNull(sourceUnit);
+        Assertion.on("members").mustNotBeNull(members);
+
         List<MethodMeta> dest = new ArrayList<MethodMeta>();
 
         TypeNameConverter typeNameConverter = new TypeNameConverter(config);
 
-        sourceCodeString = TrimFilterUtil.doAllFilters(sourceCodeString);
-
         // -----------------
         // for method signature
-        Matcher mat = RegExp.PatternObject.MethodSignatureArea.matcher(sourceCodeString);
-        while (mat.find()) {
-            MethodMeta meta = new MethodMeta();
-            String methodSignatureArea = mat.group(0).replaceAll(StringValue.CarriageReturn, StringValue.Empty)
-                    .replaceAll(StringValue.LineFeed, StringValue.Space);
+        for (MemberScanner.Member member : members) {
+            ThreadUtil.checkInterrupted();
 
             // -----------------
             // skip constructors
-            if (methodSignatureArea.matches(RegExp.Anything_ZeroOrMore_Min
-                    + RegExp.WhiteSpace.Consecutive_OneOrMore_Max + classMeta.name + "\\("
-                    + RegExp.Anything_ZeroOrMore_Min + "\\)" + RegExp.Anything_ZeroOrMore_Min)) {
-                continue;
-            }
-
-            // -----------------
-            // skip not method signature
-            String trimmedMethodSignatureArea = methodSignatureArea.replaceAll("\\s*,\\s*", ",").replaceAll(
-                    "\\s*<\\s*", "<").replaceAll("\\s*>", ">");
-            String methodSignatureAreaWithoutAccessModifier = trimAccessModifierFromMethodSignatureArea(trimmedMethodSignatureArea);
-            Matcher matcherGrouping = RegExp.PatternObject.MethodSignatureWithoutAccessModifier_Group
-                    .matcher(StringValue.Space + methodSignatureAreaWithoutAccessModifier);
-            if (!matcherGrouping.find()) {
+            if (!member.isMethod()) {
                 continue;
             }
+            MethodMeta meta = new MethodMeta();
+            MethodSignatureParser.Signature signature = member.signature;
 
             // -----------------
             // is static method
-            if (methodSignatureArea.matches(RegExp.Anything_ZeroOrMore_Min
-                    + RegExp.WhiteSpace.Consecutive_OneOrMore_Max + "static"
-                    + RegExp.WhiteSpace.Consecutive_OneOrMore_Max + RegExp.Anything_ZeroOrMore_Min)) {
-                meta.isStatic = true;
-            }
+            meta.isStatic = member.isStatic;
             // -----------------
             // access modifier
-            meta.accessModifier = getAccessModifier(methodSignatureArea);
+            meta.accessModifier = member.accessModifier;
 
             // -----------------
             // return type
-            String grouped = matcherGrouping.group(1);
-            String returnTypeFull = grouped.replaceAll("final ", StringValue.Empty).split("\\s+")[0].trim();
+            String grouped = signature.returnType;
+            String returnTypeFull = RegExp.PatternObject.WhiteSpace_Consecutive_OneOrMore_Max.split(
+                    RegExp.PatternObject.Final_WithSpace.matcher(grouped).replaceAll(StringValue.Empty))[0].trim();
             // generics
 
             // remove generics if nested
             returnTypeFull = trimGenericsIfNested(returnTypeFull);
-            Matcher toGenericsMatcherForReturn = Pattern.compile(RegExp.Generics_Group).matcher(returnTypeFull);
+            Matcher toGenericsMatcherForReturn = RegExp.PatternObject.Generics_Group.matcher(returnTypeFull);
             while (toGenericsMatcherForReturn.find()) {
-                String[] generics = toGenericsMatcherForReturn.group().replaceAll("<", StringValue.Empty).replaceAll(
-                        ">", StringValue.Empty).split(StringValue.Comma);
+                String[] generics = RegExp.PatternObject.GenericsBrackets.matcher(toGenericsMatcherForReturn.group())
+                        .replaceAll(StringValue.Empty).split(StringValue.Comma);
                 for (String generic : generics) {
                     generic = typeNameConverter
                             .toCompilableType(generic, classMeta.importedList, classMeta.packageName).trim();
@@ -132,10 +130,10 @@ public class MethodMetaExtractor {
             }
             // -----------------
             // method name
-            meta.name = matcherGrouping.group(2);
+            meta.name = signature.name;
             // -----------------
             // args
-            String argsAreaString = matcherGrouping.group(3);
+            String argsAreaString = signature.args;
             ArgTypeMetaExtractor argTypeMetaExtractor = new ArgTypeMetaExtractor(config);
             argTypeMetaExtractor.initialize(classMeta).doExtract(argsAreaString);
             meta.argNames = argTypeMetaExtractor.getExtractedNameList();
@@ -144,31 +142,30 @@ public class MethodMetaExtractor {
             // is accessor method or not
             String fieldName = null;
             String fieldType = null;
-            if (meta.name.matches("^set.+")) {
+            if (meta.name.startsWith("set") && meta.name.length() > 3) {
                 // target field name
                 fieldName = meta.name.substring(3);
                 if (meta.argTypes.size() > 0) {
                     fieldType = meta.argTypes.get(0).name;
                 }
-            } else if (meta.name.matches("^get.+")) {
+            } else if (meta.name.startsWith("get") && meta.name.length() > 3) {
                 // target field name
                 fieldName = meta.name.substring(3);
                 fieldType = meta.returnType.name;
-            } else if (meta.name.matches("^is.+")) {
+            } else if (meta.name.startsWith("is") && meta.name.length() > 2) {
                 // target field name
                 fieldName = meta.name.substring(2);
                 fieldType = meta.returnType.name;
             }
             if (fieldName != null && fieldType != null) {
-                meta.isAccessor = isPrivateFieldExists(fieldType, fieldName, sourceCodeString);
+                meta.isAccessor = sourceUnit.getFieldTable().isPrivateFieldExists(fieldType, fieldName);
             }
             // -----------------
             // throws exception
-            String throwsExceptions = matcherGrouping.group(4);
+            String throwsExceptions = signature.throwsArea;
             if (throwsExceptions != null) {
-                String[] exceptions = throwsExceptions.replaceAll(
-                        "throws" + RegExp.WhiteSpace.Consecutive_OneOrMore_Max, StringValue.Empty).split(
-                        StringValue.Comma);
+                String[] exceptions = RegExp.PatternObject.Throws_WithWhiteSpace.matcher(throwsExceptions)
+                        .replaceAll(StringValue.Empty).split(StringValue.Comma);
                 for (String exception : exceptions) {
                     exception = exception.trim();
                     ExceptionMeta exceptionMeta = new ExceptionMeta();
@@ -188,48 +185,32 @@ public class MethodMetaExtractor {
         Assertion.on("fieldName").mustNotBeEmpty(fieldName);
         Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
 
-        // field name
-        String regExpForFieldNameArea = fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
-        // field type
-        // considering array, generics comma
-        String regExpForFieldTypeArea = fieldType.replaceAll("\\[", "\\\\[").replaceAll("\\]", "\\\\]").replaceAll(",",
-                "\\\\s*,\\\\s*");
-        String regExpForPrivateFieldThatHasAccessors = ".*?private\\s+" + regExpForFieldTypeArea + "("
-                + RegExp.Generics + ")*" + RegExp.WhiteSpace.Consecutive_OneOrMore_Max + regExpForFieldNameArea + ".+";
-        return sourceCodeString.replaceAll(RegExp.CRLF, StringValue.Empty).matches(
-                regExpForPrivateFieldThatHasAccessors);
+        return new FieldTable(sourceCodeString).isPrivateFieldExists(fieldType, fieldName);
+    }
+
+    private String getClassName() {
+        return classMeta == null ? null : classMeta.name;
     }
 
     AccessModifier getAccessModifier(String methodSignatureArea) {
-        if (AccessModifierDetector.isPublic(methodSignatureArea)) {
-            return AccessModifier.Public;
-        } else if (AccessModifierDetector.isProtected(methodSignatureArea)) {
-            return AccessModifier.Protected;
-        } else if (AccessModifierDetector.isPackageLocal(methodSignatureArea)) {
-            return AccessModifier.PackageLocal;
-        } else if (AccessModifierDetector.isPrivate(methodSignatureArea)) {
-            return AccessModifier.Private;
-        } else {
-            return AccessModifier.Public;
-        }
+        return MemberScanner.getAccessModifier(methodSignatureArea);
     }
 
     static String trimAccessModifierFromMethodSignatureArea(String methodSignatureArea) {
 
         Assertion.on("methodSignatureArea").mustNotBeNull(methodSignatureArea);
 
-        String regExpForAccessModifier_public = AccessModifierDetector.RegExp.Prefix + "public" + "\\s+";
-        String regExpForAccessModifier_protected = AccessModifierDetector.RegExp.Prefix + "protected" + "\\s+";
-        String methodSignatureAreaWithoutAccessModifier = methodSignatureArea.replaceAll(StringValue.Tab,
-                StringValue.Space).replaceAll(regExpForAccessModifier_public, StringValue.Space).replaceAll(
-                regExpForAccessModifier_protected, StringValue.Space).replaceAll("\\sfinal\\s", StringValue.Space);
-        return methodSignatureAreaWithoutAccessModifier;
+        return AccessModifierDetector.trimAccessModifier(methodSignatureArea);
     }
 
     static String trimGenericsIfNested(String returnTypeDef) {
         if (returnTypeDef == null) {
             return null;
         }
+        TypeRef returnType = TypeParser.parse(returnTypeDef);
+        if (returnType != null) {
+            return returnType.hasNestedTypeArguments() ? returnType.getErasedName() : returnTypeDef;
+        }
         boolean isInsideOfGeneric = false;
         boolean hasNestedGenerics = false;
         int len = returnTypeDef.length();
@@ -253,8 +234,9 @@ public class MethodMetaExtractor {
             }
         }
         if (hasNestedGenerics) {
-            return returnTypeDef.replaceFirst(RegExp.Generics, StringValue.Empty).replaceAll("<", StringValue.Empty)
-                    .replaceAll(">", StringValue.Empty);
+            return RegExp.PatternObject.GenericsBrackets.matcher(
+                    RegExp.PatternObject.Generics.matcher(returnTypeDef).replaceFirst(StringValue.Empty)).replaceAll(
+                    StringValue.Empty);
         }
         return returnTypeDef;
     }
@@ -0,0 +1,276 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junithelper.core.constant.RegExp;
+import org.junithelper.core.util.Assertion;
+
+/**
+ * Finds and splits method signatures in linear time.<br>
+ * The results are the same as {@link RegExp#MethodSignatureArea} and
+ * {@link RegExp#MethodSignatureWithoutAccessModifier_Group}, but these
+ * regular expressions backtrack catastrophically on some long generated
+ * classes.
+ */
+public class MethodSignatureParser {
+
+    /**
+     * Method signature grouped as
+     * {@link RegExp#MethodSignatureWithoutAccessModifier_Group}
+     */
+    public static class Signature {
+
+        /**
+         * $1 : return type
+         */
+        public final String returnType;
+
+        /**
+         * $2 : method name
+         */
+        public final String name;
+
+        /**
+         * $3 : args
+         */
+        public final String args;
+
+        /**
+         * $4 : throws area, null if not declared
+         */
+        public final String throwsArea;
+
+        Signature(String returnType, String name, String args, String throwsArea) {
+            this.returnType = returnType;
+            this.name = name;
+            this.args = args;
+            this.throwsArea = throwsArea;
+        }
+
+    }
+
+    private static final String Throws_WithSpace = "throws ";
+
+    private MethodSignatureParser() {
+    }
+
+    /**
+     * @return the areas which {@link RegExp#MethodSignatureArea} finds, from
+     *         the preceding '{', ';' or '}' to the whitespace after the '{'
+     */
+    public static List<String> findSignatureAreas(String sourceCodeString) {
+        Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
+        List<String> dest = new ArrayList<String>();
+        int len = sourceCodeString.length();
+        int start = indexOfDelimiter(sourceCodeString, 0);
+        while (start != -1) {
+            int end = indexOfDelimiter(sourceCodeString, start + 1);
+            if (end == -1) {
+                break;
+            }
+            if (sourceCodeString.charAt(end) == '{' && hasArgsArea(sourceCodeString, start + 1, end)) {
+                int areaEnd = end + 1;
+                while (areaEnd < len && isWhiteSpace(sourceCodeString.charAt(areaEnd))) {
+                    areaEnd++;
+                }
+                dest.add(sourceCodeString.substring(start, areaEnd));
+                start = indexOfDelimiter(sourceCodeString, areaEnd);
+            } else {
+                start = end;
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * @param methodSignature the signature which access modifiers are trimmed
+     *            from, preceded by a whitespace
+     * @return null if not matched
+     */
+    public static Signature parse(String methodSignature) {
+        Assertion.on("methodSignature").mustNotBeNull(methodSignature);
+        return new SignatureParser(methodSignature).parse();
+    }
+
+    // -----------------
+
+    /**
+     * Every lookup is done by the tables built in advance, so each return
+     * type candidate is checked in constant time except for scanning its
+     * tokens.
+     */
+    private static class SignatureParser {
+
+        private final String s;
+
+        private final int len;
+
+        // the first ')' at or after each index
+        private final int[] nextCloseParen;
+
+        // the first char at or after each index which '.' doesn't match
+        private final int[] nextLineTerminator;
+
+        // the end of the whitespaces from each index
+        private final int[] whiteSpaceEnd;
+
+        // the last '{' before each index
+        private final int[] prevBrace;
+
+        SignatureParser(String s) {
+            this.s = s;
+            this.len = s.length();
+            nextCloseParen = new int[len + 1];
+            nextLineTerminator = new int[len + 1];
+            whiteSpaceEnd = new int[len + 1];
+            prevBrace = new int[len + 1];
+            nextCloseParen[len] = -1;
+            nextLineTerminator[len] = len;
+            whiteSpaceEnd[len] = len;
+            for (int i = len - 1; i >= 0; i--) {
+                char c = s.charAt(i);
+                nextCloseParen[i] = (c == ')') ? i : nextCloseParen[i + 1];
+                nextLineTerminator[i] = isLineTerminator(c) ? i : nextLineTerminator[i + 1];
+                whiteSpaceEnd[i] = isWhiteSpace(c) ? whiteSpaceEnd[i + 1] : i;
+            }
+            prevBrace[0] = -1;
+            for (int i = 0; i < len; i++) {
+                prevBrace[i + 1] = (s.charAt(i) == '{') ? i : prevBrace[i];
+            }
+        }
+
+        Signature parse() {
+            // the regexp starts with a greedy prefix, so the last return type
+            // candidate wins
+            for (int returnTypeStart = len - 1; returnTypeStart > 0; returnTypeStart--) {
+                if (!isWhiteSpace(s.charAt(returnTypeStart - 1)) || isWhiteSpace(s.charAt(returnTypeStart))) {
+                    continue;
+                }
+                int returnTypeEnd = returnTypeStart;
+                while (returnTypeEnd < len && isReturnTypeChar(s.charAt(returnTypeEnd))) {
+                    returnTypeEnd++;
+                }
+                if (returnTypeEnd == len || !isWhiteSpace(s.charAt(returnTypeEnd))) {
+                    continue;
+                }
+                int nameStart = whiteSpaceEnd[returnTypeEnd];
+                // the shortest name followed by the args
+                for (int nameEnd = nameStart + 1; nameEnd < len; nameEnd++) {
+                    int openParen = whiteSpaceEnd[nameEnd];
+                    if (openParen < len && s.charAt(openParen) == '(') {
+                        int closeParen = nextCloseParen[openParen + 1];
+                        if (closeParen != -1 && isBraceReachable(closeParen + 1)) {
+                            return new Signature(s.substring(returnTypeStart, returnTypeEnd), s.substring(nameStart,
+                                    nameEnd), s.substring(openParen + 1, closeParen), getThrowsArea(closeParen + 1));
+                        }
+                    }
+                    if (isWhiteSpace(s.charAt(nameEnd))) {
+                        break;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Same as \s*.*?\s*\{
+         */
+        private boolean isBraceReachable(int from) {
+            int start = whiteSpaceEnd[from];
+            int lineTerminator = nextLineTerminator[start];
+            return isBraceAfterWhiteSpaces(lineTerminator) || prevBrace[lineTerminator] >= start;
+        }
+
+        private boolean isBraceAfterWhiteSpaces(int lineTerminator) {
+            int brace = whiteSpaceEnd[lineTerminator];
+            return lineTerminator < len && brace < len && s.charAt(brace) == '{';
+        }
+
+        /**
+         * Same as \s*(throws .+)*.*?\s*\{, the greedy .+ ends before the
+         * last reachable '{'
+         */
+        private String getThrowsArea(int from) {
+            int throwsStart = whiteSpaceEnd[from];
+            if (!s.startsWith(Throws_WithSpace, throwsStart)) {
+                return null;
+            }
+            int minEnd = throwsStart + Throws_WithSpace.length() + 1;
+            int lineTerminator = nextLineTerminator[throwsStart];
+            int end = isBraceAfterWhiteSpaces(lineTerminator) ? lineTerminator : prevBrace[lineTerminator];
+            return end >= minEnd ? s.substring(throwsStart, end) : null;
+        }
+
+    }
+
+    /**
+     * Same as [^\{=;\}]+\([^\{;\}]*\) when the range has no '{', ';' and '}'.
+     */
+    private static boolean hasArgsArea(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '=') {
+                return false;
+            }
+            if (c == '(' && i > from) {
+                for (int j = i + 1; j < to; j++) {
+                    if (s.charAt(j) == ')') {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOfDelimiter(String s, int from) {
+        int len = s.length();
+        for (int i = from; i < len; i++) {
+            char c = s.charAt(i);
+            if (c == '{' || c == ';' || c == '}') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Chars which '.' doesn't match
+     */
+    static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Same as \s
+     */
+    static boolean isWhiteSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Same as {@link RegExp#ReturnType}
+     */
+    static boolean isReturnTypeChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '1' && c <= '9') || c == '[' || c == ']'
+                || c == '_' || c == ',' || c == '$' || c == '<' || c == '>' || c == '.';
+    }
+
+}
@@ -0,0 +1,85 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import org.junithelper.core.filter.TrimFilterUtil;
+import org.junithelper.core.util.Assertion;
+
+/**
+ * Source code which is trimmed only once.<br>
+ * The trimmed source code and its derived views are created lazily and
+ * shared by the extractors and generators.
+ */
+public class SourceUnit {
+
+    private final String sourceCodeString;
+
+    private String trimmedSourceCodeString;
+
+    private String outOfBrace;
+
+    private FieldTable fieldTable;
+
+    public SourceUnit(String sourceCodeString) {
+        Assertion.on("sourceCodeString").mustNotBeNull(sourceCodeString);
+        this.sourceCodeString = sourceCodeString;
+    }
+
+    public String getSourceCodeString() {
+        return sourceCodeString;
+    }
+
+    /**
+     * @return the result of TrimFilterUtil#doAllFilters
+     */
+    public String getTrimmedSourceCodeString() {
+        if (trimmedSourceCodeString == null) {
+            trimmedSourceCodeString = TrimFilterUtil.doAllFilters(sourceCodeString);
+        }
+        return trimmedSourceCodeString;
+    }
+
+    /**
+     * @return the trimmed source code before the first "{", the rest of the
+     *         source code is not trimmed if not trimmed yet
+     */
+    public String getOutOfBrace() {
+        if (outOfBrace == null) {
+            if (trimmedSourceCodeString == null) {
+                outOfBrace = TrimFilterUtil.doAllFiltersOutOfBrace(sourceCodeString);
+            } else {
+                int index = trimmedSourceCodeString.indexOf('{');
+                outOfBrace = (index == -1) ? trimmedSourceCodeString : trimmedSourceCodeString.substring(0, index);
+            }
+        }
+        return outOfBrace;
+    }
+
+    /**
+     * @return the private fields in the trimmed source code
+     */
+    public FieldTable getFieldTable() {
+        if (fieldTable == null) {
+            fieldTable = new FieldTable(getTrimmedSourceCodeString());
+        }
+        return fieldTable;
+    }
+
+    public boolean isSameSourceCode(String sourceCodeString) {
+        return this.sourceCodeString.equals(sourceCodeString);
+    }
+
+}
@@ -0,0 +1,422 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.DigestUtil;
+import org.junithelper.core.util.Stderr;
+
+/**
+ * Index of the classes under the product source code directory.<br>
+ * The directory is scanned only once and "is X in package P" is answered
+ * from memory without walking the file system again. The last modified time
+ * of each package directory is checked at most once per run (see
+ * {@link #revalidateInstances()}) and the package is rescanned only when it
+ * has changed. Lookups don't take the lock once the package has been
+ * checked.<br>
+ * The index file is written only by {@link #saveInstances()} at the end of
+ * the run.
+ */
+public class SymbolIndex {
+
+    private static final String ENCODING = "UTF-8";
+
+    private static final String JAVA_FILE_EXTENSION = ".java";
+
+    private static final String INDEX_FILE_HEADER = "# junithelper symbol index v1";
+
+    private static final ConcurrentMap<String, SymbolIndex> INSTANCES = new ConcurrentHashMap<String, SymbolIndex>();
+
+    /**
+     * @return the shared index for "directoryPathOfProductSourceCode"
+     */
+    public static SymbolIndex getInstance(Configuration config) {
+        Assertion.on("config").mustNotBeNull(config);
+        Assertion.on("directoryPathOfProductSourceCode").mustNotBeNull(config.directoryPathOfProductSourceCode);
+        String indexFilePath = null;
+        if (config.symbolIndexFilePath != null && config.symbolIndexFilePath.trim().length() > 0) {
+            indexFilePath = config.symbolIndexFilePath.trim();
+        }
+        // called for each type lookup, so the paths are resolved only once
+        String key = config.directoryPathOfProductSourceCode + File.pathSeparator
+                + (indexFilePath == null ? "" : indexFilePath);
+        SymbolIndex index = INSTANCES.get(key);
+        if (index == null) {
+            File rootDir = new File(config.directoryPathOfProductSourceCode).getAbsoluteFile();
+            File indexFile = (indexFilePath == null) ? null : new File(indexFilePath).getAbsoluteFile();
+            SymbolIndex created = new SymbolIndex(rootDir, indexFile);
+            index = INSTANCES.putIfAbsent(key, created);
+            if (index == null) {
+                index = created;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Makes all the indexes check the package directories again, called at
+     * the beginning of each run.
+     */
+    public static void revalidateInstances() {
+        for (SymbolIndex index : INSTANCES.values()) {
+            index.revalidate();
+        }
+    }
+
+    /**
+     * Saves all the indexes which have been modified.
+     */
+    public static void saveInstances() {
+        for (SymbolIndex index : INSTANCES.values()) {
+            index.saveIfModified();
+        }
+    }
+
+    public static void clearInstances() {
+        INSTANCES.clear();
+    }
+
+    // -----------------
+
+    private static class PackageEntry {
+
+        final long lastModified;
+
+        final Set<String> simpleNames;
+
+        PackageEntry(long lastModified, Set<String> simpleNames) {
+            this.lastModified = lastModified;
+            this.simpleNames = Collections.unmodifiableSet(simpleNames);
+        }
+
+    }
+
+    private final File rootDir;
+
+    private final File indexFile;
+
+    // entries are replaced but never modified, so that lookups don't need the
+    // lock
+    private final Map<String, PackageEntry> packages = new ConcurrentHashMap<String, PackageEntry>();
+
+    private final Map<String, Set<String>> packageNamesBySimpleName = new HashMap<String, Set<String>>();
+
+    // packages whose directory has been checked in the current run
+    private volatile Set<String> validatedPackages = newValidatedPackages();
+
+    private volatile boolean isAllValidated = false;
+
+    private volatile String digest;
+
+    private volatile boolean isAlreadyLoaded = false;
+
+    private boolean isModified = false;
+
+    public SymbolIndex(File rootDir, File indexFile) {
+        Assertion.on("rootDir").mustNotBeNull(rootDir);
+        this.rootDir = rootDir;
+        this.indexFile = indexFile;
+    }
+
+    public boolean contains(String packageName, String simpleName) {
+        if (packageName == null || simpleName == null) {
+            return false;
+        }
+        loadIfNotYet();
+        if (!validatedPackages.contains(packageName)) {
+            validate(packageName);
+        }
+        PackageEntry entry = packages.get(packageName);
+        return entry != null && entry.simpleNames.contains(simpleName);
+    }
+
+    public synchronized Set<String> getPackageNames(String simpleName) {
+        loadIfNotYet();
+        Set<String> packageNames = packageNamesBySimpleName.get(simpleName);
+        return packageNames == null ? new HashSet<String>() : new HashSet<String>(packageNames);
+    }
+
+    /**
+     * Digest of all the indexed class names, which is used to invalidate
+     * results depending on them such as extracted ClassMeta objects.<br>
+     * All the packages are checked only at the first call in a run, the
+     * following calls just return the calculated digest. Packages without
+     * classes are ignored.
+     */
+    public String getDigest() {
+        loadIfNotYet();
+        String current = digest;
+        if (current != null && isAllValidated) {
+            return current;
+        }
+        synchronized (this) {
+            if (!isAllValidated) {
+                for (String packageName : new ArrayList<String>(packages.keySet())) {
+                    validate(packageName);
+                }
+                isAllValidated = true;
+            }
+            if (digest == null) {
+                digest = calculateDigest();
+            }
+            return digest;
+        }
+    }
+
+    public synchronized void reload() {
+        packages.clear();
+        packageNamesBySimpleName.clear();
+        scanAll();
+        isAlreadyLoaded = true;
+    }
+
+    public synchronized void saveIfModified() {
+        if (isModified) {
+            save();
+        }
+    }
+
+    // -----------------
+
+    void revalidate() {
+        isAllValidated = false;
+        validatedPackages = newValidatedPackages();
+    }
+
+    void loadIfNotYet() {
+        if (isAlreadyLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (isAlreadyLoaded) {
+                return;
+            }
+            if (!load()) {
+                scanAll();
+            }
+            isAlreadyLoaded = true;
+        }
+    }
+
+    synchronized void validate(String packageName) {
+        Set<String> validated = validatedPackages;
+        if (validated.contains(packageName)) {
+            return;
+        }
+        PackageEntry entry = packages.get(packageName);
+        File dir = getPackageDirectory(packageName);
+        long lastModified = dir.lastModified();
+        // unknown packages are scanned if the directory has been created
+        if (entry == null ? lastModified != 0L : entry.lastModified != lastModified) {
+            scanPackage(packageName, dir);
+        }
+        validated.add(packageName);
+    }
+
+    File getPackageDirectory(String packageName) {
+        return packageName.length() == 0 ? rootDir : new File(rootDir, packageName.replace('.', File.separatorChar));
+    }
+
+    void scanAll() {
+        Set<String> validated = validatedPackages;
+        List<File> dirs = new ArrayList<File>();
+        List<String> packageNames = new ArrayList<String>();
+        dirs.add(rootDir);
+        packageNames.add("");
+        for (int i = 0; i < dirs.size(); i++) {
+            File dir = dirs.get(i);
+            String packageName = packageNames.get(i);
+            long lastModified = dir.lastModified();
+            File[] children = dir.listFiles();
+            if (children == null) {
+                continue;
+            }
+            Set<String> simpleNames = new HashSet<String>();
+            for (File child : children) {
+                String name = child.getName();
+                if (child.isDirectory()) {
+                    // same as the directory filter of FileSearcher
+                    if (name.indexOf('.') == -1) {
+                        dirs.add(child);
+                        packageNames.add(packageName.length() == 0 ? name : packageName + "." + name);
+                    }
+                } else if (name.endsWith(JAVA_FILE_EXTENSION)) {
+                    simpleNames.add(name.substring(0, name.length() - JAVA_FILE_EXTENSION.length()));
+                }
+            }
+            putPackageEntry(packageName, new PackageEntry(lastModified, simpleNames));
+            validated.add(packageName);
+        }
+        isAllValidated = true;
+    }
+
+    PackageEntry scanPackage(String packageName, File dir) {
+        removePackageEntry(packageName);
+        long lastModified = dir.lastModified();
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return null;
+        }
+        Set<String> simpleNames = new HashSet<String>();
+        for (File child : children) {
+            String name = child.getName();
+            if (child.isFile() && name.endsWith(JAVA_FILE_EXTENSION)) {
+                simpleNames.add(name.substring(0, name.length() - JAVA_FILE_EXTENSION.length()));
+            }
+        }
+        PackageEntry entry = new PackageEntry(lastModified, simpleNames);
+        putPackageEntry(packageName, entry);
+        return entry;
+    }
+
+    void putPackageEntry(String packageName, PackageEntry entry) {
+        packages.put(packageName, entry);
+        for (String simpleName : entry.simpleNames) {
+            Set<String> packageNames = packageNamesBySimpleName.get(simpleName);
+            if (packageNames == null) {
+                packageNames = new HashSet<String>();
+                packageNamesBySimpleName.put(simpleName, packageNames);
+            }
+            packageNames.add(packageName);
+        }
+        digest = null;
+        isModified = true;
+    }
+
+    void removePackageEntry(String packageName) {
+        PackageEntry entry = packages.remove(packageName);
+        if (entry == null) {
+            return;
+        }
+        for (String simpleName : entry.simpleNames) {
+            Set<String> packageNames = packageNamesBySimpleName.get(simpleName);
+            if (packageNames != null) {
+                packageNames.remove(packageName);
+                if (packageNames.isEmpty()) {
+                    packageNamesBySimpleName.remove(simpleName);
+                }
+            }
+        }
+        digest = null;
+        isModified = true;
+    }
+
+    private String calculateDigest() {
+        Map<String, Set<String>> sorted = new TreeMap<String, Set<String>>();
+        for (Map.Entry<String, PackageEntry> each : packages.entrySet()) {
+            if (!each.getValue().simpleNames.isEmpty()) {
+                sorted.put(each.getKey(), new TreeSet<String>(each.getValue().simpleNames));
+            }
+        }
+        StringBuilder buf = new StringBuilder();
+        for (Map.Entry<String, Set<String>> each : sorted.entrySet()) {
+            buf.append(each.getKey()).append("\t").append(each.getValue()).append("\n");
+        }
+        return DigestUtil.md5Hex(buf.toString());
+    }
+
+    private static Set<String> newValidatedPackages() {
+        return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    // -----------------
+    // persistence
+    // format: "packageName<TAB>lastModified<TAB>SimpleName1,SimpleName2,..."
+
+    boolean load() {
+        if (indexFile == null || !indexFile.isFile()) {
+            return false;
+        }
+        try {
+            List<String> lines = FileUtils.readLines(indexFile, ENCODING);
+            if (lines.isEmpty() || !lines.get(0).equals(INDEX_FILE_HEADER)
+                    || lines.size() < 2 || !lines.get(1).equals(rootDir.getPath())) {
+                return false;
+            }
+            for (int i = 2; i < lines.size(); i++) {
+                String[] columns = lines.get(i).split("\t", -1);
+                if (columns.length != 3) {
+                    packages.clear();
+                    packageNamesBySimpleName.clear();
+                    return false;
+                }
+                Set<String> simpleNames = new HashSet<String>();
+                for (String simpleName : columns[2].split(",")) {
+                    if (simpleName.length() > 0) {
+                        simpleNames.add(simpleName);
+                    }
+                }
+                putPackageEntry(columns[0], new PackageEntry(Long.parseLong(columns[1]), simpleNames));
+            }
+            isModified = false;
+            return true;
+        } catch (Exception e) {
+            Stderr.p(e.getLocalizedMessage() + " - " + indexFile.getPath());
+            packages.clear();
+            packageNamesBySimpleName.clear();
+            return false;
+        }
+    }
+
+    void save() {
+        if (indexFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<String>();
+        lines.add(INDEX_FILE_HEADER);
+        lines.add(rootDir.getPath());
+        for (String packageName : packages.keySet()) {
+            PackageEntry entry = packages.get(packageName);
+            StringBuilder buf = new StringBuilder();
+            buf.append(packageName);
+            buf.append("\t");
+            buf.append(entry.lastModified);
+            buf.append("\t");
+            boolean isFirst = true;
+            for (String simpleName : entry.simpleNames) {
+                if (!isFirst) {
+                    buf.append(",");
+                }
+                buf.append(simpleName);
+                isFirst = false;
+            }
+            lines.add(buf.toString());
+        }
+        try {
+            FileUtils.writeLines(indexFile, ENCODING, lines, "\n");
+            isModified = false;
+        } catch (IOException e) {
+            Stderr.p(e.getLocalizedMessage() + " - " + indexFile.getPath());
+        }
+    }
+
+}
@@ -15,7 +15,6 @@
  */
 package org.junithelper.core.extractor;
 
-import java.io.File;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -23,7 +22,6 @@ import java.util.regex.Pattern;
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.constant.RegExp;
 import org.junithelper.core.constant.StringValue;
-import org.junithelper.core.file.FileSearcherFactory;
 import org.junithelper.core.util.Assertion;
 import org.junithelper.core.util.PrimitiveTypeUtil;
 
@@ -37,9 +35,13 @@ public class TypeNameConverter {
 
     public String toAvailableInMethodName(String typeName) {
         Assertion.on("typeName").mustNotBeEmpty(typeName);
+        TypeRef type = TypeParser.parse(typeName);
+        if (type != null) {
+            return type.getNameInMethodName();
+        }
         typeName = typeName.replaceAll(RegExp.Generics, StringValue.Empty);
         typeName = typeName.replaceAll("final ", StringValue.Empty);
-        typeName = typeName.replaceAll("\\.\\.\\.", "Array").replaceAll("\\[\\]", "Array");
+        typeName = typeName.replaceAll("\\.\\.\\.", "Array").replaceAll("\\[\\s*\\]", "Array");
         // sample name classes imported or full package class defined
         // ex. java.util.Date, java.sql.Date
         typeName = typeName.replaceAll("\\.", StringValue.Empty);
@@ -70,39 +72,36 @@ public class TypeNameConverter {
             while (mat.find()) {
                 arrayPart += "[]";
             }
-            typeName = typeName.replaceAll("\\[\\]", "");
+            typeName = typeName.replaceAll("\\[\\s*\\]", "");
         }
         // remove generics
         if (typeName.matches(RegExp.Anything_ZeroOrMore_Min + RegExp.Generics + RegExp.Anything_ZeroOrMore_Min)) {
             typeName = typeName.replaceAll(RegExp.Generics, StringValue.Empty);
         }
         boolean isTypeAvailable = false;
+        boolean isClassNotFound = false;
         String destTypeName = "Object";
+        ClassResolutionCache classResolutionCache = ClassResolutionCache.getInstance();
         try {
             if (PrimitiveTypeUtil.isPrimitive(typeName)) {
                 isTypeAvailable = true;
                 if (!destTypeName.matches(".+?\\[\\]$"))
                     destTypeName = PrimitiveTypeUtil.getTypeDefaultValue(typeName);
             } else {
-                try {
-                    Class.forName("java.lang." + typeName);
+                if (classResolutionCache.isFound("java.lang." + typeName)) {
+                    isTypeAvailable = true;
+                } else if (SymbolIndex.getInstance(config).contains(callerClassPackageName, typeName)) {
+                    // same package class
                     isTypeAvailable = true;
-                } catch (Exception ignore) {
-                    // check same package class
-                    List<File> files = FileSearcherFactory.create().searchFilesRecursivelyByName(
-                            config.directoryPathOfProductSourceCode + "/"
-                                    + callerClassPackageName.replaceAll("\\.", "/"),
-                            typeName + RegExp.FileExtension.JavaFile);
-                    if (files != null && files.size() > 0) {
-                        isTypeAvailable = true;
-                    }
                 }
-                if (!isTypeAvailable) {
-                    Class.forName(typeName);
+                if (!isTypeAvailable && !classResolutionCache.isFound(typeName)) {
+                    isClassNotFound = true;
                 }
             }
         } catch (Exception e) {
-            // class not found
+            isClassNotFound = true;
+        }
+        if (isClassNotFound) {
             for (String importedPackage : importedList) {
                 importedPackage = importedPackage.replaceAll("//", StringValue.Empty).trim();
                 try {
@@ -113,10 +112,8 @@ public class TypeNameConverter {
                     }
                     // wildcard import
                     if (!importedPackage.contains("static ") && importedPackage.endsWith("*")) {
-                        try {
-                            Class.forName(importedPackage.replace("*", "") + typeName);
+                        if (classResolutionCache.isFound(importedPackage.replace("*", "") + typeName)) {
                             isTypeAvailable = true;
-                        } catch (Exception ignore) {
                         }
                     }
                 } catch (Exception e2) {
@@ -0,0 +1,204 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junithelper.core.util.Assertion;
+
+/**
+ * Recursive-descent parser for type expressions.<br>
+ * Qualified names, generics, wildcards, arrays and varargs are supported.
+ * Whitespace is allowed only between the type arguments, so the string
+ * which is not a type expression by itself (ex. "String name",
+ * "final String") is not parsed.
+ * 
+ * <pre>
+ * Type          : Name [TypeArguments] {"[]"} ["..."]
+ * Name          : Identifier {"." Identifier}
+ * TypeArguments : "&lt;" TypeArgument {"," TypeArgument} "&gt;"
+ * TypeArgument  : "?" [("extends" | "super") Type] | Type
+ * </pre>
+ */
+public class TypeParser {
+
+    private static final String Extends = "extends";
+    private static final String Super = "super";
+
+    /**
+     * @return the parsed type, null if not a type expression
+     */
+    public static TypeRef parse(String typeString) {
+        Assertion.on("typeString").mustNotBeNull(typeString);
+        return TypeRefTable.getInstance().get(typeString);
+    }
+
+    // -----------------
+
+    private final TypeRefTable table;
+
+    private final String typeString;
+
+    private int index = 0;
+
+    TypeParser(TypeRefTable table, String typeString) {
+        this.table = table;
+        this.typeString = typeString;
+    }
+
+    /**
+     * @return the parsed type, null if not a type expression
+     */
+    TypeRef parse() {
+        TypeRef type = parseType(true);
+        if (type == null || index != typeString.length()) {
+            return null;
+        }
+        return type;
+    }
+
+    private TypeRef parseType(boolean isVarargsAllowed) {
+        String name = parseName();
+        if (name == null) {
+            return null;
+        }
+        List<TypeRef> typeArguments = Collections.emptyList();
+        if (startsWith("<")) {
+            typeArguments = parseTypeArguments();
+            if (typeArguments == null) {
+                return null;
+            }
+        }
+        int arrayDimensions = 0;
+        while (startsWith("[]")) {
+            index += 2;
+            arrayDimensions++;
+        }
+        boolean isVarargs = false;
+        if (isVarargsAllowed && startsWith("...")) {
+            index += 3;
+            isVarargs = true;
+        }
+        return table.intern(new TypeRef(name, typeArguments, arrayDimensions, isVarargs));
+    }
+
+    private String parseName() {
+        int start = index;
+        if (!parseIdentifier()) {
+            return null;
+        }
+        while (startsWith(".") && !startsWith("...")) {
+            index++;
+            if (!parseIdentifier()) {
+                return null;
+            }
+        }
+        return typeString.substring(start, index);
+    }
+
+    private boolean parseIdentifier() {
+        int len = typeString.length();
+        if (index >= len || !isIdentifierStart(typeString.charAt(index))) {
+            return false;
+        }
+        index++;
+        while (index < len && isIdentifierPart(typeString.charAt(index))) {
+            index++;
+        }
+        return true;
+    }
+
+    private List<TypeRef> parseTypeArguments() {
+        // skip "<"
+        index++;
+        List<TypeRef> typeArguments = new ArrayList<TypeRef>();
+        while (true) {
+            skipWhiteSpace();
+            TypeRef typeArgument = parseTypeArgument();
+            if (typeArgument == null) {
+                return null;
+            }
+            typeArguments.add(typeArgument);
+            skipWhiteSpace();
+            if (startsWith(">")) {
+                index++;
+                return typeArguments;
+            }
+            if (!startsWith(",")) {
+                return null;
+            }
+            index++;
+        }
+    }
+
+    private TypeRef parseTypeArgument() {
+        if (!startsWith(TypeRef.Wildcard)) {
+            return parseType(false);
+        }
+        index++;
+        int afterWildcard = index;
+        if (skipWhiteSpace() == 0) {
+            return table.intern(new TypeRef(null, null));
+        }
+        String boundKind = startsWith(Extends) ? Extends : startsWith(Super) ? Super : null;
+        if (boundKind == null) {
+            // "? >" or "? ,"
+            index = afterWildcard;
+            return table.intern(new TypeRef(null, null));
+        }
+        index += boundKind.length();
+        if (skipWhiteSpace() == 0) {
+            return null;
+        }
+        TypeRef bound = parseType(false);
+        if (bound == null) {
+            return null;
+        }
+        return table.intern(new TypeRef(boundKind, bound));
+    }
+
+    private int skipWhiteSpace() {
+        int start = index;
+        int len = typeString.length();
+        while (index < len && isWhiteSpace(typeString.charAt(index))) {
+            index++;
+        }
+        return index - start;
+    }
+
+    private boolean startsWith(String prefix) {
+        return typeString.startsWith(prefix, index);
+    }
+
+    static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+
+    static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * only space and tab, the other whitespace is not expected in type
+     * expressions
+     */
+    static boolean isWhiteSpace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+}
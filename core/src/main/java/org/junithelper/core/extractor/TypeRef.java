@@ -0,0 +1,189 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable type expression parsed by {@link TypeParser}.<br>
+ * Instances are interned by {@link TypeRefTable}, so the same type shares
+ * one object and can be compared by identity.
+ */
+public final class TypeRef {
+
+    public static final String Wildcard = "?";
+
+    private final String name;
+
+    private final List<TypeRef> typeArguments;
+
+    private final String wildcardBoundKind;
+
+    private final TypeRef wildcardBound;
+
+    private final int arrayDimensions;
+
+    private final boolean isVarargs;
+
+    private final String text;
+
+    TypeRef(String name, List<TypeRef> typeArguments, int arrayDimensions, boolean isVarargs) {
+        this(name, typeArguments, null, null, arrayDimensions, isVarargs);
+    }
+
+    TypeRef(String wildcardBoundKind, TypeRef wildcardBound) {
+        this(Wildcard, Collections.<TypeRef> emptyList(), wildcardBoundKind, wildcardBound, 0, false);
+    }
+
+    private TypeRef(String name, List<TypeRef> typeArguments, String wildcardBoundKind, TypeRef wildcardBound,
+            int arrayDimensions, boolean isVarargs) {
+        this.name = name;
+        this.typeArguments = Collections.unmodifiableList(typeArguments);
+        this.wildcardBoundKind = wildcardBoundKind;
+        this.wildcardBound = wildcardBound;
+        this.arrayDimensions = arrayDimensions;
+        this.isVarargs = isVarargs;
+        this.text = toText();
+    }
+
+    /**
+     * @return the type name which may be qualified, "?" if wildcard
+     */
+    public String getName() {
+        return name;
+    }
+
+    public List<TypeRef> getTypeArguments() {
+        return typeArguments;
+    }
+
+    public boolean hasTypeArguments() {
+        return typeArguments.size() > 0;
+    }
+
+    /**
+     * @return true if any type argument or its wildcard bound has type
+     *         arguments, ex. Map&lt;String, List&lt;String&gt;&gt;
+     */
+    public boolean hasNestedTypeArguments() {
+        for (TypeRef typeArgument : typeArguments) {
+            if (typeArgument.hasTypeArguments()
+                    || (typeArgument.wildcardBound != null && typeArgument.wildcardBound.hasTypeArguments())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isWildcard() {
+        return Wildcard.equals(name);
+    }
+
+    /**
+     * @return "extends" or "super", null if not bounded
+     */
+    public String getWildcardBoundKind() {
+        return wildcardBoundKind;
+    }
+
+    public TypeRef getWildcardBound() {
+        return wildcardBound;
+    }
+
+    public int getArrayDimensions() {
+        return arrayDimensions;
+    }
+
+    public boolean isVarargs() {
+        return isVarargs;
+    }
+
+    /**
+     * @return the name without type arguments, ex. List[] for
+     *         List&lt;String&gt;[]
+     */
+    public String getErasedName() {
+        StringBuilder buf = new StringBuilder(name);
+        appendArrayPart(buf);
+        return buf.toString();
+    }
+
+    /**
+     * @return the same as TypeNameConverter#toAvailableInMethodName
+     */
+    public String getNameInMethodName() {
+        StringBuilder buf = new StringBuilder(name.length() + 5 * (arrayDimensions + 1));
+        int len = name.length();
+        for (int i = 0; i < len; i++) {
+            char c = name.charAt(i);
+            if (c != '.') {
+                buf.append(c);
+            }
+        }
+        for (int i = 0; i < arrayDimensions; i++) {
+            buf.append("Array");
+        }
+        if (isVarargs) {
+            buf.append("Array");
+        }
+        return buf.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof TypeRef && text.equals(((TypeRef) obj).text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private String toText() {
+        StringBuilder buf = new StringBuilder(name);
+        if (wildcardBound != null) {
+            buf.append(" ").append(wildcardBoundKind).append(" ").append(wildcardBound.text);
+        }
+        if (hasTypeArguments()) {
+            buf.append("<");
+            for (int i = 0; i < typeArguments.size(); i++) {
+                if (i > 0) {
+                    buf.append(", ");
+                }
+                buf.append(typeArguments.get(i).text);
+            }
+            buf.append(">");
+        }
+        appendArrayPart(buf);
+        return buf.toString();
+    }
+
+    private void appendArrayPart(StringBuilder buf) {
+        for (int i = 0; i < arrayDimensions; i++) {
+            buf.append("[]");
+        }
+        if (isVarargs) {
+            buf.append("...");
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.extractor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared table of the types parsed by {@link TypeParser}.<br>
+ * Each type string is parsed at most once while it is cached, and the same
+ * types are interned into one {@link TypeRef}.
+ */
+public class TypeRefTable {
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private static final TypeRef NOT_A_TYPE = new TypeRef("", Collections.<TypeRef> emptyList(), 0, false);
+
+    private static final TypeRefTable INSTANCE = new TypeRefTable(DEFAULT_MAX_SIZE);
+
+    public static TypeRefTable getInstance() {
+        return INSTANCE;
+    }
+
+    // -----------------
+
+    private final int maxSize;
+
+    private final Map<String, TypeRef> parsed;
+
+    private final Map<String, TypeRef> interned;
+
+    public TypeRefTable(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0 : " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.parsed = createLruMap();
+        this.interned = createLruMap();
+    }
+
+    /**
+     * @return the parsed type, null if not a type
+     */
+    public TypeRef get(String typeString) {
+        TypeRef cached;
+        synchronized (parsed) {
+            cached = parsed.get(typeString);
+        }
+        if (cached == null) {
+            cached = new TypeParser(this, typeString).parse();
+            if (cached == null) {
+                cached = NOT_A_TYPE;
+            }
+            synchronized (parsed) {
+                parsed.put(typeString, cached);
+            }
+        }
+        return cached == NOT_A_TYPE ? null : cached;
+    }
+
+    /**
+     * @return the interned instance which is equal to the type
+     */
+    TypeRef intern(TypeRef type) {
+        synchronized (interned) {
+            TypeRef cached = interned.get(type.toString());
+            if (cached != null) {
+                return cached;
+            }
+            interned.put(type.toString(), type);
+            return type;
+        }
+    }
+
+    public int size() {
+        synchronized (parsed) {
+            return parsed.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (parsed) {
+            parsed.clear();
+        }
+        synchronized (interned) {
+            interned.clear();
+        }
+    }
+
+    private Map<String, TypeRef> createLruMap() {
+        return new LinkedHashMap<String, TypeRef>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TypeRef> eldest) {
+                return size() > TypeRefTable.this.maxSize;
+            }
+        };
+    }
+
+}
@@ -16,15 +16,13 @@
 package org.junithelper.core.file;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.junithelper.core.util.Assertion;
-import org.mozilla.universalchardet.UniversalDetector;
+import org.junithelper.core.util.IOUtil;
+import org.junithelper.core.util.UniversalDetectorUtil;
 
 class FileReaderCommonsIOImpl implements FileReader {
 
@@ -36,31 +34,25 @@ class FileReaderCommonsIOImpl implements FileReader {
 
     @Override
     public String readAsString(File file) throws IOException {
-        String readResult = FileUtils.readFileToString(file, getDetectedEncoding(file));
-        return readResult;
+        // read only once, detecting and decoding share the bytes
+        byte[] bytes = IOUtil.readAsByteArray(file);
+        return new String(bytes, getDetectedEncoding(bytes));
     }
 
     @Override
     public String getDetectedEncoding(File file) {
-        InputStream is = null;
-        String encoding = null;
         try {
-            is = new FileInputStream(file);
-            UniversalDetector detector = new UniversalDetector(null);
-            byte[] buf = new byte[4096];
-            int nread;
-            while ((nread = is.read(buf)) > 0 && !detector.isDone()) {
-                detector.handleData(buf, 0, nread);
-            }
-            detector.dataEnd();
-            encoding = detector.getDetectedCharset();
+            return getDetectedEncoding(IOUtil.readAsByteArray(file));
         } catch (IOException e) {
             // nothing to do
-        } finally {
-            IOUtils.closeQuietly(is);
-            if (encoding == null) {
-                return Charset.defaultCharset().name();
-            }
+            return Charset.defaultCharset().name();
+        }
+    }
+
+    static String getDetectedEncoding(byte[] bytes) {
+        String encoding = UniversalDetectorUtil.getDetectedEncoding(bytes);
+        if (encoding == null) {
+            return Charset.defaultCharset().name();
         }
         return encoding;
     }
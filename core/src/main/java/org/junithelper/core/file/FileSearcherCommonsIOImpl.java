@@ -16,25 +16,36 @@
 package org.junithelper.core.file;
 
 import java.io.File;
+import java.io.FileFilter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.RegexFileFilter;
 import org.junithelper.core.constant.RegExp;
 import org.junithelper.core.util.Assertion;
 
-class FileSearcherCommonsIOImpl implements FileSearcher {
+class FileSearcherCommonsIOImpl implements FilteringFileSearcher {
 
     @Override
     public List<File> searchFilesRecursivelyByName(String baseAbsoluteDir, String regexp) {
+        return searchFilesRecursivelyByName(baseAbsoluteDir, regexp, null);
+    }
+
+    @Override
+    public List<File> searchFilesRecursivelyByName(String baseAbsoluteDir, String regexp, FileFilter directoryFilter) {
         Assertion.on("baseAbsoluteDir").mustNotBeEmpty(baseAbsoluteDir);
         File dir = new File(baseAbsoluteDir);
         IOFileFilter fileFilter = new RegexFileFilter(RegExp.Anything_ZeroOrMore_Min + regexp
                 + RegExp.Anything_ZeroOrMore_Min);
         IOFileFilter dirFilter = new RegexFileFilter("[^(/\\.)]*");
+        if (directoryFilter != null) {
+            dirFilter = FileFilterUtils.and(dirFilter, FileFilterUtils.asFileFilter(directoryFilter));
+        }
         Collection<File> files = FileUtils.listFiles(dir, fileFilter, dirFilter);
         List<File> dest = new ArrayList<File>();
         for (File file : files) {
@@ -43,4 +54,11 @@ class FileSearcherCommonsIOImpl implements FileSearcher {
         return dest;
     }
 
+    @Override
+    public Iterator<File> iterateFilesRecursivelyByName(String baseAbsoluteDir, String regexp,
+            FileFilter directoryFilter) {
+        // commons-io 2.0 has no lazy iteration
+        return searchFilesRecursivelyByName(baseAbsoluteDir, regexp, directoryFilter).iterator();
+    }
+
 }
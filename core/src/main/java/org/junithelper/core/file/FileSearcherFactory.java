@@ -15,6 +15,8 @@
  */
 package org.junithelper.core.file;
 
+import org.junithelper.core.config.Configuration;
+
 public class FileSearcherFactory {
 
     private FileSearcherFactory() {
@@ -24,4 +26,11 @@ public class FileSearcherFactory {
         return new FileSearcherCommonsIOImpl();
     }
 
+    public static FilteringFileSearcher create(Configuration config) {
+        if (config != null && config.isPruningFileSearcherEnabled) {
+            return new FileSearcherJavaIOImpl(config.fileSearcherThreads);
+        }
+        return new FileSearcherCommonsIOImpl();
+    }
+
 }
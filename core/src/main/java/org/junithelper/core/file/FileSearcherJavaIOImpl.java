@@ -0,0 +1,276 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.file;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.util.Assertion;
+
+/**
+ * {@link FilteringFileSearcher} which walks the directories by itself.<br>
+ * Hidden directories and build output directories are not read at all, and
+ * the file names are matched by suffix if the regexp is a simple one such as
+ * "\\.java$". The files are found lazily by
+ * {@link #iterateFilesRecursivelyByName(String, String, FileFilter)}, and the
+ * sub directories of the base directory are walked in parallel if the number
+ * of threads is more than 1.
+ */
+class FileSearcherJavaIOImpl implements FilteringFileSearcher {
+
+    /**
+     * build output directory name -> files which exist next to it
+     */
+    private static final String[][] BUILD_OUTPUT_DIRECTORIES = new String[][] {
+            new String[] { "target", "pom.xml" }, new String[] { "build", "build.gradle", "build.xml" },
+            new String[] { "bin", ".classpath" }, new String[] { "classes", "build.xml" } };
+
+    private static final Pattern SIMPLE_SUFFIX = Pattern.compile("(\\\\\\.|[a-zA-Z0-9_\\-])+\\$?");
+
+    private final int threads;
+
+    FileSearcherJavaIOImpl() {
+        this(1);
+    }
+
+    FileSearcherJavaIOImpl(int threads) {
+        this.threads = threads;
+    }
+
+    @Override
+    public List<File> searchFilesRecursivelyByName(String baseAbsoluteDir, String regexp) {
+        return searchFilesRecursivelyByName(baseAbsoluteDir, regexp, null);
+    }
+
+    @Override
+    public List<File> searchFilesRecursivelyByName(String baseAbsoluteDir, final String regexp,
+            final FileFilter directoryFilter) {
+        Assertion.on("baseAbsoluteDir").mustNotBeEmpty(baseAbsoluteDir);
+        Assertion.on("regexp").mustNotBeNull(regexp);
+        final NameMatcher nameMatcher = new NameMatcher(regexp);
+        List<File> dest = new ArrayList<File>();
+        File baseDir = new File(baseAbsoluteDir);
+        if (threads <= 1) {
+            addAll(dest, new FileIterator(baseDir, nameMatcher, directoryFilter, true));
+            return dest;
+        }
+        // the files directly under the base directory come first as the
+        // sequential walk does
+        List<File> subDirs = new ArrayList<File>();
+        for (File child : listChildren(baseDir)) {
+            if (child.isDirectory()) {
+                if (isDirectoryToWalk(child, directoryFilter)) {
+                    subDirs.add(child);
+                }
+            } else if (nameMatcher.matches(child.getName())) {
+                dest.add(child);
+            }
+        }
+        if (subDirs.size() == 0) {
+            return dest;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, subDirs.size()));
+        try {
+            List<Future<List<File>>> futures = new ArrayList<Future<List<File>>>();
+            for (final File subDir : subDirs) {
+                futures.add(executor.submit(new Callable<List<File>>() {
+                    public List<File> call() {
+                        List<File> files = new ArrayList<File>();
+                        addAll(files, new FileIterator(subDir, nameMatcher, directoryFilter, false));
+                        return files;
+                    }
+                }));
+            }
+            for (Future<List<File>> future : futures) {
+                dest.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JUnitHelperCoreException(e.getLocalizedMessage(), e);
+        } catch (ExecutionException e) {
+            throw new JUnitHelperCoreException(e.getCause().getLocalizedMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return dest;
+    }
+
+    @Override
+    public Iterator<File> iterateFilesRecursivelyByName(String baseAbsoluteDir, String regexp,
+            FileFilter directoryFilter) {
+        Assertion.on("baseAbsoluteDir").mustNotBeEmpty(baseAbsoluteDir);
+        Assertion.on("regexp").mustNotBeNull(regexp);
+        return new FileIterator(new File(baseAbsoluteDir), new NameMatcher(regexp), directoryFilter, true);
+    }
+
+    // -----------------
+
+    private static void addAll(List<File> dest, Iterator<File> files) {
+        while (files.hasNext()) {
+            dest.add(files.next());
+        }
+    }
+
+    private static List<File> listChildren(File dir) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return new ArrayList<File>();
+        }
+        // the same order on any platform
+        Arrays.sort(children);
+        return Arrays.asList(children);
+    }
+
+    static boolean isDirectoryToWalk(File dir, FileFilter directoryFilter) {
+        String name = dir.getName();
+        // hidden directories such as .svn, and the names which cannot be
+        // packages, as FileSearcherCommonsIOImpl does
+        if (name.indexOf('.') != -1 || name.indexOf('(') != -1 || name.indexOf(')') != -1) {
+            return false;
+        }
+        if (isBuildOutputDirectory(dir)) {
+            return false;
+        }
+        return directoryFilter == null || directoryFilter.accept(dir);
+    }
+
+    static boolean isBuildOutputDirectory(File dir) {
+        for (String[] buildOutput : BUILD_OUTPUT_DIRECTORIES) {
+            if (!buildOutput[0].equals(dir.getName())) {
+                continue;
+            }
+            // packages can have the same names, so the build files are
+            // required
+            for (int i = 1; i < buildOutput.length; i++) {
+                if (new File(dir.getParentFile(), buildOutput[i]).exists()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Matches the file names in the same way as
+     * {@link FileSearcherCommonsIOImpl}, by suffix if possible.
+     */
+    static class NameMatcher {
+
+        private final String suffix;
+
+        private final String contained;
+
+        private final Pattern pattern;
+
+        NameMatcher(String regexp) {
+            if (SIMPLE_SUFFIX.matcher(regexp).matches()) {
+                String literal = regexp.replace("\\.", ".");
+                if (literal.endsWith("$")) {
+                    suffix = literal.substring(0, literal.length() - 1);
+                    contained = null;
+                } else {
+                    suffix = null;
+                    contained = literal;
+                }
+                pattern = null;
+            } else {
+                suffix = null;
+                contained = null;
+                pattern = Pattern.compile(regexp);
+            }
+        }
+
+        boolean matches(String name) {
+            if (suffix != null) {
+                return name.endsWith(suffix);
+            } else if (contained != null) {
+                return name.indexOf(contained) != -1;
+            }
+            return pattern.matcher(name).find();
+        }
+
+    }
+
+    /**
+     * Walks the directories depth-first, reading a directory only when the
+     * files found so far have been consumed.
+     */
+    private static class FileIterator implements Iterator<File> {
+
+        private final NameMatcher nameMatcher;
+
+        private final FileFilter directoryFilter;
+
+        private final LinkedList<File> directories = new LinkedList<File>();
+
+        private final LinkedList<File> files = new LinkedList<File>();
+
+        FileIterator(File baseDir, NameMatcher nameMatcher, FileFilter directoryFilter, boolean isBaseDir) {
+            this.nameMatcher = nameMatcher;
+            this.directoryFilter = directoryFilter;
+            // the base directory is always walked even if it is filtered
+            if (isBaseDir || isDirectoryToWalk(baseDir, directoryFilter)) {
+                directories.add(baseDir);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (files.isEmpty() && !directories.isEmpty()) {
+                List<File> subDirs = new ArrayList<File>();
+                for (File child : listChildren(directories.removeFirst())) {
+                    if (child.isDirectory()) {
+                        if (isDirectoryToWalk(child, directoryFilter)) {
+                            subDirs.add(child);
+                        }
+                    } else if (nameMatcher.matches(child.getName())) {
+                        files.add(child);
+                    }
+                }
+                directories.addAll(0, subDirs);
+            }
+            return !files.isEmpty();
+        }
+
+        @Override
+        public File next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return files.removeFirst();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
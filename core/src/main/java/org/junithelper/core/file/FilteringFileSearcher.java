@@ -0,0 +1,44 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.file;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link FileSearcher} which can skip directories without reading them.<br>
+ * Separated from {@link FileSearcher} so that existing implementations of it
+ * don't need to be changed.
+ */
+public interface FilteringFileSearcher extends FileSearcher {
+
+    /**
+     * @param directoryFilter the directories which are not accepted are not
+     *            read at all
+     */
+    List<File> searchFilesRecursivelyByName(String baseDir, String regexp, FileFilter directoryFilter);
+
+    /**
+     * @param directoryFilter the directories which are not accepted are not
+     *            read at all
+     * @return the files which are found while iterating if the
+     *         implementation supports it
+     */
+    Iterator<File> iterateFilesRecursivelyByName(String baseDir, String regexp, FileFilter directoryFilter);
+
+}
@@ -15,12 +15,13 @@
  */
 package org.junithelper.core.filter;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class TrimFilterManager {
 
-    private List<TrimFilter> filters = new ArrayList<TrimFilter>();
+    // filters are applied by multiple threads at the same time
+    private final List<TrimFilter> filters = new CopyOnWriteArrayList<TrimFilter>();
 
     public List<TrimFilter> getFilters() {
         return this.filters;
@@ -1,21 +1,28 @@
 package org.junithelper.core.filter;
 
-import org.junithelper.core.filter.impl.TrimAnnotationFilter;
-import org.junithelper.core.filter.impl.TrimCommentFilter;
-import org.junithelper.core.filter.impl.TrimInsideOfBraceFilter;
-import org.junithelper.core.filter.impl.TrimQuotationFilter;
+import org.junithelper.core.filter.impl.SinglePassTrimFilter;
 
 public class TrimFilterUtil {
 
-    private static TrimFilterManager SINGLETON = new TrimFilterManager();
+    private static final TrimFilterManager SINGLETON = new TrimFilterManager();
+
+    private static final SinglePassTrimFilter SINGLE_PASS_FILTER = new SinglePassTrimFilter();
 
     static {
-        SINGLETON.addFilter(new TrimCommentFilter(), new TrimInsideOfBraceFilter(), new TrimQuotationFilter(),
-                new TrimAnnotationFilter());
+        // same as TrimCommentFilter, TrimInsideOfBraceFilter,
+        // TrimQuotationFilter and TrimAnnotationFilter
+        SINGLETON.addFilter(SINGLE_PASS_FILTER);
     }
 
     public static String doAllFilters(String src) {
         return SINGLETON.doTrimAll(src);
     }
 
+    /**
+     * @return the result of {@link #doAllFilters(String)} before the first "{"
+     */
+    public static String doAllFiltersOutOfBrace(String src) {
+        return SINGLE_PASS_FILTER.trimOutOfBrace(src);
+    }
+
 }
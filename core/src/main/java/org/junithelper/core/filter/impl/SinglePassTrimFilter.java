@@ -0,0 +1,501 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.filter.impl;
+
+import org.junithelper.core.filter.TrimFilter;
+
+/**
+ * Single pass version of TrimCommentFilter, TrimInsideOfBraceFilter,
+ * TrimQuotationFilter and TrimAnnotationFilter applied in this order.<br>
+ * Each filter is implemented as a small state machine and every char is
+ * passed through all of them at once, so the output is same as the filter
+ * chain without creating intermediate Strings or running regular
+ * expressions.
+ */
+public class SinglePassTrimFilter implements TrimFilter {
+
+    @Override
+    public String trimAll(String src) {
+        if (src == null) {
+            return null;
+        }
+        return new Scanner(src).scan(false);
+    }
+
+    /**
+     * @return the same as {@link #trimAll(String)} before the first "{", the
+     *         source code after it is not scanned
+     */
+    public String trimOutOfBrace(String src) {
+        if (src == null) {
+            return null;
+        }
+        String dest = new Scanner(src).scan(true);
+        int index = dest.indexOf('{');
+        return (index == -1) ? dest : dest.substring(0, index);
+    }
+
+    /**
+     * line terminators for "." and "$" of java.util.regex
+     */
+    static boolean isLineTerminator(char c) {
+        return c == '\r' || c == '\n' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * "\s" of java.util.regex
+     */
+    static boolean isWhiteSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static enum AnnotationState {
+        None, AtMark, Name, Args, AfterArgs
+    }
+
+    private static final char[] INTERFACE = "interface".toCharArray();
+
+    private static class Scanner {
+
+        private final char[] src;
+        private final StringBuilder dest;
+
+        // TrimCommentFilter (line)
+        private char[] line = new char[256];
+        private int lineLength = 0;
+
+        // TrimCommentFilter (block comment)
+        private boolean hasSlash = false;
+        private boolean isInsideOfBlockComment = false;
+        private char[] comment = new char[256];
+        private int commentLength = 0;
+
+        // TrimInsideOfBraceFilter
+        private int braceIndex = 0;
+        private char[] previousChars = new char[6];
+        private int braceBackslashCount = 0;
+        private boolean isInsideOfString = false;
+        private boolean isInsideOfChar = false;
+        private boolean isInsideOfTargetClass = false;
+        private boolean isInsideOfFirstBrace = false;
+        private boolean isInsideOfSecondBrace = false;
+        private int braceDepth = 0;
+
+        // TrimAnnotationFilter ("@interface" -> "interface")
+        private boolean isInterfaceReplaced = false;
+        private int interfaceMatchedLength = -1;
+
+        // TrimAnnotationFilter ("@Xxx(...)" -> " ")
+        private AnnotationState annotationState = AnnotationState.None;
+        private char[] args = new char[64];
+        private int argsLength = 0;
+        private boolean isCloseParenNotFound = false;
+
+        // TrimAnnotationFilter ("@xxx" -> "")
+        private boolean hasAtMark = false;
+        private boolean isInsideOfAtMarkWord = false;
+
+        Scanner(String src) {
+            this.src = src.toCharArray();
+            this.dest = new StringBuilder(src.length());
+        }
+
+        /**
+         * @param isStoppedAtFirstBrace if true, returns when a "{" is appended
+         *            (the appended chars are never changed afterwards)
+         */
+        String scan(boolean isStoppedAtFirstBrace) {
+            int len = src.length;
+            int start = 0;
+            while (start < len) {
+                int end = start;
+                while (end < len && src[end] != '\n') {
+                    end++;
+                }
+                int scannedLength = dest.length();
+                scanLine(start, end);
+                start = end + 1;
+                if (isStoppedAtFirstBrace && dest.indexOf("{", scannedLength) != -1) {
+                    return dest.toString();
+                }
+            }
+            endOfBlockComment();
+            endOfInterface();
+            endOfAnnotation();
+            endOfAtMarkWord();
+            return dest.toString();
+        }
+
+        // -----------------
+        // TrimCommentFilter
+
+        private void scanLine(int start, int end) {
+            // same as TrimInsideOfStringFilter
+            lineLength = 0;
+            boolean isInsideOfString = false;
+            boolean isInsideOfChar = false;
+            int backslashCount = 0;
+            for (int i = start; i < end; i++) {
+                char current = src[i];
+                boolean isEscaped = backslashCount % 2 != 0;
+                backslashCount = (current == '\\') ? backslashCount + 1 : 0;
+                if (i > start) {
+                    if (!isInsideOfChar && current == '"' && !isEscaped) {
+                        isInsideOfString = !isInsideOfString;
+                        appendToLine(current);
+                        continue;
+                    }
+                    if (!isInsideOfString && current == '\'' && !isEscaped) {
+                        isInsideOfChar = !isInsideOfChar;
+                        appendToLine(current);
+                        continue;
+                    }
+                }
+                if (isInsideOfChar || isInsideOfString) {
+                    continue;
+                }
+                appendToLine(current);
+            }
+            // same as replaceFirst("//.*$", "")
+            int commentStart = -1;
+            int commentEnd = -1;
+            for (int i = 0; i + 1 < lineLength; i++) {
+                if (line[i] == '/' && line[i + 1] == '/') {
+                    int lineEnd = i + 2;
+                    while (lineEnd < lineLength && !isLineTerminator(line[lineEnd])) {
+                        lineEnd++;
+                    }
+                    if (lineEnd >= lineLength - 1) {
+                        commentStart = i;
+                        commentEnd = lineEnd;
+                        break;
+                    }
+                    i = lineEnd - 1;
+                }
+            }
+            for (int i = 0; i < lineLength; i++) {
+                if (i >= commentStart && i < commentEnd) {
+                    continue;
+                }
+                char current = line[i];
+                scanBlockComment(current == '\r' ? ' ' : current);
+            }
+        }
+
+        private void appendToLine(char c) {
+            if (lineLength == line.length) {
+                line = grow(line);
+            }
+            line[lineLength++] = c;
+        }
+
+        // same as replaceAll("/\\*.*?\\*/", "")
+        private void scanBlockComment(char current) {
+            if (isInsideOfBlockComment) {
+                if (isLineTerminator(current)) {
+                    // "." does not match, so no comment was started
+                    isInsideOfBlockComment = false;
+                    scanInsideOfBrace('/');
+                    scanInsideOfBrace('*');
+                    for (int i = 0; i < commentLength; i++) {
+                        scanInsideOfBrace(comment[i]);
+                    }
+                    scanInsideOfBrace(current);
+                    return;
+                }
+                if (current == '/' && commentLength > 0 && comment[commentLength - 1] == '*') {
+                    isInsideOfBlockComment = false;
+                    return;
+                }
+                if (commentLength == comment.length) {
+                    comment = grow(comment);
+                }
+                comment[commentLength++] = current;
+                return;
+            }
+            if (hasSlash) {
+                hasSlash = false;
+                if (current == '*') {
+                    isInsideOfBlockComment = true;
+                    commentLength = 0;
+                    return;
+                }
+                scanInsideOfBrace('/');
+            }
+            if (current == '/') {
+                hasSlash = true;
+                return;
+            }
+            scanInsideOfBrace(current);
+        }
+
+        private void endOfBlockComment() {
+            if (hasSlash) {
+                hasSlash = false;
+                scanInsideOfBrace('/');
+            }
+            if (isInsideOfBlockComment) {
+                isInsideOfBlockComment = false;
+                scanInsideOfBrace('/');
+                scanInsideOfBrace('*');
+                for (int i = 0; i < commentLength; i++) {
+                    scanInsideOfBrace(comment[i]);
+                }
+            }
+        }
+
+        // -----------------
+        // TrimInsideOfBraceFilter
+
+        private void scanInsideOfBrace(char current) {
+            int i = braceIndex;
+            boolean isEscaped = braceBackslashCount % 2 != 0;
+            braceBackslashCount = (current == '\\') ? braceBackslashCount + 1 : 0;
+            doScanInsideOfBrace(current, i, isEscaped);
+            previousChars[i % previousChars.length] = current;
+            braceIndex++;
+        }
+
+        private void doScanInsideOfBrace(char current, int i, boolean isEscaped) {
+            // check inside of String or char
+            if (i > 0) {
+                if (current == '"' && !isEscaped) {
+                    isInsideOfString = !isInsideOfString;
+                    scanQuotation(current);
+                    return;
+                }
+                if (!isInsideOfString && current == '\'' && !isEscaped) {
+                    isInsideOfChar = !isInsideOfChar;
+                    scanQuotation(current);
+                    return;
+                }
+            }
+            if (isInsideOfChar || isInsideOfString) {
+                return;
+            }
+            // waiting for inside of the target class
+            if (!isInsideOfTargetClass) {
+                scanQuotation(current);
+                if (i >= 6 && (previous(6) == ' ' || previous(6) == ';') && previous(5) == 'c' && previous(4) == 'l'
+                        && previous(3) == 'a' && previous(2) == 's' && previous(1) == 's' && current == ' ') {
+                    // class
+                    isInsideOfTargetClass = true;
+                } else if (i >= 5 && (previous(5) == ' ' || previous(5) == ';') && previous(4) == 'e'
+                        && previous(3) == 'n' && previous(2) == 'u' && previous(1) == 'm' && current == ' ') {
+                    // enum
+                    isInsideOfTargetClass = true;
+                }
+                return;
+            }
+            // waiting for inside of the first level brace
+            if (!isInsideOfFirstBrace) {
+                scanQuotation(current);
+                if (current == '{') {
+                    isInsideOfFirstBrace = true;
+                }
+                return;
+            }
+            // outer of top braced
+            if (!isInsideOfSecondBrace) {
+                scanQuotation(current);
+            }
+            if (current == '{') {
+                isInsideOfSecondBrace = true;
+                braceDepth++;
+            }
+            if (braceDepth > 0 && current == '}') {
+                braceDepth--;
+                if (braceDepth == 0) {
+                    scanQuotation(current);
+                }
+            }
+            if (braceDepth == 0) {
+                isInsideOfSecondBrace = false;
+            }
+        }
+
+        private char previous(int count) {
+            return previousChars[(braceIndex - count) % previousChars.length];
+        }
+
+        // -----------------
+        // TrimQuotationFilter
+
+        private void scanQuotation(char current) {
+            if (current == '"' || current == '\'') {
+                return;
+            }
+            scanInterface(current);
+        }
+
+        // -----------------
+        // TrimAnnotationFilter
+
+        // same as replaceFirst("@interface", "interface")
+        private void scanInterface(char current) {
+            if (interfaceMatchedLength >= 0) {
+                if (current == INTERFACE[interfaceMatchedLength]) {
+                    interfaceMatchedLength++;
+                    if (interfaceMatchedLength == INTERFACE.length) {
+                        interfaceMatchedLength = -1;
+                        isInterfaceReplaced = true;
+                        for (char c : INTERFACE) {
+                            scanAnnotation(c);
+                        }
+                    }
+                    return;
+                }
+                endOfInterface();
+            }
+            if (!isInterfaceReplaced && current == '@') {
+                interfaceMatchedLength = 0;
+                return;
+            }
+            scanAnnotation(current);
+        }
+
+        private void endOfInterface() {
+            if (interfaceMatchedLength >= 0) {
+                scanAnnotation('@');
+                for (int i = 0; i < interfaceMatchedLength; i++) {
+                    scanAnnotation(INTERFACE[i]);
+                }
+                interfaceMatchedLength = -1;
+            }
+        }
+
+        // same as replaceAll("@[^\\s\r\n\\(]+(\\([^\\)]*\\))*", " ")
+        private void scanAnnotation(char current) {
+            switch (annotationState) {
+            case AtMark:
+                if (isWhiteSpace(current) || current == '(') {
+                    annotationState = AnnotationState.None;
+                    scanAtMarkWord('@');
+                    break;
+                }
+                annotationState = AnnotationState.Name;
+                return;
+            case Name:
+                if (current == '(' && !isCloseParenNotFound) {
+                    annotationState = AnnotationState.Args;
+                    argsLength = 0;
+                    return;
+                }
+                if (!isWhiteSpace(current) && current != '(') {
+                    return;
+                }
+                annotationState = AnnotationState.None;
+                scanAtMarkWord(' ');
+                break;
+            case Args:
+                if (current == ')') {
+                    annotationState = AnnotationState.AfterArgs;
+                    return;
+                }
+                if (argsLength == args.length) {
+                    args = grow(args);
+                }
+                args[argsLength++] = current;
+                return;
+            case AfterArgs:
+                if (current == '(' && !isCloseParenNotFound) {
+                    annotationState = AnnotationState.Args;
+                    argsLength = 0;
+                    return;
+                }
+                annotationState = AnnotationState.None;
+                scanAtMarkWord(' ');
+                break;
+            default:
+                break;
+            }
+            if (current == '@') {
+                annotationState = AnnotationState.AtMark;
+                return;
+            }
+            scanAtMarkWord(current);
+        }
+
+        private void endOfAnnotation() {
+            switch (annotationState) {
+            case AtMark:
+                annotationState = AnnotationState.None;
+                scanAtMarkWord('@');
+                break;
+            case Name:
+            case AfterArgs:
+                annotationState = AnnotationState.None;
+                scanAtMarkWord(' ');
+                break;
+            case Args:
+                // the last "(" is not closed, so it is not a part of the
+                // annotation and no ")" can be found after this
+                annotationState = AnnotationState.None;
+                scanAtMarkWord(' ');
+                isCloseParenNotFound = true;
+                scanAnnotation('(');
+                for (int i = 0; i < argsLength; i++) {
+                    scanAnnotation(args[i]);
+                }
+                endOfAnnotation();
+                break;
+            default:
+                break;
+            }
+        }
+
+        // same as replaceAll("@[^\\s\r\n]+", "")
+        private void scanAtMarkWord(char current) {
+            if (hasAtMark) {
+                hasAtMark = false;
+                if (isWhiteSpace(current)) {
+                    dest.append('@');
+                    dest.append(current);
+                } else {
+                    isInsideOfAtMarkWord = true;
+                }
+                return;
+            }
+            if (isInsideOfAtMarkWord) {
+                if (isWhiteSpace(current)) {
+                    isInsideOfAtMarkWord = false;
+                    dest.append(current);
+                }
+                return;
+            }
+            if (current == '@') {
+                hasAtMark = true;
+                return;
+            }
+            dest.append(current);
+        }
+
+        private void endOfAtMarkWord() {
+            if (hasAtMark) {
+                hasAtMark = false;
+                dest.append('@');
+            }
+        }
+
+        private static char[] grow(char[] buf) {
+            char[] newBuf = new char[buf.length * 2];
+            System.arraycopy(buf, 0, newBuf, 0, buf.length);
+            return newBuf;
+        }
+
+    }
+
+}
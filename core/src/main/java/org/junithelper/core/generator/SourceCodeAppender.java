@@ -15,12 +15,18 @@
  */
 package org.junithelper.core.generator;
 
+import java.util.regex.Pattern;
+
 import org.junithelper.core.constant.RegExp;
 import org.junithelper.core.constant.StringValue;
 import org.junithelper.core.util.Assertion;
+import org.junithelper.core.util.PatternCache;
 
 class SourceCodeAppender {
 
+    private static final Pattern Dot = Pattern.compile("\\.");
+    private static final Pattern Asterisk = Pattern.compile("\\*");
+
     private LineBreakProvider lineBreakProvider;
     private IndentationProvider indentationProvider;
 
@@ -107,11 +113,14 @@ class SourceCodeAppender {
         Assertion.on("src").mustNotBeNull(src);
         Assertion.on("importLine").mustNotBeNull(importLine);
 
-        String oneline = src.replaceAll(RegExp.CRLF, StringValue.Space);
+        String oneline = RegExp.PatternObject.CRLF.matcher(src).replaceAll(StringValue.Space);
         importLine = importLine.replace(StringValue.CarriageReturn + StringValue.LineFeed, StringValue.Empty);
-        String importLineRegExp = importLine.replaceAll("\\s+", "\\\\s+").replaceAll("\\.", "\\\\.").replaceAll("\\*",
-                "\\\\*");
-        if (!oneline.matches(RegExp.Anything_ZeroOrMore_Min + importLineRegExp + RegExp.Anything_ZeroOrMore_Min)) {
+        String importLineRegExp = RegExp.PatternObject.WhiteSpace_Consecutive_OneOrMore_Max.matcher(importLine)
+                .replaceAll("\\\\s+");
+        importLineRegExp = Dot.matcher(importLineRegExp).replaceAll("\\\\.");
+        importLineRegExp = Asterisk.matcher(importLineRegExp).replaceAll("\\\\*");
+        if (!PatternCache.getInstance().matches(oneline,
+                RegExp.Anything_ZeroOrMore_Min + importLineRegExp + RegExp.Anything_ZeroOrMore_Min)) {
             buf.append(importLine);
             buf.append(StringValue.CarriageReturn);
             buf.append(StringValue.LineFeed);
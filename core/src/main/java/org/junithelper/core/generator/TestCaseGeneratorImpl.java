@@ -18,7 +18,9 @@ package org.junithelper.core.generator;
 import static org.junithelper.core.generator.GeneratorImplFunction.*;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,7 +34,7 @@ import org.junithelper.core.config.extension.ExtReturn;
 import org.junithelper.core.constant.RegExp;
 import org.junithelper.core.constant.StringValue;
 import org.junithelper.core.extractor.ClassMetaExtractor;
-import org.junithelper.core.filter.TrimFilterUtil;
+import org.junithelper.core.extractor.SourceUnit;
 import org.junithelper.core.meta.AccessModifier;
 import org.junithelper.core.meta.ArgTypeMeta;
 import org.junithelper.core.meta.ClassMeta;
@@ -42,8 +44,9 @@ import org.junithelper.core.meta.MethodMeta;
 import org.junithelper.core.meta.TestCaseMeta;
 import org.junithelper.core.meta.TestMethodMeta;
 import org.junithelper.core.util.Assertion;
-import org.junithelper.core.util.ObjectUtil;
+import org.junithelper.core.util.PatternCache;
 import org.junithelper.core.util.Stderr;
+import org.junithelper.core.util.ThreadUtil;
 
 class TestCaseGeneratorImpl implements TestCaseGenerator {
 
@@ -55,6 +58,9 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
     private MessageValue messageValue = new MessageValue();
     private TestMethodGenerator testMethodGenerator;
 
+    // the last filtered source code, reused while the same test case is being edited
+    private SourceUnit lastSourceUnit;
+
     public TestCaseGeneratorImpl(Configuration config, LineBreakProvider lineBreakProvider) {
         this.config = config;
         IndentationProvider indentationProvider = new IndentationProvider(config);
@@ -88,6 +94,7 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
         TestCaseMeta testCaseMeta = new TestCaseMeta();
         testCaseMeta.target = targetClassMeta;
         for (MethodMeta targetMethodMeta : testCaseMeta.target.methods) {
+            ThreadUtil.checkInterrupted();
             testCaseMeta.tests.add(testMethodGenerator.getTestMethodMeta(targetMethodMeta));
         }
         return testCaseMeta;
@@ -100,15 +107,16 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
         Assertion.on("targetClassMeta").mustNotBeNull(targetClassMeta);
 
         List<TestMethodMeta> dest = new ArrayList<TestMethodMeta>();
-        String checkTargetSourceCode = TrimFilterUtil.doAllFilters(currentTestCaseSourceCode);
+        TestMethodMetaIndex destIndex = new TestMethodMetaIndex();
+        String checkTargetSourceCode = getSourceUnit(currentTestCaseSourceCode).getTrimmedSourceCodeString();
+        TestMethodNameIndex testMethodNameIndex = new TestMethodNameIndex(checkTargetSourceCode, config);
 
         // is testing type safe required
-        if (!checkTargetSourceCode.matches(RegExp.Anything_ZeroOrMore_Min + "public\\s+void\\s+[^\\s]*type\\("
-                + RegExp.Anything_ZeroOrMore_Min)) {
+        if (!testMethodNameIndex.existsEndsWith("type")) {
             TestMethodMeta meta = new TestMethodMeta();
             meta.classMeta = targetClassMeta;
             meta.isTypeTest = true;
-            addTestMethodMetaToListIfNotExists(dest, meta);
+            addTestMethodMetaToListIfNotExists(dest, destIndex, meta);
         }
         // is testing instantiation required
         if (!targetClassMeta.isEnum && targetClassMeta.constructors.size() > 0) {
@@ -121,17 +129,17 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
             }
             // instantiation test
             if (notPrivateConstructor != null) {
-                if (!checkTargetSourceCode.matches(RegExp.Anything_ZeroOrMore_Min
-                        + "public\\s+void\\s+[^\\s]*instantiation\\(" + RegExp.Anything_ZeroOrMore_Min)) {
+                if (!testMethodNameIndex.existsEndsWith("instantiation")) {
                     TestMethodMeta meta = new TestMethodMeta();
                     meta.classMeta = targetClassMeta;
                     meta.isInstantiationTest = true;
-                    addTestMethodMetaToListIfNotExists(dest, meta);
+                    addTestMethodMetaToListIfNotExists(dest, destIndex, meta);
                 }
             }
         }
         // test methods
         for (MethodMeta methodMeta : targetClassMeta.methods) {
+            ThreadUtil.checkInterrupted();
 
             try {
                 // exclude accessors
@@ -147,31 +155,23 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
                 // -----------
                 // at least one test method for the target
                 // the test method is not already exist
-                StringBuilder IS_ALREADY_EXISTS = new StringBuilder();
-                IS_ALREADY_EXISTS.append(RegExp.Anything_ZeroOrMore_Min);
                 // test method signature prefix
                 TestMethodMeta testMethodMeta = new TestMethodMeta();
                 testMethodMeta.methodMeta = methodMeta;
                 String testMethodNamePrefix = testMethodGenerator.getTestMethodNamePrefix(testMethodMeta);
-                IS_ALREADY_EXISTS.append(testMethodNamePrefix);
-                IS_ALREADY_EXISTS.append("[");
-                IS_ALREADY_EXISTS.append(config.testMethodName.basicDelimiter);
-                IS_ALREADY_EXISTS.append("\\(");
-                IS_ALREADY_EXISTS.append("]");
-                IS_ALREADY_EXISTS.append(RegExp.Anything_ZeroOrMore_Min);
-                if (!checkTargetSourceCode.matches(Matcher.quoteReplacement(IS_ALREADY_EXISTS.toString()))) {
+                if (!testMethodNameIndex.exists(testMethodNamePrefix)) {
                     // testing normal pattern
                     TestMethodMeta meta = testMethodGenerator.getTestMethodMeta(methodMeta);
                     // extension assertions
                     meta = appendIfExtensionAssertionsExist(meta, config);
-                    addTestMethodMetaToListIfNotExists(dest, meta);
+                    addTestMethodMetaToListIfNotExists(dest, destIndex, meta);
                     // testing exception patterns
                     if (config.target.isExceptionPatternRequired) {
                         for (ExceptionMeta exceptionMeta : methodMeta.throwsExceptions) {
                             TestMethodMeta metaEx = testMethodGenerator.getTestMethodMeta(methodMeta, exceptionMeta);
                             // extension assertions
                             metaEx = appendIfExtensionAssertionsExist(metaEx, config);
-                            addTestMethodMetaToListIfNotExists(dest, metaEx);
+                            addTestMethodMetaToListIfNotExists(dest, destIndex, metaEx);
                         }
                     }
                 }
@@ -187,20 +187,18 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
                                 for (ExtArgPattern pattern : extArg.patterns) {
                                     // extension pattern is not matched
                                     // e.g.
-                                    // .*?doSomething_A$String_StringIsNull.*?
-                                    String IS_ALREADY_EXISTS_FOR_PATTERN = RegExp.Anything_ZeroOrMore_Min
-                                            + testMethodNamePrefix + config.testMethodName.basicDelimiter
+                                    // doSomething_A$String_StringIsNull
+                                    String testMethodNameForPattern = testMethodNamePrefix
+                                            + config.testMethodName.basicDelimiter
                                             + extArg.getCanonicalClassNameInMethodName() + "Is"
-                                            + pattern.getNameWhichFirstCharIsUpper() + RegExp.Anything_ZeroOrMore_Min;
-                                    IS_ALREADY_EXISTS_FOR_PATTERN = Matcher
-                                            .quoteReplacement(IS_ALREADY_EXISTS_FOR_PATTERN);
-                                    if (!checkTargetSourceCode.matches(IS_ALREADY_EXISTS_FOR_PATTERN)) {
+                                            + pattern.getNameWhichFirstCharIsUpper();
+                                    if (!testMethodNameIndex.existsStartsWith(testMethodNameForPattern)) {
                                         // testing target access modifier
                                         TestMethodMeta meta = testMethodGenerator.getTestMethodMeta(methodMeta, null);
                                         meta.extArgPattern = pattern;
                                         // extension assertions
                                         meta = appendIfExtensionAssertionsExist(meta, config);
-                                        addTestMethodMetaToListIfNotExists(dest, meta);
+                                        addTestMethodMetaToListIfNotExists(dest, destIndex, meta);
                                     }
                                 }
                             }
@@ -218,28 +216,16 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
     }
 
     static void addTestMethodMetaToListIfNotExists(List<TestMethodMeta> dest, TestMethodMeta meta) {
-        for (TestMethodMeta each : dest) {
-            if (each.methodMeta != null && meta.methodMeta != null && each.methodMeta.name.equals(meta.methodMeta.name)) {
-                if (each.testingTargetException != null && meta.testingTargetException != null
-                        && each.testingTargetException.name.equals(meta.testingTargetException.name)) {
-                    return;
-                }
-                if (each.extArgPattern != null
-                        && meta.extArgPattern != null
-                        && each.extArgPattern.getNameWhichFirstCharIsUpper().equals(
-                                meta.extArgPattern.getNameWhichFirstCharIsUpper())) {
-                    return;
-                }
-            } else {
-                if (each.isTypeTest == true && meta.isTypeTest == true) {
-                    return;
-                }
-                if (each.isInstantiationTest == true && meta.isInstantiationTest == true) {
-                    return;
-                }
-            }
+        addTestMethodMetaToListIfNotExists(dest, new TestMethodMetaIndex(dest), meta);
+    }
+
+    static void addTestMethodMetaToListIfNotExists(List<TestMethodMeta> dest, TestMethodMetaIndex destIndex,
+            TestMethodMeta meta) {
+        if (destIndex.exists(meta)) {
+            return;
         }
         dest.add(meta);
+        destIndex.add(meta);
     }
 
     static TestMethodMeta appendIfExtensionAssertionsExist(TestMethodMeta testMethodMeta, Configuration config) {
@@ -327,6 +313,7 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
             return dest;
         }
         for (TestMethodMeta testMethodMeta : lackingTestMethodMetaList) {
+            ThreadUtil.checkInterrupted();
             // method signature
             buf.append(testMethodGenerator.getTestMethodSourceCode(testMethodMeta));
             buf.append(StringValue.CarriageReturn);
@@ -353,15 +340,14 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
     @Override
     public String getUnifiedVersionTestCaseSourceCode(String currentTestCaseSourceCode, JUnitVersion version) {
         String dest = currentTestCaseSourceCode;
-        ClassMeta classMeta = new ClassMetaExtractor(config).extract(currentTestCaseSourceCode);
-        Configuration config = ObjectUtil.deepCopy(this.config);
+        ClassMeta classMeta = new ClassMetaExtractor(config).extract(getSourceUnit(currentTestCaseSourceCode));
+        Configuration config = this.config.withJUnitVersion(version);
         if (version == JUnitVersion.version3) {
             dest = dest.replaceAll("@Test[\\s\r\n]*public void ", "public void test"
                     + config.testMethodName.basicDelimiter);
             String[] splittedArray = config.testCaseClassNameToExtend.split("\\.");
             String testCaseName = splittedArray[splittedArray.length - 1];
             dest = dest.replaceFirst(classMeta.name + "\\s*\\{", classMeta.name + " extends " + testCaseName + " {");
-            config.junitVersion = JUnitVersion.version3;
             dest = appendRequiredImportListToSourceCode(dest, targetClassMeta, config);
         } else if (version == JUnitVersion.version4) {
             dest = dest.replaceAll("public void test" + config.testMethodName.basicDelimiter,
@@ -386,30 +372,35 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
                     }
                 }
             }
-            config.junitVersion = JUnitVersion.version4;
             dest = appendRequiredImportListToSourceCode(dest, targetClassMeta, config);
         }
         return dest;
     }
 
+    SourceUnit getSourceUnit(String sourceCode) {
+        if (lastSourceUnit == null || !lastSourceUnit.isSameSourceCode(sourceCode)) {
+            lastSourceUnit = new SourceUnit(sourceCode);
+        }
+        return lastSourceUnit;
+    }
+
     String appendRequiredImportListToSourceCode(String sourceCode, ClassMeta targetClassMeta, Configuration config) {
 
         Assertion.on("targetClassMeta").mustNotBeNull(targetClassMeta);
 
         String dest = sourceCode;
-        String oneline = TrimFilterUtil.doAllFilters(sourceCode);
+        String oneline = getSourceUnit(sourceCode).getTrimmedSourceCodeString();
         StringBuilder importedListBuf = new StringBuilder();
 
         // to uniq collection
-        List<String> uniqImportedList = new ArrayList<String>();
+        Set<String> uniqImportedList = new LinkedHashSet<String>();
         for (String imported : targetClassMeta.importedList) {
-            if (!uniqImportedList.contains(imported.trim())) {
-                uniqImportedList.add(imported.trim());
-            }
+            uniqImportedList.add(imported.trim());
         }
         for (String imported : uniqImportedList) {
             String newOne = "import " + imported + ";";
-            if (!oneline.matches(RegExp.Anything_ZeroOrMore_Min + newOne + RegExp.Anything_ZeroOrMore_Min)) {
+            if (!PatternCache.getInstance().matches(oneline,
+                    RegExp.Anything_ZeroOrMore_Min + newOne + RegExp.Anything_ZeroOrMore_Min)) {
                 importedListBuf.append(newOne);
                 importedListBuf.append(StringValue.CarriageReturn);
                 importedListBuf.append(StringValue.LineFeed);
@@ -444,14 +435,14 @@ class TestCaseGeneratorImpl implements TestCaseGenerator {
             appender.appendIfNotExists(importedListBuf, oneline, "import static org.mockito.BDDMockito.*;");
         }
         if (importedListBuf.length() > 0) {
-            Matcher matcher = RegExp.PatternObject.PackageDefArea_Group.matcher(sourceCode.replaceAll(RegExp.CRLF,
-                    StringValue.Space));
+            Matcher matcher = RegExp.PatternObject.PackageDefArea_Group.matcher(RegExp.PatternObject.CRLF.matcher(
+                    sourceCode).replaceAll(StringValue.Space));
             if (matcher.find()) {
                 String packageDef = matcher.group(1);
                 String CRLF = StringValue.CarriageReturn + StringValue.LineFeed;
                 String replacement = packageDef + CRLF + CRLF
                         + importedListBuf.toString().replaceAll("\r\n*$", StringValue.Empty);
-                dest = dest.replaceFirst(packageDef, replacement);
+                dest = PatternCache.getInstance().get(packageDef).matcher(dest).replaceFirst(replacement);
             } else {
                 dest = importedListBuf.toString() + dest;
             }
@@ -0,0 +1,141 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.generator;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junithelper.core.meta.TestMethodMeta;
+import org.junithelper.core.util.Assertion;
+
+/**
+ * Keys of the test method metas already added to the lacking test method
+ * list.<br>
+ * Each duplication check is a hash lookup instead of a scan over the whole
+ * list, so that a class which has thousands of methods is processed in linear
+ * time.
+ */
+class TestMethodMetaIndex {
+
+    private static final String KEY_DELIMITER = "\u0000";
+
+    /**
+     * "{methodName}\0E\0{exceptionName}" and
+     * "{methodName}\0P\0{extArgPatternName}"
+     */
+    private final Set<String> methodKeys = new HashSet<String>();
+
+    private final FlagCounter typeTests = new FlagCounter();
+
+    private final FlagCounter instantiationTests = new FlagCounter();
+
+    TestMethodMetaIndex() {
+    }
+
+    TestMethodMetaIndex(List<TestMethodMeta> metaList) {
+        Assertion.on("metaList").mustNotBeNull(metaList);
+        for (TestMethodMeta meta : metaList) {
+            add(meta);
+        }
+    }
+
+    /**
+     * @return true if the same test method meta is already added
+     */
+    boolean exists(TestMethodMeta meta) {
+        if (meta.methodMeta != null) {
+            String methodName = meta.methodMeta.name;
+            if (meta.testingTargetException != null
+                    && methodKeys.contains(getExceptionKey(methodName, meta.testingTargetException.name))) {
+                return true;
+            }
+            if (meta.extArgPattern != null
+                    && methodKeys.contains(getExtArgPatternKey(methodName,
+                            meta.extArgPattern.getNameWhichFirstCharIsUpper()))) {
+                return true;
+            }
+        }
+        // the flags are compared only with the metas for another method
+        if (meta.isTypeTest && typeTests.existsForOtherThan(meta)) {
+            return true;
+        }
+        if (meta.isInstantiationTest && instantiationTests.existsForOtherThan(meta)) {
+            return true;
+        }
+        return false;
+    }
+
+    void add(TestMethodMeta meta) {
+        if (meta.methodMeta != null) {
+            String methodName = meta.methodMeta.name;
+            if (meta.testingTargetException != null) {
+                methodKeys.add(getExceptionKey(methodName, meta.testingTargetException.name));
+            }
+            if (meta.extArgPattern != null) {
+                methodKeys.add(getExtArgPatternKey(methodName, meta.extArgPattern.getNameWhichFirstCharIsUpper()));
+            }
+        }
+        if (meta.isTypeTest) {
+            typeTests.add(meta);
+        }
+        if (meta.isInstantiationTest) {
+            instantiationTests.add(meta);
+        }
+    }
+
+    static String getExceptionKey(String methodName, String exceptionName) {
+        return methodName + KEY_DELIMITER + "E" + KEY_DELIMITER + exceptionName;
+    }
+
+    static String getExtArgPatternKey(String methodName, String patternName) {
+        return methodName + KEY_DELIMITER + "P" + KEY_DELIMITER + patternName;
+    }
+
+    /**
+     * Counts of the metas which have a flag, grouped by the method name.
+     */
+    static class FlagCounter {
+
+        private int total = 0;
+
+        private final Map<String, Integer> countsByMethodName = new HashMap<String, Integer>();
+
+        void add(TestMethodMeta meta) {
+            total++;
+            if (meta.methodMeta != null) {
+                Integer count = countsByMethodName.get(meta.methodMeta.name);
+                countsByMethodName.put(meta.methodMeta.name, count == null ? 1 : count + 1);
+            }
+        }
+
+        /**
+         * @return true if a flagged meta exists except the metas for the same
+         *         method
+         */
+        boolean existsForOtherThan(TestMethodMeta meta) {
+            if (meta.methodMeta == null) {
+                return total > 0;
+            }
+            Integer sameMethodCount = countsByMethodName.get(meta.methodMeta.name);
+            return total - (sameMethodCount == null ? 0 : sameMethodCount) > 0;
+        }
+
+    }
+
+}
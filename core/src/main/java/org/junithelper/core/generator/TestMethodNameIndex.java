@@ -0,0 +1,135 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.util.Assertion;
+
+/**
+ * Names of the test methods declared in the current test case.<br>
+ * The test case source code is scanned only once, and each existence check
+ * is a lookup in the sorted names instead of a regular expression matching
+ * against the whole test case.
+ */
+class TestMethodNameIndex {
+
+    private static final String VOID = "void";
+
+    private final List<String> declaredNames = new ArrayList<String>();
+
+    /**
+     * Declared names and the names without JUnit 3.x "test" prefix
+     */
+    private final TreeSet<String> sortedNames = new TreeSet<String>();
+
+    private final String basicDelimiter;
+
+    TestMethodNameIndex(String trimmedSourceCode, Configuration config) {
+        Assertion.on("trimmedSourceCode").mustNotBeNull(trimmedSourceCode);
+        Assertion.on("config").mustNotBeNull(config);
+        this.basicDelimiter = config.testMethodName.basicDelimiter == null ? "" : config.testMethodName.basicDelimiter;
+        String junit3Prefix = "test" + basicDelimiter;
+        for (String name : scanVoidMethodNames(trimmedSourceCode)) {
+            declaredNames.add(name);
+            sortedNames.add(name);
+            if (name.startsWith(junit3Prefix) && name.length() > junit3Prefix.length()) {
+                sortedNames.add(name.substring(junit3Prefix.length()));
+            }
+        }
+    }
+
+    /**
+     * @return true if a test method which is named "{prefix}" or
+     *         "{prefix}{basicDelimiter}..." already exists
+     */
+    boolean exists(String testMethodNamePrefix) {
+        for (String name : sortedNames.tailSet(testMethodNamePrefix, true)) {
+            if (!name.startsWith(testMethodNamePrefix)) {
+                break;
+            }
+            if (name.length() == testMethodNamePrefix.length()
+                    || basicDelimiter.indexOf(name.charAt(testMethodNamePrefix.length())) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if a test method which starts with the prefix already
+     *         exists
+     */
+    boolean existsStartsWith(String testMethodNamePrefix) {
+        String ceiling = sortedNames.ceiling(testMethodNamePrefix);
+        return ceiling != null && ceiling.startsWith(testMethodNamePrefix);
+    }
+
+    /**
+     * @return true if a test method which ends with the suffix already exists
+     *         (e.g. "type", "test_type")
+     */
+    boolean existsEndsWith(String testMethodNameSuffix) {
+        for (String name : declaredNames) {
+            if (name.endsWith(testMethodNameSuffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return declaredNames.size();
+    }
+
+    /**
+     * Scans "void xxx(" declarations.
+     */
+    static List<String> scanVoidMethodNames(String sourceCode) {
+        List<String> dest = new ArrayList<String>();
+        String lastToken = null;
+        int len = sourceCode.length();
+        int i = 0;
+        while (i < len) {
+            char c = sourceCode.charAt(i);
+            if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < len && Character.isJavaIdentifierPart(sourceCode.charAt(i))) {
+                    i++;
+                }
+                String token = sourceCode.substring(start, i);
+                int next = i;
+                while (next < len && Character.isWhitespace(sourceCode.charAt(next))) {
+                    next++;
+                }
+                if (VOID.equals(lastToken) && next < len && sourceCode.charAt(next) == '(') {
+                    dest.add(token);
+                }
+                lastToken = token;
+            } else {
+                if (!Character.isWhitespace(c)) {
+                    lastToken = null;
+                }
+                i++;
+            }
+        }
+        return dest;
+    }
+
+}
@@ -15,27 +15,42 @@
  */
 package org.junithelper.core.util;
 
+import java.util.regex.Pattern;
+
+import org.junithelper.core.constant.StringValue;
+
 public class AccessModifierDetector {
 
     private AccessModifierDetector() {
     }
 
     public static boolean isPublic(String methodSignature) {
-        return methodSignature != null && methodSignature.matches(RegExp.Prefix + "public" + RegExp.Suffix);
+        return methodSignature != null && PatternObject.Public.matcher(methodSignature).matches();
     }
 
     public static boolean isProtected(String methodSignature) {
-        return methodSignature != null && methodSignature.matches(RegExp.Prefix + "protected" + RegExp.Suffix);
+        return methodSignature != null && PatternObject.Protected.matcher(methodSignature).matches();
     }
 
     public static boolean isPackageLocal(String methodSignature) {
-        return methodSignature != null && !methodSignature.matches(RegExp.Prefix + "public" + RegExp.Suffix)
-                && !methodSignature.matches(RegExp.Prefix + "protected" + RegExp.Suffix)
-                && !methodSignature.matches(RegExp.Prefix + "private" + RegExp.Suffix);
+        return methodSignature != null && !PatternObject.Public.matcher(methodSignature).matches()
+                && !PatternObject.Protected.matcher(methodSignature).matches()
+                && !PatternObject.Private.matcher(methodSignature).matches();
     }
 
     public static boolean isPrivate(String methodSignature) {
-        return methodSignature != null && methodSignature.matches(RegExp.Prefix + "private" + RegExp.Suffix);
+        return methodSignature != null && PatternObject.Private.matcher(methodSignature).matches();
+    }
+
+    /**
+     * Removes public, protected and final modifiers from the method
+     * signature area.
+     */
+    public static String trimAccessModifier(String methodSignatureArea) {
+        String dest = PatternObject.Tab.matcher(methodSignatureArea).replaceAll(StringValue.Space);
+        dest = PatternObject.Public_Prefix.matcher(dest).replaceAll(StringValue.Space);
+        dest = PatternObject.Protected_Prefix.matcher(dest).replaceAll(StringValue.Space);
+        return PatternObject.Final.matcher(dest).replaceAll(StringValue.Space);
     }
 
     public static final class RegExp {
@@ -45,4 +60,16 @@ public class AccessModifierDetector {
 
     }
 
+    public static final class PatternObject {
+
+        public static final Pattern Public = Pattern.compile(RegExp.Prefix + "public" + RegExp.Suffix);
+        public static final Pattern Protected = Pattern.compile(RegExp.Prefix + "protected" + RegExp.Suffix);
+        public static final Pattern Private = Pattern.compile(RegExp.Prefix + "private" + RegExp.Suffix);
+        public static final Pattern Public_Prefix = Pattern.compile(RegExp.Prefix + "public" + "\\s+");
+        public static final Pattern Protected_Prefix = Pattern.compile(RegExp.Prefix + "protected" + "\\s+");
+        public static final Pattern Tab = Pattern.compile("\\t");
+        public static final Pattern Final = Pattern.compile("\\sfinal\\s");
+
+    }
+
 }
@@ -0,0 +1,59 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public final class DigestUtil {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private DigestUtil() {
+    }
+
+    public static final String md5Hex(byte[] bytes) {
+        Assertion.on("bytes").mustNotBeNull(bytes);
+        try {
+            return toHex(MessageDigest.getInstance("MD5").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final String toHex(byte[] bytes) {
+        Assertion.on("bytes").mustNotBeNull(bytes);
+        char[] dest = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            dest[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            dest[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(dest);
+    }
+
+    public static final String md5Hex(String str) {
+        Assertion.on("str").mustNotBeNull(str);
+        try {
+            return md5Hex(str.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -16,6 +16,9 @@
 package org.junithelper.core.util;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -45,6 +48,45 @@ public final class IOUtil {
         return IOUtils.toString(is, encoding);
     }
 
+    /**
+     * Reads the file with only one open and one read.
+     */
+    public static final byte[] readAsByteArray(File file) throws IOException {
+        Assertion.on("file").mustNotBeNull(file);
+        InputStream is = null;
+        try {
+            is = new FileInputStream(file);
+            long length = file.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Too large file - " + file.getAbsolutePath());
+            }
+            byte[] buf = new byte[(int) length];
+            int offset = 0;
+            int nread;
+            while (offset < buf.length && (nread = is.read(buf, offset, buf.length - offset)) > 0) {
+                offset += nread;
+            }
+            if (offset < buf.length) {
+                // truncated while reading
+                byte[] dest = new byte[offset];
+                System.arraycopy(buf, 0, dest, 0, offset);
+                return dest;
+            }
+            int next = is.read();
+            if (next == -1) {
+                return buf;
+            }
+            // appended while reading
+            ByteArrayOutputStream os = new ByteArrayOutputStream(buf.length * 2);
+            os.write(buf);
+            os.write(next);
+            IOUtils.copy(is, os);
+            return os.toByteArray();
+        } finally {
+            IOUtils.closeQuietly(is);
+        }
+    }
+
     public static final List<String> readAsLineList(InputStream is) throws IOException {
         List<String> dest = new ArrayList<String>();
         BufferedReader br = null;
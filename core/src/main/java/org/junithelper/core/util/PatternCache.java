@@ -0,0 +1,91 @@
+/* 
+ * Copyright 2009-2010 junithelper.org. 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language 
+ * governing permissions and limitations under the License. 
+ */
+package org.junithelper.core.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Shared cache of compiled patterns for regular expressions built at
+ * runtime, e.g. from class names or configured test method name delimiters.
+ */
+public class PatternCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final PatternCache INSTANCE = new PatternCache(DEFAULT_MAX_SIZE);
+
+    public static PatternCache getInstance() {
+        return INSTANCE;
+    }
+
+    // -----------------
+
+    private final int maxSize;
+
+    private final Map<String, Pattern> cache;
+
+    public PatternCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0 : " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+                return size() > PatternCache.this.maxSize;
+            }
+        };
+    }
+
+    public Pattern get(String regex) {
+        Assertion.on("regex").mustNotBeNull(regex);
+        synchronized (cache) {
+            Pattern cached = cache.get(regex);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Pattern compiled = Pattern.compile(regex);
+        synchronized (cache) {
+            cache.put(regex, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Same as String#matches but the pattern is compiled only once.
+     */
+    public boolean matches(String input, String regex) {
+        return get(regex).matcher(input).matches();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package org.junithelper.core.util;
 
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
 public class ThreadUtil {
 
     private ThreadUtil() {
@@ -28,4 +30,16 @@ public class ThreadUtil {
         }
     }
 
+    /**
+     * Called in the loops of extracting and generating, so that a timed-out
+     * task stops soon after it is canceled.
+     * 
+     * @throws JUnitHelperCoreException if the current thread is interrupted
+     */
+    public static final void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new JUnitHelperCoreException("Interrupted");
+        }
+    }
+
 }
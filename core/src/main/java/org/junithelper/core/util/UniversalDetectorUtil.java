@@ -1,7 +1,6 @@
 package org.junithelper.core.util;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -12,9 +11,16 @@ public class UniversalDetectorUtil {
     private UniversalDetectorUtil() {
     }
 
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * The max size of bytes to be detected after the first non-ASCII byte
+     */
+    static final int MAX_DETECTION_SIZE = 64 * 1024;
+
     public static String getDetectedEncoding(InputStream is) throws IOException {
         UniversalDetector detector = new UniversalDetector(null);
-        byte[] buf = new byte[4096];
+        byte[] buf = new byte[CHUNK_SIZE];
         int nread;
         while ((nread = is.read(buf)) > 0 && !detector.isDone()) {
             detector.handleData(buf, 0, nread);
@@ -25,9 +31,56 @@ public class UniversalDetectorUtil {
 
     public static String getDetectedEncoding(File file) throws IOException {
         if (file != null && file.isFile() && file.canRead()) {
-            return getDetectedEncoding(new FileInputStream(file));
+            return getDetectedEncoding(IOUtil.readAsByteArray(file));
         }
         throw new IOException("Cannot read file - " + file.getAbsolutePath());
     }
 
+    /**
+     * Detects the encoding of the bytes already read.<br>
+     * Pure ASCII bytes are not passed to the detector, because the detector
+     * ignores them and returns null.
+     */
+    public static String getDetectedEncoding(byte[] bytes) {
+        Assertion.on("bytes").mustNotBeNull(bytes);
+        int firstNotAsciiIndex = indexOfNotAscii(bytes);
+        if (firstNotAsciiIndex == -1) {
+            return null;
+        }
+        UniversalDetector detector = new UniversalDetector(null);
+        // the first chunk is always passed to detect BOM
+        int len = Math.min(CHUNK_SIZE, bytes.length);
+        detector.handleData(bytes, 0, len);
+        // skip ASCII chunks, the detector starts probing from the chunk
+        // which contains the first non-ASCII byte
+        int offset = Math.max(len, (firstNotAsciiIndex / CHUNK_SIZE) * CHUNK_SIZE);
+        int end = (int) Math.min((long) bytes.length, (long) offset + MAX_DETECTION_SIZE);
+        while (offset < end && !detector.isDone()) {
+            len = Math.min(CHUNK_SIZE, end - offset);
+            detector.handleData(bytes, offset, len);
+            offset += len;
+        }
+        detector.dataEnd();
+        return detector.getDetectedCharset();
+    }
+
+    /**
+     * @return the index of the first byte which changes the state of the
+     *         detector (high byte, ESC or "~{"), -1 if not found
+     */
+    static int indexOfNotAscii(byte[] bytes) {
+        byte last = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            byte current = bytes[i];
+            if ((current & 0x80) != 0 || current == 0x1B) {
+                return i;
+            }
+            if (current == '{' && last == '~') {
+                return i - 1;
+            }
+            last = current;
+        }
+        return -1;
+    }
+
 }
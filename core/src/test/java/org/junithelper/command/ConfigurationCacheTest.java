@@ -0,0 +1,81 @@
+package org.junithelper.command;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.config.extension.ExtConfiguration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class ConfigurationCacheTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(ConfigurationCache.class);
+    }
+
+    @Test
+    public void getInstance_A$() throws Exception {
+        assertThat(ConfigurationCache.getInstance(), is(sameInstance(ConfigurationCache.getInstance())));
+    }
+
+    @Test
+    public void getConfiguration_A$String() throws Exception {
+        ConfigurationCache target = new ConfigurationCache();
+        String filepath = "src/test/resources/junithelper-config_forceLF.properties";
+        Configuration actual = target.getConfiguration(filepath);
+        assertThat(actual, is(notNullValue()));
+        assertThat(target.size(), is(equalTo(1)));
+        // copied for each call
+        Configuration second = target.getConfiguration(filepath);
+        assertThat(second, is(not(sameInstance(actual))));
+        assertThat(second.lineBreakPolicy, is(equalTo(actual.lineBreakPolicy)));
+        assertThat(target.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void getConfiguration_A$String_modified() throws Exception {
+        ConfigurationCache target = new ConfigurationCache();
+        File file = File.createTempFile("junithelper-ConfigurationCacheTest", ".properties");
+        try {
+            FileUtils.writeStringToFile(file, "language:en\n");
+            assertThat(target.getConfiguration(file.getPath()).language, is(equalTo("en")));
+            FileUtils.writeStringToFile(file, "language:ja\n");
+            file.setLastModified(file.lastModified() + 2000L);
+            assertThat(target.getConfiguration(file.getPath()).language, is(equalTo("ja")));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void getConfiguration_A$String_StringIsNull() throws Exception {
+        try {
+            new ConfigurationCache().getConfiguration(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void getExtConfiguration_A$String() throws Exception {
+        ConfigurationCache target = new ConfigurationCache();
+        ExtConfiguration actual = target.getExtConfiguration("src/test/resources/junithelper-extension.xml");
+        assertThat(actual, is(notNullValue()));
+        assertThat(target.getExtConfiguration("src/test/resources/junithelper-extension.xml"),
+                is(sameInstance(actual)));
+    }
+
+    @Test
+    public void clear_A$() throws Exception {
+        ConfigurationCache target = new ConfigurationCache();
+        target.getConfiguration("src/test/resources/junithelper-config.properties");
+        target.clear();
+        assertThat(target.size(), is(equalTo(0)));
+    }
+
+}
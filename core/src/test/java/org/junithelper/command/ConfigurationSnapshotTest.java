@@ -0,0 +1,123 @@
+package org.junithelper.command;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class ConfigurationSnapshotTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(ConfigurationSnapshot.class);
+    }
+
+    @Test
+    public void of_A$Configuration() throws Exception {
+        ConfigurationSnapshot actual = ConfigurationSnapshot.of(new Configuration());
+        assertNotNull(actual);
+    }
+
+    @Test
+    public void of_A$Configuration_Null() throws Exception {
+        try {
+            ConfigurationSnapshot.of(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void toConfiguration_A$() throws Exception {
+        Configuration config = new Configuration();
+        ConfigurationSnapshot target = ConfigurationSnapshot.of(config);
+        // modifying the original does not affect the snapshot
+        config.directoryPathOfProductSourceCode = "src";
+        config.target.isAccessorExcluded = false;
+        Configuration actual = target.toConfiguration();
+        assertThat(actual.directoryPathOfProductSourceCode, is(equalTo("src/main/java")));
+        assertThat(actual.target.isAccessorExcluded, is(true));
+        // each call returns a new copy
+        actual.testMethodName.basicDelimiter = "__";
+        assertThat(target.toConfiguration(), is(not(sameInstance(actual))));
+        assertThat(target.toConfiguration().testMethodName.basicDelimiter, is(equalTo("_")));
+    }
+
+    @Test
+    public void getConfiguration_A$() throws Exception {
+        final ConfigurationSnapshot target = ConfigurationSnapshot.of(new Configuration());
+        Configuration actual = target.getConfiguration();
+        assertThat(actual.directoryPathOfProductSourceCode, is(equalTo("src/main/java")));
+        // reused on the same thread
+        assertThat(target.getConfiguration(), is(sameInstance(actual)));
+        final Configuration[] other = new Configuration[1];
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                other[0] = target.getConfiguration();
+            }
+        });
+        thread.start();
+        thread.join();
+        assertThat(other[0], is(notNullValue()));
+        assertThat(other[0], is(not(sameInstance(actual))));
+    }
+
+    @Test
+    public void getTestFile_A$File() throws Exception {
+        ConfigurationSnapshot target = ConfigurationSnapshot.of(new Configuration());
+        File actual = target.getTestFile(new File("/tmp/project/src/main/java/foo/var/Sample.java"));
+        assertThat(actual.getPath().replace('\\', '/').endsWith("/tmp/project/src/test/java/foo/var/SampleTest.java"),
+                is(true));
+    }
+
+    @Test
+    public void getTestFile_A$File_slashes() throws Exception {
+        Configuration config = new Configuration();
+        config.directoryPathOfProductSourceCode = "/src/main/java/";
+        config.directoryPathOfTestSourceCode = "src/test/java/";
+        ConfigurationSnapshot target = ConfigurationSnapshot.of(config);
+        File actual = target.getTestFile(new File("/tmp/project/src/main/java/foo/var/Sample.java"));
+        assertThat(actual.getPath().replace('\\', '/').endsWith("/tmp/project/src/test/java/foo/var/SampleTest.java"),
+                is(true));
+    }
+
+    @Test
+    public void isExcluded_A$File() throws Exception {
+        Configuration config = new Configuration();
+        config.target.regexpCsvForExclusion = "foo.var.Excluded, .+Bean ";
+        ConfigurationSnapshot target = ConfigurationSnapshot.of(config);
+        assertThat(target.isExcluded(new File("/tmp/src/main/java/foo/var/Excluded.java")), is(true));
+        assertThat(target.isExcluded(new File("/tmp/src/main/java/foo/var/SampleBean.java")), is(true));
+        assertThat(target.isExcluded(new File("/tmp/src/main/java/foo/var/Sample.java")), is(false));
+    }
+
+    @Test
+    public void isExcluded_A$File_noExclusion() throws Exception {
+        ConfigurationSnapshot target = ConfigurationSnapshot.of(new Configuration());
+        assertThat(target.isExcluded(new File("/tmp/src/main/java/foo/var/Sample.java")), is(false));
+    }
+
+    @Test
+    public void isExcludedDirectory_A$File() throws Exception {
+        Configuration config = new Configuration();
+        config.target.regexpCsvForExclusion = "foo.var.generated..*,.+Bean";
+        ConfigurationSnapshot target = ConfigurationSnapshot.of(config);
+        assertThat(target.isExcludedDirectory(new File("/tmp/src/main/java/foo/var/generated")), is(true));
+        assertThat(target.isExcludedDirectory(new File("/tmp/src/main/java/foo/var/generated/sub")), is(true));
+        assertThat(target.isExcludedDirectory(new File("/tmp/src/main/java/foo/var")), is(false));
+        assertThat(target.isExcludedDirectory(new File("/tmp/src/main/java/foo/other/generated")), is(false));
+    }
+
+    @Test
+    public void isExcludedDirectory_A$File_noExclusion() throws Exception {
+        Configuration config = new Configuration();
+        config.target.regexpCsvForExclusion = ".+Bean";
+        ConfigurationSnapshot target = ConfigurationSnapshot.of(config);
+        assertThat(target.isExcludedDirectory(new File("/tmp/src/main/java/foo/var")), is(false));
+    }
+
+}
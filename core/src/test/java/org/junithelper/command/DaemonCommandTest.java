@@ -0,0 +1,257 @@
+package org.junithelper.command;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DaemonCommandTest {
+
+    DaemonCommand daemon;
+
+    Thread daemonThread;
+
+    File baseDir;
+
+    String configProperties;
+
+    @Before
+    public void setUp() throws Exception {
+        configProperties = System.getProperty("junithelper.configProperties");
+        System.clearProperty("junithelper.configProperties");
+        baseDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-DaemonCommandTest-" + System.nanoTime());
+        FileUtils.writeStringToFile(new File(baseDir, "src/main/java/foo/var/Sample.java"),
+                "package foo.var; public class Sample { public void doSomething() {} }");
+        daemon = new DaemonCommand(0, new File(baseDir, "daemon.token"));
+        daemonThread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    daemon.serve();
+                } catch (Exception e) {
+                }
+            }
+        };
+        daemonThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        daemon.stop();
+        daemonThread.join(3000L);
+        FileUtils.deleteDirectory(baseDir);
+        if (configProperties != null) {
+            System.setProperty("junithelper.configProperties", configProperties);
+        }
+    }
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(DaemonCommand.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        assertThat(daemon.getPort() > 0, is(true));
+        assertThat(daemon.getBaseDir(), is(equalTo(new File(".").getCanonicalPath())));
+        assertThat(daemon.isRunning(), is(true));
+    }
+
+    @Test
+    public void handle_A$Socket_status() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int actual = DaemonClient.execute(daemon.getPort(), daemon.getToken(), new String[] { "status" }, new PrintStream(out));
+        assertThat(actual, is(equalTo(0)));
+        assertThat(out.toString().contains("Base directory: " + daemon.getBaseDir()), is(true));
+    }
+
+    @Test
+    public void handle_A$Socket_make() throws Exception {
+        String javaFilePath = new File(baseDir, "src/main/java/foo/var/Sample.java").getAbsolutePath();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int actual = DaemonClient.execute(daemon.getPort(), daemon.getToken(), new String[] { "make", javaFilePath },
+                new PrintStream(out));
+        assertThat(out.toString(), actual, is(equalTo(0)));
+        File testFile = new File(baseDir, "src/test/java/foo/var/SampleTest.java");
+        assertThat(testFile.exists(), is(true));
+        assertThat(FileUtils.readFileToString(testFile).contains("doSomething_A$"), is(true));
+        assertThat(System.getProperty("junithelper.skipConfirming"), is(not(equalTo("true"))));
+    }
+
+    @Test
+    public void handle_A$Socket_invalidToken() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int actual = DaemonClient.execute(daemon.getPort(), "invalid", new String[] { "shutdown" },
+                new PrintStream(out));
+        assertThat(actual, is(equalTo(1)));
+        assertThat(out.toString().contains("Unauthorized request."), is(true));
+        assertThat(daemon.isRunning(), is(true));
+    }
+
+    @Test
+    public void handle_A$Socket_silentClient() throws Exception {
+        daemon.setReadTimeoutMillis(200);
+        Socket silent = new Socket(InetAddress.getByName("127.0.0.1"), daemon.getPort());
+        try {
+            // the following request is handled after the silent client is
+            // disconnected
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int actual = DaemonClient.execute(daemon.getPort(), daemon.getToken(), new String[] { "status" },
+                    new PrintStream(out));
+            assertThat(actual, is(equalTo(0)));
+            assertThat(readResponse(silent).length(), is(equalTo(0)));
+        } finally {
+            silent.close();
+        }
+    }
+
+    @Test
+    public void handle_A$Socket_tooLongLine() throws Exception {
+        Socket socket = new Socket(InetAddress.getByName("127.0.0.1"), daemon.getPort());
+        try {
+            OutputStream out = socket.getOutputStream();
+            out.write((DaemonCommand.PROTOCOL + "\n").getBytes(DaemonCommand.ENCODING));
+            char[] longLine = new char[DaemonCommand.MAX_LINE_LENGTH + 1];
+            Arrays.fill(longLine, 'a');
+            out.write(new String(longLine).getBytes(DaemonCommand.ENCODING));
+            out.flush();
+            assertThat(readResponse(socket).contains(DaemonCommand.KEY_EXIT), is(false));
+        } finally {
+            socket.close();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int actual = DaemonClient.execute(daemon.getPort(), daemon.getToken(), new String[] { "status" },
+                new PrintStream(out));
+        assertThat(actual, is(equalTo(0)));
+    }
+
+    private static String readResponse(Socket socket) throws Exception {
+        socket.setSoTimeout(5000);
+        try {
+            return IOUtils.toString(socket.getInputStream(), DaemonCommand.ENCODING);
+        } catch (IOException e) {
+            // reset by the daemon
+            return "";
+        }
+    }
+
+    @Test
+    public void readLine_A$BufferedReader() throws Exception {
+        BufferedReader reader = new BufferedReader(new StringReader("abc\r\n\ndef"));
+        assertThat(DaemonCommand.readLine(reader), is(equalTo("abc")));
+        assertThat(DaemonCommand.readLine(reader), is(equalTo("")));
+        assertThat(DaemonCommand.readLine(reader), is(equalTo("def")));
+        assertThat(DaemonCommand.readLine(reader), is(nullValue()));
+    }
+
+    @Test
+    public void readLine_A$BufferedReader_tooLong() throws Exception {
+        char[] longLine = new char[DaemonCommand.MAX_LINE_LENGTH + 1];
+        Arrays.fill(longLine, 'a');
+        try {
+            DaemonCommand.readLine(new BufferedReader(new StringReader(new String(longLine))));
+            fail();
+        } catch (IOException e) {
+        }
+    }
+
+    @Test
+    public void handle_A$Socket_shutdown() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int actual = DaemonClient.execute(daemon.getPort(), daemon.getToken(), new String[] { "shutdown" }, new PrintStream(out));
+        assertThat(actual, is(equalTo(0)));
+        daemonThread.join(3000L);
+        assertThat(daemon.isRunning(), is(false));
+        assertThat(daemonThread.isAlive(), is(false));
+        assertThat(daemon.getTokenFile().exists(), is(false));
+    }
+
+    @Test
+    public void getToken_A$() throws Exception {
+        File tokenFile = daemon.getTokenFile();
+        assertThat(tokenFile.exists(), is(true));
+        assertThat(FileUtils.readFileToString(tokenFile, "UTF-8"), is(equalTo(daemon.getToken())));
+        assertThat(daemon.getToken().length(), is(equalTo(64)));
+        assertThat(DaemonCommand.generateToken(), is(not(equalTo(daemon.getToken()))));
+    }
+
+    @Test
+    public void getDefaultTokenFile_A$int() throws Exception {
+        File actual = DaemonCommand.getDefaultTokenFile(47300);
+        assertThat(actual.getName(), is(equalTo("daemon-47300.token")));
+    }
+
+    @Test
+    public void getDaemonPort_A$String$String() throws Exception {
+        assertThat(DaemonCommand.getDaemonPort("47301", "port"), is(equalTo(47301)));
+        assertThat(DaemonCommand.getDaemonPort(" 0 ", "port"), is(equalTo(0)));
+        assertThat(DaemonCommand.getDaemonPort(null, "port"), is(equalTo(DaemonCommand.DEFAULT_PORT)));
+        assertThat(DaemonCommand.getDaemonPort("abc", "port"), is(equalTo(DaemonCommand.DEFAULT_PORT)));
+        assertThat(DaemonCommand.getDaemonPort("70000", "port"), is(equalTo(DaemonCommand.DEFAULT_PORT)));
+    }
+
+    @Test
+    public void isValidToken_A$String() throws Exception {
+        assertThat(daemon.isValidToken(daemon.getToken()), is(true));
+        assertThat(daemon.isValidToken(daemon.getToken() + "0"), is(false));
+        assertThat(daemon.isValidToken(""), is(false));
+        assertThat(daemon.isValidToken(null), is(false));
+    }
+
+    @Test
+    public void isForwardedProperty_A$String() throws Exception {
+        assertThat(DaemonCommand.isForwardedProperty("junithelper.threads"), is(true));
+        assertThat(DaemonCommand.isForwardedProperty("junithelper.incremental"), is(true));
+        assertThat(DaemonCommand.isForwardedProperty("junithelper.configProperties"), is(false));
+        assertThat(DaemonCommand.isForwardedProperty("junithelper.extensionConfigXML"), is(false));
+        assertThat(DaemonCommand.isForwardedProperty("junithelper.manifest"), is(false));
+    }
+
+    @Test
+    public void execute_A$String$String$String$Map$PrintStream_notForwardedProperty() throws Exception {
+        File configFile = new File(baseDir, "junithelper-config.properties");
+        FileUtils.writeStringToFile(configFile, "directoryPathOfProductSourceCode:src/main/java");
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("junithelper.configProperties", configFile.getAbsolutePath());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        daemon.execute(daemon.getBaseDir(), "make", new File(baseDir, "src/main/java/foo/var/Sample.java")
+                .getAbsolutePath(), properties, new PrintStream(out));
+        assertThat(out.toString().contains("Ignored property : junithelper.configProperties"), is(true));
+        assertThat(System.getProperty("junithelper.configProperties"), is(nullValue()));
+    }
+
+    @Test
+    public void execute_A$String$String$String$Map$PrintStream_otherDirectory() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int actual = daemon.execute(baseDir.getAbsolutePath(), "make", "src/main/java",
+                new HashMap<String, String>(), new PrintStream(out));
+        assertThat(actual, is(equalTo(1)));
+        assertThat(out.toString().contains("The daemon is running on"), is(true));
+    }
+
+    @Test
+    public void execute_A$String$String$String$Map$PrintStream_invalidCommand() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int actual = daemon.execute(daemon.getBaseDir(), "remove", null, new HashMap<String, String>(),
+                new PrintStream(out));
+        assertThat(actual, is(equalTo(1)));
+    }
+
+}
@@ -0,0 +1,205 @@
+package org.junithelper.command;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.extractor.SymbolIndex;
+import org.junithelper.core.meta.ClassMeta;
+
+public class MakeManifestTest {
+
+    Configuration config = new Configuration();
+
+    File baseDir;
+
+    File manifestFile;
+
+    File javaFile;
+
+    File testFile;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-MakeManifestTest-" + System.nanoTime());
+        manifestFile = new File(baseDir, ".junithelper/make-manifest.txt");
+        javaFile = new File(baseDir, "src/main/java/foo/var/Sample.java");
+        testFile = new File(baseDir, "src/test/java/foo/var/SampleTest.java");
+        FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { public void doSomething() {} }");
+        FileUtils.writeStringToFile(testFile, "package foo.var; public class SampleTest { }");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(baseDir);
+        SymbolIndex.clearInstances();
+    }
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(MakeManifest.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_FileIsNull() throws Exception {
+        try {
+            new MakeManifest(null, config);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void isUpToDate_A$TargetFile$File() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        assertThat(target.isUpToDate(targetFile, testFile), is(false));
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        assertThat(target.isUpToDate(targetFile, testFile), is(true));
+        assertThat(target.getUpToDateCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void isUpToDate_A$TargetFile$File_sourceChanged() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { public void doSomething() { } }");
+        assertThat(target.isUpToDate(TargetFile.read(javaFile), testFile), is(false));
+    }
+
+    @Test
+    public void isUpToDate_A$TargetFile$File_testChanged() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        FileUtils.writeStringToFile(testFile, "package foo.var; public class SampleTest { void m() {} }");
+        assertThat(target.isUpToDate(targetFile, testFile), is(false));
+        testFile.delete();
+        assertThat(target.isUpToDate(targetFile, testFile), is(false));
+    }
+
+    @Test
+    public void isUpToDate_A$TargetFile$File_notTarget() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.putNotTarget(targetFile);
+        testFile.delete();
+        assertThat(target.isUpToDate(targetFile, testFile), is(true));
+    }
+
+    @Test
+    public void isSignatureUpToDate_A$TargetFile$ClassMeta$String() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        String testHash = MakeManifest.getTestHash(testFile);
+        // method body only
+        FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { public void doSomething() { } }");
+        TargetFile changed = TargetFile.read(javaFile);
+        assertThat(target.isSignatureUpToDate(changed, changed.getClassMeta(config), testHash), is(true));
+        // new method
+        FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { public void doAnother() {} }");
+        changed = TargetFile.read(javaFile);
+        assertThat(target.isSignatureUpToDate(changed, changed.getClassMeta(config), testHash), is(false));
+    }
+
+    @Test
+    public void remove_A$File() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        target.remove(javaFile);
+        assertThat(target.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void save_A$_andLoad() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        target.save();
+        assertThat(manifestFile.exists(), is(true));
+        MakeManifest loaded = new MakeManifest(manifestFile, config).load();
+        assertThat(loaded.size(), is(equalTo(1)));
+        assertThat(loaded.isUpToDate(targetFile, testFile), is(true));
+    }
+
+    @Test
+    public void load_A$_configurationChanged() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        target.save();
+        Configuration changedConfig = new Configuration();
+        changedConfig.testMethodName.basicDelimiter = "__";
+        MakeManifest loaded = new MakeManifest(manifestFile, changedConfig).load();
+        assertThat(loaded.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void load_A$_classAdded() throws Exception {
+        Configuration config = new Configuration();
+        config.directoryPathOfProductSourceCode = new File(baseDir, "src/main/java").getPath();
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        target.save();
+        // type names might be resolved differently
+        FileUtils.writeStringToFile(new File(baseDir, "src/main/java/foo/var/Added.java"),
+                "package foo.var; public class Added {}");
+        new File(baseDir, "src/main/java/foo/var").setLastModified(System.currentTimeMillis() + 10000L);
+        SymbolIndex.revalidateInstances();
+        MakeManifest loaded = new MakeManifest(manifestFile, config).load();
+        assertThat(loaded.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void save_A$_fileDeleted() throws Exception {
+        MakeManifest target = new MakeManifest(manifestFile, config);
+        TargetFile targetFile = TargetFile.read(javaFile);
+        target.put(targetFile, targetFile.getClassMeta(config), testFile);
+        javaFile.delete();
+        target.save();
+        assertThat(target.size(), is(equalTo(0)));
+        MakeManifest loaded = new MakeManifest(manifestFile, config).load();
+        assertThat(loaded.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void load_A$_notExists() throws Exception {
+        MakeManifest loaded = new MakeManifest(manifestFile, config).load();
+        assertThat(loaded.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void getConfigurationDigest_A$Configuration() throws Exception {
+        String actual = MakeManifest.getConfigurationDigest(config);
+        assertThat(actual, is(equalTo(MakeManifest.getConfigurationDigest(new Configuration()))));
+        Configuration changedConfig = new Configuration();
+        changedConfig.target.isAccessorExcluded = false;
+        assertThat(actual, is(not(equalTo(MakeManifest.getConfigurationDigest(changedConfig)))));
+    }
+
+    @Test
+    public void getClassMetaDigest_A$ClassMeta() throws Exception {
+        ClassMeta classMeta = TargetFile.read(javaFile).getClassMeta(config);
+        String actual = MakeManifest.getClassMetaDigest(classMeta);
+        classMeta.methods.get(0).name = "doAnother";
+        assertThat(actual, is(not(equalTo(MakeManifest.getClassMetaDigest(classMeta)))));
+    }
+
+}
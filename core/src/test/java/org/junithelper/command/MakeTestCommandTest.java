@@ -6,11 +6,20 @@ import static org.junit.Assert.*;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.config.ConfigurationLoader;
+import org.junithelper.core.exception.JUnitHelperCoreException;
 import org.junithelper.core.file.FileWriter;
 import org.junithelper.core.file.FileWriterFactory;
+import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.util.ThreadUtil;
 import org.junithelper.core.util.IOUtil;
 
 public class MakeTestCommandTest {
@@ -258,4 +267,192 @@ public class MakeTestCommandTest {
         }
     }
 
+    @Test
+    public void main_A$StringArray_threads() throws Exception {
+
+        File baseDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-MakeTestCommandTest-"
+                + System.nanoTime());
+        String configProperties = System.getProperty("junithelper.configProperties");
+        try {
+
+            // given
+            File srcDir = new File(baseDir, "src/main/java");
+            File testDir = new File(baseDir, "src/test/java");
+            for (int i = 0; i < 5; i++) {
+                FileUtils.writeStringToFile(new File(srcDir, "foo/var/Sample" + i + ".java"), "package foo.var; "
+                        + "public class Sample" + i + " { public String doSomething(String arg) { return arg; } }");
+            }
+            File configFile = new File(baseDir, "junithelper-config.properties");
+            String configString = "directoryPathOfProductSourceCode:"
+                    + srcDir.getAbsolutePath().replaceAll("\\\\", "/") + "\n" + "directoryPathOfTestSourceCode:"
+                    + testDir.getAbsolutePath().replaceAll("\\\\", "/") + "\n";
+            FileUtils.writeStringToFile(configFile, configString);
+
+            // when
+            String[] args = new String[] { srcDir.getAbsolutePath() };
+            System.setProperty("junithelper.skipConfirming", "true");
+            System.setProperty("junithelper.configProperties", configFile.getAbsolutePath());
+            System.setProperty("junithelper.threads", "3");
+            MakeTestCommand.main(args);
+
+            // then
+            for (int i = 0; i < 5; i++) {
+                File testFile = new File(testDir, "foo/var/Sample" + i + "Test.java");
+                assertThat(testFile.exists(), is(true)); // TEST
+                String source = FileUtils.readFileToString(testFile, "UTF-8");
+                assertThat(source.contains("doSomething_A$String"), is(true)); // TEST
+            }
+
+        } finally {
+
+            System.clearProperty("junithelper.threads");
+            if (configProperties != null) {
+                System.setProperty("junithelper.configProperties", configProperties);
+            } else {
+                System.clearProperty("junithelper.configProperties");
+            }
+            FileUtils.deleteDirectory(baseDir);
+
+        }
+    }
+
+    @Test
+    public void main_A$StringArray_incremental() throws Exception {
+
+        File baseDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-MakeTestCommandTest-"
+                + System.nanoTime());
+        String configProperties = System.getProperty("junithelper.configProperties");
+        try {
+
+            // given
+            File srcDir = new File(baseDir, "src/main/java");
+            File testDir = new File(baseDir, "src/test/java");
+            File javaFile = new File(srcDir, "foo/var/Sample.java");
+            File testFile = new File(testDir, "foo/var/SampleTest.java");
+            File manifestFile = new File(baseDir, ".junithelper/make-manifest.txt");
+            FileUtils.writeStringToFile(javaFile, "package foo.var; "
+                    + "public class Sample { public String doSomething(String arg) { return arg; } }");
+            File configFile = new File(baseDir, "junithelper-config.properties");
+            String configString = "directoryPathOfProductSourceCode:"
+                    + srcDir.getAbsolutePath().replaceAll("\\\\", "/") + "\n" + "directoryPathOfTestSourceCode:"
+                    + testDir.getAbsolutePath().replaceAll("\\\\", "/") + "\n";
+            FileUtils.writeStringToFile(configFile, configString);
+            String[] args = new String[] { srcDir.getAbsolutePath() };
+            System.setProperty("junithelper.skipConfirming", "true");
+            System.setProperty("junithelper.configProperties", configFile.getAbsolutePath());
+            System.setProperty("junithelper.incremental", "true");
+            System.setProperty("junithelper.manifest", manifestFile.getAbsolutePath());
+
+            // when
+            MakeTestCommand.main(args);
+
+            // then
+            assertThat(manifestFile.exists(), is(true)); // TEST
+            Configuration config = new ConfigurationLoader().load(configFile.getAbsolutePath());
+            MakeManifest manifest = new MakeManifest(manifestFile, config).load();
+            assertThat(manifest.isUpToDate(TargetFile.read(javaFile), testFile), is(true)); // TEST
+
+            // when
+            FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { "
+                    + "public String doSomething(String arg) { return arg; } public void doAnother() {} }");
+            MakeTestCommand.main(args);
+
+            // then
+            String source = FileUtils.readFileToString(testFile, "UTF-8");
+            assertThat(source.contains("doAnother_A$"), is(true)); // TEST
+            manifest = new MakeManifest(manifestFile, config).load();
+            assertThat(manifest.isUpToDate(TargetFile.read(javaFile), testFile), is(true)); // TEST
+
+        } finally {
+
+            System.clearProperty("junithelper.incremental");
+            System.clearProperty("junithelper.manifest");
+            if (configProperties != null) {
+                System.setProperty("junithelper.configProperties", configProperties);
+            } else {
+                System.clearProperty("junithelper.configProperties");
+            }
+            FileUtils.deleteDirectory(baseDir);
+
+        }
+    }
+
+    @Test
+    public void callWithinBudget_A$Callable$long() throws Exception {
+        String actual = MakeTestCommand.callWithinBudget(new Callable<String>() {
+            public String call() {
+                return "done";
+            }
+        }, 10000L);
+        assertThat(actual, is(equalTo("done")));
+    }
+
+    @Test
+    public void callWithinBudget_A$Callable$long_timedOut() throws Exception {
+        final CountDownLatch canceled = new CountDownLatch(1);
+        try {
+            MakeTestCommand.callWithinBudget(new Callable<String>() {
+                public String call() throws Exception {
+                    try {
+                        Thread.sleep(60000L);
+                    } catch (InterruptedException e) {
+                        canceled.countDown();
+                    }
+                    return "done";
+                }
+            }, 100L);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+        // returned without waiting for the task, and the task is interrupted
+        assertThat(canceled.await(30L, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void callWithinBudget_A$Callable$long_timedOutTaskStops() throws Exception {
+        final CountDownLatch stopped = new CountDownLatch(1);
+        try {
+            MakeTestCommand.callWithinBudget(new Callable<String>() {
+                public String call() {
+                    try {
+                        while (true) {
+                            ThreadUtil.checkInterrupted();
+                        }
+                    } finally {
+                        stopped.countDown();
+                    }
+                }
+            }, 100L);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+        // the canceled task doesn't keep running
+        assertThat(stopped.await(30L, TimeUnit.SECONDS), is(true));
+    }
+
+    static class ErrorTargetFile extends TargetFile {
+
+        ErrorTargetFile() {
+            super(new File("Error.java"), null, "public class Error {}");
+        }
+
+        @Override
+        public ClassMeta getClassMeta(Configuration config) {
+            throw new StackOverflowError();
+        }
+
+    }
+
+    @Test
+    public void generateTest_A$ConfigurationSnapshot$TargetFile$MakeManifest$long_Error() throws Exception {
+        ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(new Configuration());
+        // reported as a failed file on the same thread and within the budget
+        for (long timeoutMillis : new long[] { 0L, 10000L }) {
+            MakeTestCommand.MakeTestResult actual = MakeTestCommand.generateTest(snapshot, new ErrorTargetFile(), null,
+                    timeoutMillis);
+            assertThat(actual.error, is(instanceOf(JUnitHelperCoreException.class)));
+            assertThat(actual.error.getCause(), is(instanceOf(StackOverflowError.class)));
+        }
+    }
+
 }
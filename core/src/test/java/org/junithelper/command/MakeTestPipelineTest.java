@@ -0,0 +1,178 @@
+package org.junithelper.command;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junithelper.command.MakeTestCommand.MakeTestResult;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class MakeTestPipelineTest {
+
+    Configuration config = new Configuration();
+
+    File baseDir;
+
+    File sourceDir;
+
+    File testDir;
+
+    static class CollectingListener implements MakeTestPipeline.Listener {
+
+        final List<String> targets = Collections.synchronizedList(new ArrayList<String>());
+
+        final List<MakeTestResult> results = new ArrayList<MakeTestResult>();
+
+        public void onTarget(TargetFile target) {
+            targets.add(target.getFile().getName());
+        }
+
+        public void onResult(MakeTestResult result) {
+            results.add(result);
+        }
+
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-MakeTestPipelineTest-"
+                + System.nanoTime());
+        sourceDir = new File(baseDir, "src/main/java");
+        testDir = new File(baseDir, "src/test/java");
+        FileUtils.writeStringToFile(new File(sourceDir, "foo/var/Sample.java"),
+                "package foo.var; public class Sample { public void doSomething() {} }");
+        FileUtils.writeStringToFile(new File(sourceDir, "foo/var/AbstractSample.java"),
+                "package foo.var; public abstract class AbstractSample { public void doSomething() {} }");
+        FileUtils.writeStringToFile(new File(sourceDir, "foo/var/generated/Generated.java"),
+                "package foo.var.generated; public class Generated { public void doSomething() {} }");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(baseDir);
+    }
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(MakeTestPipeline.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        MakeTestPipeline target = new MakeTestPipeline(ConfigurationSnapshot.of(config), null, 1);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_intIsZero() throws Exception {
+        try {
+            new MakeTestPipeline(ConfigurationSnapshot.of(config), null, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void run_A$String$Listener() throws Exception {
+        config.target.regexpCsvForExclusion = "foo.var.generated..*";
+        MakeTestPipeline target = new MakeTestPipeline(ConfigurationSnapshot.of(config), null, 1);
+        CollectingListener listener = new CollectingListener();
+        int actual = target.run(sourceDir.getAbsolutePath(), listener);
+        assertThat(actual, is(equalTo(1)));
+        assertThat(listener.targets, is(equalTo(Arrays.asList("Sample.java"))));
+        assertThat(listener.results.size(), is(equalTo(1)));
+        assertThat(listener.results.get(0).error, is(nullValue()));
+        assertThat(listener.results.get(0).messages.get(0).startsWith("  Created: "), is(true));
+        assertThat(new File(testDir, "foo/var/SampleTest.java").exists(), is(true));
+        assertThat(new File(testDir, "foo/var/generated/GeneratedTest.java").exists(), is(false));
+    }
+
+    @Test
+    public void run_A$String$Listener_singleFile() throws Exception {
+        MakeTestPipeline target = new MakeTestPipeline(ConfigurationSnapshot.of(config), null, 2);
+        CollectingListener listener = new CollectingListener();
+        int actual = target.run(new File(sourceDir, "foo/var/Sample.java").getAbsolutePath(), listener);
+        assertThat(actual, is(equalTo(1)));
+        assertThat(new File(testDir, "foo/var/SampleTest.java").exists(), is(true));
+    }
+
+    @Test
+    public void run_A$String$Listener_manyFiles() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            FileUtils.writeStringToFile(new File(sourceDir, "foo/many/Sample" + i + ".java"),
+                    "package foo.many; public class Sample" + i + " { public void doSomething() {} }");
+        }
+        // the queues are much smaller than the number of the files
+        MakeTestPipeline target = new MakeTestPipeline(ConfigurationSnapshot.of(config), null, 3, 2);
+        CollectingListener listener = new CollectingListener();
+        int actual = target.run(sourceDir.getAbsolutePath(), listener);
+        assertThat(actual, is(equalTo(52)));
+        assertThat(listener.results.size(), is(equalTo(52)));
+        for (int i = 0; i < 50; i++) {
+            assertThat(new File(testDir, "foo/many/Sample" + i + "Test.java").exists(), is(true));
+        }
+    }
+
+    @Test
+    public void run_A$String$Listener_modified() throws Exception {
+        File testFile = new File(testDir, "foo/var/SampleTest.java");
+        FileUtils.writeStringToFile(testFile, "package foo.var;\n\npublic class SampleTest {\n\n}\n");
+        MakeTestPipeline target = new MakeTestPipeline(ConfigurationSnapshot.of(config), null, 1);
+        CollectingListener listener = new CollectingListener();
+        target.run(new File(sourceDir, "foo/var/Sample.java").getAbsolutePath(), listener);
+        assertThat(listener.results.get(0).messages.get(0).startsWith("  Modified: "), is(true));
+        assertThat(FileUtils.readFileToString(testFile).contains("doSomething"), is(true));
+    }
+
+    @Test(timeout = 60000L)
+    public void run_A$String$Listener_errorInStage() throws Exception {
+        System.setProperty("junithelper.timeoutPerFile", "0");
+        try {
+            MakeTestPipeline target = new MakeTestPipeline(ConfigurationSnapshot.of(config), null, 2, 1);
+            CollectingListener listener = new CollectingListener() {
+                @Override
+                public void onTarget(TargetFile target) {
+                    if (target.getFile().getName().equals("Sample.java")) {
+                        throw new StackOverflowError();
+                    }
+                    super.onTarget(target);
+                }
+            };
+            target.run(sourceDir.getAbsolutePath(), listener);
+            // the failed file is reported and the rest are still made
+            assertThat(listener.results.size(), is(equalTo(2)));
+            int failed = 0;
+            for (MakeTestResult result : listener.results) {
+                if (result.error != null) {
+                    assertThat(result.error.getCause(), is(instanceOf(StackOverflowError.class)));
+                    failed++;
+                }
+            }
+            assertThat(failed, is(equalTo(1)));
+            assertThat(new File(testDir, "foo/var/generated/GeneratedTest.java").exists(), is(true));
+        } finally {
+            System.clearProperty("junithelper.timeoutPerFile");
+        }
+    }
+
+    @Test
+    public void run_A$String$Listener_invalidDirectory() throws Exception {
+        MakeTestPipeline target = new MakeTestPipeline(ConfigurationSnapshot.of(config), null, 1);
+        try {
+            target.run("", new CollectingListener());
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.junithelper.command;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.extractor.SourceUnit;
+import org.junithelper.core.meta.ClassMeta;
+
+public class TargetFileTest {
+
+    Configuration config = new Configuration();
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(TargetFile.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        File file = new File("Sample.java");
+        TargetFile target = new TargetFile(file, "UTF-8", "");
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_FileIsNull() throws Exception {
+        try {
+            new TargetFile(null, "UTF-8", "");
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void read_A$File() throws Exception {
+        File file = new File("src/main/java/org/junithelper/core/config/LineBreakPolicy.java");
+        TargetFile target = TargetFile.read(file);
+        assertThat(target.getFile(), is(equalTo(file)));
+        assertThat(target.getEncoding(), is(notNullValue()));
+        assertThat(target.getSourceCodeString().contains("enum LineBreakPolicy"), is(true));
+    }
+
+    @Test
+    public void getHeaderClassMeta_A$Configuration() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { public void doSomething() {} }";
+        TargetFile target = new TargetFile(new File("Sample.java"), "UTF-8", sourceCodeString);
+        ClassMeta actual = target.getHeaderClassMeta(config);
+        assertThat(actual.packageName, is(equalTo("foo.var")));
+        assertThat(actual.name, is(equalTo("Sample")));
+        assertThat(actual.isAbstract, is(false));
+        assertThat(actual.methods.size(), is(equalTo(0)));
+        assertThat(target.getHeaderClassMeta(config), is(sameInstance(actual)));
+    }
+
+    @Test
+    public void getHeaderClassMeta_A$Configuration_abstract() throws Exception {
+        String sourceCodeString = "package foo.var; public abstract class Sample { public void doSomething() {} }";
+        TargetFile target = new TargetFile(new File("Sample.java"), "UTF-8", sourceCodeString);
+        assertThat(target.getHeaderClassMeta(config).isAbstract, is(true));
+    }
+
+    @Test
+    public void getClassMeta_A$Configuration() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { public void doSomething() {} }";
+        TargetFile target = new TargetFile(new File("Sample.java"), "UTF-8", sourceCodeString);
+        ClassMeta actual = target.getClassMeta(config);
+        assertThat(actual.name, is(equalTo("Sample")));
+        assertThat(actual.methods.size(), is(equalTo(1)));
+        assertThat(target.getClassMeta(config), is(sameInstance(actual)));
+    }
+
+    @Test
+    public void getSourceUnit_A$() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { public void doSomething() {} }";
+        TargetFile target = new TargetFile(new File("Sample.java"), "UTF-8", sourceCodeString);
+        SourceUnit actual = target.getSourceUnit();
+        assertThat(actual.getSourceCodeString(), is(equalTo(sourceCodeString)));
+        assertThat(target.getSourceUnit(), is(sameInstance(actual)));
+    }
+
+}
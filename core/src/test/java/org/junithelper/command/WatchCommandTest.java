@@ -0,0 +1,161 @@
+package org.junithelper.command;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+
+public class WatchCommandTest {
+
+    Configuration config = new Configuration();
+
+    File baseDir;
+
+    File sourceDir;
+
+    File javaFile;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-WatchCommandTest-" + System.nanoTime());
+        sourceDir = new File(baseDir, "src/main/java");
+        javaFile = new File(sourceDir, "foo/var/Sample.java");
+        FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { public void doSomething() {} }");
+        FileUtils.writeStringToFile(new File(sourceDir, ".svn/Hidden.java"), "");
+        FileUtils.writeStringToFile(new File(sourceDir, "foo/readme.txt"), "");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(baseDir);
+        System.clearProperty("junithelper.watchInterval");
+    }
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(WatchCommand.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        WatchCommand target = new WatchCommand(config, sourceDir, 100L);
+        assertNotNull(target);
+        assertThat(target.getBaseDir(), is(equalTo(sourceDir)));
+        assertThat(target.size(), is(equalTo(1)));
+        assertThat(target.isRunning(), is(true));
+    }
+
+    @Test
+    public void poll_A$_notChanged() throws Exception {
+        WatchCommand target = new WatchCommand(config, sourceDir, 100L);
+        assertThat(target.poll().size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void poll_A$_modified() throws Exception {
+        WatchCommand target = new WatchCommand(config, sourceDir, 100L);
+        FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { public void doAnother() {} }");
+        // debounced until no more changes are found
+        assertThat(target.poll().size(), is(equalTo(0)));
+        List<File> actual = target.poll();
+        assertThat(actual.size(), is(equalTo(1)));
+        assertThat(actual.get(0).getAbsolutePath(), is(equalTo(javaFile.getAbsolutePath())));
+        assertThat(target.poll().size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void poll_A$_coalesced() throws Exception {
+        WatchCommand target = new WatchCommand(config, sourceDir, 100L);
+        File added = new File(sourceDir, "foo/var/Added.java");
+        FileUtils.writeStringToFile(added, "package foo.var; public class Added { }");
+        assertThat(target.poll().size(), is(equalTo(0)));
+        FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { public void doAnother() {} }");
+        assertThat(target.poll().size(), is(equalTo(0)));
+        List<File> actual = target.poll();
+        assertThat(actual.size(), is(equalTo(2)));
+        assertThat(target.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void poll_A$_deleted() throws Exception {
+        WatchCommand target = new WatchCommand(config, sourceDir, 100L);
+        FileUtils.writeStringToFile(javaFile, "package foo.var; public class Sample { public void doAnother() {} }");
+        assertThat(target.poll().size(), is(equalTo(0)));
+        javaFile.delete();
+        assertThat(target.poll().size(), is(equalTo(0)));
+        assertThat(target.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void makeTests_A$List() throws Exception {
+        WatchCommand target = new WatchCommand(config, sourceDir, 100L);
+        int actual = target.makeTests(Arrays.asList(javaFile));
+        assertThat(actual, is(equalTo(0)));
+        File testFile = new File(baseDir, "src/test/java/foo/var/SampleTest.java");
+        assertThat(testFile.exists(), is(true));
+        assertThat(FileUtils.readFileToString(testFile).contains("doSomething_A$"), is(true));
+    }
+
+    @Test
+    public void makeTests_A$List_testClass() throws Exception {
+        File testJavaFile = new File(baseDir, "src/test/java/foo/var/SampleTest.java");
+        FileUtils.writeStringToFile(testJavaFile,
+                "package foo.var; public class SampleTest { public void doSomething_A$() {} }");
+        WatchCommand target = new WatchCommand(config, baseDir, 100L);
+        int actual = target.makeTests(Arrays.asList(testJavaFile));
+        assertThat(actual, is(equalTo(0)));
+        assertThat(new File(baseDir, "src/test/java/foo/var/SampleTestTest.java").exists(), is(false));
+    }
+
+    @Test
+    public void scan_A$_excluded() throws Exception {
+        config.target.regexpCsvForExclusion = "foo\\.var\\..+";
+        FileUtils.writeStringToFile(new File(sourceDir, "foo/Other.java"), "package foo; public class Other { }");
+        WatchCommand target = new WatchCommand(config, sourceDir, 100L);
+        assertThat(target.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void makeTests_A$List_notExists() throws Exception {
+        WatchCommand target = new WatchCommand(config, sourceDir, 100L);
+        int actual = target.makeTests(Arrays.asList(new File(sourceDir, "foo/var/NotExists.java")));
+        assertThat(actual, is(equalTo(1)));
+    }
+
+    @Test
+    public void watch_A$() throws Exception {
+        final WatchCommand target = new WatchCommand(config, sourceDir, 50L);
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    target.watch();
+                } catch (InterruptedException e) {
+                }
+            }
+        };
+        thread.start();
+        target.stop();
+        thread.join(3000L);
+        assertThat(thread.isAlive(), is(false));
+        assertThat(target.isRunning(), is(false));
+    }
+
+    @Test
+    public void getWatchInterval_A$() throws Exception {
+        assertThat(WatchCommand.getWatchInterval(), is(equalTo(WatchCommand.DEFAULT_INTERVAL_MILLIS)));
+        System.setProperty("junithelper.watchInterval", "200");
+        assertThat(WatchCommand.getWatchInterval(), is(equalTo(200L)));
+        System.setProperty("junithelper.watchInterval", "xxx");
+        assertThat(WatchCommand.getWatchInterval(), is(equalTo(WatchCommand.DEFAULT_INTERVAL_MILLIS)));
+    }
+
+}
@@ -1,8 +1,13 @@
 package org.junithelper.core.config;
 
+import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
 import org.junit.Test;
+import org.junithelper.core.config.extension.ExtArg;
 
 public class ConfigurationTest {
 
@@ -17,4 +22,60 @@ public class ConfigurationTest {
         assertNotNull(target);
     }
 
+    @Test
+    public void copy_A$() throws Exception {
+        Configuration target = new Configuration();
+        target.language = "ja";
+        target.symbolIndexFilePath = "symbol.index";
+        target.classMetaCacheFilePath = "classmeta.bin";
+        target.isPruningFileSearcherEnabled = true;
+        target.fileSearcherThreads = 4;
+        target.mockObjectFramework = MockObjectFramework.Mockito;
+        target.target.isAccessorExcluded = false;
+        target.testMethodName.basicDelimiter = "__";
+        target.extConfiguration.extArgs.add(new ExtArg("java.lang.String"));
+        Configuration actual = target.copy();
+        // all the fields are copied
+        for (Field field : Configuration.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            Class<?> type = field.getType();
+            if (type.isPrimitive() || type.isEnum() || type == String.class) {
+                assertThat(field.getName(), field.get(actual), is(equalTo(field.get(target))));
+            } else {
+                assertThat(field.getName(), field.get(actual), is(notNullValue()));
+                assertThat(field.getName(), field.get(actual), is(not(sameInstance(field.get(target)))));
+            }
+        }
+        assertThat(actual.target.isAccessorExcluded, is(false));
+        assertThat(actual.testMethodName.basicDelimiter, is(equalTo("__")));
+        assertThat(actual.extConfiguration.config, is(sameInstance(actual)));
+        assertThat(actual.extConfiguration.extArgs.size(), is(equalTo(1)));
+        // modifying the copy does not affect the original
+        actual.target.regexpCsvForExclusion = ".+Exclude";
+        actual.extConfiguration.extArgs.clear();
+        assertThat(target.target.regexpCsvForExclusion, is(equalTo("")));
+        assertThat(target.extConfiguration.extArgs.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void copy_A$_extConfigurationIsNull() throws Exception {
+        Configuration target = new Configuration();
+        target.extConfiguration = null;
+        assertThat(target.copy().extConfiguration, is(nullValue()));
+    }
+
+    @Test
+    public void withJUnitVersion_A$JUnitVersion() throws Exception {
+        Configuration target = new Configuration();
+        target.junitVersion = JUnitVersion.version4;
+        assertThat(target.withJUnitVersion(JUnitVersion.version4), is(sameInstance(target)));
+        Configuration actual = target.withJUnitVersion(JUnitVersion.version3);
+        assertThat(actual.junitVersion, is(equalTo(JUnitVersion.version3)));
+        assertThat(actual.testMethodName, is(sameInstance(target.testMethodName)));
+        assertThat(actual.directoryPathOfProductSourceCode, is(equalTo(target.directoryPathOfProductSourceCode)));
+        assertThat(target.junitVersion, is(equalTo(JUnitVersion.version4)));
+    }
+
 }
@@ -1,5 +1,6 @@
 package org.junithelper.core.config;
 
+import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
@@ -17,4 +18,29 @@ public class TestMethodNameTest {
         assertNotNull(target);
     }
 
+    @Test
+    public void copy_A$() throws Exception {
+        TestMethodName target = new TestMethodName();
+        target.isArgsRequired = false;
+        target.isReturnRequired = true;
+        target.basicDelimiter = "__";
+        target.argsAreaPrefix = "a";
+        target.argsAreaDelimiter = "_";
+        target.returnAreaPrefix = "r";
+        target.returnAreaDelimiter = "_";
+        target.exceptionAreaPrefix = "t";
+        target.exceptionAreaDelimiter = "_";
+        TestMethodName actual = target.copy();
+        assertThat(actual, is(not(sameInstance(target))));
+        assertThat(actual.isArgsRequired, is(false));
+        assertThat(actual.isReturnRequired, is(true));
+        assertThat(actual.basicDelimiter, is(equalTo("__")));
+        assertThat(actual.argsAreaPrefix, is(equalTo("a")));
+        assertThat(actual.argsAreaDelimiter, is(equalTo("_")));
+        assertThat(actual.returnAreaPrefix, is(equalTo("r")));
+        assertThat(actual.returnAreaDelimiter, is(equalTo("_")));
+        assertThat(actual.exceptionAreaPrefix, is(equalTo("t")));
+        assertThat(actual.exceptionAreaDelimiter, is(equalTo("_")));
+    }
+
 }
@@ -3,6 +3,8 @@ package org.junithelper.core.config;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
+import java.util.regex.Pattern;
+
 import org.junit.Test;
 
 public class TestingTargetTest {
@@ -26,4 +28,45 @@ public class TestingTargetTest {
         assertThat(actual.length, is(equalTo(expected.length)));
     }
 
+    @Test
+    public void getExclusionPattern_A$() throws Exception {
+        TestingTarget target = new TestingTarget();
+        assertThat(target.getExclusionPattern(), is(nullValue()));
+        target.regexpCsvForExclusion = "foo.var.Excluded,\r\n .+Bean ";
+        Pattern actual = target.getExclusionPattern();
+        assertThat(actual.matcher(".tmp.src.foo.var.Excluded.java").matches(), is(true));
+        assertThat(actual.matcher(".tmp.src.foo.var.SampleBean.java").matches(), is(true));
+        assertThat(actual.matcher(".tmp.src.foo.var.Sample.java").matches(), is(false));
+    }
+
+    @Test
+    public void getExclusionPatternForPackage_A$() throws Exception {
+        TestingTarget target = new TestingTarget();
+        target.regexpCsvForExclusion = ".+Bean,foo.var\\.*";
+        assertThat(target.getExclusionPatternForPackage(), is(nullValue()));
+        target.regexpCsvForExclusion = ".+Bean,foo.var.generated..*";
+        Pattern actual = target.getExclusionPatternForPackage();
+        assertThat(actual.matcher(".tmp.src.foo.var.generated.").lookingAt(), is(true));
+        assertThat(actual.matcher(".tmp.src.foo.var.").lookingAt(), is(false));
+    }
+
+    @Test
+    public void copy_A$() throws Exception {
+        TestingTarget target = new TestingTarget();
+        target.isPublicMethodRequired = false;
+        target.isProtectedMethodRequired = false;
+        target.isPackageLocalMethodRequired = false;
+        target.isExceptionPatternRequired = true;
+        target.isAccessorExcluded = false;
+        target.regexpCsvForExclusion = ".+Exclude";
+        TestingTarget actual = target.copy();
+        assertThat(actual, is(not(sameInstance(target))));
+        assertThat(actual.isPublicMethodRequired, is(false));
+        assertThat(actual.isProtectedMethodRequired, is(false));
+        assertThat(actual.isPackageLocalMethodRequired, is(false));
+        assertThat(actual.isExceptionPatternRequired, is(true));
+        assertThat(actual.isAccessorExcluded, is(false));
+        assertThat(actual.regexpCsvForExclusion, is(equalTo(".+Exclude")));
+    }
+
 }
@@ -4,6 +4,7 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.junithelper.core.config.Configuration;
 
 public class ExtConfigurationTest {
 
@@ -18,4 +19,20 @@ public class ExtConfigurationTest {
         assertThat(target, notNullValue());
     }
 
+    @Test
+    public void copy_A$Configuration() throws Exception {
+        ExtConfiguration target = new ExtConfiguration(new Configuration());
+        ExtArg extArg = new ExtArg("java.lang.String");
+        target.extArgs.add(extArg);
+        target.extInstantiations.add(new ExtInstantiation("java.util.Date"));
+        target.extReturns.add(new ExtReturn("java.util.List"));
+        Configuration config = new Configuration();
+        ExtConfiguration actual = target.copy(config);
+        assertThat(actual.config, is(sameInstance(config)));
+        assertThat(actual.extArgs, is(not(sameInstance(target.extArgs))));
+        assertThat(actual.extArgs.get(0), is(sameInstance(extArg)));
+        assertThat(actual.extInstantiations.size(), is(equalTo(1)));
+        assertThat(actual.extReturns.size(), is(equalTo(1)));
+    }
+
 }
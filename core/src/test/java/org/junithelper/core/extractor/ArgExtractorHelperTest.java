@@ -61,6 +61,52 @@ public class ArgExtractorHelperTest {
         assertThat(actual.size(), is(equalTo(1)));
     }
 
+    @Test
+    public void getArgListIfParsable_A$String() throws Exception {
+        String argsDefAreaString = "final String str, Map<String , Object> map, "
+                + "List<Map<String,Object>>[] list, int... i";
+        List<String> actual = ArgExtractorHelper.getArgListIfParsable(argsDefAreaString);
+        assertThat(actual.size(), is(equalTo(4)));
+        assertThat(actual.get(0), is(equalTo("final String str")));
+        assertThat(actual.get(1), is(equalTo("Map<String,Object> map")));
+        assertThat(actual.get(2), is(equalTo("List[] list")));
+        assertThat(actual.get(3), is(equalTo("int... i")));
+        assertThat(ArgExtractorHelper.getArgListFromArgsDefAreaString(argsDefAreaString), is(equalTo(actual)));
+    }
+
+    @Test
+    public void getArgListIfParsable_A$String_notParsable() throws Exception {
+        assertThat(ArgExtractorHelper.getArgListIfParsable(""), is(nullValue()));
+        assertThat(ArgExtractorHelper.getArgListFromArgsDefAreaString(""), is(notNullValue()));
+        assertThat(ArgExtractorHelper.getArgListIfParsable("@Nullable String str"), is(nullValue()));
+        assertThat(ArgExtractorHelper.getArgListIfParsable("String str,"), is(nullValue()));
+        assertThat(ArgExtractorHelper.getArgListIfParsable("Map<String, Object map"), is(nullValue()));
+    }
+
+    @Test
+    public void getArgType_A$String() throws Exception {
+        assertThat(ArgExtractorHelper.getArgType("final List<String> list").toString(), is(equalTo("List<String>")));
+        assertThat(ArgExtractorHelper.getArgType("String strArr[]").toString(), is(equalTo("String")));
+        assertThat(ArgExtractorHelper.getArgType("String"), is(nullValue()));
+        assertThat(ArgExtractorHelper.getArgType("String final str"), is(nullValue()));
+        assertThat(ArgExtractorHelper.getArgType("final<T> t"), is(nullValue()));
+    }
+
+    @Test
+    public void getSimpleGenerics_A$String$TypeRef() throws Exception {
+        String arg = "Map<String,?> map";
+        List<String> actual = ArgExtractorHelper.getSimpleGenerics(arg, ArgExtractorHelper.getArgType(arg));
+        assertThat(actual.size(), is(equalTo(2)));
+        assertThat(actual.get(0), is(equalTo("String")));
+        assertThat(actual.get(1), is(equalTo("?")));
+        arg = "Map<String, Object> map";
+        assertThat(ArgExtractorHelper.getSimpleGenerics(arg, ArgExtractorHelper.getArgType(arg)).size(),
+                is(equalTo(0)));
+        arg = "List<java.util.Date> list";
+        assertThat(ArgExtractorHelper.getSimpleGenerics(arg, ArgExtractorHelper.getArgType(arg)).size(),
+                is(equalTo(0)));
+    }
+
     @Test
     public void trimGenericsAreaIfNestedGenericsExists_A$String_StringIsNull() throws Exception {
         String target_ = null;
@@ -92,6 +92,20 @@ public class ArgTypeMetaExtractorTest {
         assertThat(actual, notNullValue());
     }
 
+    @Test
+    public void doExtract_A$String_arrayWithSpace() throws Exception {
+        ArgTypeMetaExtractor target = new ArgTypeMetaExtractor(config);
+        ClassMeta classMeta = new ClassMetaExtractor(config).extract("public class Sample {}");
+        target.initialize(classMeta);
+        target.doExtract("java.util.Date[ ] d, int x");
+        assertEquals(2, target.getExtractedMetaList().size());
+        assertEquals("java.util.Date[]", target.getExtractedMetaList().get(0).name);
+        assertEquals("javautilDateArray", target.getExtractedMetaList().get(0).nameInMethodName);
+        assertEquals("int", target.getExtractedMetaList().get(1).name);
+        assertEquals("d", target.getExtractedNameList().get(0));
+        assertEquals("x", target.getExtractedNameList().get(1));
+    }
+
     @Test
     public void doExtract_A$String_StringIsNull() throws Exception {
         ArgTypeMetaExtractor target = new ArgTypeMetaExtractor(config);
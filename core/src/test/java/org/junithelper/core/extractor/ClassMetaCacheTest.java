@@ -0,0 +1,199 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.meta.ClassMeta;
+
+public class ClassMetaCacheTest {
+
+    Configuration config = new Configuration();
+
+    String sourceCodeString = "package foo.var; import java.util.List; public class Sample { "
+            + "public Sample(String name) throws Exception {} "
+            + "public List<String> doSomething(String str, int i) throws java.io.IOException { return null; } }";
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(ClassMetaCache.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        ClassMetaCache target = new ClassMetaCache(10, 1024L);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_intIsZero() throws Exception {
+        try {
+            new ClassMetaCache(0, 1024L);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void instantiation_longIsZero() throws Exception {
+        try {
+            new ClassMetaCache(10, 0L);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void getInstance_A$() throws Exception {
+        ClassMetaCache actual = ClassMetaCache.getInstance();
+        assertThat(actual, is(sameInstance(ClassMetaCache.getInstance())));
+    }
+
+    @Test
+    public void get_A$String$String$Configuration() throws Exception {
+        ClassMetaCache target = new ClassMetaCache(10, ClassMetaCache.DEFAULT_MAX_BYTES);
+        ClassMeta first = target.get("/tmp/foo/var/Sample.java", sourceCodeString, config);
+        assertThat(target.getMissCount(), is(equalTo(1L)));
+        assertThat(target.getHitCount(), is(equalTo(0L)));
+        ClassMeta second = target.get("/tmp/foo/var/Sample.java", sourceCodeString, config);
+        assertThat(target.getMissCount(), is(equalTo(1L)));
+        assertThat(target.getHitCount(), is(equalTo(1L)));
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.name, is(equalTo("Sample")));
+        assertThat(second.methods.size(), is(equalTo(first.methods.size())));
+        assertThat(second.methods.get(0).argNames, is(equalTo(first.methods.get(0).argNames)));
+        assertThat(second.constructors.get(0).argTypes.get(0).name, is(equalTo("String")));
+        assertThat(target.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void get_A$String$String$Configuration_modifiedCopy() throws Exception {
+        ClassMetaCache target = new ClassMetaCache(10, ClassMetaCache.DEFAULT_MAX_BYTES);
+        ClassMeta first = target.get("/tmp/foo/var/Sample.java", sourceCodeString, config);
+        int importedCount = first.importedList.size();
+        // test case generators add imports to the given ClassMeta
+        first.importedList.add("java.util.Map");
+        first.methods.get(0).argTypes.get(0).generics.add("T");
+        ClassMeta second = target.get("/tmp/foo/var/Sample.java", sourceCodeString, config);
+        assertThat(second.importedList.size(), is(equalTo(importedCount)));
+        assertThat(second.methods.get(0).argTypes.get(0).generics.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void get_A$String$String$Configuration_contentChanged() throws Exception {
+        ClassMetaCache target = new ClassMetaCache(10, ClassMetaCache.DEFAULT_MAX_BYTES);
+        target.get("/tmp/foo/var/Sample.java", sourceCodeString, config);
+        ClassMeta actual = target.get("/tmp/foo/var/Sample.java",
+                "package foo.var; public class Sample { public void doAnother() {} }", config);
+        assertThat(actual.methods.get(0).name, is(equalTo("doAnother")));
+        assertThat(target.getMissCount(), is(equalTo(2L)));
+        assertThat(target.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void get_A$String$String$Configuration_classAdded() throws Exception {
+        File rootDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-ClassMetaCacheTest-"
+                + System.nanoTime());
+        try {
+            Configuration config = new Configuration();
+            config.directoryPathOfProductSourceCode = rootDir.getPath();
+            String path = new File(rootDir, "p/Foo.java").getPath();
+            String fooSourceCode = "package p; class Foo { void doIt(Bar b){} }";
+            FileUtils.writeStringToFile(new File(path), fooSourceCode);
+            ClassMetaCache target = new ClassMetaCache(10, ClassMetaCache.DEFAULT_MAX_BYTES);
+            ClassMeta before = target.get(path, fooSourceCode, config);
+            assertThat(before.methods.get(0).argTypes.get(0).name, is(equalTo("Object")));
+            FileUtils.writeStringToFile(new File(rootDir, "p/Bar.java"), "package p; class Bar {}");
+            new File(rootDir, "p").setLastModified(System.currentTimeMillis() + 10000L);
+            // the next run
+            SymbolIndex.revalidateInstances();
+            ClassMeta after = target.get(path, fooSourceCode, config);
+            assertThat(after.methods.get(0).argTypes.get(0).name, is(equalTo("Bar")));
+            assertThat(target.getMissCount(), is(equalTo(2L)));
+        } finally {
+            FileUtils.deleteDirectory(rootDir);
+            SymbolIndex.clearInstances();
+        }
+    }
+
+    @Test
+    public void get_A$String$String$Configuration_pathIsNull() throws Exception {
+        ClassMetaCache target = new ClassMetaCache(10, ClassMetaCache.DEFAULT_MAX_BYTES);
+        ClassMeta actual = target.get(null, sourceCodeString, config);
+        assertThat(actual.name, is(equalTo("Sample")));
+        assertThat(target.size(), is(equalTo(0)));
+        assertThat(target.getMissCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void get_A$String$String$Configuration_StringIsNull() throws Exception {
+        try {
+            new ClassMetaCache(10, 1024L).get("/tmp/foo/var/Sample.java", (String) null, config);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void get_A$String$String$Configuration_boundedBySize() throws Exception {
+        ClassMetaCache target = new ClassMetaCache(3, ClassMetaCache.DEFAULT_MAX_BYTES);
+        for (int i = 0; i < 10; i++) {
+            target.get("/tmp/foo/var/Sample" + i + ".java", sourceCodeString, config);
+        }
+        assertThat(target.size(), is(equalTo(3)));
+        // least recently used entries have been evicted
+        target.get("/tmp/foo/var/Sample9.java", sourceCodeString, config);
+        assertThat(target.getHitCount(), is(equalTo(1L)));
+        target.get("/tmp/foo/var/Sample0.java", sourceCodeString, config);
+        assertThat(target.getHitCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void get_A$String$String$Configuration_boundedByBytes() throws Exception {
+        ClassMeta classMeta = new ClassMetaExtractor(config).extract(sourceCodeString);
+        long bytes = ClassMetaCache.estimateBytes(classMeta);
+        ClassMetaCache target = new ClassMetaCache(100, bytes * 2);
+        for (int i = 0; i < 10; i++) {
+            target.get("/tmp/foo/var/Sample" + i + ".java", sourceCodeString, config);
+        }
+        assertThat(target.size(), is(equalTo(2)));
+        assertThat(target.getEstimatedBytes(), is(equalTo(bytes * 2)));
+    }
+
+    @Test
+    public void clear_A$() throws Exception {
+        ClassMetaCache target = new ClassMetaCache(10, ClassMetaCache.DEFAULT_MAX_BYTES);
+        target.get("/tmp/foo/var/Sample.java", sourceCodeString, config);
+        target.clear();
+        assertThat(target.size(), is(equalTo(0)));
+        assertThat(target.getEstimatedBytes(), is(equalTo(0L)));
+        assertThat(target.getMissCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void estimateBytes_A$ClassMeta() throws Exception {
+        ClassMeta small = new ClassMetaExtractor(config).extract("package foo.var; public class Sample { }");
+        ClassMeta large = new ClassMetaExtractor(config).extract(sourceCodeString);
+        assertThat(ClassMetaCache.estimateBytes(small) > 0L, is(true));
+        assertThat(ClassMetaCache.estimateBytes(large) > ClassMetaCache.estimateBytes(small), is(true));
+    }
+
+    @Test
+    public void copy_A$ClassMeta() throws Exception {
+        ClassMeta classMeta = new ClassMetaExtractor(config).extract(sourceCodeString);
+        ClassMeta actual = ClassMetaCache.copy(classMeta);
+        assertThat(actual, is(not(sameInstance(classMeta))));
+        assertThat(actual.packageName, is(equalTo(classMeta.packageName)));
+        assertThat(actual.importedList, is(equalTo(classMeta.importedList)));
+        assertThat(actual.methods.get(0).returnType.generics, is(equalTo(classMeta.methods.get(0).returnType.generics)));
+        assertThat(actual.methods.get(0).throwsExceptions.get(0).name,
+                is(equalTo(classMeta.methods.get(0).throwsExceptions.get(0).name)));
+        assertThat(actual.methods.get(0).accessModifier, is(equalTo(classMeta.methods.get(0).accessModifier)));
+    }
+
+}
@@ -4,13 +4,18 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.exception.JUnitHelperCoreException;
 import org.junithelper.core.meta.AccessModifier;
 import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.util.ElapsedTimeRatio;
 import org.junithelper.core.util.IOUtil;
 
 public class ClassMetaExtractorTest {
@@ -124,6 +129,39 @@ public class ClassMetaExtractorTest {
         assertEquals(2, actual.methods.size());
     }
 
+    @Test
+    public void extractHeader_A$SourceUnit() throws Exception {
+        ClassMetaExtractor target = new ClassMetaExtractor(config);
+        String sourceCodeString = "package hoge.foo; import java.util.List; public class Sample<T> extends Object { public Sample() {}\r\n public void doSomething(String str) { System.out.println(\"aaaa\") } }";
+        ClassMeta actual = target.extractHeader(new SourceUnit(sourceCodeString));
+        assertEquals("hoge.foo", actual.packageName);
+        assertEquals("Sample", actual.name);
+        assertFalse(actual.isAbstract);
+        assertFalse(actual.isEnum);
+        assertEquals(0, actual.importedList.size());
+        assertEquals(0, actual.constructors.size());
+        assertEquals(0, actual.methods.size());
+    }
+
+    @Test
+    public void extractHeader_A$SourceUnit_abstract() throws Exception {
+        ClassMetaExtractor target = new ClassMetaExtractor(config);
+        assertTrue(target.extractHeader(new SourceUnit("package hoge.foo; public abstract class Sample { }")).isAbstract);
+        assertTrue(target.extractHeader(new SourceUnit("package hoge.foo; public interface Sample { void m(); }")).isAbstract);
+        assertTrue(target.extractHeader(new SourceUnit("package hoge.foo; public @interface Sample { }")).isAbstract);
+        assertFalse(target.extractHeader(new SourceUnit("package hoge.foo; public enum Sample { A, B }")).isAbstract);
+    }
+
+    @Test
+    public void extractHeader_A$SourceUnit_Null() throws Exception {
+        ClassMetaExtractor target = new ClassMetaExtractor(config);
+        try {
+            target.extractHeader(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
     @Test
     public void renameIfDuplicatedToConstructorArgNames_A$String$List$List_target() throws Exception {
         ClassMetaExtractor target = new ClassMetaExtractor(config);
@@ -172,6 +210,78 @@ public class ClassMetaExtractorTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void renameIfDuplicatedToConstructorArgNames_A$String$Set$Map() throws Exception {
+        ClassMetaExtractor target = new ClassMetaExtractor(config);
+        Set<String> constructorArgs = new HashSet<String>();
+        constructorArgs.add("name");
+        Map<String, Integer> methodArgNameCounts = new HashMap<String, Integer>();
+        methodArgNameCounts.put("name", 1);
+        methodArgNameCounts.put("name_", 1);
+        assertThat(target.renameIfDuplicatedToConstructorArgNames("name", constructorArgs, methodArgNameCounts),
+                is(equalTo("name__")));
+        assertThat(target.renameIfDuplicatedToConstructorArgNames("name_", constructorArgs, methodArgNameCounts),
+                is(equalTo("name_")));
+        assertThat(target.renameIfDuplicatedToConstructorArgNames("target", constructorArgs, methodArgNameCounts),
+                is(equalTo("target_")));
+        assertThat(target.renameIfDuplicatedToConstructorArgNames(null, constructorArgs, methodArgNameCounts),
+                is(nullValue()));
+    }
+
+    @Test
+    public void incrementCount_A$Map$String() throws Exception {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        ClassMetaExtractor.incrementCount(counts, "name");
+        ClassMetaExtractor.incrementCount(counts, "name");
+        assertThat(counts.get("name"), is(equalTo(2)));
+    }
+
+    @Test
+    public void decrementCount_A$Map$String() throws Exception {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        counts.put("name", 2);
+        ClassMetaExtractor.decrementCount(counts, "name");
+        assertThat(counts.get("name"), is(equalTo(1)));
+        ClassMetaExtractor.decrementCount(counts, "name");
+        assertThat(counts.containsKey("name"), is(false));
+    }
+
+    @Test
+    public void extract_A$String_duplicatedArgNames() throws Exception {
+        ClassMetaExtractor target = new ClassMetaExtractor(config);
+        String sourceCodeString = "package hoge.foo; public class Sample { public Sample(String name, String target) {}\r\n"
+                + " public void doSomething(String name, String name_, String expected) {} }";
+        ClassMeta actual = target.extract(sourceCodeString);
+        assertThat(actual.constructors.get(0).argNames.toString(), is(equalTo("[name, target_]")));
+        assertThat(actual.methods.get(0).argNames.toString(), is(equalTo("[name__, name_, expected_]")));
+    }
+
+    static String getSourceCodeWithMethods(int methodCount) {
+        StringBuilder sb = new StringBuilder("package hoge.foo; public class SampleDao {\r\n");
+        sb.append(" public SampleDao(String name, String target) {}\r\n");
+        for (int i = 0; i < methodCount; i++) {
+            sb.append(" public String find").append(i).append("(String name, int target, long expected) {");
+            sb.append(" return null; }\r\n");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Test
+    public void extract_A$String_5000Methods() throws Exception {
+        final ClassMetaExtractor target = new ClassMetaExtractor(config);
+        ClassMeta actual = target.extract(getSourceCodeWithMethods(5000));
+        assertThat(actual.methods.size(), is(equalTo(5000)));
+        assertThat(actual.methods.get(4999).argNames.toString(), is(equalTo("[name_, target__, expected_]")));
+        // about 5 times if linear, 25 times if quadratic
+        double ratio = new ElapsedTimeRatio() {
+            protected void run(int size) {
+                target.extract(getSourceCodeWithMethods(size));
+            }
+        }.measure(1000, 5000);
+        assertThat("ratio: " + ratio, ratio < 15.0, is(true));
+    }
+
     @Test
     public void isDuplicatedVariableName_A$String_true() throws Exception {
         ClassMetaExtractor target = new ClassMetaExtractor(config);
@@ -0,0 +1,199 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.meta.AccessModifier;
+import org.junithelper.core.meta.ClassMeta;
+import org.junithelper.core.meta.ExceptionMeta;
+
+public class ClassMetaStoreTest {
+
+    Configuration config = new Configuration();
+
+    String sourceCodeString = "package foo.var; import java.util.List; public class Sample { "
+            + "protected Sample(String name) throws Exception {} "
+            + "public List<String> doSomething(String str, int i) throws java.io.IOException { return null; } "
+            + "static void doStatic(java.util.Map<String, Object> map) {} }";
+
+    File rootDir;
+
+    File storeFile;
+
+    File javaFile;
+
+    String javaFilePath;
+
+    @Before
+    public void setUp() throws Exception {
+        rootDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-ClassMetaStoreTest-" + System.nanoTime());
+        storeFile = new File(rootDir, "cache/classmeta.bin");
+        javaFile = new File(rootDir, "foo/var/Sample.java");
+        FileUtils.writeStringToFile(javaFile, sourceCodeString);
+        javaFilePath = javaFile.getCanonicalPath();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(rootDir);
+        ClassMetaStore.clearInstances();
+    }
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(ClassMetaStore.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        ClassMetaStore target = new ClassMetaStore(rootDir, storeFile);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_FileIsNull() throws Exception {
+        try {
+            new ClassMetaStore(null, storeFile);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void getInstance_A$Configuration() throws Exception {
+        config.directoryPathOfProductSourceCode = rootDir.getPath();
+        assertThat(ClassMetaStore.getInstance(config), is(nullValue()));
+        config.classMetaCacheFilePath = storeFile.getPath();
+        ClassMetaStore actual = ClassMetaStore.getInstance(config);
+        assertThat(actual, is(notNullValue()));
+        assertThat(actual, is(sameInstance(ClassMetaStore.getInstance(config))));
+    }
+
+    @Test
+    public void get_A$String$String() throws Exception {
+        ClassMetaStore target = new ClassMetaStore(rootDir, storeFile);
+        assertThat(target.get(javaFilePath, "hash"), is(nullValue()));
+        ClassMeta classMeta = new ClassMetaExtractor(config).extract(sourceCodeString);
+        target.put(javaFilePath, "hash", classMeta);
+        ClassMeta actual = target.get(javaFilePath, "hash");
+        assertThat(actual, is(not(sameInstance(classMeta))));
+        assertThat(actual.name, is(equalTo("Sample")));
+        // invalidated by the content hash
+        assertThat(target.get(javaFilePath, "changed"), is(nullValue()));
+        // out of the root directory
+        assertThat(target.get(new File("Sample.java").getCanonicalPath(), "hash"), is(nullValue()));
+        assertThat(target.get(null, "hash"), is(nullValue()));
+    }
+
+    @Test
+    public void save_A$_andLoad() throws Exception {
+        ClassMetaStore saved = new ClassMetaStore(rootDir, storeFile);
+        ClassMeta expected = new ClassMetaExtractor(config).extract(sourceCodeString);
+        expected.constructors.get(0).testingTargetException = new ExceptionMeta();
+        expected.constructors.get(0).testingTargetException.name = "Exception";
+        saved.put(javaFilePath, "hash", expected);
+        saved.saveIfModified();
+        assertThat(storeFile.exists(), is(true));
+
+        ClassMetaStore loaded = new ClassMetaStore(rootDir, storeFile);
+        assertThat(loaded.size(), is(equalTo(1)));
+        ClassMeta actual = loaded.get(javaFilePath, "hash");
+        assertThat(describe(actual), is(equalTo(describe(expected))));
+        assertThat(actual.constructors.get(0).accessModifier, is(equalTo(AccessModifier.Protected)));
+        assertThat(actual.constructors.get(0).testingTargetException.name, is(equalTo("Exception")));
+        assertThat(actual.methods.get(1).isStatic, is(true));
+        assertThat(actual.methods.get(1).argTypes.get(0).generics, is(equalTo(expected.methods.get(1).argTypes
+                .get(0).generics)));
+        // type names are shared in the string table
+        assertThat(actual.methods.get(0).argTypes.get(0).name,
+                is(sameInstance(actual.constructors.get(0).argTypes.get(0).name)));
+    }
+
+    @Test
+    public void save_A$_deletedFile() throws Exception {
+        ClassMetaStore saved = new ClassMetaStore(rootDir, storeFile);
+        saved.put(javaFilePath, "hash", new ClassMetaExtractor(config).extract(sourceCodeString));
+        javaFile.delete();
+        saved.saveIfModified();
+        assertThat(new ClassMetaStore(rootDir, storeFile).size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void load_A$_broken() throws Exception {
+        FileUtils.writeStringToFile(storeFile, "broken");
+        ClassMetaStore target = new ClassMetaStore(rootDir, storeFile);
+        assertThat(target.load(), is(false));
+        assertThat(target.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void load_A$_otherRootDir() throws Exception {
+        // relative paths are stored, e.g. restored on another CI agent
+        ClassMetaStore saved = new ClassMetaStore(rootDir, storeFile);
+        saved.put(javaFilePath, "hash", new ClassMetaExtractor(config).extract(sourceCodeString));
+        saved.saveIfModified();
+        File otherRootDir = new File(rootDir, "other");
+        File otherJavaFile = new File(otherRootDir, "foo/var/Sample.java");
+        FileUtils.writeStringToFile(otherJavaFile, sourceCodeString);
+        ClassMetaStore target = new ClassMetaStore(otherRootDir, storeFile);
+        assertThat(target.get(otherJavaFile.getCanonicalPath(), "hash"), is(notNullValue()));
+    }
+
+    @Test
+    public void load_A$_classAdded() throws Exception {
+        // type names in the stored ClassMeta might be resolved differently
+        ClassMetaStore saved = new ClassMetaStore(rootDir, storeFile);
+        saved.put(javaFilePath, "hash", new ClassMetaExtractor(config).extract(sourceCodeString));
+        saved.saveIfModified();
+        FileUtils.writeStringToFile(new File(rootDir, "foo/var/List.java"), "package foo.var; public class List {}");
+        ClassMetaStore target = new ClassMetaStore(rootDir, storeFile);
+        assertThat(target.get(javaFilePath, "hash"), is(nullValue()));
+    }
+
+    @Test
+    public void getClassPath_A$() throws Exception {
+        String actual = ClassMetaStore.getClassPath();
+        // only file names, not the absolute paths
+        assertThat(actual.length() > 0, is(true));
+        assertThat(actual.indexOf(File.separator), is(equalTo(-1)));
+    }
+
+    @Test
+    public void saveInstances_A$() throws Exception {
+        config.directoryPathOfProductSourceCode = rootDir.getPath();
+        config.classMetaCacheFilePath = storeFile.getPath();
+        ClassMetaCache cache = new ClassMetaCache(10, ClassMetaCache.DEFAULT_MAX_BYTES);
+        cache.get(javaFilePath, sourceCodeString, config);
+        ClassMetaStore.saveInstances();
+        assertThat(storeFile.exists(), is(true));
+        // cold run
+        ClassMetaStore.clearInstances();
+        assertThat(ClassMetaStore.getInstance(config).size(), is(equalTo(1)));
+        ClassMeta actual = new ClassMetaCache(10, ClassMetaCache.DEFAULT_MAX_BYTES).get(javaFilePath,
+                sourceCodeString, config);
+        assertThat(actual.methods.size(), is(equalTo(2)));
+    }
+
+    static String describe(ClassMeta meta) {
+        StringBuilder buf = new StringBuilder();
+        buf.append(meta.packageName).append(meta.name).append(meta.isAbstract).append(meta.isEnum);
+        buf.append(meta.importedList);
+        buf.append(meta.constructors.size());
+        for (int i = 0; i < meta.methods.size(); i++) {
+            buf.append(meta.methods.get(i).toString()).append(meta.methods.get(i).accessModifier);
+            buf.append(meta.methods.get(i).returnType.name).append(meta.methods.get(i).returnType.generics);
+            buf.append(meta.methods.get(i).argNames);
+            buf.append(meta.methods.get(i).throwsExceptions.size());
+        }
+        return buf.toString();
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ClassResolutionCacheTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(ClassResolutionCache.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        ClassResolutionCache target = new ClassResolutionCache(10);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_intIsZero() throws Exception {
+        try {
+            new ClassResolutionCache(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void getInstance_A$() throws Exception {
+        ClassResolutionCache actual = ClassResolutionCache.getInstance();
+        assertThat(actual, is(sameInstance(ClassResolutionCache.getInstance())));
+    }
+
+    @Test
+    public void forName_A$String() throws Exception {
+        ClassResolutionCache target = new ClassResolutionCache(100);
+        assertThat(target.forName("java.lang.String"), is(equalTo((Object) String.class)));
+        assertThat(target.forName("java.util.List"), is(equalTo((Object) java.util.List.class)));
+        assertThat(target.forName("java.lang.int"), is(nullValue()));
+        assertThat(target.forName("java.lang.NotExist"), is(nullValue()));
+        assertThat(target.forName("java.lang.NotExist"), is(nullValue()));
+        assertThat(target.forName(null), is(nullValue()));
+    }
+
+    @Test
+    public void isFound_A$String() throws Exception {
+        ClassResolutionCache target = new ClassResolutionCache(100);
+        assertThat(target.isFound("java.lang.Object"), is(true));
+        assertThat(target.isFound("java.util.Map"), is(true));
+        assertThat(target.isFound("foo.var.NotExist"), is(false));
+    }
+
+    @Test
+    public void size_A$() throws Exception {
+        ClassResolutionCache target = new ClassResolutionCache(100);
+        int preloaded = target.size();
+        assertThat(preloaded > 0, is(true));
+        target.forName("foo.var.NotExist");
+        target.forName("foo.var.NotExist");
+        assertThat(target.size(), is(equalTo(preloaded + 1)));
+    }
+
+    @Test
+    public void size_A$_bounded() throws Exception {
+        ClassResolutionCache target = new ClassResolutionCache(3);
+        for (int i = 0; i < 10; i++) {
+            target.forName("foo.var.NotExist" + i);
+        }
+        assertThat(target.size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void clear_A$() throws Exception {
+        ClassResolutionCache target = new ClassResolutionCache(100);
+        int preloaded = target.size();
+        target.forName("foo.var.NotExist");
+        target.clear();
+        assertThat(target.size(), is(equalTo(preloaded)));
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.util.ElapsedTimeRatio;
+
+public class FieldTableTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(FieldTable.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        FieldTable target = new FieldTable("public class Sample { }");
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_StringIsNull() throws Exception {
+        try {
+            new FieldTable(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void isPrivateFieldExists_A$String$String() throws Exception {
+        FieldTable target = new FieldTable("public class Sample {\r\n private String name;\r\n"
+                + " private int count = 0;\r\n protected String protectedName;\r\n private String[] values;\r\n }");
+        assertThat(target.isPrivateFieldExists("String", "Name"), is(true));
+        assertThat(target.isPrivateFieldExists("int", "Count"), is(true));
+        assertThat(target.isPrivateFieldExists("String[]", "Values"), is(true));
+        assertThat(target.isPrivateFieldExists("String", "Count"), is(false));
+        assertThat(target.isPrivateFieldExists("String", "ProtectedName"), is(false));
+        assertThat(target.isPrivateFieldExists("Str", "Name"), is(false));
+    }
+
+    @Test
+    public void isPrivateFieldExists_A$String$String_prefixOfName() throws Exception {
+        FieldTable target = new FieldTable("public class Sample { private String nameList; }");
+        assertThat(target.isPrivateFieldExists("String", "Name"), is(true));
+        assertThat(target.isPrivateFieldExists("String", "NameListX"), is(false));
+    }
+
+    @Test
+    public void isPrivateFieldExists_A$String$String_generics() throws Exception {
+        FieldTable target = new FieldTable("public class Sample { private Map<String, List<Integer>> map; }");
+        assertThat(target.isPrivateFieldExists("Map", "Map"), is(true));
+        assertThat(target.isPrivateFieldExists("Map", "List"), is(false));
+        assertThat(target.isPrivateFieldExists("List", "Map"), is(false));
+    }
+
+    @Test
+    public void isPrivateFieldExists_A$String$String_qualifiedType() throws Exception {
+        FieldTable target = new FieldTable("public class Sample { private java.util.Date date; }");
+        assertThat(target.isPrivateFieldExists("java.util.Date", "Date"), is(true));
+        assertThat(target.isPrivateFieldExists("Date", "Date"), is(false));
+    }
+
+    @Test
+    public void isPrivateFieldExists_A$String$String_nameAtTheEnd() throws Exception {
+        FieldTable target = new FieldTable("private String name");
+        assertThat(target.isPrivateFieldExists("String", "Nam"), is(true));
+        assertThat(target.isPrivateFieldExists("String", "Name"), is(false));
+    }
+
+    @Test
+    public void isPrivateFieldExists_A$String$String_regExpCharacters() throws Exception {
+        FieldTable target = new FieldTable("public class Sample { private Outer$Inner inner; private int $value; }");
+        // "$" is not escaped as the regular expression
+        assertThat(target.isPrivateFieldExists("Outer$Inner", "Inner"), is(false));
+        assertThat(target.isPrivateFieldExists("int", "$value"), is(false));
+    }
+
+    @Test
+    public void isPrivateFieldExists_A$String$String_StringIsEmpty() throws Exception {
+        FieldTable target = new FieldTable("public class Sample { private String name; }");
+        try {
+            target.isPrivateFieldExists("", "Name");
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+        try {
+            target.isPrivateFieldExists("String", null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    static FieldTable getFieldTableWithFields(int fieldCount) {
+        StringBuilder sb = new StringBuilder("public class Sample {\r\n");
+        for (int i = 0; i < fieldCount; i++) {
+            sb.append(" private String field").append(i).append(";\r\n");
+        }
+        sb.append("}");
+        return new FieldTable(sb.toString());
+    }
+
+    @Test
+    public void isPrivateFieldExists_A$String$String_manyAccessors() throws Exception {
+        FieldTable target = getFieldTableWithFields(2000);
+        for (int i = 0; i < 2000; i++) {
+            assertThat(target.isPrivateFieldExists("String", "Field" + i), is(true));
+        }
+        // about 5 times if linear, 25 times if each lookup scans the fields
+        double ratio = new ElapsedTimeRatio() {
+            protected void run(int size) {
+                FieldTable target = getFieldTableWithFields(size);
+                for (int i = 0; i < size; i++) {
+                    target.isPrivateFieldExists("String", "Field" + i);
+                }
+            }
+        }.measure(2000, 10000);
+        assertThat("ratio: " + ratio, ratio < 15.0, is(true));
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.meta.AccessModifier;
+
+public class MemberScannerTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(MemberScanner.class);
+    }
+
+    @Test
+    public void scan_A$String$String() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { protected Sample(String arg, int i) { } "
+                + "int field = get(1); public static void doSomething(int a) throws Exception {\r\n return; } "
+                + "private List<String> getList() { return null; } if (a) { } }";
+        List<MemberScanner.Member> actual = MemberScanner.scan(sourceCodeString, "Sample");
+        assertThat(actual.size(), is(equalTo(3)));
+
+        MemberScanner.Member constructor = actual.get(0);
+        assertThat(constructor.isConstructor(), is(true));
+        assertThat(constructor.isMethod(), is(false));
+        assertThat(constructor.accessModifier, is(equalTo(AccessModifier.Protected)));
+        assertThat(constructor.isStatic, is(false));
+        assertThat(constructor.signature, is(nullValue()));
+        assertThat(constructor.args, is(equalTo("String arg,int i")));
+        assertThat(constructor.throwsArea, is(nullValue()));
+
+        MemberScanner.Member method = actual.get(1);
+        assertThat(method.kind, is(equalTo(MemberScanner.Kind.Method)));
+        assertThat(method.signatureArea, is(equalTo("; public static void doSomething(int a) throws Exception {  ")));
+        assertThat(method.accessModifier, is(equalTo(AccessModifier.Public)));
+        assertThat(method.isStatic, is(true));
+        assertThat(method.signature.name, is(equalTo("doSomething")));
+        assertThat(method.args, is(equalTo("int a")));
+        assertThat(method.throwsArea, is(equalTo("throws Exception ")));
+
+        MemberScanner.Member accessor = actual.get(2);
+        assertThat(accessor.isMethod(), is(true));
+        assertThat(accessor.accessModifier, is(equalTo(AccessModifier.Private)));
+        assertThat(accessor.isStatic, is(false));
+        assertThat(accessor.signature.returnType, is(equalTo("List<String>")));
+        assertThat(accessor.signature.name, is(equalTo("getList")));
+    }
+
+    @Test
+    public void scan_A$String$String_constructorThrows() throws Exception {
+        String sourceCodeString = "public class Sample { public Sample() throws IOException { } }";
+        List<MemberScanner.Member> actual = MemberScanner.scan(sourceCodeString, "Sample");
+        assertThat(actual.size(), is(equalTo(1)));
+        assertThat(actual.get(0).isConstructor(), is(true));
+        assertThat(actual.get(0).args, is(equalTo("")));
+        assertThat(actual.get(0).throwsArea, is(equalTo("throws IOException ")));
+    }
+
+    @Test
+    public void scan_A$String$String_StringIsNull() throws Exception {
+        try {
+            MemberScanner.scan(null, "Sample");
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+        try {
+            MemberScanner.scan("public class Sample { void doSomething() { } }", null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void scan_A$String$String_noSignatureArea() throws Exception {
+        List<MemberScanner.Member> actual = MemberScanner.scan("public class Sample { }", null);
+        assertThat(actual.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void getAccessModifier_A$String() throws Exception {
+        assertThat(MemberScanner.getAccessModifier("; public void doSomething() { "),
+                is(equalTo(AccessModifier.Public)));
+        assertThat(MemberScanner.getAccessModifier("; protected void doSomething() { "),
+                is(equalTo(AccessModifier.Protected)));
+        assertThat(MemberScanner.getAccessModifier("; void doSomething() { "),
+                is(equalTo(AccessModifier.PackageLocal)));
+        assertThat(MemberScanner.getAccessModifier("; private void doSomething() { "),
+                is(equalTo(AccessModifier.Private)));
+    }
+
+}
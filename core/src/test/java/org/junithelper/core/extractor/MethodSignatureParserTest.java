@@ -0,0 +1,118 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.util.ElapsedTimeRatio;
+
+public class MethodSignatureParserTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(MethodSignatureParser.class);
+    }
+
+    @Test
+    public void findSignatureAreas_A$String() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { public Sample(String arg) { } "
+                + "int field = get(1); public static void doSomething(int a) throws Exception {\r\n return; } "
+                + "abstract void doAbstract(); }";
+        List<String> actual = MethodSignatureParser.findSignatureAreas(sourceCodeString);
+        assertThat(actual.size(), is(equalTo(2)));
+        assertThat(actual.get(0), is(equalTo("{ public Sample(String arg) { ")));
+        assertThat(actual.get(1), is(equalTo("; public static void doSomething(int a) throws Exception {\r\n ")));
+    }
+
+    @Test
+    public void findSignatureAreas_A$String_StringIsNull() throws Exception {
+        try {
+            MethodSignatureParser.findSignatureAreas(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    static String getUnclosedCalls(int count) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < count; i++) {
+            sb.append(" a(b");
+        }
+        sb.append(";");
+        return sb.toString();
+    }
+
+    @Test
+    public void findSignatureAreas_A$String_pathological() throws Exception {
+        List<String> actual = MethodSignatureParser.findSignatureAreas(getUnclosedCalls(200000));
+        assertThat(actual.size(), is(equalTo(0)));
+        // about 5 times if linear, 25 times if quadratic
+        double ratio = new ElapsedTimeRatio() {
+            protected void run(int size) {
+                MethodSignatureParser.findSignatureAreas(getUnclosedCalls(size));
+            }
+        }.measure(40000, 200000);
+        assertThat("ratio: " + ratio, ratio < 15.0, is(true));
+    }
+
+    @Test
+    public void parse_A$String() throws Exception {
+        MethodSignatureParser.Signature actual = MethodSignatureParser
+                .parse(" static boolean \t\trun(    Map<String,Object>  \t   map  )  \t  { }");
+        assertThat(actual.returnType, is(equalTo("boolean")));
+        assertThat(actual.name, is(equalTo("run")));
+        assertThat(actual.args, is(equalTo("    Map<String,Object>  \t   map  ")));
+        assertThat(actual.throwsArea, is(nullValue()));
+    }
+
+    @Test
+    public void parse_A$String_throws() throws Exception {
+        MethodSignatureParser.Signature actual = MethodSignatureParser
+                .parse(" <T> List<T> doSomething (T a, int b) throws IOException, SQLException { ");
+        assertThat(actual.returnType, is(equalTo("List<T>")));
+        assertThat(actual.name, is(equalTo("doSomething")));
+        assertThat(actual.args, is(equalTo("T a, int b")));
+        assertThat(actual.throwsArea, is(equalTo("throws IOException, SQLException ")));
+    }
+
+    @Test
+    public void parse_A$String_notMatched() throws Exception {
+        assertThat(MethodSignatureParser.parse(" if (a) { "), is(nullValue()));
+        assertThat(MethodSignatureParser.parse(" void doSomething() "), is(nullValue()));
+        assertThat(MethodSignatureParser.parse(""), is(nullValue()));
+    }
+
+    @Test
+    public void parse_A$String_StringIsNull() throws Exception {
+        try {
+            MethodSignatureParser.parse(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    static String getUnclosedSignature(int modifierCount) {
+        StringBuilder sb = new StringBuilder(" ");
+        for (int i = 0; i < modifierCount; i++) {
+            sb.append("static final ");
+        }
+        sb.append("void doSomething(int a  {");
+        return sb.toString();
+    }
+
+    @Test
+    public void parse_A$String_pathological() throws Exception {
+        assertThat(MethodSignatureParser.parse(getUnclosedSignature(100000)), is(nullValue()));
+        // about 5 times if linear, 25 times if quadratic
+        double ratio = new ElapsedTimeRatio() {
+            protected void run(int size) {
+                MethodSignatureParser.parse(getUnclosedSignature(size));
+            }
+        }.measure(20000, 100000);
+        assertThat("ratio: " + ratio, ratio < 15.0, is(true));
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class SourceUnitTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(SourceUnit.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        String sourceCodeString = "";
+        SourceUnit target = new SourceUnit(sourceCodeString);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_StringIsNull() throws Exception {
+        String sourceCodeString = null;
+        try {
+            new SourceUnit(sourceCodeString);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void getSourceCodeString_A$() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { }";
+        SourceUnit target = new SourceUnit(sourceCodeString);
+        String actual = target.getSourceCodeString();
+        assertThat(actual, is(equalTo(sourceCodeString)));
+    }
+
+    @Test
+    public void getTrimmedSourceCodeString_A$() throws Exception {
+        String sourceCodeString = "package foo.var; // comment\r\n/* comment */public class Sample { String s = \"{\"; }";
+        SourceUnit target = new SourceUnit(sourceCodeString);
+        String actual = target.getTrimmedSourceCodeString();
+        assertThat(actual.contains("comment"), is(false));
+        assertThat(actual.contains("\"{\""), is(false));
+    }
+
+    @Test
+    public void getTrimmedSourceCodeString_A$_Memoized() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { }";
+        SourceUnit target = new SourceUnit(sourceCodeString);
+        String first = target.getTrimmedSourceCodeString();
+        String second = target.getTrimmedSourceCodeString();
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void getOutOfBrace_A$() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { void m() { } }";
+        SourceUnit target = new SourceUnit(sourceCodeString);
+        String actual = target.getOutOfBrace();
+        assertThat(actual, is(equalTo(target.getTrimmedSourceCodeString().split("\\{")[0])));
+    }
+
+    @Test
+    public void getOutOfBrace_A$_NoBrace() throws Exception {
+        String sourceCodeString = "package foo.var;";
+        SourceUnit target = new SourceUnit(sourceCodeString);
+        String actual = target.getOutOfBrace();
+        assertThat(actual, is(equalTo(target.getTrimmedSourceCodeString())));
+    }
+
+    @Test
+    public void getOutOfBrace_A$_BeforeTrimmed() throws Exception {
+        String sourceCodeString = "package foo.var; /* { */ public class Sample<T> { void m() { } }";
+        String actual = new SourceUnit(sourceCodeString).getOutOfBrace();
+        SourceUnit trimmed = new SourceUnit(sourceCodeString);
+        trimmed.getTrimmedSourceCodeString();
+        assertThat(actual, is(equalTo(trimmed.getOutOfBrace())));
+        assertThat(actual, is(equalTo("package foo.var;  public class Sample<T> ")));
+    }
+
+    @Test
+    public void getFieldTable_A$() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { private String name; }";
+        SourceUnit target = new SourceUnit(sourceCodeString);
+        FieldTable actual = target.getFieldTable();
+        assertThat(actual.isPrivateFieldExists("String", "Name"), is(true));
+        assertThat(target.getFieldTable(), is(sameInstance(actual)));
+    }
+
+    @Test
+    public void isSameSourceCode_A$String() throws Exception {
+        String sourceCodeString = "package foo.var; public class Sample { }";
+        SourceUnit target = new SourceUnit(sourceCodeString);
+        assertThat(target.isSameSourceCode(new String(sourceCodeString)), is(true));
+        assertThat(target.isSameSourceCode("package foo.var;"), is(false));
+        assertThat(target.isSameSourceCode(null), is(false));
+    }
+
+}
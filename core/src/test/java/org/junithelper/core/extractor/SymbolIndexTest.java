@@ -0,0 +1,175 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class SymbolIndexTest {
+
+    File rootDir;
+
+    @Before
+    public void setUp() throws Exception {
+        rootDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-SymbolIndexTest-" + System.nanoTime());
+        FileUtils.writeStringToFile(new File(rootDir, "foo/var/Sample.java"), "package foo.var; public class Sample {}");
+        FileUtils.writeStringToFile(new File(rootDir, "foo/Sample.java"), "package foo; public class Sample {}");
+        FileUtils.writeStringToFile(new File(rootDir, "foo/readme.txt"), "");
+        FileUtils.writeStringToFile(new File(rootDir, "Root.java"), "public class Root {}");
+        FileUtils.writeStringToFile(new File(rootDir, ".svn/Hidden.java"), "");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(rootDir);
+        SymbolIndex.clearInstances();
+    }
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(SymbolIndex.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        SymbolIndex target = new SymbolIndex(rootDir, null);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_FileIsNull() throws Exception {
+        try {
+            new SymbolIndex(null, null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void getInstance_A$Configuration() throws Exception {
+        Configuration config = new Configuration();
+        config.directoryPathOfProductSourceCode = rootDir.getPath();
+        SymbolIndex actual = SymbolIndex.getInstance(config);
+        assertThat(actual, is(sameInstance(SymbolIndex.getInstance(config))));
+    }
+
+    @Test
+    public void getInstance_A$Configuration_Null() throws Exception {
+        try {
+            SymbolIndex.getInstance(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void contains_A$String$String() throws Exception {
+        SymbolIndex target = new SymbolIndex(rootDir, null);
+        assertThat(target.contains("foo.var", "Sample"), is(true));
+        assertThat(target.contains("foo", "Sample"), is(true));
+        assertThat(target.contains("", "Root"), is(true));
+        assertThat(target.contains("foo", "readme"), is(false));
+        assertThat(target.contains("foo.var", "Root"), is(false));
+        assertThat(target.contains("foo.bar", "Sample"), is(false));
+        assertThat(target.contains(".svn", "Hidden"), is(false));
+        assertThat(target.contains(null, "Sample"), is(false));
+        assertThat(target.contains("foo", null), is(false));
+    }
+
+    @Test
+    public void contains_A$String$String_newPackageAndFile() throws Exception {
+        SymbolIndex target = new SymbolIndex(rootDir, null);
+        assertThat(target.contains("foo.bar", "Added"), is(false));
+        FileUtils.writeStringToFile(new File(rootDir, "foo/bar/Added.java"), "package foo.bar; public class Added {}");
+        // the directories are checked only once per run
+        assertThat(target.contains("foo.bar", "Added"), is(false));
+        target.revalidate();
+        assertThat(target.contains("foo.bar", "Added"), is(true));
+    }
+
+    @Test
+    public void revalidateInstances_A$() throws Exception {
+        Configuration config = new Configuration();
+        config.directoryPathOfProductSourceCode = rootDir.getPath();
+        SymbolIndex target = SymbolIndex.getInstance(config);
+        assertThat(target.contains("foo", "Added"), is(false));
+        FileUtils.writeStringToFile(new File(rootDir, "foo/Added.java"), "package foo; public class Added {}");
+        new File(rootDir, "foo").setLastModified(System.currentTimeMillis() + 10000L);
+        SymbolIndex.revalidateInstances();
+        assertThat(target.contains("foo", "Added"), is(true));
+    }
+
+    @Test
+    public void saveInstances_A$() throws Exception {
+        File indexFile = new File(rootDir, "symbol.index");
+        Configuration config = new Configuration();
+        config.directoryPathOfProductSourceCode = rootDir.getPath();
+        config.symbolIndexFilePath = indexFile.getPath();
+        SymbolIndex target = SymbolIndex.getInstance(config);
+        assertThat(target.contains("foo", "Sample"), is(true));
+        // written only at the end of the run
+        assertThat(indexFile.exists(), is(false));
+        SymbolIndex.saveInstances();
+        assertThat(indexFile.exists(), is(true));
+        long lastModified = indexFile.lastModified();
+        indexFile.setLastModified(lastModified - 10000L);
+        SymbolIndex.saveInstances();
+        // not modified
+        assertThat(indexFile.lastModified(), is(equalTo(lastModified - 10000L)));
+    }
+
+    @Test
+    public void getPackageNames_A$String() throws Exception {
+        SymbolIndex target = new SymbolIndex(rootDir, null);
+        Set<String> actual = target.getPackageNames("Sample");
+        assertThat(actual.size(), is(equalTo(2)));
+        assertThat(actual.contains("foo"), is(true));
+        assertThat(actual.contains("foo.var"), is(true));
+        assertThat(target.getPackageNames("NotFound").size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void getDigest_A$() throws Exception {
+        SymbolIndex target = new SymbolIndex(rootDir, null);
+        String digest = target.getDigest();
+        assertThat(target.getDigest(), is(equalTo(digest)));
+        FileUtils.writeStringToFile(new File(rootDir, "foo/var/Added.java"), "package foo.var; class Added {}");
+        new File(rootDir, "foo/var").setLastModified(System.currentTimeMillis() + 10000L);
+        assertThat(target.getDigest(), is(equalTo(digest)));
+        target.revalidate();
+        assertThat(target.getDigest(), is(not(equalTo(digest))));
+    }
+
+    @Test
+    public void save_A$_andLoad() throws Exception {
+        File indexFile = new File(rootDir, "symbol.index");
+        SymbolIndex saved = new SymbolIndex(rootDir, indexFile);
+        saved.loadIfNotYet();
+        assertThat(indexFile.exists(), is(false));
+        saved.saveIfModified();
+        assertThat(indexFile.exists(), is(true));
+        SymbolIndex loaded = new SymbolIndex(rootDir, indexFile);
+        assertThat(loaded.load(), is(true));
+        assertThat(loaded.getPackageNames("Sample").size(), is(equalTo(2)));
+        assertThat(loaded.contains("foo.var", "Sample"), is(true));
+    }
+
+    @Test
+    public void load_A$_otherRootDir() throws Exception {
+        File indexFile = new File(rootDir, "symbol.index");
+        SymbolIndex saved = new SymbolIndex(rootDir, indexFile);
+        saved.loadIfNotYet();
+        saved.saveIfModified();
+        SymbolIndex target = new SymbolIndex(new File(rootDir, "foo"), indexFile);
+        assertThat(target.load(), is(false));
+    }
+
+}
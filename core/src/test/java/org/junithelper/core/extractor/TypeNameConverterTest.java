@@ -107,6 +107,12 @@ public class TypeNameConverterTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void toAvailableInMethodName_A$String_arrayWithSpace() throws Exception {
+        assertEquals("javautilDateArray", target.toAvailableInMethodName("java.util.Date[ ]"));
+        assertEquals("intArrayArray", target.toAvailableInMethodName("int[ ][\t]"));
+    }
+
     @Test
     public void toAvailableInMethodName_A$String_StringIsNull() throws Exception {
         TypeNameConverter target = new TypeNameConverter(config);
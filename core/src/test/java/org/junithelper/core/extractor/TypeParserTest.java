@@ -0,0 +1,91 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class TypeParserTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(TypeParser.class);
+    }
+
+    @Test
+    public void parse_A$String() throws Exception {
+        TypeRef actual = TypeParser.parse("String");
+        assertThat(actual.getName(), is(equalTo("String")));
+        assertThat(actual.hasTypeArguments(), is(false));
+        assertThat(actual.getArrayDimensions(), is(equalTo(0)));
+        assertThat(actual.isVarargs(), is(false));
+    }
+
+    @Test
+    public void parse_A$String_generics() throws Exception {
+        TypeRef actual = TypeParser.parse("java.util.Map<String, java.util.List<Integer>>");
+        assertThat(actual.getName(), is(equalTo("java.util.Map")));
+        assertThat(actual.getTypeArguments().size(), is(equalTo(2)));
+        assertThat(actual.getTypeArguments().get(0).getName(), is(equalTo("String")));
+        TypeRef nested = actual.getTypeArguments().get(1);
+        assertThat(nested.getName(), is(equalTo("java.util.List")));
+        assertThat(nested.getTypeArguments().get(0).getName(), is(equalTo("Integer")));
+        assertThat(actual.hasNestedTypeArguments(), is(true));
+        assertThat(actual.toString(), is(equalTo("java.util.Map<String, java.util.List<Integer>>")));
+    }
+
+    @Test
+    public void parse_A$String_wildcard() throws Exception {
+        TypeRef actual = TypeParser.parse("Map<?,? extends Number>");
+        TypeRef unbounded = actual.getTypeArguments().get(0);
+        assertThat(unbounded.isWildcard(), is(true));
+        assertThat(unbounded.getWildcardBound(), is(nullValue()));
+        TypeRef bounded = actual.getTypeArguments().get(1);
+        assertThat(bounded.isWildcard(), is(true));
+        assertThat(bounded.getWildcardBoundKind(), is(equalTo("extends")));
+        assertThat(bounded.getWildcardBound().getName(), is(equalTo("Number")));
+        assertThat(actual.hasNestedTypeArguments(), is(false));
+        assertThat(TypeParser.parse("List<? super List<T>>").hasNestedTypeArguments(), is(true));
+    }
+
+    @Test
+    public void parse_A$String_arrayAndVarargs() throws Exception {
+        TypeRef actual = TypeParser.parse("List<String>[][]...");
+        assertThat(actual.getArrayDimensions(), is(equalTo(2)));
+        assertThat(actual.isVarargs(), is(true));
+        assertThat(actual.getErasedName(), is(equalTo("List[][]...")));
+    }
+
+    @Test
+    public void parse_A$String_notType() throws Exception {
+        assertThat(TypeParser.parse(""), is(nullValue()));
+        assertThat(TypeParser.parse("String name"), is(nullValue()));
+        assertThat(TypeParser.parse("final String"), is(nullValue()));
+        assertThat(TypeParser.parse("List<>"), is(nullValue()));
+        assertThat(TypeParser.parse("List<String"), is(nullValue()));
+        assertThat(TypeParser.parse("List<String>>"), is(nullValue()));
+        assertThat(TypeParser.parse("String[ ]"), is(nullValue()));
+        assertThat(TypeParser.parse("List<String...>"), is(nullValue()));
+        assertThat(TypeParser.parse("List<? extendsT>"), is(nullValue()));
+        assertThat(TypeParser.parse("List<String,\nObject>"), is(nullValue()));
+        assertThat(TypeParser.parse("1st"), is(nullValue()));
+    }
+
+    @Test
+    public void parse_A$String_interned() throws Exception {
+        TypeRef actual = TypeParser.parse("Map<String,List<Integer>>");
+        assertThat(TypeParser.parse("Map<String, List<Integer>>"), is(sameInstance(actual)));
+        assertThat(TypeParser.parse("List<Integer>"), is(sameInstance(actual.getTypeArguments().get(1))));
+    }
+
+    @Test
+    public void parse_A$String_StringIsNull() throws Exception {
+        try {
+            TypeParser.parse(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+}
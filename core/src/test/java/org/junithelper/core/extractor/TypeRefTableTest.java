@@ -0,0 +1,66 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TypeRefTableTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(TypeRefTable.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        TypeRefTable target = new TypeRefTable(10);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_intIsZero() throws Exception {
+        try {
+            new TypeRefTable(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void getInstance_A$() throws Exception {
+        TypeRefTable actual = TypeRefTable.getInstance();
+        assertThat(actual, is(sameInstance(TypeRefTable.getInstance())));
+    }
+
+    @Test
+    public void get_A$String() throws Exception {
+        TypeRefTable target = new TypeRefTable(100);
+        TypeRef actual = target.get("List<String>");
+        assertThat(actual.toString(), is(equalTo("List<String>")));
+        assertThat(target.get("List<String>"), is(sameInstance(actual)));
+        assertThat(target.get("List< String >"), is(sameInstance(actual)));
+        assertThat(target.get("List<"), is(nullValue()));
+        assertThat(target.get("List<"), is(nullValue()));
+        assertThat(target.size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void get_A$String_evicted() throws Exception {
+        TypeRefTable target = new TypeRefTable(2);
+        target.get("A");
+        target.get("B");
+        target.get("C");
+        assertThat(target.size(), is(equalTo(2)));
+        assertThat(target.get("A").getName(), is(equalTo("A")));
+    }
+
+    @Test
+    public void clear_A$() throws Exception {
+        TypeRefTable target = new TypeRefTable(100);
+        target.get("String");
+        target.clear();
+        assertThat(target.size(), is(equalTo(0)));
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.junithelper.core.extractor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TypeRefTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(TypeRef.class);
+    }
+
+    @Test
+    public void getErasedName_A$() throws Exception {
+        assertThat(TypeParser.parse("Map<String, Object>").getErasedName(), is(equalTo("Map")));
+        assertThat(TypeParser.parse("java.util.List<String>[]").getErasedName(), is(equalTo("java.util.List[]")));
+        assertThat(TypeParser.parse("int...").getErasedName(), is(equalTo("int...")));
+    }
+
+    @Test
+    public void getNameInMethodName_A$() throws Exception {
+        TypeNameConverter converter = new TypeNameConverter(null);
+        String[] typeNames = new String[] { "String", "java.util.Map<String, Object>", "int[]", "byte[][]",
+                "String...", "List<? extends Number>[]" };
+        for (String typeName : typeNames) {
+            TypeRef target = TypeParser.parse(typeName);
+            assertThat(target.getNameInMethodName(), is(equalTo(converter.toAvailableInMethodName(typeName))));
+        }
+        assertThat(TypeParser.parse("java.util.Date[]").getNameInMethodName(), is(equalTo("javautilDateArray")));
+    }
+
+    @Test
+    public void equals_A$Object() throws Exception {
+        TypeRef target = TypeParser.parse("List<String>");
+        assertThat(target.equals(TypeParser.parse("List< String >")), is(true));
+        assertThat(target.equals(TypeParser.parse("List<Object>")), is(false));
+        assertThat(target.equals(null), is(false));
+        assertThat(target.hashCode(), is(equalTo("List<String>".hashCode())));
+    }
+
+    @Test
+    public void toString_A$() throws Exception {
+        assertThat(TypeParser.parse("Map<?,? super T[]>[]").toString(), is(equalTo("Map<?, ? super T[]>[]")));
+    }
+
+}
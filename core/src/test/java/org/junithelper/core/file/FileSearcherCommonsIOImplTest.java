@@ -3,8 +3,11 @@ package org.junithelper.core.file;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.io.FileFilter;
+import java.util.Iterator;
 import java.util.List;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Test;
 import org.junithelper.core.exception.JUnitHelperCoreException;
 
@@ -54,4 +57,31 @@ public class FileSearcherCommonsIOImplTest {
         }
     }
 
+    @Test
+    public void searchFilesRecursivelyByName_A$String$String$FileFilter() throws Exception {
+        File baseDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-FileSearcherCommonsIOImplTest-"
+                + System.nanoTime());
+        try {
+            FileUtils.writeStringToFile(new File(baseDir, "foo/Sample.java"), "");
+            FileUtils.writeStringToFile(new File(baseDir, "foo/generated/Generated.java"), "");
+            FilteringFileSearcher target = new FileSearcherCommonsIOImpl();
+            FileFilter directoryFilter = new FileFilter() {
+                public boolean accept(File dir) {
+                    return !dir.getName().equals("generated");
+                }
+            };
+            List<File> actual = target.searchFilesRecursivelyByName(baseDir.getAbsolutePath(), ".java",
+                    directoryFilter);
+            assertEquals(1, actual.size());
+            assertEquals("Sample.java", actual.get(0).getName());
+            assertEquals(2, target.searchFilesRecursivelyByName(baseDir.getAbsolutePath(), ".java", null).size());
+            Iterator<File> iterator = target.iterateFilesRecursivelyByName(baseDir.getAbsolutePath(), ".java",
+                    directoryFilter);
+            assertEquals("Sample.java", iterator.next().getName());
+            assertFalse(iterator.hasNext());
+        } finally {
+            FileUtils.deleteDirectory(baseDir);
+        }
+    }
+
 }
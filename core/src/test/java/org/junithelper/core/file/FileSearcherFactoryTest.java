@@ -4,6 +4,7 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.junithelper.core.config.Configuration;
 
 public class FileSearcherFactoryTest {
 
@@ -18,4 +19,12 @@ public class FileSearcherFactoryTest {
         assertThat(actual, is(notNullValue()));
     }
 
+    @Test
+    public void create_A$Configuration() throws Exception {
+        Configuration config = new Configuration();
+        assertThat(FileSearcherFactory.create(config), is(instanceOf(FileSearcherCommonsIOImpl.class)));
+        config.isPruningFileSearcherEnabled = true;
+        assertThat(FileSearcherFactory.create(config), is(instanceOf(FileSearcherJavaIOImpl.class)));
+    }
+
 }
@@ -0,0 +1,144 @@
+package org.junithelper.core.file;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class FileSearcherJavaIOImplTest {
+
+    File baseDir;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = new File(System.getProperty("java.io.tmpdir"), "junithelper-FileSearcherJavaIOImplTest-"
+                + System.nanoTime());
+        FileUtils.writeStringToFile(new File(baseDir, "pom.xml"), "");
+        FileUtils.writeStringToFile(new File(baseDir, "Top.java"), "");
+        FileUtils.writeStringToFile(new File(baseDir, "foo/Sample.java"), "");
+        FileUtils.writeStringToFile(new File(baseDir, "foo/Sample.txt"), "");
+        FileUtils.writeStringToFile(new File(baseDir, "foo/target/Target.java"), "");
+        FileUtils.writeStringToFile(new File(baseDir, "foo/generated/Generated.java"), "");
+        FileUtils.writeStringToFile(new File(baseDir, "var/Var.java"), "");
+        FileUtils.writeStringToFile(new File(baseDir, ".svn/Hidden.java"), "");
+        FileUtils.writeStringToFile(new File(baseDir, "target/Output.java"), "");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(baseDir);
+    }
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(FileSearcherJavaIOImpl.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        FileSearcherJavaIOImpl target = new FileSearcherJavaIOImpl();
+        assertNotNull(target);
+    }
+
+    @Test
+    public void searchFilesRecursivelyByName_A$String$String() throws Exception {
+        FilteringFileSearcher target = new FileSearcherJavaIOImpl();
+        List<File> actual = target.searchFilesRecursivelyByName(baseDir.getAbsolutePath(), "\\.java$");
+        assertThat(getNames(actual), is(equalTo("Top.java,Sample.java,Generated.java,Target.java,Var.java")));
+    }
+
+    @Test
+    public void searchFilesRecursivelyByName_A$String$String_regexp() throws Exception {
+        FilteringFileSearcher target = new FileSearcherJavaIOImpl();
+        List<File> actual = target.searchFilesRecursivelyByName(baseDir.getAbsolutePath(), "^S.+\\.(java|txt)$");
+        assertThat(getNames(actual), is(equalTo("Sample.java,Sample.txt")));
+    }
+
+    @Test
+    public void searchFilesRecursivelyByName_A$String$String_StringIsNull() throws Exception {
+        FilteringFileSearcher target = new FileSearcherJavaIOImpl();
+        try {
+            target.searchFilesRecursivelyByName(null, null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void searchFilesRecursivelyByName_A$String$String$FileFilter() throws Exception {
+        FilteringFileSearcher target = new FileSearcherJavaIOImpl();
+        List<File> actual = target.searchFilesRecursivelyByName(baseDir.getAbsolutePath(), "\\.java$",
+                getDirectoryFilter());
+        assertThat(getNames(actual), is(equalTo("Top.java,Sample.java,Target.java,Var.java")));
+    }
+
+    @Test
+    public void searchFilesRecursivelyByName_A$String$String$FileFilter_parallel() throws Exception {
+        FilteringFileSearcher target = new FileSearcherJavaIOImpl(4);
+        List<File> actual = target.searchFilesRecursivelyByName(baseDir.getAbsolutePath(), "\\.java$",
+                getDirectoryFilter());
+        assertThat(getNames(actual), is(equalTo("Top.java,Sample.java,Target.java,Var.java")));
+    }
+
+    @Test
+    public void iterateFilesRecursivelyByName_A$String$String$FileFilter() throws Exception {
+        FilteringFileSearcher target = new FileSearcherJavaIOImpl();
+        Iterator<File> actual = target.iterateFilesRecursivelyByName(baseDir.getAbsolutePath(), "\\.java$",
+                getDirectoryFilter());
+        assertThat(actual.next().getName(), is(equalTo("Top.java")));
+        // files created before reaching the directory are found
+        FileUtils.writeStringToFile(new File(baseDir, "var/Added.java"), "");
+        List<File> rest = new ArrayList<File>();
+        while (actual.hasNext()) {
+            rest.add(actual.next());
+        }
+        assertThat(getNames(rest), is(equalTo("Sample.java,Target.java,Added.java,Var.java")));
+    }
+
+    @Test
+    public void isBuildOutputDirectory_A$File() throws Exception {
+        assertThat(FileSearcherJavaIOImpl.isBuildOutputDirectory(new File(baseDir, "target")), is(true));
+        // the package named target
+        assertThat(FileSearcherJavaIOImpl.isBuildOutputDirectory(new File(baseDir, "foo/target")), is(false));
+        assertThat(FileSearcherJavaIOImpl.isBuildOutputDirectory(new File(baseDir, "foo")), is(false));
+    }
+
+    @Test
+    public void matches_A$String() throws Exception {
+        assertThat(new FileSearcherJavaIOImpl.NameMatcher("\\.java$").matches("Sample.java"), is(true));
+        assertThat(new FileSearcherJavaIOImpl.NameMatcher("\\.java$").matches("Sample.java.bak"), is(false));
+        assertThat(new FileSearcherJavaIOImpl.NameMatcher("\\.java").matches("Sample.java.bak"), is(true));
+        assertThat(new FileSearcherJavaIOImpl.NameMatcher(".java").matches("Samplejava"), is(true));
+        assertThat(new FileSearcherJavaIOImpl.NameMatcher("Test\\.java$").matches("Sample.java"), is(false));
+    }
+
+    private static FileFilter getDirectoryFilter() {
+        return new FileFilter() {
+            public boolean accept(File dir) {
+                return !dir.getName().equals("generated");
+            }
+        };
+    }
+
+    private static String getNames(List<File> files) {
+        StringBuilder sb = new StringBuilder();
+        for (File file : files) {
+            if (sb.length() > 0) {
+                sb.append(",");
+            }
+            sb.append(file.getName());
+        }
+        return sb.toString();
+    }
+
+}
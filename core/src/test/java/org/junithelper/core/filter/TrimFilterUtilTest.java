@@ -51,4 +51,12 @@ public class TrimFilterUtilTest {
         assertThat(actual, is(equalTo(expected)));
     }
 
+    @Test
+    public void doAllFiltersOutOfBrace_A$String() throws Exception {
+        String src = "package hoge.foo; @SuppressWarnings(value = { \"issue 28\" })public class Sample { public Sample() {}\r\n public void doSomething(String str) { System.out.println(\"aaaa\") } }";
+        String actual = TrimFilterUtil.doAllFiltersOutOfBrace(src);
+        String expected = "package hoge.foo;  public class Sample ";
+        assertEquals(expected, actual);
+    }
+
 }
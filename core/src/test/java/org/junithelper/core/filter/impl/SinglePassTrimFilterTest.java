@@ -0,0 +1,131 @@
+package org.junithelper.core.filter.impl;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junithelper.core.filter.TrimFilterManager;
+import org.junithelper.core.util.IOUtil;
+
+public class SinglePassTrimFilterTest {
+
+    private static String doAllFiltersInOrder(String src) {
+        TrimFilterManager manager = new TrimFilterManager();
+        manager.addFilter(new TrimCommentFilter(), new TrimInsideOfBraceFilter(), new TrimQuotationFilter(),
+                new TrimAnnotationFilter());
+        return manager.doTrimAll(src);
+    }
+
+    private static String readInput(String name) throws Exception {
+        return IOUtil.readAsString(IOUtil.getResourceAsStream("inputs/" + name), "UTF-8");
+    }
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(SinglePassTrimFilter.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        assertNotNull(target);
+    }
+
+    @Test
+    public void trimAll_A$String() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String src = "package hoge.foo; @SuppressWarnings(value = { \"issue 28\" })public class Sample { public Sample() {}\r\n public void doSomething(String str) { System.out.println(\"aaaa\") } }";
+        String actual = target.trimAll(src);
+        String expected = "package hoge.foo;  public class Sample { public Sample() {}  public void doSomething(String str) {} }";
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void trimAll_A$String_comments() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String src = "// hogehoge \r\npackage a; /** aaa\r\n */ public class A { /* \r\nbbb */ String s = \"// not comment\"; // comment\r\n}";
+        String actual = target.trimAll(src);
+        assertEquals(doAllFiltersInOrder(src), actual);
+        assertEquals(" package a;  public class A {  String s = ;  }", actual);
+    }
+
+    @Test
+    public void trimAll_A$String_annotationClass() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String src = "@SuppressWarnings(value = { \"issue 28\" }) @Documented @Retention(RetentionPolicy.RUNTIME) @Target( { ElementType.TYPE, ElementType.METHOD }) public @interface AdminRoleRequired {";
+        String actual = target.trimAll(src);
+        assertEquals(doAllFiltersInOrder(src), actual);
+    }
+
+    @Test
+    public void trimAll_A$String_unclosed() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String[] srcList = new String[] { "/* not closed", "public class A { @Foo(bar", "@", "@(x) @y", "a/",
+                "public class A { void a() { '\"' } }", "@interfac", "/*/ x */ y", "\\\"a\" class B { }" };
+        for (String src : srcList) {
+            assertEquals(doAllFiltersInOrder(src), target.trimAll(src));
+        }
+    }
+
+    @Test
+    public void trimAll_A$String_inputs() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String[] inputs = new String[] { "Enum_ContentType.txt", "DefaultTestCaseGenerator.txt", "IOUtil.txt",
+                "ObjectUtil.txt", "Sample.txt", "Slim3_AbstractModelRef.txt", "Slim3_GlobalTransaction.txt",
+                "Slim3_HtmlUtil.txt", "TrimFilterManager.txt", "TrimFilterManagerTest.txt" };
+        for (String input : inputs) {
+            String src = readInput(input);
+            assertEquals(input, doAllFiltersInOrder(src), target.trimAll(src));
+        }
+    }
+
+    @Test
+    public void trimAll_A$String_StringIsNull() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String src = null;
+        String actual = target.trimAll(src);
+        String expected = null;
+        assertThat(actual, is(equalTo(expected)));
+    }
+
+    @Test
+    public void trimAll_A$String_StringIsEmpty() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String src = "";
+        String actual = target.trimAll(src);
+        String expected = "";
+        assertThat(actual, is(equalTo(expected)));
+    }
+
+    @Test
+    public void trimOutOfBrace_A$String() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String src = "// {\r\npackage a; /* { */ @A(\"{\") public class A<T> extends B { void m() { } }";
+        String actual = target.trimOutOfBrace(src);
+        String trimmed = target.trimAll(src);
+        assertEquals(trimmed.substring(0, trimmed.indexOf('{')), actual);
+    }
+
+    @Test
+    public void trimOutOfBrace_A$String_Enum_ContentType() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String src = readInput("Enum_ContentType.txt");
+        String actual = target.trimOutOfBrace(src);
+        String trimmed = target.trimAll(src);
+        assertEquals(trimmed.substring(0, trimmed.indexOf('{')), actual);
+    }
+
+    @Test
+    public void trimOutOfBrace_A$String_noBrace() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        String src = "package a; /* comment */ public class A";
+        assertEquals(target.trimAll(src), target.trimOutOfBrace(src));
+    }
+
+    @Test
+    public void trimOutOfBrace_A$String_StringIsNull() throws Exception {
+        SinglePassTrimFilter target = new SinglePassTrimFilter();
+        assertThat(target.trimOutOfBrace(null), is(nullValue()));
+    }
+
+}
@@ -21,6 +21,7 @@ import org.junithelper.core.meta.CurrentLineBreak;
 import org.junithelper.core.meta.ReturnTypeMeta;
 import org.junithelper.core.meta.TestCaseMeta;
 import org.junithelper.core.meta.TestMethodMeta;
+import org.junithelper.core.util.ElapsedTimeRatio;
 import org.junithelper.core.util.IOUtil;
 import org.junithelper.core.util.UniversalDetectorUtil;
 
@@ -139,6 +140,16 @@ public class TestCaseGeneratorImplTest {
         assertEquals(23, actual.target.methods.size());
     }
 
+    @Test
+    public void getNewTestCaseSourceCode_A$_arrayWithSpace() throws Exception {
+        String sourceCodeString = "package foo; public class Sample { public void doIt2(java.util.Date[ ] d, int x) {} }";
+        target.initialize(classMetaExtractor.extract(sourceCodeString));
+        String actual = target.getNewTestCaseSourceCode();
+        assertThat(actual.contains("public void doIt2_A$javautilDateArray$int() throws Exception {"), is(true));
+        assertThat(actual.contains("java.util.Date[] d = new java.util.Date[] {};"), is(true));
+        assertThat(actual.contains("[ "), is(false));
+    }
+
     @Test
     public void getNewTestCaseSourceCode_A$_SimpleHttpClient() throws Exception {
         String encoding = UniversalDetectorUtil.getDetectedEncoding(IOUtil
@@ -441,6 +452,30 @@ public class TestCaseGeneratorImplTest {
         TestCaseGeneratorImpl.addTestMethodMetaToListIfNotExists(dest, meta);
     }
 
+    @Test
+    public void addTestMethodMetaToListIfNotExists_A$List$TestMethodMeta_duplicated() throws Exception {
+        List<TestMethodMeta> dest = new ArrayList<TestMethodMeta>();
+        TestMethodMeta meta = new TestMethodMeta();
+        meta.isTypeTest = true;
+        TestCaseGeneratorImpl.addTestMethodMetaToListIfNotExists(dest, meta);
+        TestMethodMeta meta2 = new TestMethodMeta();
+        meta2.isTypeTest = true;
+        TestCaseGeneratorImpl.addTestMethodMetaToListIfNotExists(dest, meta2);
+        assertThat(dest.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void addTestMethodMetaToListIfNotExists_A$List$TestMethodMetaIndex$TestMethodMeta() throws Exception {
+        List<TestMethodMeta> dest = new ArrayList<TestMethodMeta>();
+        TestMethodMetaIndex destIndex = new TestMethodMetaIndex();
+        TestMethodMeta meta = new TestMethodMeta();
+        meta.isInstantiationTest = true;
+        TestCaseGeneratorImpl.addTestMethodMetaToListIfNotExists(dest, destIndex, meta);
+        TestCaseGeneratorImpl.addTestMethodMetaToListIfNotExists(dest, destIndex, meta);
+        assertThat(dest.size(), is(equalTo(1)));
+        assertThat(destIndex.exists(meta), is(true));
+    }
+
     @Test
     public void appendIfExtensionAssertionsExist_A$TestMethodMeta$Configuration() throws Exception {
         TestMethodMeta testMethodMeta = new TestMethodMeta();
@@ -541,6 +576,23 @@ public class TestCaseGeneratorImplTest {
         assertThat(actual, notNullValue());
     }
 
+    @Test
+    public void appendRequiredImportListToSourceCode_A$String$ClassMeta$Configuration_duplicatedImports()
+            throws Exception {
+        TestCaseGeneratorImpl target = new TestCaseGeneratorImpl(config, lineBreakProvider);
+        String sourceCode = "package hoge;\r\n\r\npublic class SampleTest {}";
+        ClassMeta targetClassMeta = new ClassMeta();
+        targetClassMeta.packageName = "hoge";
+        targetClassMeta.name = "Sample";
+        targetClassMeta.importedList.add("java.util.List");
+        targetClassMeta.importedList.add(" java.util.List ");
+        targetClassMeta.importedList.add("java.util.Map");
+        String actual = target.appendRequiredImportListToSourceCode(sourceCode, targetClassMeta, config);
+        assertThat(actual.indexOf("import java.util.List;"), is(not(equalTo(-1))));
+        assertThat(actual.indexOf("import java.util.List;"), is(equalTo(actual.lastIndexOf("import java.util.List;"))));
+        assertThat(actual.indexOf("import java.util.List;") < actual.indexOf("import java.util.Map;"), is(true));
+    }
+
     @Test
     public void appendRequiredImportListToSourceCode_A$String$ClassMeta$Configuration_StringIsNull() throws Exception {
         TestCaseGeneratorImpl target = new TestCaseGeneratorImpl(config, lineBreakProvider);
@@ -562,4 +614,33 @@ public class TestCaseGeneratorImplTest {
         assertThat(actual, notNullValue());
     }
 
+    List<TestMethodMeta> getLackingTestMethodMetaListWithMethods(int methodCount) {
+        StringBuilder sb = new StringBuilder("package hoge.foo; import java.io.IOException;\r\n");
+        sb.append("public class SampleDao {\r\n public SampleDao(String name) {}\r\n");
+        for (int i = 0; i < methodCount; i++) {
+            sb.append(" public String find").append(i).append("(String name, long target) throws IOException {");
+            sb.append(" return null; }\r\n");
+        }
+        sb.append("}");
+        ClassMeta targetClassMeta = classMetaExtractor.extract(sb.toString());
+        target.initialize(targetClassMeta);
+        String currentTestCaseSourceCode = "package hoge.foo;\r\n\r\npublic class SampleDaoTest {\r\n}";
+        return target.getLackingTestMethodMetaList(currentTestCaseSourceCode);
+    }
+
+    @Test
+    public void getLackingTestMethodMetaList_A$String_5000Methods() throws Exception {
+        config.target.isExceptionPatternRequired = true;
+        List<TestMethodMeta> actual = getLackingTestMethodMetaListWithMethods(5000);
+        // type, instantiation, normal and exception patterns
+        assertThat(actual.size(), is(equalTo(2 + 5000 * 2)));
+        // about 5 times if linear, 25 times if quadratic
+        double ratio = new ElapsedTimeRatio() {
+            protected void run(int size) {
+                getLackingTestMethodMetaListWithMethods(size);
+            }
+        }.measure(1000, 5000);
+        assertThat("ratio: " + ratio, ratio < 15.0, is(true));
+    }
+
 }
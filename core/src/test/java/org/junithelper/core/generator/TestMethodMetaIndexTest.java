@@ -0,0 +1,120 @@
+package org.junithelper.core.generator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junithelper.core.config.extension.ExtArg;
+import org.junithelper.core.config.extension.ExtArgPattern;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+import org.junithelper.core.meta.ExceptionMeta;
+import org.junithelper.core.meta.MethodMeta;
+import org.junithelper.core.meta.TestMethodMeta;
+
+public class TestMethodMetaIndexTest {
+
+    @Test
+    public void type() throws Exception {
+        assertThat(TestMethodMetaIndex.class, notNullValue());
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        TestMethodMetaIndex target = new TestMethodMetaIndex();
+        assertThat(target, notNullValue());
+    }
+
+    @Test
+    public void instantiation_A$List() throws Exception {
+        List<TestMethodMeta> metaList = new ArrayList<TestMethodMeta>();
+        metaList.add(getTypeTestMeta());
+        TestMethodMetaIndex target = new TestMethodMetaIndex(metaList);
+        assertThat(target.exists(getTypeTestMeta()), is(true));
+    }
+
+    @Test
+    public void instantiation_A$List_ListIsNull() throws Exception {
+        try {
+            new TestMethodMetaIndex(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void exists_A$TestMethodMeta_typeTest() throws Exception {
+        TestMethodMetaIndex target = new TestMethodMetaIndex();
+        assertThat(target.exists(getTypeTestMeta()), is(false));
+        target.add(getTypeTestMeta());
+        assertThat(target.exists(getTypeTestMeta()), is(true));
+        TestMethodMeta instantiation = new TestMethodMeta();
+        instantiation.isInstantiationTest = true;
+        assertThat(target.exists(instantiation), is(false));
+        target.add(instantiation);
+        assertThat(target.exists(instantiation), is(true));
+    }
+
+    @Test
+    public void exists_A$TestMethodMeta_exception() throws Exception {
+        TestMethodMetaIndex target = new TestMethodMetaIndex();
+        target.add(getMethodTestMeta("doSomething", "IOException", null));
+        assertThat(target.exists(getMethodTestMeta("doSomething", "IOException", null)), is(true));
+        assertThat(target.exists(getMethodTestMeta("doSomething", "Exception", null)), is(false));
+        assertThat(target.exists(getMethodTestMeta("doAnother", "IOException", null)), is(false));
+        assertThat(target.exists(getMethodTestMeta("doSomething", null, null)), is(false));
+    }
+
+    @Test
+    public void exists_A$TestMethodMeta_extArgPattern() throws Exception {
+        TestMethodMetaIndex target = new TestMethodMetaIndex();
+        target.add(getMethodTestMeta("doSomething", null, "null"));
+        assertThat(target.exists(getMethodTestMeta("doSomething", null, "null")), is(true));
+        assertThat(target.exists(getMethodTestMeta("doSomething", null, "empty")), is(false));
+        assertThat(target.exists(getMethodTestMeta("doAnother", null, "null")), is(false));
+    }
+
+    @Test
+    public void exists_A$TestMethodMeta_flagsForSameMethod() throws Exception {
+        TestMethodMetaIndex target = new TestMethodMetaIndex();
+        TestMethodMeta meta = getMethodTestMeta("doSomething", null, null);
+        meta.isTypeTest = true;
+        target.add(meta);
+        TestMethodMeta sameMethod = getMethodTestMeta("doSomething", null, null);
+        sameMethod.isTypeTest = true;
+        assertThat(target.exists(sameMethod), is(false));
+        TestMethodMeta anotherMethod = getMethodTestMeta("doAnother", null, null);
+        anotherMethod.isTypeTest = true;
+        assertThat(target.exists(anotherMethod), is(true));
+        assertThat(target.exists(getTypeTestMeta()), is(true));
+    }
+
+    @Test
+    public void getExceptionKey_A$String$String() throws Exception {
+        assertThat(TestMethodMetaIndex.getExceptionKey("do", "E"),
+                is(not(equalTo(TestMethodMetaIndex.getExtArgPatternKey("do", "E")))));
+    }
+
+    static TestMethodMeta getTypeTestMeta() {
+        TestMethodMeta meta = new TestMethodMeta();
+        meta.isTypeTest = true;
+        return meta;
+    }
+
+    static TestMethodMeta getMethodTestMeta(String methodName, String exceptionName, String patternName) {
+        TestMethodMeta meta = new TestMethodMeta();
+        meta.methodMeta = new MethodMeta();
+        meta.methodMeta.name = methodName;
+        if (exceptionName != null) {
+            meta.testingTargetException = new ExceptionMeta();
+            meta.testingTargetException.name = exceptionName;
+        }
+        if (patternName != null) {
+            meta.extArgPattern = new ExtArgPattern(new ExtArg("java.lang.String"), patternName);
+        }
+        return meta;
+    }
+
+}
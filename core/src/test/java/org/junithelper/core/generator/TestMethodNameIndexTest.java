@@ -0,0 +1,85 @@
+package org.junithelper.core.generator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junithelper.core.config.Configuration;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class TestMethodNameIndexTest {
+
+    Configuration config = new Configuration();
+
+    String sourceCode = "package foo.var; public class SampleTest { public void type() throws Exception {} "
+            + "public void doSomething_A$String() throws Exception {} "
+            + "public void doSomething_A$String_T$IOException() throws Exception {} "
+            + "public void find_A$Map_StringIsNull() throws Exception {} "
+            + "public void test_run_A$() throws Exception {} "
+            + "public String helper(String arg) { return null; } }";
+
+    @Test
+    public void type() throws Exception {
+        assertThat(TestMethodNameIndex.class, notNullValue());
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        TestMethodNameIndex target = new TestMethodNameIndex(sourceCode, config);
+        assertThat(target, notNullValue());
+        assertThat(target.size(), is(equalTo(5)));
+    }
+
+    @Test
+    public void instantiation_StringIsNull() throws Exception {
+        try {
+            new TestMethodNameIndex(null, config);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void exists_A$String() throws Exception {
+        TestMethodNameIndex target = new TestMethodNameIndex(sourceCode, config);
+        assertThat(target.exists("doSomething_A$String"), is(true));
+        assertThat(target.exists("doSomething_A$"), is(false));
+        assertThat(target.exists("doSomething_A$Str"), is(false));
+        assertThat(target.exists("find_A$Map"), is(true));
+        assertThat(target.exists("helper"), is(false));
+        assertThat(target.exists("notExists_A$"), is(false));
+    }
+
+    @Test
+    public void exists_A$String_JUnit3() throws Exception {
+        TestMethodNameIndex target = new TestMethodNameIndex(sourceCode, config);
+        assertThat(target.exists("run_A$"), is(true));
+    }
+
+    @Test
+    public void existsStartsWith_A$String() throws Exception {
+        TestMethodNameIndex target = new TestMethodNameIndex(sourceCode, config);
+        assertThat(target.existsStartsWith("find_A$Map_StringIsNull"), is(true));
+        assertThat(target.existsStartsWith("find_A$Map_StringIsEmpty"), is(false));
+    }
+
+    @Test
+    public void existsEndsWith_A$String() throws Exception {
+        TestMethodNameIndex target = new TestMethodNameIndex(sourceCode, config);
+        assertThat(target.existsEndsWith("type"), is(true));
+        assertThat(target.existsEndsWith("instantiation"), is(false));
+    }
+
+    @Test
+    public void scanVoidMethodNames_A$String() throws Exception {
+        List<String> actual = TestMethodNameIndex.scanVoidMethodNames("void a() {} public void b (int i) {} "
+                + "String c() {} void d; void $e$_1(){}");
+        assertThat(actual.size(), is(equalTo(3)));
+        assertThat(actual.get(0), is(equalTo("a")));
+        assertThat(actual.get(1), is(equalTo("b")));
+        assertThat(actual.get(2), is(equalTo("$e$_1")));
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.junithelper.core.util;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class DigestUtilTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(DigestUtil.class);
+    }
+
+    @Test
+    public void md5Hex_A$byteArray() throws Exception {
+        byte[] bytes = new byte[] {};
+        String actual = DigestUtil.md5Hex(bytes);
+        String expected = "d41d8cd98f00b204e9800998ecf8427e";
+        assertThat(actual, is(equalTo(expected)));
+    }
+
+    @Test
+    public void md5Hex_A$byteArray_Null() throws Exception {
+        byte[] bytes = null;
+        try {
+            DigestUtil.md5Hex(bytes);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void toHex_A$byteArray() throws Exception {
+        byte[] bytes = new byte[] { 0x00, 0x0f, (byte) 0xa5, (byte) 0xff };
+        String actual = DigestUtil.toHex(bytes);
+        String expected = "000fa5ff";
+        assertThat(actual, is(equalTo(expected)));
+    }
+
+    @Test
+    public void toHex_A$byteArray_Null() throws Exception {
+        byte[] bytes = null;
+        try {
+            DigestUtil.toHex(bytes);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void md5Hex_A$String() throws Exception {
+        String str = "The quick brown fox jumps over the lazy dog";
+        String actual = DigestUtil.md5Hex(str);
+        String expected = "9e107d9d372bb6826bd81d3542a419d6";
+        assertThat(actual, is(equalTo(expected)));
+    }
+
+    @Test
+    public void md5Hex_A$String_Null() throws Exception {
+        String str = null;
+        try {
+            DigestUtil.md5Hex(str);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.junithelper.core.util;
+
+/**
+ * Compares the elapsed time of two input sizes instead of asserting the
+ * absolute time, which depends on the machine running the tests.<br>
+ * A linear algorithm takes about (largeSize / smallSize) times longer for the
+ * larger input, and a quadratic one takes about the square of it.
+ */
+public abstract class ElapsedTimeRatio {
+
+    private static final int TRIALS = 3;
+
+    // shorter durations are too noisy to be compared
+    private static final long MIN_NANOS = 1000000L;
+
+    protected abstract void run(int size) throws Exception;
+
+    /**
+     * @return the elapsed time of the larger size divided by that of the
+     *         smaller size
+     */
+    public double measure(int smallSize, int largeSize) throws Exception {
+        // warming up
+        run(smallSize);
+        long small = measure(smallSize);
+        long large = measure(largeSize);
+        return (double) large / Math.max(small, MIN_NANOS);
+    }
+
+    private long measure(int size) throws Exception {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < TRIALS; i++) {
+            long start = System.nanoTime();
+            run(size);
+            min = Math.min(min, System.nanoTime() - start);
+        }
+        return min;
+    }
+
+}
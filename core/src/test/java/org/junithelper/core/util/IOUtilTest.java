@@ -4,6 +4,7 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
@@ -83,4 +84,21 @@ public class IOUtilTest {
         }
     }
 
+    @Test
+    public void readAsByteArray_A$File() throws Exception {
+        File file = new File("src/test/resources/UTF-8.txt");
+        byte[] actual = IOUtil.readAsByteArray(file);
+        assertThat(actual, is(equalTo(IOUtils.toByteArray(IOUtil.getResourceAsStream("UTF-8.txt")))));
+    }
+
+    @Test
+    public void readAsByteArray_A$File_FileIsNull() throws Exception {
+        File file = null;
+        try {
+            IOUtil.readAsByteArray(file);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
 }
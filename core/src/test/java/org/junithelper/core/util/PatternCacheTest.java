@@ -0,0 +1,81 @@
+package org.junithelper.core.util;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
+
+public class PatternCacheTest {
+
+    @Test
+    public void type() throws Exception {
+        assertNotNull(PatternCache.class);
+    }
+
+    @Test
+    public void instantiation() throws Exception {
+        PatternCache target = new PatternCache(10);
+        assertNotNull(target);
+    }
+
+    @Test
+    public void instantiation_intIsZero() throws Exception {
+        try {
+            new PatternCache(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void getInstance_A$() throws Exception {
+        PatternCache actual = PatternCache.getInstance();
+        assertThat(actual, is(sameInstance(PatternCache.getInstance())));
+    }
+
+    @Test
+    public void get_A$String() throws Exception {
+        PatternCache target = new PatternCache(10);
+        Pattern actual = target.get(".+?Sample\\(");
+        assertThat(actual.pattern(), is(equalTo(".+?Sample\\(")));
+        assertThat(target.get(".+?Sample\\("), is(sameInstance(actual)));
+    }
+
+    @Test
+    public void get_A$String_StringIsNull() throws Exception {
+        PatternCache target = new PatternCache(10);
+        try {
+            target.get(null);
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void matches_A$String$String() throws Exception {
+        PatternCache target = new PatternCache(10);
+        assertThat(target.matches("public Sample() {", ".*?\\s+Sample\\(.*?"), is(true));
+        assertThat(target.matches("public void doSomething() {", ".*?\\s+Sample\\(.*?"), is(false));
+    }
+
+    @Test
+    public void size_A$_bounded() throws Exception {
+        PatternCache target = new PatternCache(3);
+        for (int i = 0; i < 10; i++) {
+            target.get("pattern" + i);
+        }
+        assertThat(target.size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void clear_A$() throws Exception {
+        PatternCache target = new PatternCache(10);
+        target.get("pattern");
+        target.clear();
+        assertThat(target.size(), is(equalTo(0)));
+    }
+
+}
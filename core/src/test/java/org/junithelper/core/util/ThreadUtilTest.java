@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import org.junit.Ignore;
 import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
 
 public class ThreadUtilTest {
 
@@ -68,4 +69,18 @@ public class ThreadUtilTest {
         ThreadUtil.sleep(millisec);
     }
 
+    @Test
+    public void checkInterrupted_A$() throws Exception {
+        ThreadUtil.checkInterrupted();
+        Thread.currentThread().interrupt();
+        try {
+            ThreadUtil.checkInterrupted();
+            fail();
+        } catch (JUnitHelperCoreException e) {
+        } finally {
+            // clears the flag not to affect other tests
+            Thread.interrupted();
+        }
+    }
+
 }
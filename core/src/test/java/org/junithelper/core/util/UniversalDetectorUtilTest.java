@@ -4,11 +4,15 @@ import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
+import org.junithelper.core.exception.JUnitHelperCoreException;
 
 public class UniversalDetectorUtilTest {
 
@@ -83,4 +87,78 @@ public class UniversalDetectorUtilTest {
         }
     }
 
+    @Test
+    public void getDetectedEncoding_A$byteArray_UTF8() throws Exception {
+        // given
+        byte[] bytes = IOUtils.toByteArray(IOUtil.getResourceAsStream("UTF-8.txt"));
+        // when
+        String actual = UniversalDetectorUtil.getDetectedEncoding(bytes);
+        // then
+        String expected = "UTF-8";
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void getDetectedEncoding_A$byteArray_Shift_JIS() throws Exception {
+        // given
+        byte[] bytes = IOUtils.toByteArray(IOUtil.getResourceAsStream("Shift_JIS.txt"));
+        // when
+        String actual = UniversalDetectorUtil.getDetectedEncoding(bytes);
+        // then
+        String expected = "SHIFT_JIS";
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void getDetectedEncoding_A$byteArray_ASCII() throws Exception {
+        // given
+        byte[] bytes = "public class Sample { }".getBytes("UTF-8");
+        // when
+        String actual = UniversalDetectorUtil.getDetectedEncoding(bytes);
+        // then
+        assertNull(actual);
+    }
+
+    @Test
+    public void getDetectedEncoding_A$byteArray_BOM() throws Exception {
+        // given
+        byte[] bytes = new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a', 'b', 'c' };
+        // when
+        String actual = UniversalDetectorUtil.getDetectedEncoding(bytes);
+        // then
+        String expected = "UTF-8";
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void getDetectedEncoding_A$byteArray_NonASCIIAfterLongASCII() throws Exception {
+        // given
+        byte[] utf8 = IOUtils.toByteArray(IOUtil.getResourceAsStream("UTF-8.txt"));
+        byte[] bytes = new byte[10000 + utf8.length];
+        Arrays.fill(bytes, 0, 10000, (byte) 'a');
+        System.arraycopy(utf8, 0, bytes, 10000, utf8.length);
+        // when
+        String actual = UniversalDetectorUtil.getDetectedEncoding(bytes);
+        // then
+        String expected = UniversalDetectorUtil.getDetectedEncoding(new ByteArrayInputStream(bytes));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void getDetectedEncoding_A$byteArray_Null() throws Exception {
+        try {
+            UniversalDetectorUtil.getDetectedEncoding((byte[]) null);
+            fail("Expected exception was not thrown!");
+        } catch (JUnitHelperCoreException e) {
+        }
+    }
+
+    @Test
+    public void indexOfNotAscii_A$byteArray() throws Exception {
+        assertEquals(-1, UniversalDetectorUtil.indexOfNotAscii("abc{}".getBytes("UTF-8")));
+        assertEquals(2, UniversalDetectorUtil.indexOfNotAscii(new byte[] { 'a', 'b', (byte) 0x82 }));
+        assertEquals(1, UniversalDetectorUtil.indexOfNotAscii(new byte[] { 'a', 0x1B }));
+        assertEquals(1, UniversalDetectorUtil.indexOfNotAscii("a~{".getBytes("UTF-8")));
+    }
+
 }
@@ -35,7 +35,8 @@ import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IWorkbenchPage;
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.constant.StringValue;
-import org.junithelper.core.extractor.ClassMetaExtractor;
+import org.junithelper.core.extractor.ClassMetaCache;
+import org.junithelper.core.extractor.SymbolIndex;
 import org.junithelper.core.generator.LineBreakProvider;
 import org.junithelper.core.generator.TestCaseGenerator;
 import org.junithelper.core.generator.TestCaseGeneratorFactory;
@@ -174,11 +175,12 @@ public class CreateNewTestCaseAction extends AbstractAction implements IActionDe
                 IFile targetClassFile = (IFile) targetClassResource;
 
                 // -------------------------
-                // overwrite config
+                // project specific config
                 // http://code.google.com/p/junithelper/issues/detail?id=72
                 String absolutePath = projectRootAbsolutePath + StringValue.DirectorySeparator.General;
-                config.directoryPathOfProductSourceCode = absolutePath + config.directoryPathOfProductSourceCode;
-                config.directoryPathOfTestSourceCode = absolutePath + config.directoryPathOfTestSourceCode;
+                Configuration projectConfig = config.copy();
+                projectConfig.directoryPathOfProductSourceCode = absolutePath + config.directoryPathOfProductSourceCode;
+                projectConfig.directoryPathOfTestSourceCode = absolutePath + config.directoryPathOfTestSourceCode;
 
                 // ---------------
                 // generate test case source code string
@@ -186,19 +188,24 @@ public class CreateNewTestCaseAction extends AbstractAction implements IActionDe
                         .getInputStreamFrom(targetClassFile));
                 InputStream targetInputStream = EclipseIFileUtil.getInputStreamFrom(targetClassFile);
                 String sourceCodeString = IOUtil.readAsString(targetInputStream, encoding);
-                LineBreakProvider lineBreakProvider = new LineBreakProvider(config, null);
-                TestCaseGenerator generator = TestCaseGeneratorFactory.create(config, lineBreakProvider);
-                generator.initialize(new ClassMetaExtractor(config).extract(sourceCodeString));
+                LineBreakProvider lineBreakProvider = new LineBreakProvider(projectConfig, null);
+                TestCaseGenerator generator = TestCaseGeneratorFactory.create(projectConfig, lineBreakProvider);
+                String targetClassPath = targetClassFile.getLocation() != null ? targetClassFile.getLocation()
+                        .toOSString() : null;
+                // classes may have been added since the last action
+                SymbolIndex.revalidateInstances();
+                generator.initialize(ClassMetaCache.getInstance().get(targetClassPath, sourceCodeString,
+                        projectConfig));
 
                 // ---------------
                 // write test case
                 outputStream = new FileOutputStream(testCaseCreateDirPath + StringValue.DirectorySeparator.General
                         + testCaseFileName);
                 String charset = null;
-                if (config.outputFileEncoding != null) {
-                    charset = config.outputFileEncoding;
+                if (projectConfig.outputFileEncoding != null) {
+                    charset = projectConfig.outputFileEncoding;
                 } else {
-                    charset = getDetectedCharsetFrom(targetClassFile, config.outputFileEncoding);
+                    charset = getDetectedCharsetFrom(targetClassFile, projectConfig.outputFileEncoding);
                 }
                 writer = new OutputStreamWriter(outputStream, charset);
                 writer.write(generator.getNewTestCaseSourceCode());
@@ -33,8 +33,9 @@ import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IWorkbenchPage;
 import org.junithelper.core.config.Configuration;
 import org.junithelper.core.constant.StringValue;
-import org.junithelper.core.extractor.ClassMetaExtractor;
+import org.junithelper.core.extractor.ClassMetaCache;
 import org.junithelper.core.extractor.CurrentLineBreakDetector;
+import org.junithelper.core.extractor.SymbolIndex;
 import org.junithelper.core.generator.LineBreakProvider;
 import org.junithelper.core.generator.TestCaseGenerator;
 import org.junithelper.core.generator.TestCaseGeneratorFactory;
@@ -128,11 +129,14 @@ public class OpenTestCaseAction extends AbstractAction implements IActionDelegat
                     IWorkbenchPage page = getIWorkbenchPage();
 
                     // -------------------------
-                    // overwrite config
+                    // project specific config, the original is kept for
+                    // retrying
                     // http://code.google.com/p/junithelper/issues/detail?id=72
                     String absolutePath = projectRootAbsolutePath + StringValue.DirectorySeparator.General;
-                    config.directoryPathOfProductSourceCode = absolutePath + config.directoryPathOfProductSourceCode;
-                    config.directoryPathOfTestSourceCode = absolutePath + config.directoryPathOfTestSourceCode;
+                    Configuration projectConfig = config.copy();
+                    projectConfig.directoryPathOfProductSourceCode = absolutePath
+                            + config.directoryPathOfProductSourceCode;
+                    projectConfig.directoryPathOfTestSourceCode = absolutePath + config.directoryPathOfTestSourceCode;
 
                     // ----------------------------------------
                     // target class
@@ -141,7 +145,12 @@ public class OpenTestCaseAction extends AbstractAction implements IActionDelegat
                             .getInputStreamFrom(targetFile));
                     String targetSourceCodeString = IOUtil.readAsString(
                             EclipseIFileUtil.getInputStreamFrom(targetFile), targetFileEncoding);
-                    ClassMeta targetClassMeta = new ClassMetaExtractor(config).extract(targetSourceCodeString);
+                    String targetFilePath = targetFile.getLocation() != null ? targetFile.getLocation().toOSString()
+                            : null;
+                    // classes may have been added since the last action
+                    SymbolIndex.revalidateInstances();
+                    ClassMeta targetClassMeta = ClassMetaCache.getInstance().get(targetFilePath,
+                            targetSourceCodeString, projectConfig);
 
                     // ----------------------------------------
                     // test class
@@ -149,10 +158,10 @@ public class OpenTestCaseAction extends AbstractAction implements IActionDelegat
                     IFile testCaseFile = getIFile(project, resourcePathForTestCaseFile);
 
                     String charset = null;
-                    if (config.outputFileEncoding != null) {
-                        charset = config.outputFileEncoding;
+                    if (projectConfig.outputFileEncoding != null) {
+                        charset = projectConfig.outputFileEncoding;
                     } else {
-                        charset = getDetectedCharsetFrom(testCaseFile, config.outputFileEncoding);
+                        charset = getDetectedCharsetFrom(testCaseFile, projectConfig.outputFileEncoding);
                     }
 
                     InputStream testCaseFileStream = null;
@@ -165,8 +174,8 @@ public class OpenTestCaseAction extends AbstractAction implements IActionDelegat
                     }
 
                     CurrentLineBreak currentLineBreak = CurrentLineBreakDetector.detect(currentTestCodeString);
-                    LineBreakProvider lineBreakProvider = new LineBreakProvider(config, currentLineBreak);
-                    TestCaseGenerator generator = TestCaseGeneratorFactory.create(config, lineBreakProvider);
+                    LineBreakProvider lineBreakProvider = new LineBreakProvider(projectConfig, currentLineBreak);
+                    TestCaseGenerator generator = TestCaseGeneratorFactory.create(projectConfig, lineBreakProvider);
                     String newTestCodeString = generator.initialize(targetClassMeta)
                             .getTestCaseSourceCodeWithLackingTestMethod(currentTestCodeString);
 
@@ -141,6 +141,16 @@ public abstract class AbstractJUnitHelperMojo extends AbstractMojo {
 	 */
 	protected String extensionConfigXML = "junithelper-extension.xml";
 
+	/**
+	 * @parameter
+	 */
+	protected String classMetaCacheFilePath;
+
+	/**
+	 * @parameter
+	 */
+	protected String symbolIndexFilePath;
+
 	protected Configuration loadConfig() {
 		Configuration config = new Configuration();
 		config.language = language;
@@ -190,6 +200,8 @@ public abstract class AbstractJUnitHelperMojo extends AbstractMojo {
 		}
 		config.isExtensionEnabled = isExtensionEnabled;
 		config.extensionConfigXML = extensionConfigXML;
+		config.classMetaCacheFilePath = classMetaCacheFilePath;
+		config.symbolIndexFilePath = symbolIndexFilePath;
 		return config;
 	}
 
@@ -24,16 +24,49 @@ import org.junithelper.command.MakeTestCommand;
  */
 public class MakeMojo extends AbstractJUnitHelperMojo {
 
+	/**
+	 * The number of threads to make tests. (same as -Djunithelper.threads)
+	 * 
+	 * @parameter
+	 */
+	protected int threads = 1;
+
+	/**
+	 * Skips unchanged files by the manifest. (same as
+	 * -Djunithelper.incremental)
+	 * 
+	 * @parameter
+	 */
+	protected boolean incremental = false;
+
 	@Override
 	public void execute() throws MojoExecutionException {
 		printLogoAndVersion();
 		String target = System.getProperty("target");
+		// -D options are prior to the parameters
+		boolean isThreadsGiven = setPropertyIfAbsent("junithelper.threads", String.valueOf(threads));
+		boolean isIncrementalGiven = setPropertyIfAbsent("junithelper.incremental", String.valueOf(incremental));
 		try {
 			MakeTestCommand.config = loadConfig();
 			MakeTestCommand.main(new String[] { target });
 		} catch (Exception e) {
 			throw new MojoExecutionException("junithelper make error!", e);
+		} finally {
+			if (!isThreadsGiven) {
+				System.clearProperty("junithelper.threads");
+			}
+			if (!isIncrementalGiven) {
+				System.clearProperty("junithelper.incremental");
+			}
+		}
+	}
+
+	private static boolean setPropertyIfAbsent(String key, String value) {
+		if (System.getProperty(key) != null) {
+			return true;
 		}
+		System.setProperty(key, value);
+		return false;
 	}
 
 }